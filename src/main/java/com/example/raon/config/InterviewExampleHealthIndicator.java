@@ -0,0 +1,34 @@
+package com.example.raon.config;
+
+import com.example.raon.service.InterviewExampleService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * 면접 예시 벡터 인덱스 준비 상태 (/actuator/health → interviewExample)
+ *
+ * 벡터화 중에도 폴백 검색으로 서비스는 가능하므로 DOWN 대신 UNKNOWN으로 보고
+ * (UNKNOWN은 전체 health 집계와 HTTP 상태 코드에 영향을 주지 않아 컨테이너 헬스체크가 실패하지 않음)
+ */
+@Component
+@RequiredArgsConstructor
+public class InterviewExampleHealthIndicator implements HealthIndicator {
+
+    private final InterviewExampleService interviewExampleService;
+
+    @Override
+    public Health health() {
+        Health.Builder builder = interviewExampleService.isVectorReady() ? Health.up() : Health.unknown();
+
+        builder.withDetail("searchMode", interviewExampleService.isVectorReady() ? "vector" : "keyword-fallback")
+                .withDetail("vectorized", interviewExampleService.getVectorizedCount())
+                .withDetail("total", interviewExampleService.getExampleCount());
+
+        if (!interviewExampleService.isVectorReady() && interviewExampleService.getLastVectorizeError() != null) {
+            builder.withDetail("lastError", interviewExampleService.getLastVectorizeError());
+        }
+        return builder.build();
+    }
+}
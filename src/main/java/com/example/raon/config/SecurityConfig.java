@@ -66,6 +66,26 @@ public class SecurityConfig {
                     "/actuator/health", "/raon/actuator/health"
                 ).permitAll()
 
+                // 면접 예시 추가/삭제, 임베딩 차원 평가는 관리자만 (검색 인덱스 변경, 전체 예시 임베딩 API 호출)
+                .requestMatchers(HttpMethod.POST,
+                    "/api/backoffice/interview-examples", "/raon/api/backoffice/interview-examples"
+                ).hasRole("ADMIN")
+                .requestMatchers(HttpMethod.DELETE,
+                    "/api/backoffice/interview-examples/**", "/raon/api/backoffice/interview-examples/**"
+                ).hasRole("ADMIN")
+                .requestMatchers(HttpMethod.GET,
+                    "/api/backoffice/interview-examples/dimension-recall",
+                    "/raon/api/backoffice/interview-examples/dimension-recall"
+                ).hasRole("ADMIN")
+
+                // RAG 예시 추가는 관리자만 (저장소 변경), 검색은 질의마다 임베딩 API를 호출하므로 로그인 사용자만
+                .requestMatchers(HttpMethod.POST,
+                    "/api/backoffice/rag/add", "/raon/api/backoffice/rag/add"
+                ).hasRole("ADMIN")
+                .requestMatchers(HttpMethod.POST,
+                    "/api/backoffice/rag/search", "/raon/api/backoffice/rag/search"
+                ).authenticated()
+
                 // 백오피스/디버그/채팅/챗봇/Gemini API (개발 중 편의상 오픈)
                 .requestMatchers(
                     "/api/backoffice/**",
@@ -1,12 +1,18 @@
 package com.example.raon.controller;
 
+import com.example.raon.domain.InterviewExampleEntry;
 import com.example.raon.dto.*;
+import com.example.raon.repository.InterviewExampleEntryRepository;
+import com.example.raon.service.GeminiEmbeddingService;
+import com.example.raon.service.InterviewExampleService;
 import com.example.raon.service.PersoAIService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -22,6 +28,8 @@ import java.util.Map;
 public class BackofficeController {
 
     private final PersoAIService persoAIService;
+    private final InterviewExampleService interviewExampleService;
+    private final GeminiEmbeddingService embeddingService;
 
     /**
      * 전체 설정 로드
@@ -179,6 +187,130 @@ public class BackofficeController {
         }
     }
 
+    /**
+     * 면접 우수 답변 예시 목록 조회
+     * GET /api/backoffice/interview-examples
+     */
+    @GetMapping("/interview-examples")
+    public ResponseEntity<List<Map<String, Object>>> getInterviewExamples() {
+        try {
+            List<Map<String, Object>> examples = interviewExampleService.getAllEntries().stream()
+                    .map(this::toExampleSummary)
+                    .toList();
+            log.info("✅ 면접 예시 {} 개 조회 완료", examples.size());
+            return ResponseEntity.ok(examples);
+        } catch (Exception e) {
+            log.error("❌ 면접 예시 조회 실패", e);
+            return ResponseEntity.status(500).build();
+        }
+    }
+
+    /**
+     * 면접 우수 답변 예시 추가 (재배포 없이 검색 대상에 반영) - 관리자 전용
+     * POST /api/backoffice/interview-examples
+     */
+    @PostMapping("/interview-examples")
+    public ResponseEntity<Map<String, Object>> addInterviewExample(
+            @Valid @RequestBody InterviewExampleRequest request) {
+        try {
+            log.info("➕ 면접 예시 추가 요청 - 유형: {}", request.getCategory());
+            InterviewExampleEntry saved = interviewExampleService.addExample(
+                    request.getCategory(), request.getQuestion(), request.getAnswer(),
+                    request.getScore(), request.getEvaluation());
+            return ResponseEntity.ok(toExampleSummary(saved));
+        } catch (Exception e) {
+            log.error("❌ 면접 예시 추가 실패", e);
+
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "면접 예시 추가 실패: " + e.getMessage());
+            return ResponseEntity.status(500).body(error);
+        }
+    }
+
+    /**
+     * 면접 우수 답변 예시 삭제 (재배포 없이 검색 대상에서 제외) - 관리자 전용
+     * DELETE /api/backoffice/interview-examples/{id}
+     */
+    @DeleteMapping("/interview-examples/{id}")
+    public ResponseEntity<Map<String, Object>> deleteInterviewExample(@PathVariable Long id) {
+        log.info("🗑️ 면접 예시 삭제 요청 - ID: {}", id);
+
+        Map<String, Object> response = new HashMap<>();
+        try {
+            interviewExampleService.deleteExample(id);
+            response.put("success", true);
+            response.put("id", id);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.warn("⚠️ 면접 예시 삭제 실패: {}", e.getMessage());
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(404).body(response);
+        } catch (Exception e) {
+            log.error("❌ 면접 예시 삭제 실패", e);
+            response.put("success", false);
+            response.put("message", "면접 예시 삭제 실패: " + e.getMessage());
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
+    /**
+     * 임베딩 축소 차원별 recall@k 평가 (전체 차원 Top-K 대비) - 관리자 전용, 동시에 하나만 실행 (실행 중이면 409)
+     * GET /api/backoffice/interview-examples/dimension-recall?dims=128,256,384,512&k=5
+     */
+    @GetMapping("/interview-examples/dimension-recall")
+    public ResponseEntity<Map<String, Object>> evaluateEmbeddingDimensions(
+            @RequestParam(defaultValue = "128,256,384,512") int[] dims,
+            @RequestParam(defaultValue = "5") int k) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            log.info("📏 임베딩 차원 평가 요청 - 차원: {}, k: {}", Arrays.toString(dims), k);
+            response.put("configuredDimensions", embeddingService.getDimensions());
+            response.put("results", interviewExampleService.evaluateDimensions(dims, k));
+            return ResponseEntity.ok(response);
+        } catch (InterviewExampleService.EvaluationInProgressException e) {
+            log.warn("⚠️ 임베딩 차원 평가 거절: {}", e.getMessage());
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(409).body(response);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            log.error("❌ 임베딩 차원 평가 실패", e);
+            response.put("success", false);
+            response.put("message", "임베딩 차원 평가 실패: " + e.getMessage());
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
+    private Map<String, Object> toExampleSummary(InterviewExampleEntryRepository.Summary entry) {
+        return toExampleSummary(entry.getId(), entry.getCategory(), entry.getQuestion(), entry.getScore(),
+                entry.getEmbeddingModel(), entry.getContentHash());
+    }
+
+    private Map<String, Object> toExampleSummary(InterviewExampleEntry entry) {
+        return toExampleSummary(entry.getId(), entry.getCategory(), entry.getQuestion(), entry.getScore(),
+                entry.getEmbeddingModel(), entry.getContentHash());
+    }
+
+    /**
+     * 임베딩 여부는 벡터 BLOB 대신 함께 기록되는 contentHash로 판단 (목록 조회에서 BLOB을 읽지 않도록)
+     */
+    private Map<String, Object> toExampleSummary(Long id, String category, String question, int score,
+                                                 String embeddingModel, String contentHash) {
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("id", id);
+        summary.put("category", category);
+        summary.put("question", question);
+        summary.put("score", score);
+        summary.put("embeddingModel", embeddingModel);
+        summary.put("embedded", contentHash != null);
+        return summary;
+    }
+
     /**
      * 헬스 체크
      * GET /api/backoffice/health
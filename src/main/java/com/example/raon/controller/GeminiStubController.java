@@ -0,0 +1,198 @@
+package com.example.raon.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gemini API 로컬 스텁 (오프라인 테스트용)
+ *
+ * gemini.stub.enabled=true일 때만 등록되며, 아래처럼 base-url을 지정하면 외부 호출 없이 동작
+ * gemini.api.base-url=http://localhost:8086/raon/api/debug/gemini-stub/v1beta
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/debug/gemini-stub/v1beta")
+@ConditionalOnProperty(name = "gemini.stub.enabled", havingValue = "true")
+public class GeminiStubController {
+
+    private static final int EMBEDDING_DIMENSION = 768;
+
+    private static final int STREAM_CHUNK_CHARS = 24;
+    private static final Duration STREAM_CHUNK_DELAY = Duration.ofMillis(50);
+
+    private static final String STUB_FEEDBACK = """
+        ```json
+        {"overallScore": 70, "sections": [], "summary": "[스텁] 오프라인 테스트 응답입니다", "strengths": [], "weaknesses": []}
+        ```""";
+
+    /**
+     * 등록된 cachedContents (이름 → 지시문 토큰 수 추정치, 만료 시각)
+     */
+    private final Map<String, StubCachedContent> cachedContents = new ConcurrentHashMap<>();
+
+    private record StubCachedContent(String model, int tokenCount, Instant expireTime) {
+    }
+
+    /**
+     * batchEmbedContents 스텁 - 텍스트 해시로 시드를 정해 같은 텍스트는 항상 같은 벡터 반환
+     * outputDimensionality가 있으면 앞부분만 반환 (Matryoshka 축소와 같은 형태)
+     */
+    @PostMapping("/models/{model}:batchEmbedContents")
+    public Map<String, Object> batchEmbedContents(@PathVariable String model,
+                                                  @RequestBody Map<String, Object> request) {
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> requests = (List<Map<String, Object>>) request.get("requests");
+
+        List<Map<String, Object>> embeddings = requests.stream()
+            .map(item -> Map.<String, Object>of("values", stubVector(extractText(item), outputDimensionality(item))))
+            .toList();
+
+        log.debug("🧪 [스텁] batchEmbedContents - 모델: {}, {}건", model, embeddings.size());
+        return Map.of("embeddings", embeddings);
+    }
+
+    /**
+     * generateContent 스텁 - 형식만 맞춘 고정 피드백 JSON을 텍스트 파트로 반환
+     */
+    @PostMapping("/models/{model}:generateContent")
+    public ResponseEntity<Map<String, Object>> generateContent(@PathVariable String model,
+                                                               @RequestBody Map<String, Object> request) {
+        log.debug("🧪 [스텁] generateContent - 모델: {}", model);
+        StubCachedContent cached = null;
+        if (request.get("cachedContent") instanceof String name) {
+            cached = cachedContents.get(name);
+            if (cached == null || cached.expireTime().isBefore(Instant.now())) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", Map.of("code", 404, "message", "CachedContent not found: " + name)));
+            }
+        }
+
+        Map<String, Object> usage = new LinkedHashMap<>();
+        int requestTokens = approximateTokens(request.get("contents")) + approximateTokens(request.get("systemInstruction"));
+        usage.put("promptTokenCount", requestTokens + (cached != null ? cached.tokenCount() : 0));
+        if (cached != null) {
+            usage.put("cachedContentTokenCount", cached.tokenCount());
+        }
+        return ResponseEntity.ok(Map.of(
+            "candidates", List.of(Map.of(
+                "content", Map.of("role", "model", "parts", List.of(Map.of("text", STUB_FEEDBACK))),
+                "finishReason", "STOP"
+            )),
+            "usageMetadata", usage,
+            "modelVersion", model
+        ));
+    }
+
+    /**
+     * cachedContents 등록 스텁 - 지시문 토큰 수를 글자 수로 추정해 기억하고, 이후 generateContent가 참조하면
+     * usageMetadata.cachedContentTokenCount로 돌려줌 (컨텍스트 캐시 적용 여부를 오프라인에서 확인)
+     */
+    @PostMapping("/cachedContents")
+    public Map<String, Object> createCachedContent(@RequestBody Map<String, Object> request) {
+        String name = "cachedContents/stub-" + UUID.randomUUID().toString().substring(0, 8);
+        StubCachedContent content = new StubCachedContent((String) request.get("model"),
+            approximateTokens(request.get("systemInstruction")) + approximateTokens(request.get("contents")),
+            Instant.now().plusSeconds(ttlSeconds(request.get("ttl"))));
+        cachedContents.put(name, content);
+        log.debug("🧪 [스텁] cachedContents 등록 - {}, 약 {}토큰", name, content.tokenCount());
+        return cachedContentResponse(name, content);
+    }
+
+    /**
+     * cachedContents TTL 연장 스텁 (updateMask=ttl)
+     */
+    @PatchMapping("/cachedContents/{id}")
+    public ResponseEntity<Map<String, Object>> updateCachedContent(@PathVariable String id,
+                                                                   @RequestBody Map<String, Object> request) {
+        String name = "cachedContents/" + id;
+        StubCachedContent content = cachedContents.computeIfPresent(name, (key, current) ->
+            new StubCachedContent(current.model(), current.tokenCount(),
+                Instant.now().plusSeconds(ttlSeconds(request.get("ttl")))));
+        if (content == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("error", Map.of("code", 404, "message", "CachedContent not found: " + name)));
+        }
+        log.debug("🧪 [스텁] cachedContents TTL 연장 - {}", name);
+        return ResponseEntity.ok(cachedContentResponse(name, content));
+    }
+
+    /**
+     * streamGenerateContent(alt=sse) 스텁 - 고정 피드백을 작은 조각으로 나눠 간격을 두고 SSE로 전송
+     * 마지막 조각에만 finishReason을 붙임 (실제 API와 같은 형태)
+     */
+    @PostMapping(value = "/models/{model}:streamGenerateContent", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Map<String, Object>>> streamGenerateContent(@PathVariable String model,
+                                                                          @RequestBody Map<String, Object> request) {
+        log.debug("🧪 [스텁] streamGenerateContent - 모델: {}", model);
+        List<String> chunks = new ArrayList<>();
+        for (int i = 0; i < STUB_FEEDBACK.length(); i += STREAM_CHUNK_CHARS) {
+            chunks.add(STUB_FEEDBACK.substring(i, Math.min(STUB_FEEDBACK.length(), i + STREAM_CHUNK_CHARS)));
+        }
+        return Flux.range(0, chunks.size())
+            .delayElements(STREAM_CHUNK_DELAY)
+            .map(i -> {
+                Map<String, Object> candidate = new LinkedHashMap<>();
+                candidate.put("content", Map.of("role", "model", "parts", List.of(Map.of("text", chunks.get(i)))));
+                if (i == chunks.size() - 1) {
+                    candidate.put("finishReason", "STOP");
+                }
+                return ServerSentEvent.<Map<String, Object>>builder(
+                    Map.of("candidates", List.of(candidate), "modelVersion", model)).build();
+            });
+    }
+
+    private Map<String, Object> cachedContentResponse(String name, StubCachedContent content) {
+        return Map.of(
+            "name", name,
+            "model", String.valueOf(content.model()),
+            "expireTime", content.expireTime().toString(),
+            "usageMetadata", Map.of("totalTokenCount", content.tokenCount())
+        );
+    }
+
+    /**
+     * 토큰 수 추정 (한국어 기준 대략 2자당 1토큰)
+     */
+    private int approximateTokens(Object content) {
+        return content == null ? 0 : String.valueOf(content).length() / 2;
+    }
+
+    private long ttlSeconds(Object ttl) {
+        return ttl instanceof String text && text.endsWith("s")
+            ? Long.parseLong(text.substring(0, text.length() - 1))
+            : 3600;
+    }
+
+    @SuppressWarnings("unchecked")
+    private String extractText(Map<String, Object> item) {
+        Map<String, Object> content = (Map<String, Object>) item.get("content");
+        List<Map<String, Object>> parts = (List<Map<String, Object>>) content.get("parts");
+        return (String) parts.get(0).get("text");
+    }
+
+    private int outputDimensionality(Map<String, Object> item) {
+        Object requested = item.get("outputDimensionality");
+        return requested instanceof Number number ? Math.min(number.intValue(), EMBEDDING_DIMENSION) : EMBEDDING_DIMENSION;
+    }
+
+    private List<Double> stubVector(String text, int dimension) {
+        Random random = new Random(text.hashCode());
+        return random.doubles(EMBEDDING_DIMENSION, -1.0, 1.0).limit(dimension).boxed().toList();
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.raon.controller;
+
+import com.example.raon.dto.RagAddRequest;
+import com.example.raon.dto.RagSearchRequest;
+import com.example.raon.service.RagService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * RAG 저장소 API (백오피스)
+ * Python rag-server와 같은 엔드포인트/응답 형식 - seed_data.py 등 기존 스크립트를 RAG_SERVER_URL만 바꿔 사용 가능
+ * (rag.mode=embedded면 인프로세스 저장소, remote면 rag-server로 전달)
+ * 응답은 Mono로 반환 - rag-server/임베딩 호출을 기다리는 동안 요청 스레드를 붙잡지 않음
+ */
+@RestController
+@RequestMapping("/api/backoffice/rag")
+@RequiredArgsConstructor
+@Slf4j
+public class RagController {
+
+    private final RagService ragService;
+
+    /**
+     * 질문과 유사한 우수 답변 검색
+     * POST /api/backoffice/rag/search
+     */
+    @PostMapping("/search")
+    public Mono<ResponseEntity<Map<String, Object>>> search(@Valid @RequestBody RagSearchRequest request) {
+        return ragService.searchSimilarExamples(request.getQuestion(), request.getTopK())
+                .map(examples -> ResponseEntity.ok(
+                        Map.<String, Object>of("examples", examples.stream().map(this::toExampleMap).toList())));
+    }
+
+    /**
+     * 우수 답변 예시 추가
+     * POST /api/backoffice/rag/add
+     */
+    @PostMapping("/add")
+    public Mono<ResponseEntity<Map<String, Object>>> add(@Valid @RequestBody RagAddRequest request) {
+        return ragService.addExample(request.getQuestion(), request.getAnswer(), request.getScore(), request.getCategory())
+                .flatMap(added -> {
+                    Map<String, Object> response = new HashMap<>();
+                    if (!added) {
+                        response.put("status", "error");
+                        response.put("message", "답변 추가 실패");
+                        return Mono.just(ResponseEntity.status(500).body(response));
+                    }
+                    return ragService.checkHealth().map(health -> {
+                        response.put("status", "ok");
+                        response.put("message", "답변이 성공적으로 추가되었습니다");
+                        response.put("total_count", health.exampleCount());
+                        return ResponseEntity.ok(response);
+                    });
+                });
+    }
+
+    /**
+     * 헬스 체크
+     * GET /api/backoffice/rag/health
+     */
+    @GetMapping("/health")
+    public Mono<ResponseEntity<Map<String, Object>>> health() {
+        return ragService.checkHealth().map(health -> {
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", health.status());
+            response.put("collection_count", health.exampleCount());
+            return ResponseEntity.status(health.isHealthy() ? 200 : 503).body(response);
+        });
+    }
+
+    /**
+     * 저장된 예시 통계
+     * GET /api/backoffice/rag/stats
+     */
+    @GetMapping("/stats")
+    public Mono<ResponseEntity<Map<String, Object>>> stats() {
+        return ragService.getStats().map(ResponseEntity::ok);
+    }
+
+    private Map<String, Object> toExampleMap(RagService.ExampleAnswer example) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("question", example.question());
+        map.put("answer", example.answer());
+        map.put("score", example.score());
+        map.put("category", example.category());
+        map.put("similarity", example.similarity());
+        return map;
+    }
+}
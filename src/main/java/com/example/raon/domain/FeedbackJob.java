@@ -0,0 +1,123 @@
+package com.example.raon.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 비동기 피드백 작업 (POST .../jobs로 접수 → 백그라운드 생성 → 폴링/SSE로 결과 조회)
+ * 결과를 저장해 두므로 클라이언트가 연결을 다시 맺어도 생성을 다시 하지 않음
+ * (user_id, request_hash, active) 유니크 키 - 여러 인스턴스에 같은 요청이 동시에 들어와도 재사용 가능한 작업은 한 건
+ */
+@Entity
+@Table(name = "feedback_job", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_feedback_job_active_request", columnNames = {"user_id", "request_hash", "active"})
+}, indexes = {
+        @Index(name = "idx_feedback_job_status_heartbeat", columnList = "status, heartbeat_at"),
+        @Index(name = "idx_feedback_job_created_at", columnList = "created_at")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class FeedbackJob {
+
+    @Id
+    @Column(name = "job_id", length = 36)
+    private String jobId;
+
+    /**
+     * 요청한 사용자 (비로그인 요청이면 null - 작업 ID를 아는 쪽만 조회 가능)
+     */
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "job_type", length = 30, nullable = false)
+    private FeedbackJobType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    private FeedbackJobStatus status;
+
+    /**
+     * SHA-256(작업 종류 + 요청 본문) - 같은 사용자가 같은 요청을 다시 보내면 기존 작업을 돌려줌
+     */
+    @Column(name = "request_hash", length = 64, nullable = false)
+    private String requestHash;
+
+    /**
+     * 재사용 가능(PENDING/RUNNING/COMPLETED)하면 TRUE, 실패하면 NULL - 유니크 키에서 NULL은 중복 허용이므로 실패한 작업은 여러 건 남을 수 있음
+     */
+    @Column(name = "active")
+    private Boolean active;
+
+    /**
+     * 작업을 접수해 실행하는 인스턴스 (기동마다 새 ID)
+     */
+    @Column(name = "owner_instance", length = 36)
+    private String ownerInstance;
+
+    /**
+     * 마지막 lease 갱신 시각 - 오래되면 실행하던 인스턴스가 죽은 것으로 보고 실패 처리
+     */
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    /**
+     * 생성 결과 JSON (COMPLETED일 때)
+     */
+    @Column(name = "result_json", columnDefinition = "MEDIUMTEXT")
+    private String resultJson;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Builder
+    public FeedbackJob(String jobId, Long userId, FeedbackJobType type, String requestHash, String ownerInstance) {
+        this.jobId = jobId;
+        this.userId = userId;
+        this.type = type;
+        this.requestHash = requestHash;
+        this.ownerInstance = ownerInstance;
+        this.status = FeedbackJobStatus.PENDING;
+        this.active = Boolean.TRUE;
+        this.createdAt = LocalDateTime.now();
+        this.heartbeatAt = this.createdAt;
+    }
+
+    public void start() {
+        this.status = FeedbackJobStatus.RUNNING;
+        this.startedAt = LocalDateTime.now();
+    }
+
+    public void complete(String resultJson) {
+        this.status = FeedbackJobStatus.COMPLETED;
+        this.resultJson = resultJson;
+        this.completedAt = LocalDateTime.now();
+    }
+
+    public void fail(String errorMessage) {
+        this.status = FeedbackJobStatus.FAILED;
+        this.active = null;
+        this.errorMessage = errorMessage != null && errorMessage.length() > 1000
+                ? errorMessage.substring(0, 1000)
+                : errorMessage;
+        this.completedAt = LocalDateTime.now();
+    }
+
+    /**
+     * 작업 ID만 알면 조회할 수 있는 비로그인 작업이거나, 요청한 사용자 본인인지
+     */
+    public boolean isAccessibleBy(Long requesterId) {
+        return userId == null || userId.equals(requesterId);
+    }
+}
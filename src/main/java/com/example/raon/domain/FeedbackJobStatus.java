@@ -0,0 +1,15 @@
+package com.example.raon.domain;
+
+/**
+ * 비동기 피드백 작업 상태 - PENDING → RUNNING → COMPLETED / FAILED
+ */
+public enum FeedbackJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.raon.domain;
+
+/**
+ * 비동기 피드백 작업 종류 (GeminiController의 동기 엔드포인트와 1:1)
+ */
+public enum FeedbackJobType {
+    RESUME_FEEDBACK,
+    INTERVIEW_FEEDBACK,
+    JUDGE
+}
@@ -0,0 +1,48 @@
+package com.example.raon.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Gemini 생성 응답 캐시의 영구 저장 계층
+ * 키는 요청 전체(모델 + 프롬프트 + 생성 설정)의 SHA-256이므로 같은 키의 응답은 다시 생성하지 않고 재사용
+ */
+@Entity
+@Table(name = "gemini_response_cache", indexes = @Index(name = "idx_gemini_response_cache_created_at", columnList = "created_at"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class GeminiResponseCacheEntry {
+
+    @Id
+    @Column(name = "cache_key", length = 64)
+    private String cacheKey;
+
+    @Column(name = "model", length = 100, nullable = false)
+    private String model;
+
+    /**
+     * GenerateContentResponse JSON
+     */
+    @Column(name = "response_json", columnDefinition = "MEDIUMTEXT", nullable = false)
+    private String responseJson;
+
+    /**
+     * 저장 시각 - 만료된 키를 다시 생성해 저장하면 새 시각으로 덮어씀
+     */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Builder
+    public GeminiResponseCacheEntry(String cacheKey, String model, String responseJson) {
+        this.cacheKey = cacheKey;
+        this.model = model;
+        this.responseJson = responseJson;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public boolean isExpired(LocalDateTime threshold) {
+        return createdAt.isBefore(threshold);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.raon.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 면접 우수 답변 예시 (RAG 검색 대상)
+ * 임베딩 벡터는 float32 BLOB으로 저장하고, 임베딩 대상 텍스트의 해시와 모델명으로 재임베딩 필요 여부를 판단
+ */
+@Entity
+@Table(name = "interview_example")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class InterviewExampleEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "example_id")
+    private Long id;
+
+    @Column(name = "category", length = 100, nullable = false)
+    private String category;
+
+    @Column(name = "question", columnDefinition = "TEXT", nullable = false)
+    private String question;
+
+    @Column(name = "answer", columnDefinition = "TEXT", nullable = false)
+    private String answer;
+
+    @Column(name = "score", nullable = false)
+    private int score;
+
+    @Column(name = "evaluation", columnDefinition = "TEXT")
+    private String evaluation;
+
+    /**
+     * 임베딩 대상 텍스트(질문 + 답변)의 SHA-256
+     */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    /**
+     * 벡터를 생성한 임베딩 모델명
+     */
+    @Column(name = "embedding_model", length = 100)
+    private String embeddingModel;
+
+    /**
+     * float32 리틀 엔디언 벡터 (VectorCodec)
+     */
+    @Lob
+    @Column(name = "embedding", columnDefinition = "MEDIUMBLOB")
+    private byte[] embedding;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Builder
+    public InterviewExampleEntry(String category, String question, String answer, int score, String evaluation) {
+        this.category = category;
+        this.question = question;
+        this.answer = answer;
+        this.score = score;
+        this.evaluation = evaluation;
+    }
+
+    /**
+     * 임베딩 대상 텍스트 (질문 + 답변)
+     */
+    public String embeddingText() {
+        return embeddingText(question, answer);
+    }
+
+    public static String embeddingText(String question, String answer) {
+        return question + " " + answer;
+    }
+
+    /**
+     * 저장된 벡터가 현재 텍스트/모델 기준으로 유효한지 확인
+     */
+    public boolean hasEmbedding(String currentHash, String currentModel) {
+        return embedding != null
+                && currentHash.equals(contentHash)
+                && currentModel.equals(embeddingModel);
+    }
+
+    public void updateEmbedding(byte[] embedding, String contentHash, String embeddingModel) {
+        this.embedding = embedding;
+        this.contentHash = contentHash;
+        this.embeddingModel = embeddingModel;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.raon.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 자기소개서 첨삭 응답 DTO (Gemini 응답 JSON을 바로 바인딩 - FeedbackPrompts의 응답 스키마와 같은 형식)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CoverLetterFeedbackResponse {
+
+    /**
+     * 전체 점수 (1.0 ~ 5.0)
+     */
+    private BigDecimal overallScore;
+
+    /**
+     * 평가 기준별 피드백
+     */
+    private List<SectionFeedback> sections;
+
+    /**
+     * 전체 평가 요약
+     */
+    private String summary;
+
+    /**
+     * 개선 후 예상 점수 (1.0 ~ 5.0)
+     */
+    private BigDecimal recommendedScore;
+
+    /**
+     * 피드백을 반영한 자기소개서 전문
+     */
+    private String revisedCoverLetter;
+
+    /**
+     * 원본 대비 개선된 점
+     */
+    private List<String> improvementPoints;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class SectionFeedback {
+        private String title;
+
+        private BigDecimal score;
+
+        private List<String> strengths;
+
+        private List<String> improvements;
+
+        /**
+         * 수정 제안 (예시 포함)
+         */
+        private String suggestions;
+    }
+}
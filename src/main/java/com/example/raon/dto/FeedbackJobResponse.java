@@ -0,0 +1,55 @@
+package com.example.raon.dto;
+
+import com.example.raon.domain.FeedbackJob;
+import com.example.raon.domain.FeedbackJobStatus;
+import com.example.raon.domain.FeedbackJobType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 비동기 피드백 작업 응답 DTO (접수, 폴링, SSE 공통)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FeedbackJobResponse {
+
+    private String jobId;
+
+    private FeedbackJobType type;
+
+    private FeedbackJobStatus status;
+
+    /**
+     * 생성 결과 (COMPLETED일 때) - 동기 엔드포인트와 같은 피드백 JSON
+     */
+    private Object result;
+
+    /**
+     * 실패 사유 (FAILED일 때)
+     */
+    private String error;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime completedAt;
+
+    public static FeedbackJobResponse of(FeedbackJob job, Object result) {
+        return FeedbackJobResponse.builder()
+                .jobId(job.getJobId())
+                .type(job.getType())
+                .status(job.getStatus())
+                .result(result)
+                .error(job.getErrorMessage())
+                .createdAt(job.getCreatedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.raon.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 면접 우수 답변 예시 등록 요청 DTO (백오피스)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InterviewExampleRequest {
+
+    /**
+     * 질문 유형 (예: "팀워크/협업", "문제해결")
+     */
+    @NotBlank(message = "Category is required")
+    private String category;
+
+    @NotBlank(message = "Question is required")
+    private String question;
+
+    @NotBlank(message = "Answer is required")
+    private String answer;
+
+    /**
+     * 점수 (0 ~ 100)
+     */
+    @Min(0)
+    @Max(100)
+    private int score;
+
+    /**
+     * 평가 이유
+     */
+    private String evaluation;
+}
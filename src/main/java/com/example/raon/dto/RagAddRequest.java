@@ -0,0 +1,35 @@
+package com.example.raon.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * RAG 우수 답변 추가 요청 DTO (rag-server /add와 같은 형식)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RagAddRequest {
+
+    @NotBlank(message = "Question is required")
+    private String question;
+
+    @NotBlank(message = "Answer is required")
+    private String answer;
+
+    /**
+     * 점수 (0 ~ 100)
+     */
+    @Min(0)
+    @Max(100)
+    private int score;
+
+    /**
+     * 카테고리 (없으면 "일반")
+     */
+    private String category;
+}
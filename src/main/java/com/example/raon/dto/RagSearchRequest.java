@@ -0,0 +1,29 @@
+package com.example.raon.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * RAG 유사 답변 검색 요청 DTO (rag-server /search와 같은 형식)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RagSearchRequest {
+
+    @NotBlank(message = "Question is required")
+    private String question;
+
+    /**
+     * 반환할 결과 개수 (기본 3개)
+     */
+    @Min(1)
+    @Max(50)
+    @JsonProperty("top_k")
+    private int topK = 3;
+}
@@ -0,0 +1,97 @@
+package com.example.raon.repository;
+
+import com.example.raon.domain.FeedbackJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface FeedbackJobRepository extends JpaRepository<FeedbackJob, String> {
+
+    /**
+     * 같은 사용자의 같은 요청 중 재사용 가능한 작업 (유니크 키로 최대 한 건)
+     */
+    Optional<FeedbackJob> findByUserIdAndRequestHashAndActiveTrue(Long userId, String requestHash);
+
+    /**
+     * 이 인스턴스가 맡은 끝나지 않은 작업의 lease 갱신
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE FeedbackJob j SET j.heartbeatAt = :now " +
+           "WHERE j.ownerInstance = :owner " +
+           "AND j.status IN (com.example.raon.domain.FeedbackJobStatus.PENDING, com.example.raon.domain.FeedbackJobStatus.RUNNING)")
+    int renewLease(@Param("owner") String owner, @Param("now") LocalDateTime now);
+
+    /**
+     * 접수한 작업 시작 - 이 인스턴스가 맡은 PENDING 작업일 때만 (그 사이 실패 처리된 작업은 다시 살리지 않음)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE FeedbackJob j SET j.status = com.example.raon.domain.FeedbackJobStatus.RUNNING, " +
+           "j.startedAt = :now, j.heartbeatAt = :now " +
+           "WHERE j.jobId = :jobId AND j.ownerInstance = :owner " +
+           "AND j.status = com.example.raon.domain.FeedbackJobStatus.PENDING")
+    int markRunning(@Param("jobId") String jobId, @Param("owner") String owner, @Param("now") LocalDateTime now);
+
+    /**
+     * 작업 완료 - 이 인스턴스가 실행 중인 작업일 때만 (lease 만료 등으로 이미 FAILED가 됐으면 0건)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE FeedbackJob j SET j.status = com.example.raon.domain.FeedbackJobStatus.COMPLETED, " +
+           "j.resultJson = :resultJson, j.completedAt = :now " +
+           "WHERE j.jobId = :jobId AND j.ownerInstance = :owner " +
+           "AND j.status = com.example.raon.domain.FeedbackJobStatus.RUNNING")
+    int completeRunning(@Param("jobId") String jobId, @Param("owner") String owner,
+                        @Param("resultJson") String resultJson, @Param("now") LocalDateTime now);
+
+    /**
+     * 작업 실패 - 이 인스턴스가 맡은 끝나지 않은 작업일 때만 (이미 끝난 작업은 그대로)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE FeedbackJob j SET j.status = com.example.raon.domain.FeedbackJobStatus.FAILED, j.active = NULL, " +
+           "j.errorMessage = :message, j.completedAt = :now " +
+           "WHERE j.jobId = :jobId AND j.ownerInstance = :owner " +
+           "AND j.status IN (com.example.raon.domain.FeedbackJobStatus.PENDING, com.example.raon.domain.FeedbackJobStatus.RUNNING)")
+    int failUnfinished(@Param("jobId") String jobId, @Param("owner") String owner,
+                       @Param("message") String message, @Param("now") LocalDateTime now);
+
+    /**
+     * lease가 만료된 작업 실패 처리 (실행하던 인스턴스가 죽어 다시 실행할 수 없음 - 살아 있는 인스턴스의 작업은 lease가 갱신되므로 제외)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE FeedbackJob j SET j.status = com.example.raon.domain.FeedbackJobStatus.FAILED, j.active = NULL, " +
+           "j.errorMessage = :message, j.completedAt = :now " +
+           "WHERE (j.heartbeatAt IS NULL OR j.heartbeatAt < :expiredBefore) " +
+           "AND j.status IN (com.example.raon.domain.FeedbackJobStatus.PENDING, com.example.raon.domain.FeedbackJobStatus.RUNNING)")
+    int failExpired(@Param("expiredBefore") LocalDateTime expiredBefore,
+                    @Param("message") String message, @Param("now") LocalDateTime now);
+
+    /**
+     * 이 인스턴스가 맡은 끝나지 않은 작업 실패 처리 (정상 종료 시 - 다른 인스턴스의 작업은 건드리지 않음)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE FeedbackJob j SET j.status = com.example.raon.domain.FeedbackJobStatus.FAILED, j.active = NULL, " +
+           "j.errorMessage = :message, j.completedAt = :now " +
+           "WHERE j.ownerInstance = :owner " +
+           "AND j.status IN (com.example.raon.domain.FeedbackJobStatus.PENDING, com.example.raon.domain.FeedbackJobStatus.RUNNING)")
+    int failOwnedBy(@Param("owner") String owner, @Param("message") String message, @Param("now") LocalDateTime now);
+
+    /**
+     * 보관 기간이 지난 작업 일괄 삭제
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM FeedbackJob j WHERE j.createdAt < :threshold")
+    int deleteCreatedBefore(@Param("threshold") LocalDateTime threshold);
+}
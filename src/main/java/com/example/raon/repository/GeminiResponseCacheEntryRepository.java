@@ -0,0 +1,23 @@
+package com.example.raon.repository;
+
+import com.example.raon.domain.GeminiResponseCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface GeminiResponseCacheEntryRepository extends JpaRepository<GeminiResponseCacheEntry, String> {
+
+    /**
+     * 만료된 캐시 항목 일괄 삭제
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM GeminiResponseCacheEntry e WHERE e.createdAt < :threshold")
+    int deleteCreatedBefore(@Param("threshold") LocalDateTime threshold);
+}
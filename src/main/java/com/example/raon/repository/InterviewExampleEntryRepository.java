@@ -0,0 +1,51 @@
+package com.example.raon.repository;
+
+import com.example.raon.domain.InterviewExampleEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface InterviewExampleEntryRepository extends JpaRepository<InterviewExampleEntry, Long> {
+
+    /**
+     * 전체 예시의 텍스트와 임베딩 메타데이터 (등록순) - 벡터 BLOB은 읽지 않음
+     */
+    List<Summary> findSummariesByOrderByIdAsc();
+
+    /**
+     * 지정한 예시의 벡터만 조회 (인덱스 구성 시 나눠서 읽음)
+     */
+    List<EmbeddingRow> findEmbeddingsByIdIn(Collection<Long> ids);
+
+    /**
+     * 벡터 없이 읽는 예시 요약 (인터페이스 프로젝션 - 선언한 컬럼만 SELECT)
+     */
+    interface Summary {
+
+        Long getId();
+
+        String getCategory();
+
+        String getQuestion();
+
+        String getAnswer();
+
+        int getScore();
+
+        String getEvaluation();
+
+        String getContentHash();
+
+        String getEmbeddingModel();
+    }
+
+    interface EmbeddingRow {
+
+        Long getId();
+
+        byte[] getEmbedding();
+    }
+}
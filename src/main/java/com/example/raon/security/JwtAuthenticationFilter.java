@@ -7,6 +7,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -15,6 +16,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Set;
 
 @Slf4j
 @Component
@@ -23,6 +25,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
 
+    /**
+     * ROLE_ADMIN을 부여할 사용자 ID
+     */
+    @Value("${app.admin.user-ids:}")
+    private Set<Long> adminUserIds;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -47,7 +55,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 String name = jwtTokenProvider.getNameFromToken(jwt);
 
                 // 5. UserPrincipal 생성
-                UserPrincipal userPrincipal = new UserPrincipal(userId, email, name);
+                UserPrincipal userPrincipal = new UserPrincipal(userId, email, name, adminUserIds.contains(userId));
 
                 // 6. Spring Security 인증 객체 생성
                 UsernamePasswordAuthenticationToken authentication =
@@ -7,7 +7,7 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
-import java.util.Collections;
+import java.util.List;
 
 @Getter
 @AllArgsConstructor
@@ -16,10 +16,18 @@ public class UserPrincipal implements UserDetails {
     private Long userId;
     private String email;
     private String name;
+    private boolean admin;   // app.admin.user-ids에 포함된 사용자 → ROLE_ADMIN 추가
+
+    public UserPrincipal(Long userId, String email, String name) {
+        this(userId, email, name, false);
+    }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return Collections.singleton(new SimpleGrantedAuthority("ROLE_USER"));
+        if (admin) {
+            return List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN"));
+        }
+        return List.of(new SimpleGrantedAuthority("ROLE_USER"));
     }
 
     @Override
@@ -1,8 +1,12 @@
 package com.example.raon.service;
 
+import com.example.raon.service.search.HybridSearchEngine;
+import com.example.raon.service.search.KeywordIndex;
 import lombok.Data;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import jakarta.annotation.PostConstruct;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -10,6 +14,7 @@ import java.util.stream.Collectors;
  * RAG를 위한 우수 자소서 예시 저장소
  */
 @Service
+@RequiredArgsConstructor
 public class CoverLetterExampleService {
 
     @Data
@@ -27,10 +32,28 @@ public class CoverLetterExampleService {
         }
     }
 
+    private final VectorSearchService vectorSearchService;
+
+    private static final int POSITION_WEIGHT = 50;
+    private static final int SKILL_WEIGHT = 10;
+
     private final List<CoverLetterExample> examples = new ArrayList<>();
 
-    public CoverLetterExampleService() {
+    /**
+     * 직무 → 예시, 키워드 → 예시 역색인 (예시가 늘어나도 검색 비용은 매칭 수에 비례)
+     */
+    private final KeywordIndex<CoverLetterExample> keywordIndex = new KeywordIndex<>(POSITION_WEIGHT, SKILL_WEIGHT);
+
+    /**
+     * 직무 + 키워드 + 본문 BM25 색인 (키워드 규칙 순위로 채우지 못한 자리에 사용)
+     */
+    private HybridSearchEngine<CoverLetterExample> searchEngine;
+
+    @PostConstruct
+    public void init() {
         initExamples();
+        examples.forEach(example -> keywordIndex.add(example, example.getJobCategory(), example.getKeywords()));
+        searchEngine = vectorSearchService.createHybridEngine(examples, CoverLetterExampleService::searchText, null);
     }
 
     private void initExamples() {
@@ -96,24 +119,38 @@ public class CoverLetterExampleService {
 
     /**
      * 직무와 기술 기반으로 관련 예시 검색
+     * - 키워드 규칙 순위: 직무 일치 50점 + 기술이 예시 키워드와 포함 관계(양방향)면 기술마다 10점
+     * - BM25 순위: 직무/기술 문자열로 본문까지 검색 (키워드 목록에 없는 기술도 매칭)
+     * 키워드 규칙 순위를 그대로 앞에 두고 (직무/기술 가중치 유지), 남는 자리만 BM25 순위로 채움
+     * 직무/기술이 하나도 맞지 않으면 빈 목록 - 본문 음절 bigram은 거의 모든 질의와 겹치므로 BM25만으로는 추가하지 않음
+     * (호출부는 빈 목록이면 기본 예시 사용)
      */
     public List<CoverLetterExample> searchRelevant(String position, String skills, int limit) {
         String normalizedPosition = normalizePosition(position);
         List<String> skillKeywords = extractKeywords(skills);
 
-        return examples.stream()
-                .map(ex -> new ScoredExample(ex, calculateScore(ex, normalizedPosition, skillKeywords)))
-                .filter(s -> s.score > 0)
-                .sorted((a, b) -> Integer.compare(b.score, a.score))
-                .limit(limit)
-                .map(s -> s.example)
-                .collect(Collectors.toList());
+        List<CoverLetterExample> keywordRanking = keywordIndex.search(normalizedPosition, skillKeywords, limit);
+        if (keywordRanking.isEmpty() || keywordRanking.size() >= limit) {
+            return keywordRanking;
+        }
+
+        String queryText = Objects.toString(position, "") + " " + Objects.toString(skills, "");
+        Set<CoverLetterExample> selected = Collections.newSetFromMap(new IdentityHashMap<>());
+        selected.addAll(keywordRanking);
+        List<CoverLetterExample> results = new ArrayList<>(keywordRanking);
+        for (CoverLetterExample example : searchEngine.search(queryText, null, limit + keywordRanking.size())) {
+            if (results.size() >= limit) {
+                break;
+            }
+            if (selected.add(example)) {
+                results.add(example);
+            }
+        }
+        return results;
     }
 
-    @Data
-    private static class ScoredExample {
-        private final CoverLetterExample example;
-        private final int score;
+    private static String searchText(CoverLetterExample example) {
+        return example.getJobCategory() + " " + String.join(" ", example.getKeywords()) + " " + example.getContent();
     }
 
     private String normalizePosition(String pos) {
@@ -140,25 +177,4 @@ public class CoverLetterExampleService {
                 .filter(s -> !s.isEmpty())
                 .collect(Collectors.toList());
     }
-
-    private int calculateScore(CoverLetterExample ex, String position, List<String> skillKeywords) {
-        int score = 0;
-
-        // 직무 매칭 (50점)
-        if (!position.isEmpty() && ex.getJobCategory().equals(position)) {
-            score += 50;
-        }
-
-        // 스킬 매칭 (각 10점)
-        for (String skill : skillKeywords) {
-            for (String keyword : ex.getKeywords()) {
-                if (keyword.contains(skill) || skill.contains(keyword)) {
-                    score += 10;
-                    break;
-                }
-            }
-        }
-
-        return score;
-    }
 }
@@ -0,0 +1,245 @@
+package com.example.raon.service;
+
+import com.example.raon.service.search.FlatVectorIndex;
+import com.example.raon.service.search.SegmentedIndexWriter;
+import com.example.raon.service.search.SegmentedVectorIndex;
+import com.example.raon.service.search.VectorIndex;
+import com.example.raon.service.search.VectorOps;
+import com.example.raon.service.search.VectorStoreLog;
+import com.example.raon.util.HashUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 인프로세스 RAG 저장소 (rag.mode=embedded)
+ *
+ * Python rag-server(FastAPI + Chroma)의 search / add / health / stats를 같은 의미로 JVM 안에서 제공
+ * - 질문 임베딩은 GeminiEmbeddingService를 거치므로 같은 질문은 캐시에서 바로 꺼냄 (rag-server는 매 검색마다 재임베딩)
+ * - 예시와 벡터는 rag.embedded.dir 아래 추가 전용 로그(VectorStoreLog)에 저장
+ * - 검색 인덱스는 세그먼트 인덱스 - 추가는 짧은 window 동안 모아 새 세그먼트로 반영 (검색은 락 없음)
+ * - 임베딩 모델이 바뀌면 기동 후 백그라운드에서 재임베딩하고 로그를 압축
+ * - 인덱스는 스냅샷 없이 힙에만 두므로 vector.index.type=quantized는 적용하지 않고 flat 사용
+ *   (힙 양자화 인덱스는 원본 벡터와 코드를 모두 들고 있어 오히려 메모리를 더 씀)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmbeddedRagStore {
+
+    private static final String COLLECTION_NAME = "interview_examples";
+    private static final int REEMBED_CHUNK_SIZE = 100;
+
+    private final GeminiEmbeddingService embeddingService;
+    private final VectorSearchService vectorSearchService;
+
+    /**
+     * remote: Python rag-server 호출 / embedded: 이 저장소 사용
+     */
+    @Value("${rag.mode:remote}")
+    private String mode;
+
+    @Value("${rag.embedded.dir:data/rag-store}")
+    private String storeDir;
+
+    @Value("${rag.embedded.segment.window-ms:20}")
+    private long segmentWindowMillis;
+
+    @Value("${rag.embedded.segment.max-batch-size:64}")
+    private int segmentMaxBatchSize;
+
+    @Value("${rag.embedded.segment.max-segments:8}")
+    private int maxSegments;
+
+    private VectorStoreLog storeLog;
+    private SegmentedIndexWriter<StoredExample> indexWriter;
+    private final Map<String, StoredExample> examplesById = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * 저장된 예시 (벡터는 인덱스와 로그에만 보관)
+     */
+    public record StoredExample(String id, String question, String answer, int score, String category) {
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        Path path = Path.of(storeDir, COLLECTION_NAME + ".log");
+        try {
+            storeLog = VectorStoreLog.open(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("RAG 저장소 로그를 열 수 없습니다: " + path, e);
+        }
+        if (vectorSearchService.isQuantized()) {
+            log.warn("⚠️ 임베디드 RAG 저장소는 양자화 인덱스를 지원하지 않음 (스냅샷 없음) - flat 인덱스 사용");
+        }
+        indexWriter = new SegmentedIndexWriter<>(FlatVectorIndex::new, vectorSearchService::createInMemoryIndex,
+                segmentWindowMillis, segmentMaxBatchSize, maxSegments, index -> { });
+
+        String model = embeddingService.getEmbeddingModel();
+        VectorIndex<StoredExample> base = vectorSearchService.createInMemoryIndex();
+        List<VectorStoreLog.Record> stale = new ArrayList<>();
+        for (VectorStoreLog.Record record : storeLog.records()) {
+            if (!model.equals(record.model())) {
+                stale.add(record);
+                continue;
+            }
+            StoredExample example = toExample(record);
+            examplesById.put(example.id(), example);
+            base.addNormalized(example, record.vector());
+        }
+        indexWriter.reset(base);
+
+        log.info("✅ 임베디드 RAG 저장소 로드 - {}개 예시 ({}), 재임베딩 대기 {}개", examplesById.size(), path, stale.size());
+        if (!stale.isEmpty()) {
+            Thread.ofVirtual().name("rag-store-reembed").start(() -> reembed(stale, model));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        if (indexWriter != null) {
+            indexWriter.close();
+        }
+        if (storeLog != null) {
+            storeLog.close();
+        }
+    }
+
+    public boolean isEnabled() {
+        return "embedded".equalsIgnoreCase(mode);
+    }
+
+    /**
+     * 질문과 유사한 예시 검색 (similarity = 코사인, rag-server의 1 - cosine distance와 같은 척도)
+     */
+    public List<RagService.ExampleAnswer> search(String question, int topK) {
+        SegmentedVectorIndex<StoredExample> index = indexWriter.current();
+        if (index.size() == 0 || topK <= 0) {
+            return List.of();
+        }
+
+        double[] queryVector = embeddingService.getEmbedding(question);
+        return index.searchTopK(queryVector, topK).stream()
+                .map(result -> new RagService.ExampleAnswer(
+                        result.getData().question(),
+                        result.getData().answer(),
+                        result.getData().score(),
+                        result.getData().category(),
+                        VectorOps.toCosine(result.getSimilarity())))
+                .toList();
+    }
+
+    /**
+     * 예시 추가 - 같은 질문/답변은 한 번만 저장 (rag-server와 같은 내용 기반 ID)
+     * 로그에 기록한 뒤 반환하고, 검색에는 세그먼트 window 이후 반영
+     */
+    public StoredExample add(String question, String answer, int score, String category) {
+        String id = "example_" + HashUtils.sha256Hex(question, answer).substring(0, 16);
+        StoredExample existing = examplesById.get(id);
+        if (existing != null) {
+            return existing;
+        }
+
+        // 임베딩은 락 밖에서 (네트워크 대기 중 다른 추가를 막지 않도록)
+        double[] vector = embeddingService.getEmbedding(question);
+        StoredExample example = new StoredExample(id, question, answer, score, category != null ? category : "일반");
+
+        writeLock.lock();
+        try {
+            existing = examplesById.get(id);
+            if (existing != null) {
+                return existing;
+            }
+            storeLog.append(toRecord(example, embeddingService.getEmbeddingModel(), VectorOps.normalize(vector)));
+            examplesById.put(id, example);
+            indexWriter.add(example, vector);
+        } catch (IOException e) {
+            throw new UncheckedIOException("RAG 저장소 기록 실패", e);
+        } finally {
+            writeLock.unlock();
+        }
+
+        log.info("➕ 임베디드 RAG 저장소에 예시 추가 - ID: {}, 총 {}개", id, examplesById.size());
+        return example;
+    }
+
+    public int count() {
+        return examplesById.size();
+    }
+
+    public String getCollectionName() {
+        return COLLECTION_NAME;
+    }
+
+    /**
+     * 임베딩 모델이 다른 레코드를 현재 모델로 재임베딩해 인덱스에 추가하고, 끝나면 로그 압축
+     */
+    private void reembed(List<VectorStoreLog.Record> stale, String model) {
+        try {
+            for (int start = 0; start < stale.size(); start += REEMBED_CHUNK_SIZE) {
+                List<VectorStoreLog.Record> chunk = stale.subList(start, Math.min(stale.size(), start + REEMBED_CHUNK_SIZE));
+                List<double[]> vectors = embeddingService.getEmbeddings(
+                        chunk.stream().map(record -> record.metadata().getOrDefault("question", "")).toList());
+
+                writeLock.lock();
+                try {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        StoredExample example = toExample(chunk.get(i));
+                        storeLog.append(toRecord(example, model, VectorOps.normalize(vectors.get(i))));
+                        examplesById.put(example.id(), example);
+                        indexWriter.add(example, vectors.get(i));
+                    }
+                } finally {
+                    writeLock.unlock();
+                }
+            }
+
+            writeLock.lock();
+            try {
+                storeLog.compact(storeLog.records());
+            } finally {
+                writeLock.unlock();
+            }
+            log.info("✅ RAG 저장소 재임베딩 완료 - {}개 (모델: {})", stale.size(), model);
+
+        } catch (Exception e) {
+            log.error("❌ RAG 저장소 재임베딩 실패 - 다음 기동 시 다시 시도", e);
+        }
+    }
+
+    private static StoredExample toExample(VectorStoreLog.Record record) {
+        Map<String, String> metadata = record.metadata();
+        return new StoredExample(
+                record.id(),
+                metadata.getOrDefault("question", ""),
+                record.document(),
+                Integer.parseInt(metadata.getOrDefault("score", "0")),
+                metadata.getOrDefault("category", "일반"));
+    }
+
+    private static VectorStoreLog.Record toRecord(StoredExample example, String model, float[] vector) {
+        Map<String, String> metadata = new LinkedHashMap<>();
+        metadata.put("question", example.question());
+        metadata.put("score", String.valueOf(example.score()));
+        metadata.put("category", example.category());
+        return new VectorStoreLog.Record(example.id(), model, example.answer(), metadata, vector);
+    }
+}
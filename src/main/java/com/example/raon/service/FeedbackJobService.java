@@ -0,0 +1,292 @@
+package com.example.raon.service;
+
+import com.example.raon.domain.FeedbackJob;
+import com.example.raon.domain.FeedbackJobStatus;
+import com.example.raon.domain.FeedbackJobType;
+import com.example.raon.repository.FeedbackJobRepository;
+import com.example.raon.util.HashUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 비동기 피드백 작업 (접수 → 가상 스레드 워커에서 생성 → feedback_job 테이블에 결과 저장)
+ *
+ * - 접수는 DB에 PENDING 작업 한 건을 저장하고 바로 작업 ID를 반환 - 요청 스레드/연결을 생성 시간 동안 붙잡지 않음
+ * - 워커: 가상 스레드 고정 풀 (feedback.job.concurrency개까지 동시에 생성, 나머지는 대기)
+ * - 같은 로그인 사용자가 같은 요청을 다시 보내면 (새로고침, 재연결) 진행 중이거나 완료된 기존 작업을 반환
+ *   (user_id, request_hash, active) 유니크 키로 판단 - 다른 인스턴스에 동시에 들어온 요청도 작업 한 건으로 합침
+ * - 결과 조회는 폴링(get) 또는 완료 대기(awaitFinished - SSE용)
+ * - 작업 내용(람다)은 메모리에만 있으므로 실행하던 인스턴스가 사라지면 끝나지 않은 작업은 실패 처리 (클라이언트가 다시 요청)
+ *   각 작업에 담당 인스턴스와 lease를 기록 - 정상 종료 시 자기 작업만, 비정상 종료는 lease가 만료된 작업만 실패 처리
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FeedbackJobService {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final FeedbackJobRepository feedbackJobRepository;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 동시에 생성하는 작업 수 (Gemini 호출 자체는 GeminiClient의 동시 호출 제한을 한 번 더 거침)
+     */
+    @Value("${feedback.job.concurrency:8}")
+    private int concurrency;
+
+    /**
+     * 작업 하나의 최대 실행 시간 (RAG 검색 + Gemini 생성 + 재시도 포함)
+     */
+    @Value("${feedback.job.timeout-seconds:300}")
+    private long timeoutSeconds;
+
+    /**
+     * 다른 인스턴스에서 실행 중인 작업 등 완료 신호를 받을 수 없을 때 DB를 다시 읽는 간격
+     */
+    @Value("${feedback.job.poll-interval-ms:2000}")
+    private long pollIntervalMs;
+
+    @Value("${feedback.job.retention-days:7}")
+    private long retentionDays;
+
+    /**
+     * 이 시간 동안 lease 갱신이 없는 작업은 담당 인스턴스가 죽은 것으로 보고 실패 처리 (갱신은 1/3 간격)
+     */
+    @Value("${feedback.job.lease-seconds:60}")
+    private long leaseSeconds;
+
+    /**
+     * 이 인스턴스 ID - 접수한 작업의 owner_instance로 기록
+     */
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private ExecutorService executor;
+
+    private ScheduledExecutorService leaseScheduler;
+
+    /**
+     * 이 인스턴스에서 아직 끝나지 않은 작업 ID → 완료 신호
+     */
+    private final ConcurrentHashMap<String, Sinks.One<FeedbackJob>> completions = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newFixedThreadPool(Math.max(1, concurrency),
+                Thread.ofVirtual().name("feedback-job-", 0).factory());
+        leaseScheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("feedback-job-lease").factory());
+        Gauge.builder("feedback.job.active", completions, ConcurrentHashMap::size)
+                .description("대기 중이거나 실행 중인 비동기 피드백 작업 수")
+                .register(meterRegistry);
+        log.info("✅ 비동기 피드백 작업 - 인스턴스 {}, 동시 실행 {}, 제한 시간 {}초, lease {}초, 보관 {}일",
+                instanceId, concurrency, timeoutSeconds, leaseSeconds, retentionDays);
+    }
+
+    /**
+     * 정상 종료 - 이 인스턴스가 맡은 끝나지 않은 작업만 실패 처리 (다른 인스턴스의 작업은 그대로)
+     */
+    @PreDestroy
+    public void shutdown() {
+        leaseScheduler.shutdownNow();
+        executor.shutdownNow();
+        try {
+            int interrupted = feedbackJobRepository.failOwnedBy(instanceId,
+                    "서버 종료로 작업이 중단되었습니다", LocalDateTime.now());
+            if (interrupted > 0) {
+                log.info("🛑 비동기 피드백 작업 {}건 중단 처리 (서버 종료)", interrupted);
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ 종료 시 비동기 피드백 작업 정리 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 시작 시 정리 (보관 기간이 지난 작업 삭제) 후 lease 갱신/만료 처리 주기 시작
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void cleanUp() {
+        try {
+            int deleted = feedbackJobRepository.deleteCreatedBefore(LocalDateTime.now().minusDays(retentionDays));
+            log.info("🧹 비동기 피드백 작업 정리 - 삭제 {}건", deleted);
+        } catch (Exception e) {
+            log.warn("⚠️ 비동기 피드백 작업 정리 실패: {}", e.getMessage());
+        }
+        long periodMillis = Math.max(1_000, TimeUnit.SECONDS.toMillis(leaseSeconds) / 3);
+        leaseScheduler.scheduleWithFixedDelay(this::maintainLeases, 0, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 이 인스턴스 작업의 lease 갱신 + lease가 만료된 작업(죽은 인스턴스의 작업) 실패 처리
+     */
+    private void maintainLeases() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            if (!completions.isEmpty()) {
+                feedbackJobRepository.renewLease(instanceId, now);
+            }
+            int expired = feedbackJobRepository.failExpired(now.minusSeconds(leaseSeconds),
+                    "작업을 실행하던 서버가 중단되었습니다", now);
+            if (expired > 0) {
+                log.info("🧹 lease가 만료된 비동기 피드백 작업 {}건 실패 처리", expired);
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ 비동기 피드백 작업 lease 처리 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 작업 접수 - 같은 사용자의 같은 요청이 진행 중이거나 완료돼 있으면 그 작업을 반환
+     * 확인과 저장 사이에 다른 요청(다른 인스턴스 포함)이 먼저 접수하면 유니크 키 충돌 → 먼저 접수된 작업을 반환
+     *
+     * @param request 중복 판단용 요청 본문 (JSON으로 직렬화해 해시)
+     * @param work 결과 JSON 텍스트를 만드는 작업 - 워커 스레드에서 호출되므로 블로킹 준비 작업(RAG 검색 등)을 포함해도 됨
+     */
+    public FeedbackJob submit(FeedbackJobType type, Long userId, Object request, Supplier<Mono<String>> work) {
+        String requestHash = HashUtils.sha256Hex(type.name(), writeRequest(request));
+        if (userId != null) {
+            Optional<FeedbackJob> existing = feedbackJobRepository.findByUserIdAndRequestHashAndActiveTrue(userId, requestHash);
+            if (existing.isPresent()) {
+                log.info("♻️ 같은 요청의 기존 작업 반환 - jobId: {}, 상태: {}",
+                        existing.get().getJobId(), existing.get().getStatus());
+                return existing.get();
+            }
+        }
+
+        FeedbackJob job;
+        try {
+            job = feedbackJobRepository.saveAndFlush(FeedbackJob.builder()
+                    .jobId(UUID.randomUUID().toString())
+                    .userId(userId)
+                    .type(type)
+                    .requestHash(requestHash)
+                    .ownerInstance(instanceId)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            FeedbackJob winner = feedbackJobRepository.findByUserIdAndRequestHashAndActiveTrue(userId, requestHash)
+                    .orElseThrow(() -> e);
+            log.info("♻️ 동시에 접수된 같은 요청의 작업 반환 - jobId: {}, 상태: {}", winner.getJobId(), winner.getStatus());
+            return winner;
+        }
+        completions.put(job.getJobId(), Sinks.one());
+
+        String jobId = job.getJobId();
+        executor.execute(() -> run(jobId, work));
+        log.info("📥 비동기 피드백 작업 접수 - jobId: {}, 종류: {}", jobId, type);
+        return job;
+    }
+
+    /**
+     * 작업 조회 - 요청한 사용자가 아니면 없는 작업으로 취급
+     */
+    public Optional<FeedbackJob> get(String jobId, Long requesterId) {
+        return feedbackJobRepository.findById(jobId)
+                .filter(job -> job.isAccessibleBy(requesterId));
+    }
+
+    /**
+     * 작업이 끝날 때까지 대기 (COMPLETED/FAILED 상태의 작업)
+     * 이 인스턴스에서 실행 중이면 완료 신호로 바로 받고, 아니면 poll-interval-ms마다 DB를 다시 읽음
+     */
+    public Mono<FeedbackJob> awaitFinished(String jobId) {
+        Sinks.One<FeedbackJob> completion = completions.get(jobId);
+        Mono<FeedbackJob> signaled = completion != null ? completion.asMono() : Mono.never();
+        Mono<FeedbackJob> polled = Flux.interval(Duration.ZERO, Duration.ofMillis(pollIntervalMs))
+                .concatMap(tick -> Mono.fromCallable(() -> feedbackJobRepository.findById(jobId).orElse(null))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .filter(job -> job.getStatus().isFinished())
+                .next();
+        return Mono.firstWithValue(signaled, polled);
+    }
+
+    private void run(String jobId, Supplier<Mono<String>> work) {
+        FeedbackJob job = feedbackJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            completions.remove(jobId);
+            return;
+        }
+        long startNanos = System.nanoTime();
+        try {
+            job.start();
+            if (feedbackJobRepository.markRunning(jobId, instanceId, job.getStartedAt()) == 0) {
+                // 실행 전에 lease 만료/서버 종료로 이미 실패 처리된 작업
+                log.warn("⚠️ 비동기 피드백 작업 시작 생략 (이미 종료 처리됨) - jobId: {}", jobId);
+                notifyFinished(jobId, feedbackJobRepository.findById(jobId).orElse(null));
+                return;
+            }
+
+            String result = work.get().block(Duration.ofSeconds(timeoutSeconds));
+            if (result == null) {
+                throw new IllegalStateException("생성 결과가 없습니다");
+            }
+            job.complete(result);
+            log.info("✅ 비동기 피드백 작업 완료 - jobId: {}, 종류: {}, {}ms", jobId, job.getType(),
+                    (System.nanoTime() - startNanos) / 1_000_000);
+        } catch (Exception e) {
+            log.error("❌ 비동기 피드백 작업 실패 - jobId: {}, 종류: {}", jobId, job.getType(), e);
+            job.fail(e.getMessage());
+        }
+
+        // 엔티티를 통째로 저장하지 않고 조건부 UPDATE - 실행 중에 다른 경로로 FAILED가 된 작업을 되살리거나
+        // 그 사이 접수된 같은 요청의 새 작업과 active 유니크 키가 충돌하지 않도록
+        FeedbackJob finished = job;
+        try {
+            int updated = job.getStatus() == FeedbackJobStatus.COMPLETED
+                    ? feedbackJobRepository.completeRunning(jobId, instanceId, job.getResultJson(), job.getCompletedAt())
+                    : feedbackJobRepository.failUnfinished(jobId, instanceId, job.getErrorMessage(), job.getCompletedAt());
+            if (updated == 0) {
+                log.warn("⚠️ 비동기 피드백 작업 결과 저장 생략 (이미 종료 처리됨) - jobId: {}, 결과: {}",
+                        jobId, job.getStatus());
+                finished = feedbackJobRepository.findById(jobId).orElse(null);
+            }
+        } catch (Exception e) {
+            log.error("❌ 비동기 피드백 작업 결과 저장 실패 - jobId: {}", jobId, e);
+        }
+        meterRegistry.counter("feedback.job.finished", "type", job.getType().name(), "status", job.getStatus().name())
+                .increment();
+
+        notifyFinished(jobId, finished);
+    }
+
+    /**
+     * 이 인스턴스에서 기다리는 쪽에 완료 알림 (끝난 상태가 아니면 알리지 않음 - 대기 쪽은 DB 폴링으로 확인)
+     */
+    private void notifyFinished(String jobId, FeedbackJob job) {
+        Sinks.One<FeedbackJob> completion = completions.remove(jobId);
+        if (completion != null && job != null && job.getStatus().isFinished()) {
+            completion.tryEmitValue(job);
+        }
+    }
+
+    private String writeRequest(Object request) {
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("요청 본문 직렬화 실패", e);
+        }
+    }
+}
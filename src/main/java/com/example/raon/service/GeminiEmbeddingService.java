@@ -1,77 +1,217 @@
 package com.example.raon.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.raon.service.search.EmbeddingBatcher;
+import com.example.raon.service.search.VectorOps;
+import com.example.raon.util.HashUtils;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
+import java.io.IOException;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Gemini Embedding API 서비스
  * 텍스트를 벡터로 변환
+ *
+ * 같은 텍스트는 같은 벡터를 돌려주므로 Caffeine 캐시를 앞에 두어 중복 API 호출을 줄임
+ * - 키: SHA-256(모델 버전 + 정규화된 텍스트)
+ * - 크기: 벡터 바이트 수 기준 가중치 상한 + TTL
+ * - 비동기 캐시(AsyncCache)에 배처의 future를 그대로 저장 - 동시에 같은 텍스트가 요청되면 같은 future를 기다리고 API는 한 번만 호출
+ *   Caffeine의 계산 함수 안에서 HTTP 응답을 기다리지 않으므로 다른 키의 캐시 쓰기를 막지 않음 (실패한 future는 자동 제거)
+ * - 히트/미스 지표: /actuator/metrics/cache.gets?tag=cache:geminiEmbedding
+ *
+ * 캐시 미스 요청은 EmbeddingBatcher가 짧은 시간 동안 모아 batchEmbedContents 한 번으로 전송
+ * - 배치 크기 지표: /actuator/metrics/gemini.embedding.batch.size
+ * - 호출은 공용 WebClient(커넥션 풀)로 보내고 gemini.embedding.timeout-seconds 안에 응답이 없으면 실패
+ * - 오프라인 테스트: gemini.stub.enabled=true + gemini.api.base-url을 GeminiStubController로 지정
+ *
+ * gemini.embedding.dimensions > 0이면 Matryoshka 방식으로 축소한 차원만 저장/검색
+ * - request: API에 outputDimensionality로 요청 / truncate: 전체 차원을 받아 앞부분만 남기고 재정규화
+ * - 모델 버전 문자열에 차원이 포함되므로 차원을 바꾸면 저장된 벡터/스냅샷/캐시는 자연히 재생성
  */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class GeminiEmbeddingService {
 
+    private static final String CACHE_NAME = "geminiEmbedding";
+
     @Value("${gemini.api.key}")
     private String geminiApiKey;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Value("${gemini.embedding.model:text-embedding-004}")
+    private String embeddingModel;
+
+    /**
+     * 출력 차원 (0이면 모델 기본 차원 - text-embedding-004는 768)
+     */
+    @Value("${gemini.embedding.dimensions:0}")
+    private int dimensions;
+
+    @Value("${gemini.embedding.dimension-mode:request}")
+    private String dimensionMode;
+
+    @Value("${gemini.embedding.cache.max-weight-mb:64}")
+    private long cacheMaxWeightMb;
+
+    @Value("${gemini.embedding.cache.ttl-seconds:86400}")
+    private long cacheTtlSeconds;
+
+    @Value("${gemini.api.base-url:https://generativelanguage.googleapis.com/v1beta}")
+    private String apiBaseUrl;
+
+    @Value("${gemini.embedding.batch.window-ms:5}")
+    private long batchWindowMs;
+
+    @Value("${gemini.embedding.batch.max-size:100}")
+    private int batchMaxSize;
+
+    /**
+     * 배치 호출 하나의 최대 대기 시간
+     */
+    @Value("${gemini.embedding.timeout-seconds:30}")
+    private long timeoutSeconds;
+
+    private final MeterRegistry meterRegistry;
+
+    private final WebClient webClient;
+
+    private AsyncCache<String, double[]> embeddingCache;
+
+    private EmbeddingBatcher batcher;
+
+    @PostConstruct
+    public void init() {
+        embeddingCache = Caffeine.newBuilder()
+            .maximumWeight(cacheMaxWeightMb * 1024 * 1024)
+            .weigher((String key, double[] vector) -> key.length() * 2 + vector.length * Double.BYTES)
+            .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+            .recordStats()
+            .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, embeddingCache, CACHE_NAME);
+        log.info("✅ 임베딩 캐시 초기화 - 모델: {}, 최대 {}MB, TTL {}초", embeddingModel, cacheMaxWeightMb, cacheTtlSeconds);
+
+        if (dimensions < 0) {
+            throw new IllegalStateException("gemini.embedding.dimensions는 0 이상이어야 합니다: " + dimensions);
+        }
+        int requested = "truncate".equalsIgnoreCase(dimensionMode) ? 0 : dimensions;
+        batcher = new EmbeddingBatcher(texts -> reduce(requestBatchEmbeddings(texts, requested)), batchWindowMs, batchMaxSize);
+        log.info("✅ 임베딩 배처 초기화 - 대기 {}ms, 최대 {}건, 차원 {} ({})", batchWindowMs, batchMaxSize,
+            dimensions > 0 ? dimensions : "모델 기본", dimensionMode);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        batcher.close();
+    }
 
     /**
-     * 텍스트를 768차원 벡터로 변환
+     * 텍스트를 벡터로 변환 (캐시 우선)
      *
      * @param text 변환할 텍스트
-     * @return 768차원 벡터 배열
+     * @return 설정된 차원의 벡터 배열 (호출자별 복사본)
      */
     public double[] getEmbedding(String text) {
+        // 캐시 미스면 배처의 future를 그대로 캐시에 넣고, 결과는 캐시 밖에서 기다림
+        double[] vector = joinUnwrapped(embeddingCache.get(cacheKey(text), (key, executor) -> batcher.submit(text)));
+        // 캐시에 저장된 배열이 호출자 쪽에서 변경되지 않도록 복사본 반환
+        return vector.clone();
+    }
+
+    private static <V> V joinUnwrapped(CompletableFuture<V> future) {
         try {
-            String url = String.format(
-                "https://generativelanguage.googleapis.com/v1beta/models/text-embedding-004:embedContent?key=%s",
-                geminiApiKey
-            );
-
-            Map<String, Object> requestBody = Map.of(
-                "model", "models/text-embedding-004",
-                "content", Map.of(
-                    "parts", List.of(
-                        Map.of("text", text)
-                    )
-                )
-            );
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-
-            log.debug("🔍 Gemini Embedding API 호출 - 텍스트 길이: {}", text.length());
-
-            @SuppressWarnings("unchecked")
-            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-                url, HttpMethod.POST, entity,
-                (Class<Map<String, Object>>)(Class<?>)Map.class
-            );
-
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                Map<String, Object> responseBody = response.getBody();
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new RuntimeException(e.getCause());
+        }
+    }
 
-                @SuppressWarnings("unchecked")
-                Map<String, Object> embedding = (Map<String, Object>) responseBody.get("embedding");
+    /**
+     * 설정 차원으로 축소 (API가 이미 축소해 돌려준 경우에도 재정규화)
+     */
+    private List<double[]> reduce(List<double[]> vectors) {
+        if (dimensions == 0) {
+            return vectors;
+        }
+        return vectors.stream().map(vector -> VectorOps.truncate(vector, dimensions)).toList();
+    }
+
+    /**
+     * Gemini batchEmbedContents API 호출 (캐시 미스 요청을 모아 한 번에 전송)
+     *
+     * @param texts 변환할 텍스트 리스트
+     * @param outputDimensionality 요청할 출력 차원 (0이면 모델 기본 차원)
+     * @return 요청 순서와 같은 벡터 리스트
+     */
+    private List<double[]> requestBatchEmbeddings(List<String> texts, int outputDimensionality) {
+        try {
+            List<Map<String, Object>> requests = texts.stream()
+                .map(text -> {
+                    Map<String, Object> item = new LinkedHashMap<>();
+                    item.put("model", "models/" + embeddingModel);
+                    item.put("content", Map.of(
+                        "parts", List.of(
+                            Map.of("text", text)
+                        )
+                    ));
+                    if (outputDimensionality > 0) {
+                        item.put("outputDimensionality", outputDimensionality);
+                    }
+                    return item;
+                })
+                .toList();
+            Map<String, Object> requestBody = Map.of("requests", requests);
 
+            log.debug("🔍 Gemini batchEmbedContents 호출 - {}건", texts.size());
+            meterRegistry.summary("gemini.embedding.batch.size").record(texts.size());
+
+            // 배처의 가상 스레드에서 호출되므로 응답을 기다려도 요청/이벤트 루프 스레드를 막지 않음
+            Map<String, Object> body = webClient.post()
+                .uri(apiBaseUrl + "/models/{model}:batchEmbedContents?key={key}", embeddingModel, geminiApiKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(requestBody)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() { })
+                .block(Duration.ofSeconds(timeoutSeconds));
+
+            if (body != null && body.get("embeddings") != null) {
                 @SuppressWarnings("unchecked")
-                List<Double> values = (List<Double>) embedding.get("values");
+                List<Map<String, Object>> embeddings = (List<Map<String, Object>>) body.get("embeddings");
 
-                double[] vector = values.stream().mapToDouble(Double::doubleValue).toArray();
-                log.debug("✅ 임베딩 벡터 생성 완료 - 차원: {}", vector.length);
+                List<double[]> vectors = new ArrayList<>(embeddings.size());
+                for (Map<String, Object> embedding : embeddings) {
+                    @SuppressWarnings("unchecked")
+                    List<Number> values = (List<Number>) embedding.get("values");
+                    vectors.add(values.stream().mapToDouble(Number::doubleValue).toArray());
+                }
+                log.debug("✅ 배치 임베딩 생성 완료 - {}건", vectors.size());
 
-                return vector;
+                return vectors;
             } else {
-                log.error("❌ Gemini Embedding API 오류 - 상태 코드: {}", response.getStatusCode());
+                log.error("❌ Gemini Embedding API 오류 - 응답에 embeddings가 없습니다");
                 throw new RuntimeException("Embedding API 호출 실패");
             }
 
@@ -81,6 +221,31 @@ public class GeminiEmbeddingService {
         }
     }
 
+    /**
+     * 현재 임베딩 모델 버전 (저장된 벡터의 모델 버전 비교용) - 차원을 축소하면 "모델@차원"
+     */
+    public String getEmbeddingModel() {
+        return dimensions > 0 ? embeddingModel + "@" + dimensions : embeddingModel;
+    }
+
+    /**
+     * 설정된 출력 차원 (0이면 모델 기본 차원)
+     */
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * 모델 기본(전체) 차원 벡터로 변환 - 캐시/축소 없이 API 직접 호출 (차원 평가용)
+     */
+    public List<double[]> getFullDimensionEmbeddings(List<String> texts) {
+        List<double[]> vectors = new ArrayList<>(texts.size());
+        for (int start = 0; start < texts.size(); start += batchMaxSize) {
+            vectors.addAll(requestBatchEmbeddings(texts.subList(start, Math.min(texts.size(), start + batchMaxSize)), 0));
+        }
+        return vectors;
+    }
+
     /**
      * 여러 텍스트를 벡터로 일괄 변환
      *
@@ -90,11 +255,56 @@ public class GeminiEmbeddingService {
     public List<double[]> getEmbeddings(List<String> texts) {
         log.info("📦 일괄 임베딩 변환 시작 - 개수: {}", texts.size());
 
+        // 캐시 미스 텍스트는 배처에 한꺼번에 넘겨 maxBatchSize 단위 배치 호출로 처리
+        Map<String, String> textsByKey = new LinkedHashMap<>();
+        texts.forEach(text -> textsByKey.putIfAbsent(cacheKey(text), text));
+
+        Map<String, double[]> cached = joinUnwrapped(embeddingCache.getAll(textsByKey.keySet(), (missingKeys, executor) -> {
+            Map<String, CompletableFuture<double[]>> futures = new LinkedHashMap<>();
+            missingKeys.forEach(key -> futures.put(key, batcher.submit(textsByKey.get(key))));
+
+            return CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    Map<String, double[]> loaded = new LinkedHashMap<>();
+                    futures.forEach((key, future) -> loaded.put(key, future.join()));
+                    return loaded;
+                });
+        }));
+
         List<double[]> embeddings = texts.stream()
-            .map(this::getEmbedding)
+            .map(text -> cached.get(cacheKey(text)).clone())
             .toList();
 
         log.info("✅ 일괄 임베딩 변환 완료 - {}개", embeddings.size());
         return embeddings;
     }
+
+    /**
+     * 다시 시도하면 성공할 수 있는 실패인지 (429, 5xx, 연결/읽기 오류, 응답 시간 초과)
+     * 400(잘못된 요청), 401/403(API 키 오류) 등은 재시도해도 같으므로 false
+     */
+    public static boolean isRetryable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof WebClientResponseException responseError) {
+                return responseError.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()
+                    || responseError.getStatusCode().is5xxServerError();
+            }
+            if (cause instanceof WebClientRequestException || cause instanceof IOException
+                || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 캐시 키 생성 - SHA-256(모델 버전 + 정규화된 텍스트)
+     * 유니코드 NFC 정규화 + 앞뒤 공백 제거 + 연속 공백 축약 (대소문자는 유지)
+     */
+    String cacheKey(String text) {
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFC)
+            .strip()
+            .replaceAll("\\s+", " ");
+        return HashUtils.sha256Hex(getEmbeddingModel(), normalized);
+    }
 }
@@ -1,16 +1,54 @@
 package com.example.raon.service;
 
+import com.example.raon.domain.InterviewExampleEntry;
+import com.example.raon.repository.InterviewExampleEntryRepository;
+import com.example.raon.service.search.DimensionRecallEvaluator;
+import com.example.raon.service.search.FlatVectorIndex;
+import com.example.raon.service.search.HnswIndex;
+import com.example.raon.service.search.HybridSearchEngine;
+import com.example.raon.service.search.LexicalSegments;
+import com.example.raon.service.search.SegmentedIndexWriter;
+import com.example.raon.service.search.SegmentedVectorIndex;
+import com.example.raon.service.search.VectorCodec;
+import com.example.raon.service.search.VectorIndex;
+import com.example.raon.util.HashUtils;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 면접 우수 답변 예시 관리 서비스 (RAG)
  * Gemini Embedding API + 벡터 검색
+ *
+ * 예시와 float32 벡터는 interview_example 테이블에 저장
+ * - 기동 시 벡터 BLOB 없이 텍스트와 저장된 콘텐츠 해시/모델만 읽고, 그 목록으로 만든 버전이 스냅샷과 같으면 매핑만 해서 사용
+ * - 다르면 텍스트 해시나 임베딩 모델이 바뀐 행만 재임베딩하고, 벡터는 나눠 읽어 인덱스를 구성
+ * - vector.index.snapshot.dir가 설정되면 인덱스를 파일 스냅샷으로 저장하고 메모리 매핑으로 검색 (세그먼트 병합 후에도 다시 저장)
+ * - 런타임 추가/삭제는 SegmentedIndexWriter가 짧은 window 동안 모아 새 세그먼트로 반영하고,
+ *   세그먼트가 쌓이면 백그라운드에서 병합 (검색은 AtomicReference로 게시된 불변 카탈로그만 읽으므로 락 없음)
+ *
+ * 검색은 BM25(질문/답변 텍스트) + 벡터 순위를 RRF로 결합한 하이브리드 검색
+ * 인덱스 구성은 기동 완료 후 백그라운드에서 진행하고, 완료 전에는 BM25만으로 응답
+ * 진행 상태는 /actuator/health의 interviewExample 항목으로 확인
  */
 @Slf4j
 @Service
@@ -19,9 +57,78 @@ public class InterviewExampleService {
 
     private final GeminiEmbeddingService embeddingService;
     private final VectorSearchService vectorSearchService;
+    private final InterviewExampleEntryRepository exampleRepository;
 
-    private final List<InterviewExample> examples = new ArrayList<>();
-    private final List<VectorSearchService.VectorItem<InterviewExample>> vectorizedExamples = new ArrayList<>();
+    private static final long MAX_BACKOFF_MILLIS = 60_000;
+    private static final String SNAPSHOT_NAME = "interview-examples";
+    private static final int EMBEDDING_PAGE_SIZE = 500;
+
+    @Value("${interview.examples.vectorize.parallelism:2}")
+    private int vectorizeParallelism;
+
+    @Value("${interview.examples.vectorize.rate-per-second:2}")
+    private int vectorizeRatePerSecond;
+
+    @Value("${interview.examples.vectorize.batch-size:4}")
+    private int vectorizeBatchSize;
+
+    /**
+     * 청크 하나의 최대 임베딩 시도 횟수 (일시적 오류만 재시도)
+     */
+    @Value("${interview.examples.vectorize.max-attempts:5}")
+    private int vectorizeMaxAttempts;
+
+    @Value("${interview.examples.segment.window-ms:200}")
+    private long segmentWindowMillis;
+
+    @Value("${interview.examples.segment.max-batch-size:64}")
+    private int segmentMaxBatchSize;
+
+    @Value("${interview.examples.segment.max-segments:8}")
+    private int maxSegments;
+
+    /**
+     * 검색에 사용하는 벡터 인덱스 + 하이브리드 엔진 (인덱스가 null이면 아직 구성 전, 엔진이 null이면 예시 로드 전)
+     */
+    private final AtomicReference<Catalog> catalog = new AtomicReference<>(new Catalog(null, null));
+
+    /**
+     * 세그먼트별 BM25 색인 - 게시마다 새 세그먼트만 색인
+     */
+    private final LexicalSegments<InterviewExample> lexicalSegments =
+            new LexicalSegments<>(InterviewExampleService::searchText);
+
+    /**
+     * 예시 ID → 카탈로그 항목 (삭제 시 세그먼트 인덱스에서 찾을 항목)
+     */
+    private final Map<Long, InterviewExample> examplesById = new ConcurrentHashMap<>();
+
+    /**
+     * 카탈로그 항목 → DB ID와 콘텐츠 해시 (병합 결과를 스냅샷으로 저장할 때 사용, 항목 동일성 기준)
+     */
+    private final Map<InterviewExample, ExampleRef> exampleRefs = Collections.synchronizedMap(new IdentityHashMap<>());
+    private SegmentedIndexWriter<InterviewExample> indexWriter;
+
+    /**
+     * 재구성 요청 표시와 실행 중인 워커 - 요청이 몰려도 워커는 하나이고, 실행 중에 들어온 요청은 한 번의 재구성으로 합침
+     */
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+    private final AtomicBoolean rebuildRunning = new AtomicBoolean();
+
+    /**
+     * 추가/삭제의 인덱스 반영과 재구성 시작을 직렬화 - 재구성 중에는 추가/삭제가 인덱스를 건드리지 않고 다음 재구성에 맡김
+     * (재구성의 카탈로그 교체가 방금 반영한 변경을 지우거나, DB에서 읽은 행을 한 번 더 넣는 것을 막음)
+     */
+    private final ReentrantLock indexLock = new ReentrantLock();
+    private ExecutorService vectorizeExecutor;
+    private final AtomicLong nextPermitNanos = new AtomicLong(System.nanoTime());
+    private final AtomicInteger vectorizedCount = new AtomicInteger();
+
+    /**
+     * 차원 평가 실행 중 여부 - 전체 예시를 임베딩하므로 동시에 하나만 실행
+     */
+    private final AtomicBoolean dimensionEvaluationRunning = new AtomicBoolean();
+    private volatile String lastVectorizeError;
 
     @Data
     public static class InterviewExample {
@@ -30,7 +137,6 @@ public class InterviewExampleService {
         private String answer;           // 우수 답변
         private int score;              // 점수 (0-100)
         private String evaluation;      // 평가 이유
-        private double[] vector;        // 임베딩 벡터
 
         public InterviewExample(String category, String question, String answer,
                               int score, String evaluation) {
@@ -42,9 +148,62 @@ public class InterviewExampleService {
         }
     }
 
+    private record Catalog(VectorIndex<InterviewExample> index, HybridSearchEngine<InterviewExample> engine) {
+
+        List<InterviewExample> head(int limit) {
+            return engine == null ? List.of() : engine.head(limit);
+        }
+    }
+
+    private record ExampleRef(long id, String contentHash) {
+    }
+
+    /**
+     * 차원 평가가 이미 실행 중일 때
+     */
+    public static class EvaluationInProgressException extends RuntimeException {
+        public EvaluationInProgressException(String message) {
+            super(message);
+        }
+    }
+
     @PostConstruct
     public void init() {
         log.info("🚀 면접 우수 답변 예시 초기화 시작...");
+        vectorizeExecutor = Executors.newFixedThreadPool(Math.max(1, vectorizeParallelism),
+                Thread.ofVirtual().name("example-vectorizer-", 0).factory());
+        indexWriter = new SegmentedIndexWriter<>(FlatVectorIndex::new, vectorSearchService::createIndex,
+                segmentWindowMillis, segmentMaxBatchSize, maxSegments, this::publish, this::finishMerge);
+
+        // 최초 기동 시 기본 예시를 DB에 등록 (벡터는 백그라운드에서 생성)
+        if (exampleRepository.count() == 0) {
+            List<InterviewExampleEntry> seeds = defaultExamples().stream()
+                    .map(example -> InterviewExampleEntry.builder()
+                            .category(example.getCategory())
+                            .question(example.getQuestion())
+                            .answer(example.getAnswer())
+                            .score(example.getScore())
+                            .evaluation(example.getEvaluation())
+                            .build())
+                    .toList();
+            exampleRepository.saveAll(seeds);
+            log.info("🌱 기본 면접 예시 {}개 DB 등록", seeds.size());
+        }
+
+        List<InterviewExample> examples = exampleRepository.findSummariesByOrderByIdAsc().stream()
+                .map(this::toExample)
+                .toList();
+        catalog.set(new Catalog(null,
+                vectorSearchService.createHybridEngine(examples, InterviewExampleService::searchText, null)));
+
+        log.info("✅ 면접 우수 답변 예시 {}개 로드 완료 (벡터 인덱스는 기동 후 백그라운드에서 구성)", examples.size());
+    }
+
+    /**
+     * 기본 예시 (interview_example 테이블이 비어 있을 때만 등록)
+     */
+    private List<InterviewExample> defaultExamples() {
+        List<InterviewExample> examples = new ArrayList<>();
 
         // 팀워크/협업 관련 우수 답변
         examples.add(new InterviewExample(
@@ -133,76 +292,544 @@ public class InterviewExampleService {
                 "적합성 88점, 구체성 85점, 논리성 86점, 진정성 87점, 차별성 82점. 구체적 방법론(포모도로), 경계 설정, 지속 가능성 강조."
         ));
 
-        log.info("✅ 면접 우수 답변 예시 {}개 로드 완료", examples.size());
+        return examples;
+    }
 
-        // 벡터화 시작
-        log.info("🔄 Gemini Embedding API로 벡터화 시작...");
+    /**
+     * 기동 완료 후 백그라운드에서 인덱스 구성 시작
+     * 인덱스가 준비되기 전까지 searchRelevant는 폴백 결과를 반환하므로 기동을 막지 않음
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startVectorization() {
+        rebuildIndexAsync();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        vectorizeExecutor.shutdownNow();
+        indexWriter.close();
+    }
+
+    /**
+     * 예시 추가 (관리자) - 즉시 임베딩해 벡터와 함께 저장하고 인덱스에 추가 (재구성 중이면 다음 재구성에서 반영)
+     */
+    public InterviewExampleEntry addExample(String category, String question, String answer,
+                                            int score, String evaluation) {
+        InterviewExampleEntry entry = InterviewExampleEntry.builder()
+                .category(category)
+                .question(question)
+                .answer(answer)
+                .score(score)
+                .evaluation(evaluation)
+                .build();
+
+        String text = entry.embeddingText();
+        double[] vector = embeddingService.getEmbedding(text);
+        entry.updateEmbedding(VectorCodec.encode(vector), HashUtils.sha256Hex(text), embeddingService.getEmbeddingModel());
+
+        InterviewExampleEntry saved = exampleRepository.save(entry);
+        log.info("➕ 면접 예시 추가 - ID: {}, 유형: {}", saved.getId(), saved.getCategory());
+
+        indexLock.lock();
         try {
-            for (int i = 0; i < examples.size(); i++) {
-                InterviewExample example = examples.get(i);
-                // 질문 + 답변을 합쳐서 임베딩
-                String textToEmbed = example.getQuestion() + " " + example.getAnswer();
-                double[] vector = embeddingService.getEmbedding(textToEmbed);
-                example.setVector(vector);
+            if (isIndexWritable()) {
+                InterviewExample example = toExample(saved);
+                examplesById.put(saved.getId(), example);
+                exampleRefs.put(example, new ExampleRef(saved.getId(), saved.getContentHash()));
+                indexWriter.add(example, vector);
+            } else {
+                // 인덱스 구성 전/중이면 재구성이 DB에서 다시 읽도록 함
+                rebuildIndexAsync();
+            }
+        } finally {
+            indexLock.unlock();
+        }
+        return saved;
+    }
 
-                vectorizedExamples.add(new VectorSearchService.VectorItem<>(example, vector));
+    /**
+     * 예시 삭제 (관리자) - 인덱스에는 삭제 표시 후 세그먼트 병합 때 제거 (재구성 중이면 다음 재구성에서 반영)
+     */
+    public void deleteExample(Long id) {
+        if (!exampleRepository.existsById(id)) {
+            throw new IllegalArgumentException("면접 예시를 찾을 수 없습니다 - ID: " + id);
+        }
+        exampleRepository.deleteById(id);
+        log.info("🗑️ 면접 예시 삭제 - ID: {}", id);
+
+        indexLock.lock();
+        try {
+            InterviewExample removed = isIndexWritable() ? examplesById.remove(id) : null;
+            if (removed != null) {
+                exampleRefs.remove(removed);
+                indexWriter.delete(removed);
+            } else {
+                rebuildIndexAsync();
+            }
+        } finally {
+            indexLock.unlock();
+        }
+    }
 
-                log.info("  [{}/{}] {} - 벡터화 완료 ({}차원)",
-                        i + 1, examples.size(), example.getCategory(), vector.length);
+    /**
+     * 추가/삭제를 현재 인덱스에 바로 반영할 수 있는지 (indexLock 안에서 호출)
+     * 재구성 중이면 이미 DB를 읽은 뒤일 수 있으므로 반영하지 않고 다음 재구성이 DB에서 다시 읽게 함
+     */
+    private boolean isIndexWritable() {
+        return isVectorReady() && !rebuildRunning.get();
+    }
 
-                // API Rate Limit 방지 (요청 간 1초 대기)
-                if (i < examples.size() - 1) {
-                    Thread.sleep(1000);
+    /**
+     * 세그먼트 인덱스 게시 콜백 - 카탈로그 교체 (쓰기 락 안에서 순서대로 호출)
+     * 기존 세그먼트의 BM25 색인은 재사용하고 새로 반영된 세그먼트만 색인하므로 비용은 전체 예시 수가 아닌 배치 크기에 비례
+     */
+    private void publish(SegmentedVectorIndex<InterviewExample> index) {
+        catalog.set(new Catalog(index, vectorSearchService.createHybridEngine(index, lexicalSegments)));
+    }
+
+    /**
+     * 저장된 전체 예시 조회 (등록순) - 목록 표시용이라 벡터 BLOB은 읽지 않음
+     */
+    public List<InterviewExampleEntryRepository.Summary> getAllEntries() {
+        return exampleRepository.findSummariesByOrderByIdAsc();
+    }
+
+    /**
+     * 재구성 요청 - 워커가 없을 때만 새로 시작하고, 실행 중이면 끝난 뒤 한 번 더 재구성하도록 표시만 함
+     */
+    private void rebuildIndexAsync() {
+        indexLock.lock();
+        try {
+            rebuildRequested.set(true);
+            if (rebuildRunning.compareAndSet(false, true)) {
+                Thread.ofVirtual().name("example-index-rebuild").start(this::runRebuilds);
+            }
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    private void runRebuilds() {
+        try {
+            while (rebuildRequested.getAndSet(false)) {
+                rebuildIndex();
+            }
+        } finally {
+            rebuildRunning.set(false);
+        }
+        // 워커 종료 직전에 들어온 요청 (재구성 중이라 추가/삭제가 남긴 요청 포함)
+        if (rebuildRequested.get()) {
+            rebuildIndexAsync();
+        }
+    }
+
+    /**
+     * DB의 예시로 새 인덱스를 구성해 교체 (재구성 워커 하나에서만 호출)
+     * - 먼저 벡터 없이 요약만 읽고, 저장된 (ID, 콘텐츠 해시) 목록의 버전이 스냅샷과 같으면 매핑만 함
+     * - 스냅샷이 없거나 다르면 텍스트 해시/모델이 현재와 다른 행만 읽어 batchSize 단위로 최대 parallelism개씩 재임베딩
+     * - 벡터는 EMBEDDING_PAGE_SIZE개씩 나눠 읽어 인덱스에 넣음 (전체 BLOB을 한 번에 힙에 올리지 않음)
+     */
+    private void rebuildIndex() {
+        try {
+            long startedAt = System.nanoTime();
+            String model = embeddingService.getEmbeddingModel();
+            List<InterviewExampleEntryRepository.Summary> rows = exampleRepository.findSummariesByOrderByIdAsc();
+
+            List<InterviewExample> examples = rows.stream().map(this::toExample).toList();
+            Map<Long, InterviewExample> byId = new HashMap<>();
+            Map<InterviewExample, ExampleRef> refs = new IdentityHashMap<>();
+            for (int i = 0; i < rows.size(); i++) {
+                InterviewExampleEntryRepository.Summary row = rows.get(i);
+                byId.put(row.getId(), examples.get(i));
+                refs.put(examples.get(i), new ExampleRef(row.getId(), row.getContentHash()));
+            }
+
+            // 저장된 해시·모델·인덱스 설정이 그대로면 스냅샷을 매핑해서 바로 사용 (벡터를 읽지 않음)
+            VectorIndex<InterviewExample> index = vectorSearchService
+                    .<InterviewExample>loadSnapshot(SNAPSHOT_NAME, snapshotVersion(refs.values(), model), byId::get)
+                    .orElse(null);
+
+            int reembedded = 0;
+            if (index == null) {
+                List<Long> staleIds = rows.stream()
+                        .filter(row -> !isEmbeddingCurrent(row, model))
+                        .map(InterviewExampleEntryRepository.Summary::getId)
+                        .toList();
+                vectorizedCount.set(rows.size() - staleIds.size());
+
+                if (!staleIds.isEmpty()) {
+                    log.info("🔄 Gemini Embedding API로 재임베딩 시작 - {}/{}개 (동시 {}개, 초당 {}회, 청크 {}개)",
+                            staleIds.size(), rows.size(), vectorizeParallelism, vectorizeRatePerSecond, vectorizeBatchSize);
+                    List<InterviewExampleEntry> stale = exampleRepository.findAllById(staleIds);
+                    if (!embedStaleEntries(stale, model)) {
+                        log.warn("⚠️ 재임베딩 중단 - {}/{}개 완료", vectorizedCount.get(), rows.size());
+                        return;
+                    }
+                    for (InterviewExampleEntry entry : stale) {
+                        InterviewExample example = byId.get(entry.getId());
+                        refs.put(example, new ExampleRef(entry.getId(), entry.getContentHash()));
+                    }
+                    reembedded = stale.size();
                 }
+                index = buildIndex(rows, examples, refs, model, byId);
+            } else {
+                vectorizedCount.set(rows.size());
             }
 
-            log.info("✅ 벡터화 완료 - {}개 예시가 {}차원 벡터로 변환됨",
-                    vectorizedExamples.size(),
-                    vectorizedExamples.get(0).getVector().length);
+            // 완성된 인덱스를 기본 세그먼트로 게시 → 검색 스레드는 항상 완성된 카탈로그만 봄
+            examplesById.clear();
+            examplesById.putAll(byId);
+            exampleRefs.clear();
+            exampleRefs.putAll(refs);
+            lexicalSegments.prepare(index);
+            indexWriter.reset(index);
+            log.info("✅ 벡터 인덱스 구성 완료 - {}개 예시, {}차원, 재임베딩 {}개 ({}ms)",
+                    index.size(),
+                    index.getDimension(),
+                    reembedded,
+                    (System.nanoTime() - startedAt) / 1_000_000);
+
+            if (index instanceof HnswIndex<InterviewExample> hnsw) {
+                log.info("📏 HNSW recall@3 (브루트포스 대비): {}", String.format("%.3f", hnsw.estimateRecall(100, 3)));
+            }
 
         } catch (Exception e) {
-            log.error("❌ 벡터화 실패", e);
-            throw new RuntimeException("면접 예시 벡터화 실패: " + e.getMessage(), e);
+            lastVectorizeError = e.getMessage();
+            log.error("❌ 벡터 인덱스 구성 실패", e);
         }
     }
 
     /**
-     * 질문 텍스트 기반으로 관련 우수 답변 예시 검색 (벡터 검색)
+     * 저장된 벡터를 페이지 단위로 읽어 새 인덱스 구성 후 스냅샷 저장
+     * 요약을 읽은 뒤 삭제된 행은 건너뜀 (삭제 요청이 다음 재구성을 예약해 둠)
      */
-    public List<InterviewExample> searchRelevant(String questionText, int limit) {
-        if (questionText == null || questionText.trim().isEmpty()) {
-            return examples.stream().limit(limit).toList();
+    private VectorIndex<InterviewExample> buildIndex(List<InterviewExampleEntryRepository.Summary> rows,
+                                                     List<InterviewExample> examples,
+                                                     Map<InterviewExample, ExampleRef> refs, String model,
+                                                     Map<Long, InterviewExample> byId) {
+        VectorIndex<InterviewExample> index = vectorSearchService.createIndex();
+        long[] ids = new long[rows.size()];
+        List<ExampleRef> indexed = new ArrayList<>(rows.size());
+        for (int from = 0; from < rows.size(); from += EMBEDDING_PAGE_SIZE) {
+            int to = Math.min(from + EMBEDDING_PAGE_SIZE, rows.size());
+            Map<Long, byte[]> vectors = new HashMap<>();
+            exampleRepository.findEmbeddingsByIdIn(rows.subList(from, to).stream()
+                            .map(InterviewExampleEntryRepository.Summary::getId)
+                            .toList())
+                    .forEach(row -> vectors.put(row.getId(), row.getEmbedding()));
+
+            for (int i = from; i < to; i++) {
+                byte[] embedding = vectors.get(rows.get(i).getId());
+                if (embedding == null) {
+                    continue;
+                }
+                ids[index.size()] = rows.get(i).getId();
+                index.add(examples.get(i), VectorCodec.decode(embedding));
+                indexed.add(refs.get(examples.get(i)));
+            }
         }
+        return vectorSearchService.saveSnapshot(SNAPSHOT_NAME, index, Arrays.copyOf(ids, index.size()),
+                snapshotVersion(indexed, model), byId::get);
+    }
 
-        log.info("🔍 벡터 검색 시작 - 질문: {}", questionText.substring(0, Math.min(50, questionText.length())));
+    /**
+     * 세그먼트 병합 결과를 마무리 (SegmentedIndexWriter 병합 스레드에서 쓰기 락 밖에서 호출)
+     * - 스냅샷으로 다시 저장하고 매핑 인덱스로 교체 → 병합 뒤에도 벡터가 힙에 남지 않고 다음 기동 시 바로 매핑
+     * - 게시 전에 BM25 색인을 미리 구축 → 게시(쓰기 락 안)에서 전체 예시를 다시 색인하지 않음
+     */
+    private VectorIndex<InterviewExample> finishMerge(VectorIndex<InterviewExample> merged) {
+        VectorIndex<InterviewExample> finished = snapshotMerged(merged);
+        lexicalSegments.prepare(finished);
+        return finished;
+    }
+
+    private VectorIndex<InterviewExample> snapshotMerged(VectorIndex<InterviewExample> merged) {
+        long[] ids = new long[merged.size()];
+        Map<Long, InterviewExample> byId = new HashMap<>();
+        List<ExampleRef> refs = new ArrayList<>(merged.size());
+        for (int i = 0; i < merged.size(); i++) {
+            InterviewExample example = merged.get(i);
+            ExampleRef ref = exampleRefs.get(example);
+            if (ref == null) {
+                // 병합 중에 삭제되었거나 재구성으로 교체된 항목 - 이번 병합은 힙 인덱스로 유지
+                log.debug("병합 결과에 ID를 알 수 없는 항목이 있어 스냅샷 저장 생략");
+                return merged;
+            }
+            ids[i] = ref.id();
+            byId.put(ref.id(), example);
+            refs.add(ref);
+        }
+        return vectorSearchService.saveSnapshot(SNAPSHOT_NAME, merged, ids,
+                snapshotVersion(refs, embeddingService.getEmbeddingModel()), byId::get);
+    }
+
+    /**
+     * @return 모든 청크가 성공하면 true (한 청크라도 실패하면 남은 청크는 호출하지 않고 false)
+     */
+    private boolean embedStaleEntries(List<InterviewExampleEntry> stale, String model) {
+        AtomicBoolean aborted = new AtomicBoolean();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int from = 0; from < stale.size(); from += vectorizeBatchSize) {
+            List<InterviewExampleEntry> chunk = stale.subList(from, Math.min(from + vectorizeBatchSize, stale.size()));
+            tasks.add(() -> {
+                if (aborted.get()) {
+                    throw new IllegalStateException("이전 청크 실패로 중단");
+                }
+                try {
+                    embedChunk(chunk, model);
+                } catch (RuntimeException e) {
+                    aborted.set(true);
+                    throw e;
+                }
+                return null;
+            });
+        }
 
         try {
-            // 1. 질문 텍스트를 벡터로 변환
-            double[] queryVector = embeddingService.getEmbedding(questionText);
-            log.debug("  질문 벡터화 완료 - {}차원", queryVector.length);
+            for (Future<Void> future : vectorizeExecutor.invokeAll(tasks)) {
+                if (future.state() != Future.State.SUCCESS) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
 
-            // 2. 벡터 유사도 검색
-            List<VectorSearchService.SearchResult<InterviewExample>> searchResults =
-                    vectorSearchService.searchTopK(queryVector, vectorizedExamples, limit);
+    /**
+     * 청크 하나를 임베딩해 DB에 저장
+     * 초당 ratePerSecond 제한을 거쳐 호출하고, 일시적 오류(429/5xx/연결 오류)만 지수 백오프(최대 60초)로
+     * 최대 maxAttempts회까지 재시도 - 400이나 API 키 오류 같은 영구 오류는 바로 실패
+     */
+    private void embedChunk(List<InterviewExampleEntry> chunk, String model) throws InterruptedException {
+        List<String> texts = chunk.stream()
+                .map(InterviewExampleEntry::embeddingText)
+                .toList();
+
+        int maxAttempts = Math.max(1, vectorizeMaxAttempts);
+        for (int attempt = 0; ; attempt++) {
+            acquireRatePermit();
+            try {
+                List<double[]> vectors = embeddingService.getEmbeddings(texts);
+                for (int i = 0; i < chunk.size(); i++) {
+                    chunk.get(i).updateEmbedding(VectorCodec.encode(vectors.get(i)), HashUtils.sha256Hex(texts.get(i)), model);
+                }
+                exampleRepository.saveAll(chunk);
 
-            // 3. 결과 추출
-            List<InterviewExample> results = searchResults.stream()
-                    .map(VectorSearchService.SearchResult::getData)
-                    .toList();
+                int done = vectorizedCount.addAndGet(chunk.size());
+                log.info("  [{}] {}개 임베딩 저장 완료", done, chunk.size());
+                return;
 
-            log.info("✅ 벡터 검색 완료 - {}개 선택됨", results.size());
-            for (int i = 0; i < searchResults.size(); i++) {
-                VectorSearchService.SearchResult<InterviewExample> result = searchResults.get(i);
-                log.info("  [{}] {} (유사도: {:.4f})",
-                        i + 1, result.getData().getCategory(), result.getSimilarity());
+            } catch (RuntimeException e) {
+                lastVectorizeError = e.getMessage();
+                if (!GeminiEmbeddingService.isRetryable(e) || attempt + 1 >= maxAttempts) {
+                    log.error("❌ 임베딩 실패 ({}회차), 재시도하지 않음 - {}", attempt + 1, e.getMessage());
+                    throw e;
+                }
+                long backoffMillis = Math.min(MAX_BACKOFF_MILLIS, 1000L << Math.min(attempt, 6));
+                log.warn("⚠️ 임베딩 실패 ({}회차), {}ms 후 재시도 - {}", attempt + 1, backoffMillis, e.getMessage());
+                Thread.sleep(backoffMillis);
             }
+        }
+    }
 
-            return results;
+    /**
+     * 초당 vectorizeRatePerSecond회로 API 호출 간격 제한 (다음 허용 시각을 원자적으로 예약)
+     */
+    private void acquireRatePermit() throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, vectorizeRatePerSecond);
+        long now = System.nanoTime();
+        long reserved = nextPermitNanos.getAndAccumulate(now, (next, current) -> Math.max(next, current) + intervalNanos);
+        long waitNanos = reserved - now;
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
 
-        } catch (Exception e) {
-            log.error("❌ 벡터 검색 실패, 키워드 기반 검색으로 폴백", e);
-            // 폴백: 단순히 상위 N개 반환
-            return examples.stream().limit(limit).toList();
+    /**
+     * 벡터 검색 사용 가능 여부 (false면 폴백 검색)
+     */
+    public boolean isVectorReady() {
+        return catalog.get().index() != null;
+    }
+
+    public int getVectorizedCount() {
+        return vectorizedCount.get();
+    }
+
+    public int getExampleCount() {
+        HybridSearchEngine<InterviewExample> engine = catalog.get().engine();
+        return engine == null ? 0 : engine.size();
+    }
+
+    public String getLastVectorizeError() {
+        return lastVectorizeError;
+    }
+
+    /**
+     * 질문 텍스트 기반으로 관련 우수 답변 예시 검색 (BM25 + 벡터 하이브리드)
+     * 벡터 인덱스 준비 전이거나 질문 임베딩에 실패하면 BM25 순위만 사용
+     */
+    public List<InterviewExample> searchRelevant(String questionText, int limit) {
+        // 검색 도중 인덱스가 교체되어도 같은 스냅샷을 사용하도록 한 번만 읽음
+        Catalog current = catalog.get();
+
+        if (questionText == null || questionText.trim().isEmpty() || current.engine() == null) {
+            return current.head(limit);
+        }
+
+        log.info("🔍 하이브리드 검색 시작 - 질문: {}", questionText.substring(0, Math.min(50, questionText.length())));
+
+        double[] queryVector = null;
+        if (current.index() == null) {
+            log.info("⏳ 벡터 인덱스 준비 중 ({}/{}) - BM25 검색만 사용", vectorizedCount.get(), current.engine().size());
+        } else {
+            try {
+                queryVector = embeddingService.getEmbedding(questionText);
+                log.debug("  질문 벡터화 완료 - {}차원", queryVector.length);
+            } catch (Exception e) {
+                log.error("❌ 질문 임베딩 실패, BM25 검색만 사용", e);
+            }
         }
+
+        List<InterviewExample> results = current.engine().search(questionText, queryVector, limit);
+        if (results.isEmpty()) {
+            // 어휘도 벡터도 매칭되지 않으면 상위 N개 반환
+            return current.head(limit);
+        }
+
+        log.info("✅ {} 검색 완료 - {}개 선택됨", queryVector != null ? "하이브리드" : "BM25", results.size());
+        for (int i = 0; i < results.size(); i++) {
+            log.info("  [{}] {}", i + 1, results.get(i).getCategory());
+        }
+        return results;
+    }
+
+    /**
+     * 면접관 질문별로 관련 예시를 검색해 합침 (질문을 하나로 이어 붙여 검색하면 질의 벡터가 흐려짐)
+     * - 질문 임베딩은 일괄 변환 한 번 (캐시 미스만 배치 API 호출), 벡터 검색은 인덱스 배치 검색 한 번
+     * - 각 질문의 1위, 2위... 순서로 번갈아 담고 중복 제거 → 질문마다 가장 관련 있는 예시가 먼저 포함
+     */
+    public List<InterviewExample> searchRelevantForQuestions(List<String> questions, int limit) {
+        Catalog current = catalog.get();
+
+        List<String> queries = questions.stream()
+                .filter(question -> question != null && !question.isBlank())
+                .map(String::strip)
+                .distinct()
+                .toList();
+        if (queries.isEmpty() || current.engine() == null) {
+            return current.head(limit);
+        }
+        if (queries.size() == 1) {
+            return searchRelevant(queries.get(0), limit);
+        }
+
+        log.info("🔍 질문별 하이브리드 검색 시작 - 질문 {}개", queries.size());
+
+        List<double[]> queryVectors = null;
+        if (current.index() == null) {
+            log.info("⏳ 벡터 인덱스 준비 중 ({}/{}) - BM25 검색만 사용", vectorizedCount.get(), current.engine().size());
+        } else {
+            try {
+                queryVectors = embeddingService.getEmbeddings(queries);
+            } catch (Exception e) {
+                log.error("❌ 질문 임베딩 실패, BM25 검색만 사용", e);
+            }
+        }
+
+        List<List<InterviewExample>> perQuestion = current.engine().searchBatch(queries, queryVectors, limit);
+        Set<InterviewExample> merged = new LinkedHashSet<>();
+        for (int rank = 0; rank < limit && merged.size() < limit; rank++) {
+            for (List<InterviewExample> hits : perQuestion) {
+                if (rank < hits.size() && merged.size() < limit) {
+                    merged.add(hits.get(rank));
+                }
+            }
+        }
+        if (merged.isEmpty()) {
+            return current.head(limit);
+        }
+
+        log.info("✅ 질문별 {} 검색 완료 - 질문 {}개, {}개 선택됨",
+                queryVectors != null ? "하이브리드" : "BM25", queries.size(), merged.size());
+        return List.copyOf(merged);
+    }
+
+    /**
+     * 축소 차원별 recall@k 평가 - 저장된 예시 텍스트를 문서, 예시 질문을 질의로 사용
+     * 전체 차원 벡터를 새로 받아 비교하므로 (캐시 미사용) 예시 수만큼 임베딩 API를 호출함
+     *
+     * @throws EvaluationInProgressException 다른 평가가 실행 중일 때 (동시에 하나만 실행)
+     */
+    public List<DimensionRecallEvaluator.Result> evaluateDimensions(int[] dimensions, int k) {
+        if (!dimensionEvaluationRunning.compareAndSet(false, true)) {
+            throw new EvaluationInProgressException("임베딩 차원 평가가 이미 실행 중입니다");
+        }
+        try {
+            return runDimensionEvaluation(dimensions, k);
+        } finally {
+            dimensionEvaluationRunning.set(false);
+        }
+    }
+
+    private List<DimensionRecallEvaluator.Result> runDimensionEvaluation(int[] dimensions, int k) {
+        List<InterviewExampleEntryRepository.Summary> entries = exampleRepository.findSummariesByOrderByIdAsc();
+        if (entries.isEmpty()) {
+            throw new IllegalStateException("평가할 면접 예시가 없습니다");
+        }
+
+        List<double[]> corpus = embeddingService.getFullDimensionEmbeddings(entries.stream()
+                .map(entry -> InterviewExampleEntry.embeddingText(entry.getQuestion(), entry.getAnswer()))
+                .toList());
+        List<double[]> queries = embeddingService.getFullDimensionEmbeddings(
+                entries.stream().map(InterviewExampleEntryRepository.Summary::getQuestion).toList());
+
+        List<DimensionRecallEvaluator.Result> results = DimensionRecallEvaluator.evaluate(corpus, queries, dimensions, k);
+        results.forEach(result -> log.info("📏 차원 {} - recall@{} {}, 벡터당 {}B",
+                result.dimension(), result.k(), String.format("%.3f", result.recallAtK()), result.vectorBytes()));
+        return results;
+    }
+
+    /**
+     * 스냅샷 버전 - 인덱스 설정 + 임베딩 모델 + ID 순 (ID, 저장된 콘텐츠 해시) 목록의 해시
+     * 텍스트를 다시 해시하지 않고 DB에 저장된 해시만 사용
+     */
+    private String snapshotVersion(Collection<ExampleRef> refs, String model) {
+        List<ExampleRef> sorted = new ArrayList<>(refs);
+        sorted.sort(Comparator.comparingLong(ExampleRef::id));
+        StringBuilder content = new StringBuilder();
+        for (ExampleRef ref : sorted) {
+            content.append(ref.id()).append(':').append(ref.contentHash()).append('\n');
+        }
+        return HashUtils.sha256Hex(vectorSearchService.indexSignature(), model, content.toString());
+    }
+
+    /**
+     * 저장된 벡터가 현재 텍스트/모델 기준으로 유효한지 (InterviewExampleEntry.hasEmbedding과 같은 기준)
+     */
+    private static boolean isEmbeddingCurrent(InterviewExampleEntryRepository.Summary row, String model) {
+        return model.equals(row.getEmbeddingModel())
+                && HashUtils.sha256Hex(InterviewExampleEntry.embeddingText(row.getQuestion(), row.getAnswer()))
+                .equals(row.getContentHash());
+    }
+
+    /**
+     * BM25 색인 텍스트 - 유형 + 질문 + 답변
+     */
+    private static String searchText(InterviewExample example) {
+        return example.getCategory() + " " + example.getQuestion() + " " + example.getAnswer();
+    }
+
+    private InterviewExample toExample(InterviewExampleEntry entry) {
+        return new InterviewExample(entry.getCategory(), entry.getQuestion(), entry.getAnswer(),
+                entry.getScore(), entry.getEvaluation());
+    }
+
+    private InterviewExample toExample(InterviewExampleEntryRepository.Summary row) {
+        return new InterviewExample(row.getCategory(), row.getQuestion(), row.getAnswer(),
+                row.getScore(), row.getEvaluation());
     }
 }
@@ -1,29 +1,107 @@
 package com.example.raon.service;
 
+import com.example.raon.util.AdaptiveConcurrencyLimiter;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
-import java.util.ArrayList;
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
- * RAG 서버와 통신하여 유사한 면접 답변 예시를 검색하는 서비스
+ * 유사한 면접 답변 예시를 검색하는 서비스
+ *
+ * rag.mode에 따라 저장소 선택
+ * - remote: Python RAG 서버(rag.server.url)와 HTTP 통신
+ * - embedded: 인프로세스 저장소(EmbeddedRagStore) - 별도 컨테이너 없이 같은 기능 제공
+ *
+ * 모든 메서드는 Mono를 반환 - 요청 스레드를 막지 않음 (임베디드 저장소의 임베딩 호출은 boundedElastic에서 실행)
+ *
+ * remote 호출은 공용 WebClient(커넥션 풀)를 사용
+ * - 호출마다 전체 제한 시간(rag.client.timeout-ms) - 풀 대기, 연결, 응답 대기를 모두 포함
+ * - 격벽(동시 호출 수 + 대기열)으로 RAG 서버가 멈춰도 요청 스레드를 붙잡지 않고 수 ms 안에 빈 결과로 대체
+ * - (질문, topK)별 검색 결과를 짧은 TTL로 캐시 - 같은 질문이 동시에 오면 RAG 서버 호출은 한 번
  */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class RagService {
 
-    private final RestTemplate restTemplate;
+    private static final String CACHE_NAME = "ragSearch";
+    private static final String DEFAULT_CATEGORY = "일반";
+
+    private final WebClient webClient;
+    private final EmbeddedRagStore embeddedStore;
+    private final MeterRegistry meterRegistry;
 
     @Value("${rag.server.url:http://localhost:8000}")
     private String ragServerUrl;
 
-    public RagService() {
-        this.restTemplate = new RestTemplate();
+    /**
+     * 검색/헬스 체크/통계 호출 제한 시간 (rag-server는 검색마다 질문을 임베딩하므로 그 시간 포함)
+     */
+    @Value("${rag.client.timeout-ms:2000}")
+    private long timeoutMs;
+
+    /**
+     * 예시 추가 호출 제한 시간 (백오피스 전용)
+     */
+    @Value("${rag.client.add-timeout-ms:10000}")
+    private long addTimeoutMs;
+
+    @Value("${rag.client.bulkhead.max-concurrent:16}")
+    private int bulkheadMaxConcurrent;
+
+    @Value("${rag.client.bulkhead.max-queue:32}")
+    private int bulkheadMaxQueue;
+
+    @Value("${rag.client.bulkhead.max-wait-ms:50}")
+    private long bulkheadMaxWaitMs;
+
+    @Value("${rag.client.cache.ttl-seconds:60}")
+    private long cacheTtlSeconds;
+
+    @Value("${rag.client.cache.max-size:1000}")
+    private long cacheMaxSize;
+
+    private AdaptiveConcurrencyLimiter bulkhead;
+
+    private AsyncCache<SearchKey, List<ExampleAnswer>> searchCache;
+
+    @PostConstruct
+    public void init() {
+        bulkhead = AdaptiveConcurrencyLimiter.fixed("rag-server", bulkheadMaxConcurrent, bulkheadMaxQueue,
+                Duration.ofMillis(bulkheadMaxWaitMs));
+        Gauge.builder("rag.client.bulkhead.active", bulkhead, AdaptiveConcurrencyLimiter::inFlightCount).register(meterRegistry);
+        Gauge.builder("rag.client.bulkhead.queued", bulkhead, AdaptiveConcurrencyLimiter::queuedCount).register(meterRegistry);
+        FunctionCounter.builder("rag.client.bulkhead.rejected", bulkhead, AdaptiveConcurrencyLimiter::rejectedCount)
+                .register(meterRegistry);
+
+        // 실패한 호출은 Caffeine이 캐시에서 자동으로 제거 → 다음 요청이 다시 시도
+        searchCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, searchCache.synchronous(), CACHE_NAME);
+
+        log.info("✅ RAG 클라이언트 초기화 - 제한 {}ms, 격벽 동시 {}건 + 대기 {}건 ({}ms), 캐시 TTL {}초",
+                timeoutMs, bulkheadMaxConcurrent, bulkheadMaxQueue, bulkheadMaxWaitMs, cacheTtlSeconds);
     }
 
     /**
@@ -31,58 +109,43 @@ public class RagService {
      *
      * @param question 검색할 질문
      * @param topK 반환할 결과 개수 (기본 3개)
-     * @return 유사한 답변 예시 목록
+     * @return 유사한 답변 예시 목록 (실패/시간 초과/격벽 거절 시 빈 목록으로 완료)
      */
-    public List<ExampleAnswer> searchSimilarExamples(String question, int topK) {
-        try {
-            String url = ragServerUrl + "/search";
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-
-            Map<String, Object> requestBody = Map.of(
-                    "question", question,
-                    "top_k", topK
-            );
-
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-
-            log.info("🔍 RAG 서버에 검색 요청: {}", question);
-
-            @SuppressWarnings("unchecked")
-            ResponseEntity<Map<String, Object>> response = (ResponseEntity<Map<String, Object>>) (ResponseEntity<?>) restTemplate.exchange(
-                    url, HttpMethod.POST, entity, Map.class
-            );
-
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                @SuppressWarnings("unchecked")
-                List<Map<String, Object>> examples = (List<Map<String, Object>>) response.getBody().get("examples");
-
-                List<ExampleAnswer> results = new ArrayList<>();
-                if (examples != null) {
-                    for (Map<String, Object> example : examples) {
-                        results.add(new ExampleAnswer(
-                                (String) example.get("question"),
-                                (String) example.get("answer"),
-                                ((Number) example.get("score")).intValue(),
-                                (String) example.getOrDefault("category", "일반"),
-                                ((Number) example.getOrDefault("similarity", 0.0)).doubleValue()
-                        ));
-                    }
-                }
-
-                log.info("✅ RAG 서버에서 {}개 결과 반환", results.size());
-                return results;
-            }
-
-            log.warn("⚠️ RAG 서버 응답 이상: {}", response.getStatusCode());
-            return new ArrayList<>();
-
-        } catch (Exception e) {
-            log.error("❌ RAG 서버 호출 실패: {}", e.getMessage());
-            // RAG 서버 실패 시 빈 리스트 반환 (fallback)
-            return new ArrayList<>();
+    public Mono<List<ExampleAnswer>> searchSimilarExamples(String question, int topK) {
+        if (embeddedStore.isEnabled()) {
+            return Mono.fromCallable(() -> embeddedStore.search(question, topK))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .doOnNext(results -> log.info("✅ 임베디드 RAG 저장소에서 {}개 결과 반환", results.size()))
+                    .onErrorResume(e -> {
+                        log.error("❌ 임베디드 RAG 검색 실패: {}", e.getMessage());
+                        return Mono.just(List.of());
+                    });
         }
+
+        // 호출자가 먼저 취소해도(예: 상위 제한 시간) 진행 중인 호출은 끝까지 진행해 캐시를 채움
+        return Mono.fromFuture(searchCache.get(new SearchKey(question, topK), (key, executor) -> searchRemote(key).toFuture()), true)
+                .onErrorResume(e -> {
+                    // RAG 서버 실패 시 빈 리스트 반환 (fallback)
+                    log.error("❌ RAG 서버 호출 실패: {}", e.getMessage());
+                    return Mono.just(List.of());
+                });
+    }
+
+    private Mono<List<ExampleAnswer>> searchRemote(SearchKey key) {
+        log.info("🔍 RAG 서버에 검색 요청: {}", key.question());
+        return bulkhead.execute(() -> webClient.post()
+                        .uri(ragServerUrl + "/search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(Map.of("question", key.question(), "top_k", key.topK()))
+                        .retrieve()
+                        .bodyToMono(SearchResponse.class)
+                        .timeout(Duration.ofMillis(timeoutMs)))
+                .map(response -> {
+                    List<ExampleAnswer> results = response.examples() == null ? List.of()
+                            : response.examples().stream().map(RemoteExample::toExampleAnswer).toList();
+                    log.info("✅ RAG 서버에서 {}개 결과 반환", results.size());
+                    return results;
+                });
     }
 
     /**
@@ -94,66 +157,120 @@ public class RagService {
      * @param category 카테고리 (선택)
      * @return 성공 여부
      */
-    public boolean addExample(String question, String answer, int score, String category) {
-        try {
-            String url = ragServerUrl + "/add";
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-
-            Map<String, Object> requestBody = Map.of(
-                    "question", question,
-                    "answer", answer,
-                    "score", score,
-                    "category", category != null ? category : "일반"
-            );
+    public Mono<Boolean> addExample(String question, String answer, int score, String category) {
+        if (embeddedStore.isEnabled()) {
+            return Mono.fromCallable(() -> embeddedStore.add(question, answer, score, category))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .thenReturn(true)
+                    .onErrorResume(e -> {
+                        log.error("❌ 임베디드 RAG 저장소 답변 추가 실패: {}", e.getMessage());
+                        return Mono.just(false);
+                    });
+        }
 
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
+        Map<String, Object> requestBody = Map.of(
+                "question", question,
+                "answer", answer,
+                "score", score,
+                "category", category != null ? category : DEFAULT_CATEGORY
+        );
+
+        log.info("➕ RAG 서버에 답변 추가 요청: {} (점수: {})", question, score);
+
+        return bulkhead.execute(() -> webClient.post()
+                        .uri(ragServerUrl + "/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(requestBody)
+                        .retrieve()
+                        .toBodilessEntity()
+                        .timeout(Duration.ofMillis(addTimeoutMs)))
+                .thenReturn(true)
+                .doOnNext(added -> {
+                    // 새 예시가 다음 검색부터 보이도록 캐시된 검색 결과 비움
+                    searchCache.synchronous().invalidateAll();
+                    log.info("✅ RAG 서버에 답변 추가 완료");
+                })
+                .onErrorResume(e -> {
+                    log.error("❌ RAG 서버 답변 추가 실패: {}", e.getMessage());
+                    return Mono.just(false);
+                });
+    }
 
-            log.info("➕ RAG 서버에 답변 추가 요청: {} (점수: {})", question, score);
+    /**
+     * RAG 서버 헬스 체크 (격벽을 거치지 않음 - 검색이 몰려도 상태는 확인 가능)
+     *
+     * @return 서버 상태 및 저장된 예시 개수
+     */
+    public Mono<HealthStatus> checkHealth() {
+        if (embeddedStore.isEnabled()) {
+            return Mono.fromSupplier(() -> new HealthStatus(true, "ok", embeddedStore.count()));
+        }
 
-            @SuppressWarnings("unchecked")
-            ResponseEntity<Map<String, Object>> response = (ResponseEntity<Map<String, Object>>) (ResponseEntity<?>) restTemplate.exchange(
-                    url, HttpMethod.POST, entity, Map.class
-            );
+        return getRemote("/health")
+                .map(body -> {
+                    String status = (String) body.get("status");
+                    int count = ((Number) body.getOrDefault("collection_count", 0)).intValue();
+                    return new HealthStatus(true, status, count);
+                })
+                .defaultIfEmpty(new HealthStatus(false, "error", 0))
+                .onErrorResume(e -> {
+                    log.error("❌ RAG 서버 헬스 체크 실패: {}", e.getMessage());
+                    return Mono.just(new HealthStatus(false, "unreachable", 0));
+                });
+    }
 
-            if (response.getStatusCode() == HttpStatus.OK) {
-                log.info("✅ RAG 서버에 답변 추가 완료");
-                return true;
-            }
+    /**
+     * 저장된 예시 통계 (rag-server /stats와 같은 형식)
+     */
+    public Mono<Map<String, Object>> getStats() {
+        if (embeddedStore.isEnabled()) {
+            return Mono.fromSupplier(() -> {
+                int count = embeddedStore.count();
+                Map<String, Object> stats = new LinkedHashMap<>();
+                stats.put("total_examples", count);
+                stats.put("collection_name", embeddedStore.getCollectionName());
+                stats.put("status", count > 0 ? "ok" : "empty");
+                return stats;
+            });
+        }
 
-            return false;
+        return getRemote("/stats")
+                .defaultIfEmpty(Map.of("status", "error"))
+                .onErrorResume(e -> {
+                    log.error("❌ RAG 서버 통계 조회 실패: {}", e.getMessage());
+                    return Mono.just(Map.of("status", "unreachable"));
+                });
+    }
 
-        } catch (Exception e) {
-            log.error("❌ RAG 서버 답변 추가 실패: {}", e.getMessage());
-            return false;
-        }
+    private Mono<Map<String, Object>> getRemote(String path) {
+        return webClient.get()
+                .uri(ragServerUrl + path)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
+                .timeout(Duration.ofMillis(timeoutMs));
     }
 
     /**
-     * RAG 서버 헬스 체크
-     *
-     * @return 서버 상태 및 저장된 예시 개수
+     * 검색 캐시 키
      */
-    public HealthStatus checkHealth() {
-        try {
-            String url = ragServerUrl + "/health";
-
-            @SuppressWarnings("unchecked")
-            ResponseEntity<Map<String, Object>> response = (ResponseEntity<Map<String, Object>>) (ResponseEntity<?>) restTemplate.getForEntity(url, Map.class);
-
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                String status = (String) response.getBody().get("status");
-                int count = ((Number) response.getBody().get("collection_count")).intValue();
+    private record SearchKey(String question, int topK) {
+    }
 
-                return new HealthStatus(true, status, count);
-            }
+    /**
+     * rag-server /search 응답
+     */
+    record SearchResponse(List<RemoteExample> examples) {
+    }
 
-            return new HealthStatus(false, "error", 0);
+    record RemoteExample(String question, String answer, Integer score, String category, Double similarity) {
 
-        } catch (Exception e) {
-            log.error("❌ RAG 서버 헬스 체크 실패: {}", e.getMessage());
-            return new HealthStatus(false, "unreachable", 0);
+        ExampleAnswer toExampleAnswer() {
+            return new ExampleAnswer(
+                    question,
+                    answer,
+                    score != null ? score : 0,
+                    category != null ? category : DEFAULT_CATEGORY,
+                    similarity != null ? similarity : 0.0);
         }
     }
 
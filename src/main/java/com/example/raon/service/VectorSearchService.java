@@ -1,12 +1,27 @@
 package com.example.raon.service;
 
+import com.example.raon.service.search.FlatVectorIndex;
+import com.example.raon.service.search.HnswIndex;
+import com.example.raon.service.search.HybridSearchEngine;
+import com.example.raon.service.search.LexicalSegments;
+import com.example.raon.service.search.MappedVectorIndex;
+import com.example.raon.service.search.QuantizedVectorIndex;
+import com.example.raon.service.search.SegmentedVectorIndex;
+import com.example.raon.service.search.TopKSelector;
+import com.example.raon.service.search.VectorIndex;
+import com.example.raon.service.search.VectorIndexSnapshot;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.LongFunction;
 
 /**
  * 벡터 검색 서비스
@@ -16,6 +31,179 @@ import java.util.List;
 @Service
 public class VectorSearchService {
 
+    /**
+     * 인덱스 종류: flat(브루트포스, 정확) / hnsw(근사, 대규모용) / quantized(int8·PQ 압축 + 재정렬)
+     */
+    @Value("${vector.index.type:flat}")
+    private String indexType;
+
+    @Value("${vector.index.hnsw.m:16}")
+    private int hnswM;
+
+    @Value("${vector.index.hnsw.ef-construction:200}")
+    private int hnswEfConstruction;
+
+    @Value("${vector.index.hnsw.ef-search:64}")
+    private int hnswEfSearch;
+
+    @Value("${vector.index.quantized.pq-subspaces:0}")
+    private int pqSubspaces;
+
+    @Value("${vector.index.quantized.rerank-factor:10}")
+    private int rerankFactor;
+
+    @Value("${vector.index.quantized.training-threshold:1000}")
+    private int trainingThreshold;
+
+    /**
+     * 인덱스 스냅샷 디렉터리 (비어 있으면 스냅샷 미사용)
+     */
+    @Value("${vector.index.snapshot.dir:}")
+    private String snapshotDir;
+
+    @Value("${vector.index.snapshot.verify-checksum:true}")
+    private boolean snapshotVerifyChecksum;
+
+    @Value("${search.hybrid.rrf-k:60}")
+    private int hybridRrfK;
+
+    @Value("${search.hybrid.candidate-factor:10}")
+    private int hybridCandidateFactor;
+
+    /**
+     * 항목 수가 이 값 이상이면 벡터 채점을 BM25 후보로 한정 (전체 스캔 생략)
+     */
+    @Value("${search.hybrid.prefilter-min-docs:1000}")
+    private int hybridPrefilterMinDocs;
+
+    /**
+     * 설정(vector.index.type)에 맞는 빈 벡터 인덱스 생성
+     */
+    public <T> VectorIndex<T> createIndex() {
+        if ("hnsw".equalsIgnoreCase(indexType)) {
+            log.info("🧭 HNSW 인덱스 생성 - M: {}, efConstruction: {}, efSearch: {}",
+                    hnswM, hnswEfConstruction, hnswEfSearch);
+            return new HnswIndex<>(hnswM, hnswEfConstruction, hnswEfSearch);
+        }
+        if ("quantized".equalsIgnoreCase(indexType)) {
+            log.info("🗜️ 양자화 인덱스 생성 - {}, 재정렬 배수: {}, 학습 기준: {}개",
+                    pqSubspaces > 0 ? "PQ(" + pqSubspaces + " 부분공간)" : "SQ8", rerankFactor, trainingThreshold);
+            return new QuantizedVectorIndex<>(pqSubspaces, rerankFactor, trainingThreshold);
+        }
+        return new FlatVectorIndex<>();
+    }
+
+    /**
+     * 스냅샷 없이 힙에만 두는 인덱스 생성 - quantized 설정이면 flat으로 대체
+     * 힙 양자화 인덱스는 재정렬용 원본(float32)과 코드를 함께 들고 있어 flat보다 메모리를 더 씀
+     * (양자화는 원본이 매핑 파일에 있는 loadSnapshot/saveSnapshot 경로에서만 이득)
+     */
+    public <T> VectorIndex<T> createInMemoryIndex() {
+        if ("quantized".equalsIgnoreCase(indexType)) {
+            return new FlatVectorIndex<>();
+        }
+        return createIndex();
+    }
+
+    public boolean isQuantized() {
+        return "quantized".equalsIgnoreCase(indexType);
+    }
+
+    /**
+     * 설정(search.hybrid.*)에 맞는 BM25 + 벡터 하이브리드 검색 엔진 생성
+     *
+     * @param vectorIndex items와 같은 순서로 구축된 인덱스 (null이면 어휘 검색만)
+     */
+    public <T> HybridSearchEngine<T> createHybridEngine(List<T> items, Function<T, String> textOf,
+                                                        VectorIndex<T> vectorIndex) {
+        return new HybridSearchEngine<>(items, textOf, vectorIndex,
+                hybridRrfK, hybridCandidateFactor, hybridPrefilterMinDocs);
+    }
+
+    /**
+     * 세그먼트 인덱스용 하이브리드 검색 엔진 - 새 세그먼트만 BM25 색인 (나머지는 lexicon에서 재사용)
+     */
+    public <T> HybridSearchEngine<T> createHybridEngine(SegmentedVectorIndex<T> index, LexicalSegments<T> lexicon) {
+        return HybridSearchEngine.overSegments(index, lexicon, hybridRrfK, hybridCandidateFactor, hybridPrefilterMinDocs);
+    }
+
+    /**
+     * 인덱스 종류와 파라미터 요약 - 스냅샷 버전에 포함해 설정이 바뀌면 스냅샷을 다시 만들도록 함
+     */
+    public String indexSignature() {
+        if ("hnsw".equalsIgnoreCase(indexType)) {
+            return "hnsw:" + hnswM + ":" + hnswEfConstruction;
+        }
+        if ("quantized".equalsIgnoreCase(indexType)) {
+            return "quantized:" + pqSubspaces + ":" + rerankFactor;
+        }
+        return "flat";
+    }
+
+    /**
+     * 스냅샷 파일을 메모리 매핑으로 로드
+     *
+     * @return 스냅샷이 없거나 버전 불일치/손상이면 empty
+     */
+    public <T> Optional<VectorIndex<T>> loadSnapshot(String name, String version, LongFunction<T> resolver) {
+        Path path = snapshotPath(name);
+        if (path == null || !Files.exists(path)) {
+            return Optional.empty();
+        }
+
+        try {
+            long startedAt = System.nanoTime();
+            MappedVectorIndex<T> index = VectorIndexSnapshot.open(path, version, resolver, snapshotVerifyChecksum);
+            index.setEfSearch(hnswEfSearch);
+            log.info("📂 인덱스 스냅샷 로드 - {} ({}개, {}KB 매핑, {}ms)",
+                    path, index.size(), index.mappedBytes() / 1024, (System.nanoTime() - startedAt) / 1_000_000);
+            if ("quantized".equalsIgnoreCase(indexType)) {
+                // 원본은 매핑 파일에 두고 힙에는 압축 코드만
+                return Optional.of(QuantizedVectorIndex.over(index, pqSubspaces, rerankFactor, trainingThreshold));
+            }
+            return Optional.of(index);
+        } catch (Exception e) {
+            log.warn("⚠️ 인덱스 스냅샷 사용 불가, 새로 구성 - {}: {}", path, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 인덱스를 스냅샷으로 저장한 뒤 메모리 매핑 인덱스로 전환 (벡터가 힙에서 빠짐)
+     * 양자화 인덱스는 원본 벡터를 저장하고, 매핑된 원본 위에서 코드만 힙에 둔 인덱스로 전환
+     * 스냅샷 미사용/미지원 인덱스이거나 저장에 실패하면 원래 인덱스를 그대로 반환
+     *
+     * @param ids 인덱스 순서와 같은 항목 ID
+     */
+    public <T> VectorIndex<T> saveSnapshot(String name, VectorIndex<T> index, long[] ids,
+                                          String version, LongFunction<T> resolver) {
+        Path path = snapshotPath(name);
+        if (path == null) {
+            return index;
+        }
+        if (!(index instanceof FlatVectorIndex<T>) && !(index instanceof HnswIndex<T>)
+                && !(index instanceof QuantizedVectorIndex<T>)) {
+            log.info("ℹ️ {} 인덱스는 스냅샷을 지원하지 않아 힙 인덱스로 유지", index.getClass().getSimpleName());
+            return index;
+        }
+
+        try {
+            VectorIndexSnapshot.write(index, ids, version, path);
+            log.info("💾 인덱스 스냅샷 저장 - {} ({}개)", path, index.size());
+            return loadSnapshot(name, version, resolver).orElse(index);
+        } catch (Exception e) {
+            log.warn("⚠️ 인덱스 스냅샷 저장 실패, 힙 인덱스로 유지 - {}: {}", path, e.getMessage());
+            return index;
+        }
+    }
+
+    private Path snapshotPath(String name) {
+        if (snapshotDir == null || snapshotDir.isBlank()) {
+            return null;
+        }
+        return Path.of(snapshotDir, name + ".vidx");
+    }
+
     /**
      * 코사인 유사도 계산
      *
@@ -60,23 +248,37 @@ public class VectorSearchService {
             double[] queryVector,
             List<VectorItem<T>> candidateVectors,
             int k) {
+        return searchTopK(queryVector, candidateVectors, k, Double.NEGATIVE_INFINITY);
+    }
 
-        log.debug("🔍 벡터 검색 시작 - 후보: {}개, Top-K: {}", candidateVectors.size(), k);
+    /**
+     * Top-K 유사 벡터 검색 (최소 유사도 임계값 적용)
+     * 전체 정렬 대신 크기 K의 최소 힙으로 선택하고, 선택된 K개만 SearchResult로 만든다
+     *
+     * @param queryVector 질의 벡터
+     * @param candidateVectors 후보 벡터 리스트
+     * @param k 반환할 상위 개수
+     * @param minSimilarity 최소 유사도 (0.0 ~ 1.0, 미만은 제외)
+     * @return 유사도 점수와 인덱스 리스트
+     */
+    public <T> List<SearchResult<T>> searchTopK(
+            double[] queryVector,
+            List<VectorItem<T>> candidateVectors,
+            int k,
+            double minSimilarity) {
 
-        List<SearchResult<T>> results = new ArrayList<>();
+        log.debug("🔍 벡터 검색 시작 - 후보: {}개, Top-K: {}", candidateVectors.size(), k);
 
+        TopKSelector selector = new TopKSelector(Math.max(0, Math.min(k, candidateVectors.size())), minSimilarity);
         for (int i = 0; i < candidateVectors.size(); i++) {
-            VectorItem<T> item = candidateVectors.get(i);
-            double similarity = cosineSimilarity(queryVector, item.getVector());
-            results.add(new SearchResult<>(item.getData(), similarity, i));
+            selector.offer(i, cosineSimilarity(queryVector, candidateVectors.get(i).getVector()));
         }
 
-        // 유사도 기준 내림차순 정렬 후 상위 K개 선택
-        results.sort(Comparator.comparingDouble(SearchResult<T>::getSimilarity).reversed());
-
-        List<SearchResult<T>> topK = results.stream()
-                .limit(k)
-                .toList();
+        List<SearchResult<T>> topK = new ArrayList<>(selector.size());
+        for (int rank = 0; rank < selector.size(); rank++) {
+            int index = selector.indexAt(rank);
+            topK.add(new SearchResult<>(candidateVectors.get(index).getData(), selector.scoreAt(rank), index));
+        }
 
         log.debug("✅ 벡터 검색 완료 - Top-{} 선택됨", topK.size());
 
@@ -89,6 +291,39 @@ public class VectorSearchService {
         return topK;
     }
 
+    /**
+     * Top-K 유사 벡터 검색 (FlatVectorIndex / HnswIndex)
+     * 정규화된 벡터를 내적만으로 비교하므로 후보마다 노름을 다시 계산하지 않음
+     *
+     * @param queryVector 질의 벡터
+     * @param index 검색 대상 인덱스
+     * @param k 반환할 상위 개수
+     * @return 유사도 점수와 인덱스 리스트
+     */
+    public <T> List<SearchResult<T>> searchTopK(
+            double[] queryVector,
+            VectorIndex<T> index,
+            int k) {
+        return searchTopK(queryVector, index, k, Double.NEGATIVE_INFINITY);
+    }
+
+    /**
+     * Top-K 유사 벡터 검색 (인덱스, 최소 유사도 임계값 적용)
+     */
+    public <T> List<SearchResult<T>> searchTopK(
+            double[] queryVector,
+            VectorIndex<T> index,
+            int k,
+            double minSimilarity) {
+
+        log.debug("🔍 벡터 검색 시작 ({}) - 후보: {}개, Top-K: {}", index.getClass().getSimpleName(), index.size(), k);
+
+        List<SearchResult<T>> topK = index.searchTopK(queryVector, k, minSimilarity);
+
+        log.debug("✅ 벡터 검색 완료 - Top-{} 선택됨", topK.size());
+        return topK;
+    }
+
     /**
      * 벡터 아이템 (데이터 + 벡터)
      */
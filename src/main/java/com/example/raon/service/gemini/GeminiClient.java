@@ -0,0 +1,400 @@
+package com.example.raon.service.gemini;
+
+import com.example.raon.util.AdaptiveConcurrencyLimiter;
+import com.example.raon.util.SingleFlight;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClientRequest;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * Gemini generateContent 클라이언트
+ *
+ * - 공용 WebClient(커넥션 풀) 사용 - 생성되는 동안 요청 스레드를 점유하지 않음
+ * - 시도당 제한 시간(gemini.generate.timeout-seconds) - 공용 HttpClient의 응답 제한(30초)보다 길게 요청별로 지정
+ * - 503/429는 지수 백오프 + 지터로 재시도 (Thread.sleep 없이 타이머로 대기)
+ * - 요청/응답은 타입이 있는 record (GenerateContentRequest / GenerateContentResponse)
+ * - generateContentShared는 진행 중인 같은 요청에 합류 (더블 클릭/프론트 재시도로 동시에 들어온 중복 호출 제거)
+ * - systemInstruction이 있는 요청은 GeminiContextCache로 등록한 cachedContent를 참조해 전송
+ * - streamGenerateContent(SSE)는 생성되는 조각을 바로 흘려보냄 - 조각 사이 제한 시간으로 멈춘 스트림을 끊음
+ * - fallbackModel을 지정하면 503/429 때 백오프 없이 더 가벼운 모델로 바로 전환 (GeminiModelRouter 참고)
+ * - 모든 시도는 적응형 동시 호출 제한(AdaptiveConcurrencyLimiter)을 거침
+ *   503/429/시간 초과가 나면 동시 호출 상한을 줄이고, 정상 응답이 이어지면 다시 늘림
+ *   상한이 차면 우선순위 대기열에서 기다림 - 사용자가 기다리는 첨삭(INTERACTIVE)이 Judge 평가(BACKGROUND)보다 먼저
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GeminiClient {
+
+    private final WebClient webClient;
+    private final MeterRegistry meterRegistry;
+    private final GeminiContextCache contextCache;
+
+    @Value("${gemini.api.key}")
+    private String geminiApiKey;
+
+    @Value("${gemini.api.base-url:https://generativelanguage.googleapis.com/v1beta}")
+    private String apiBaseUrl;
+
+    @Value("${gemini.generate.model:gemini-2.5-flash}")
+    private String defaultModel;
+
+    @Value("${gemini.generate.timeout-seconds:120}")
+    private long timeoutSeconds;
+
+    /**
+     * 스트리밍 응답에서 다음 조각을 기다릴 최대 시간 (전체 생성 시간이 아니라 조각 사이 간격)
+     */
+    @Value("${gemini.generate.stream.idle-timeout-seconds:30}")
+    private long streamIdleTimeoutSeconds;
+
+    @Value("${gemini.generate.retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${gemini.generate.retry.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+
+    @Value("${gemini.generate.retry.max-backoff-ms:8000}")
+    private long maxBackoffMs;
+
+    /**
+     * 백오프 지터 비율 (0.0-1.0) - 동시에 실패한 요청들이 같은 순간에 재시도하지 않도록 분산
+     */
+    @Value("${gemini.generate.retry.jitter:0.5}")
+    private double jitter;
+
+    @Value("${gemini.generate.limiter.initial-limit:8}")
+    private int limiterInitialLimit;
+
+    @Value("${gemini.generate.limiter.min-limit:2}")
+    private int limiterMinLimit;
+
+    @Value("${gemini.generate.limiter.max-limit:32}")
+    private int limiterMaxLimit;
+
+    @Value("${gemini.generate.limiter.max-queue:64}")
+    private int limiterMaxQueue;
+
+    @Value("${gemini.generate.limiter.max-wait-ms:30000}")
+    private long limiterMaxWaitMs;
+
+    /**
+     * 과부하(503/429/시간 초과) 시 동시 호출 상한에 곱할 비율
+     */
+    @Value("${gemini.generate.limiter.backoff-ratio:0.8}")
+    private double limiterBackoffRatio;
+
+    /**
+     * 이보다 오래 걸린 generateContent 응답도 과부하로 보고 상한을 줄임 (0이면 사용 안 함, 스트리밍은 제외)
+     */
+    @Value("${gemini.generate.limiter.latency-threshold-ms:60000}")
+    private long limiterLatencyThresholdMs;
+
+    private SingleFlight<String, GenerateContentResponse> singleFlight;
+
+    private AdaptiveConcurrencyLimiter limiter;
+
+    /**
+     * 호출 우선순위 - 선언 순서대로 먼저 실행
+     */
+    public enum Priority {
+        /**
+         * 사용자가 화면에서 결과를 기다리는 호출 (첨삭, 면접 피드백)
+         */
+        INTERACTIVE,
+        /**
+         * 늦어져도 되는 호출 (Judge 평가 등)
+         */
+        BACKGROUND
+    }
+
+    @PostConstruct
+    public void init() {
+        singleFlight = new SingleFlight<>("gemini.generate");
+        Gauge.builder("gemini.generate.inflight", singleFlight, SingleFlight::inFlightCount)
+                .description("진행 중인 서로 다른 generateContent 호출 수")
+                .register(meterRegistry);
+        FunctionCounter.builder("gemini.generate.coalesced", singleFlight, SingleFlight::coalescedCount)
+                .description("진행 중인 같은 요청에 합류해 생략한 generateContent 호출 수")
+                .register(meterRegistry);
+
+        limiter = new AdaptiveConcurrencyLimiter("gemini-generate", limiterInitialLimit, limiterMinLimit, limiterMaxLimit,
+                limiterMaxQueue, Duration.ofMillis(limiterMaxWaitMs), limiterBackoffRatio,
+                Duration.ofMillis(limiterLatencyThresholdMs));
+        Gauge.builder("gemini.generate.limiter.limit", limiter, AdaptiveConcurrencyLimiter::currentLimit)
+                .description("현재 Gemini 동시 호출 상한")
+                .register(meterRegistry);
+        Gauge.builder("gemini.generate.limiter.active", limiter, AdaptiveConcurrencyLimiter::inFlightCount)
+                .description("실행 중인 Gemini 호출 수 (재시도 대기 제외)")
+                .register(meterRegistry);
+        Gauge.builder("gemini.generate.limiter.queued", limiter, AdaptiveConcurrencyLimiter::queuedCount)
+                .description("동시 호출 상한에 막혀 대기 중인 Gemini 호출 수")
+                .register(meterRegistry);
+        FunctionCounter.builder("gemini.generate.limiter.rejected", limiter, AdaptiveConcurrencyLimiter::rejectedCount)
+                .description("대기열이 가득 찼거나 대기 시간을 넘겨 거절한 Gemini 호출 수")
+                .register(meterRegistry);
+        FunctionCounter.builder("gemini.generate.limiter.decreases", limiter, AdaptiveConcurrencyLimiter::decreaseCount)
+                .description("과부하로 동시 호출 상한을 줄인 횟수")
+                .register(meterRegistry);
+        log.info("✅ Gemini 동시 호출 제한 - 시작 {}, 범위 {}-{}, 대기열 {}, 최대 대기 {}ms",
+                limiterInitialLimit, limiterMinLimit, limiterMaxLimit, limiterMaxQueue, limiterMaxWaitMs);
+    }
+
+    public Mono<GenerateContentResponse> generateContent(GenerateContentRequest request) {
+        return generateContent(defaultModel, request);
+    }
+
+    public Mono<GenerateContentResponse> generateContent(String model, GenerateContentRequest request) {
+        return generateContent(model, request, Priority.INTERACTIVE);
+    }
+
+    /**
+     * generateContent 호출 (구독 시점에 요청, 재시도 포함)
+     */
+    public Mono<GenerateContentResponse> generateContent(String model, GenerateContentRequest request, Priority priority) {
+        return generate(model, request, priority, true);
+    }
+
+    /**
+     * generateContent 호출 - model이 503/429를 반환하면 백오프로 기다리지 않고 바로 fallbackModel로 호출
+     * (fallbackModel 호출은 일반 재시도 적용, fallbackModel이 null이면 generateContent와 같음)
+     */
+    public Mono<GenerateContentResponse> generateContent(String model, String fallbackModel,
+                                                         GenerateContentRequest request, Priority priority) {
+        if (fallbackModel == null || fallbackModel.equals(model)) {
+            return generate(model, request, priority, true);
+        }
+        return generate(model, request, priority, false)
+                .onErrorResume(GeminiClient::isRetryable, error -> {
+                    log.warn("⚠️ Gemini {} - 모델 {} 과부하, 대기 없이 {}로 전환", statusOf(error), model, fallbackModel);
+                    meterRegistry.counter("gemini.generate.fallback", "from", model, "to", fallbackModel).increment();
+                    return generate(fallbackModel, request, priority, true)
+                            .map(GenerateContentResponse::asFallback);
+                });
+    }
+
+    /**
+     * cachedContent는 모델별로 등록되므로 모델마다 따로 적용
+     */
+    private Mono<GenerateContentResponse> generate(String model, GenerateContentRequest request, Priority priority,
+                                                   boolean retry) {
+        return contextCache.apply(model, request)
+                .flatMap(actual -> post(model, actual, priority, retry)
+                        .onErrorResume(error -> isStaleCachedContent(actual, error), error -> {
+                            log.warn("⚠️ cachedContent 사용 불가 ({}) - 지시문을 그대로 보내 다시 호출", statusOf(error));
+                            contextCache.invalidate(model, request);
+                            return post(model, request, priority, retry);
+                        }));
+    }
+
+    /**
+     * 시도마다 동시 호출 제한을 새로 거침 - 재시도 백오프 동안은 자리를 차지하지 않음
+     * 시도별 소요 시간은 모델 태그로 기록 (gemini.generate.latency)
+     *
+     * @param retry 503/429 재시도 여부 (다른 모델로 전환할 호출은 재시도하지 않음)
+     */
+    private Mono<GenerateContentResponse> post(String model, GenerateContentRequest request, Priority priority,
+                                               boolean retry) {
+        Duration timeout = Duration.ofSeconds(timeoutSeconds);
+        Mono<GenerateContentResponse> attempts = Mono.defer(() -> {
+                    long queuedAt = System.nanoTime();
+                    return limiter.execute(priority.ordinal(), () -> {
+                        recordWait(priority, queuedAt);
+                        Timer.Sample sample = Timer.start(meterRegistry);
+                        return webClient.post()
+                                .uri(apiBaseUrl + "/models/{model}:generateContent?key={key}", model, geminiApiKey)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .httpRequest(httpRequest -> {
+                                    HttpClientRequest reactorRequest = httpRequest.getNativeRequest();
+                                    reactorRequest.responseTimeout(timeout);
+                                })
+                                .bodyValue(request)
+                                .retrieve()
+                                .bodyToMono(GenerateContentResponse.class)
+                                .timeout(timeout)
+                                .doOnSubscribe(subscription -> log.info("🤖 Gemini generateContent 호출 - 모델: {}", model))
+                                .doFinally(signal -> sample.stop(Timer.builder("gemini.generate.latency")
+                                        .description("Gemini generateContent 시도별 소요 시간")
+                                        .tag("model", model)
+                                        .tag("outcome", switch (signal) {
+                                            case ON_COMPLETE -> "success";
+                                            case ON_ERROR -> "error";
+                                            default -> "cancel";
+                                        })
+                                        .publishPercentileHistogram()
+                                        .register(meterRegistry)));
+                    }, GeminiClient::isOverloaded);
+                });
+        return (retry ? attempts.retryWhen(retrySpec(GeminiClient::isRetryable)) : attempts)
+                .doOnNext(response -> log.info("✅ Gemini 응답 수신 - 모델: {}, 종료 사유: {}, 입력 토큰: {}", model,
+                        response.finishReason(), promptTokensOf(response)));
+    }
+
+    public Mono<GenerateContentResponse> generateContentShared(GenerateContentRequest request) {
+        return generateContentShared(defaultModel, request);
+    }
+
+    /**
+     * generateContent 호출 - 같은 요청(모델 + 프롬프트 + 생성 설정)이 이미 진행 중이면 새로 호출하지 않고 합류
+     *
+     * 합류한 요청이 모두 취소됐을 때만 Gemini 호출을 취소 (하나가 끊겨도 나머지는 결과를 받음)
+     */
+    public Mono<GenerateContentResponse> generateContentShared(String model, GenerateContentRequest request) {
+        return generateContentShared(model, request, Priority.INTERACTIVE);
+    }
+
+    /**
+     * 우선순위 지정 - 이미 진행 중인 같은 요청에 합류하면 먼저 시작한 호출의 우선순위를 따름
+     */
+    public Mono<GenerateContentResponse> generateContentShared(String model, GenerateContentRequest request,
+                                                               Priority priority) {
+        return singleFlight.execute(request.contentHash(model), () -> generateContent(model, request, priority));
+    }
+
+    /**
+     * 과부하 시 전환할 모델 지정 - 합류 키는 처음 고른 모델 기준
+     */
+    public Mono<GenerateContentResponse> generateContentShared(String model, String fallbackModel,
+                                                               GenerateContentRequest request, Priority priority) {
+        return singleFlight.execute(request.contentHash(model),
+                () -> generateContent(model, fallbackModel, request, priority));
+    }
+
+    public Flux<GenerateContentResponse> streamGenerateContent(GenerateContentRequest request) {
+        return streamGenerateContent(defaultModel, request);
+    }
+
+    /**
+     * streamGenerateContent 호출 (alt=sse) - 생성된 조각마다 GenerateContentResponse 하나
+     *
+     * 재시도는 첫 조각을 받기 전 실패(연결 시점의 503/429)에만 적용 - 이미 흘려보낸 조각이 중복되지 않도록
+     */
+    public Flux<GenerateContentResponse> streamGenerateContent(String model, GenerateContentRequest request) {
+        return contextCache.apply(model, request)
+                .flatMapMany(actual -> stream(model, actual)
+                        .onErrorResume(error -> isStaleCachedContent(actual, error), error -> {
+                            log.warn("⚠️ cachedContent 사용 불가 ({}) - 지시문을 그대로 보내 다시 호출", statusOf(error));
+                            contextCache.invalidate(model, request);
+                            return stream(model, request);
+                        }));
+    }
+
+    private Flux<GenerateContentResponse> stream(String model, GenerateContentRequest request) {
+        Duration idleTimeout = Duration.ofSeconds(streamIdleTimeoutSeconds);
+        return Flux.defer(() -> {
+            AtomicBoolean received = new AtomicBoolean();
+            return Flux.defer(() -> {
+                        long queuedAt = System.nanoTime();
+                        return limiter.executeMany(Priority.INTERACTIVE.ordinal(), () -> {
+                            recordWait(Priority.INTERACTIVE, queuedAt);
+                            return webClient.post()
+                                    .uri(apiBaseUrl + "/models/{model}:streamGenerateContent?alt=sse&key={key}", model, geminiApiKey)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .accept(MediaType.TEXT_EVENT_STREAM)
+                                    .httpRequest(httpRequest -> {
+                                        HttpClientRequest reactorRequest = httpRequest.getNativeRequest();
+                                        reactorRequest.responseTimeout(idleTimeout);
+                                    })
+                                    .bodyValue(request)
+                                    .retrieve()
+                                    .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<GenerateContentResponse>>() {
+                                    })
+                                    .mapNotNull(ServerSentEvent::data)
+                                    .timeout(idleTimeout)
+                                    .doOnNext(chunk -> received.set(true))
+                                    .doOnSubscribe(subscription -> log.info("🤖 Gemini streamGenerateContent 호출 - 모델: {}", model));
+                        }, GeminiClient::isOverloaded);
+                    })
+                    .retryWhen(retrySpec(error -> !received.get() && isRetryable(error)))
+                    .doOnComplete(() -> log.info("✅ Gemini 스트림 완료 - 모델: {}", model));
+        });
+    }
+
+    public String getDefaultModel() {
+        return defaultModel;
+    }
+
+    private Retry retrySpec(Predicate<Throwable> retryable) {
+        return Retry.backoff(Math.max(0, maxAttempts - 1), Duration.ofMillis(initialBackoffMs))
+                .maxBackoff(Duration.ofMillis(maxBackoffMs))
+                .jitter(jitter)
+                .filter(retryable)
+                .doBeforeRetry(signal -> log.warn("⚠️ Gemini {} - 재시도 {}/{}",
+                        statusOf(signal.failure()), signal.totalRetries() + 1, maxAttempts - 1))
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    /**
+     * 과부하 응답만 재시도 (503 Service Unavailable, 429 Too Many Requests)
+     */
+    static boolean isRetryable(Throwable error) {
+        return error instanceof WebClientResponseException responseError
+                && (responseError.getStatusCode().value() == HttpStatus.SERVICE_UNAVAILABLE.value()
+                || responseError.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value());
+    }
+
+    /**
+     * 동시 호출 상한을 줄일 실패 - 과부하 응답과 시도당 제한 시간 초과
+     */
+    static boolean isOverloaded(Throwable error) {
+        return isRetryable(error) || error instanceof TimeoutException;
+    }
+
+    private void recordWait(Priority priority, long queuedAt) {
+        Timer.builder("gemini.generate.limiter.wait")
+                .description("동시 호출 상한 때문에 Gemini 호출이 대기한 시간")
+                .tag("priority", priority.name().toLowerCase())
+                .register(meterRegistry)
+                .record(Duration.ofNanos(System.nanoTime() - queuedAt));
+    }
+
+    /**
+     * 참조한 cachedContent가 서버에서 삭제/만료된 경우 (403/404) - 연결 시점 오류라 아직 받은 조각이 없음
+     */
+    private static boolean isStaleCachedContent(GenerateContentRequest request, Throwable error) {
+        return request.cachedContent() != null
+                && error instanceof WebClientResponseException responseError
+                && (responseError.getStatusCode().value() == HttpStatus.FORBIDDEN.value()
+                || responseError.getStatusCode().value() == HttpStatus.NOT_FOUND.value());
+    }
+
+    /**
+     * 입력 토큰 수 로그용 - cachedContent를 쓴 경우 "전체 (캐시 n)"
+     */
+    private static String promptTokensOf(GenerateContentResponse response) {
+        GenerateContentResponse.UsageMetadata usage = response.usageMetadata();
+        if (usage == null || usage.promptTokenCount() == null) {
+            return "-";
+        }
+        return usage.cachedContentTokenCount() == null
+                ? String.valueOf(usage.promptTokenCount())
+                : usage.promptTokenCount() + " (캐시 " + usage.cachedContentTokenCount() + ")";
+    }
+
+    private static String statusOf(Throwable error) {
+        return error instanceof WebClientResponseException responseError
+                ? String.valueOf(responseError.getStatusCode().value())
+                : error.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.raon.service.gemini;
+
+import com.example.raon.util.HashUtils;
+import com.example.raon.util.SingleFlight;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gemini 명시적 컨텍스트 캐시 (cachedContents)
+ *
+ * 요청마다 같은 systemInstruction(평가 기준, 응답 형식 등 - FeedbackPrompts 참고)을 한 번 등록해 두고
+ * 이후 요청은 cachedContent 이름만 참조 → 요청마다 보내고 처리하는 입력 토큰이 고정 부분만큼 줄어듦
+ *
+ * - 키: SHA-256(모델 + systemInstruction) - 문구가 바뀌면 새로 등록
+ * - 등록은 키 단위로 한 번만 (동시에 들어온 첫 요청들은 같은 등록을 기다림)
+ * - 만료 refresh-before-seconds 전부터는 사용할 때 TTL을 연장 (쓰이지 않는 캐시는 그대로 만료되어 보관 비용 없음)
+ * - 등록 실패(최소 토큰 수 미달 등) 시 failure-backoff-seconds 동안 systemInstruction을 그대로 보냄
+ * - 오프라인 테스트: GeminiStubController의 cachedContents 스텁
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GeminiContextCache {
+
+    private final WebClient webClient;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${gemini.api.key}")
+    private String geminiApiKey;
+
+    @Value("${gemini.api.base-url:https://generativelanguage.googleapis.com/v1beta}")
+    private String apiBaseUrl;
+
+    @Value("${gemini.context-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gemini.context-cache.ttl-seconds:3600}")
+    private long ttlSeconds;
+
+    /**
+     * 만료까지 이 시간보다 적게 남았으면 사용할 때 TTL 연장
+     */
+    @Value("${gemini.context-cache.refresh-before-seconds:300}")
+    private long refreshBeforeSeconds;
+
+    /**
+     * 등록/연장 실패 후 다시 시도하기 전까지 systemInstruction을 그대로 보내는 시간
+     */
+    @Value("${gemini.context-cache.failure-backoff-seconds:600}")
+    private long failureBackoffSeconds;
+
+    @Value("${gemini.context-cache.timeout-seconds:30}")
+    private long timeoutSeconds;
+
+    private final ConcurrentHashMap<String, CachedContext> contexts = new ConcurrentHashMap<>();
+
+    private SingleFlight<String, CachedContext> registrations;
+
+    @PostConstruct
+    public void init() {
+        registrations = new SingleFlight<>("gemini.context-cache");
+        Gauge.builder("gemini.context.cache.entries", contexts, map -> map.values().stream()
+                        .filter(CachedContext::isRegistered)
+                        .count())
+                .description("등록되어 있는 Gemini cachedContents 수")
+                .register(meterRegistry);
+        log.info("✅ Gemini 컨텍스트 캐시 - 사용: {}, TTL {}초, 만료 {}초 전 연장", enabled, ttlSeconds, refreshBeforeSeconds);
+    }
+
+    /**
+     * systemInstruction이 있는 요청을 cachedContent 참조 요청으로 변환
+     * 사용하지 않도록 설정했거나 등록할 수 없으면 원래 요청 그대로 반환
+     */
+    public Mono<GenerateContentRequest> apply(String model, GenerateContentRequest request) {
+        String instruction = request.instructionText();
+        if (!enabled || instruction == null || request.cachedContent() != null) {
+            return Mono.just(request);
+        }
+        String key = HashUtils.sha256Hex(model, instruction);
+        return resolve(key, model, request.systemInstruction())
+                .map(request::withCachedContent)
+                .defaultIfEmpty(request);
+    }
+
+    /**
+     * 등록된 cachedContent를 더 이상 쓸 수 없을 때 (서버에서 삭제/만료) - 다음 요청에서 다시 등록
+     */
+    public void invalidate(String model, GenerateContentRequest request) {
+        String instruction = request.instructionText();
+        if (instruction != null) {
+            contexts.remove(HashUtils.sha256Hex(model, instruction));
+        }
+    }
+
+    private Mono<String> resolve(String key, String model, GenerateContentRequest.Content systemInstruction) {
+        Instant now = Instant.now();
+        CachedContext context = contexts.get(key);
+        if (context != null && !context.isRegistered() && now.isBefore(context.retryAfter())) {
+            return Mono.empty();
+        }
+        if (context != null && context.isRegistered()
+                && now.isBefore(context.expireTime().minusSeconds(refreshBeforeSeconds))) {
+            meterRegistry.counter("gemini.context.cache.requests", "result", "hit").increment();
+            return Mono.just(context.name());
+        }
+
+        boolean renewable = context != null && context.isRegistered() && now.isBefore(context.expireTime());
+        return registrations.execute(key, () -> renewable
+                        ? refresh(context).onErrorResume(e -> create(key, model, systemInstruction))
+                        : create(key, model, systemInstruction))
+                .doOnNext(registered -> {
+                    contexts.put(key, registered);
+                    meterRegistry.counter("gemini.context.cache.requests", "result", renewable ? "refreshed" : "created")
+                            .increment();
+                })
+                .map(CachedContext::name)
+                .onErrorResume(e -> {
+                    log.warn("⚠️ Gemini 컨텍스트 캐시 등록 실패 - {}초 동안 지시문을 그대로 전송: {}",
+                            failureBackoffSeconds, e.getMessage());
+                    contexts.put(key, CachedContext.failed(now.plusSeconds(failureBackoffSeconds)));
+                    meterRegistry.counter("gemini.context.cache.requests", "result", "fallback").increment();
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<CachedContext> create(String key, String model, GenerateContentRequest.Content systemInstruction) {
+        CreateCachedContentRequest body = new CreateCachedContentRequest(
+                "models/" + model, systemInstruction, ttlSeconds + "s", "raon-" + key.substring(0, 12));
+        return webClient.post()
+                .uri(apiBaseUrl + "/cachedContents?key={key}", geminiApiKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .retrieve()
+                .bodyToMono(CachedContentResponse.class)
+                .timeout(Duration.ofSeconds(timeoutSeconds))
+                .map(this::toContext)
+                .doOnNext(context -> log.info("✅ Gemini 컨텍스트 캐시 등록 - {}, 모델: {}, 만료: {}",
+                        context.name(), model, context.expireTime()));
+    }
+
+    private Mono<CachedContext> refresh(CachedContext context) {
+        // name은 "cachedContents/{id}" 형태라 URI 변수로 넘기면 '/'가 인코딩되므로 경로에 그대로 붙임
+        return webClient.patch()
+                .uri(apiBaseUrl + "/" + context.name() + "?updateMask=ttl&key={key}", geminiApiKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UpdateTtlRequest(ttlSeconds + "s"))
+                .retrieve()
+                .bodyToMono(CachedContentResponse.class)
+                .timeout(Duration.ofSeconds(timeoutSeconds))
+                .map(this::toContext)
+                .doOnNext(updated -> log.info("🔄 Gemini 컨텍스트 캐시 TTL 연장 - {}, 만료: {}", updated.name(), updated.expireTime()));
+    }
+
+    private CachedContext toContext(CachedContentResponse response) {
+        Instant expireTime;
+        try {
+            expireTime = response.expireTime() != null
+                    ? Instant.parse(response.expireTime())
+                    : Instant.now().plusSeconds(ttlSeconds);
+        } catch (DateTimeParseException e) {
+            expireTime = Instant.now().plusSeconds(ttlSeconds);
+        }
+        return new CachedContext(response.name(), expireTime, null);
+    }
+
+    /**
+     * @param name 등록된 이름 (등록 실패 표시면 null)
+     * @param retryAfter 등록 실패 표시일 때 다시 시도할 시각
+     */
+    private record CachedContext(String name, Instant expireTime, Instant retryAfter) {
+
+        static CachedContext failed(Instant retryAfter) {
+            return new CachedContext(null, null, retryAfter);
+        }
+
+        boolean isRegistered() {
+            return name != null;
+        }
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record CreateCachedContentRequest(String model, GenerateContentRequest.Content systemInstruction,
+                                      String ttl, String displayName) {
+    }
+
+    record UpdateTtlRequest(String ttl) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record CachedContentResponse(String name, String expireTime) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.raon.service.gemini;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+/**
+ * Gemini 응답 텍스트 → 피드백 JSON (Jackson 스트리밍 파서로 한 번만 읽음)
+ *
+ * - 응답 앞의 코드 펜스("```json")나 설명 문장은 첫 '{'까지 건너뜀 - responseMimeType=application/json이면 보통 바로 '{'
+ * - 첫 JSON 객체가 끝나는 위치에서 멈춤 - 뒤에 붙은 펜스/문장은 읽지 않음
+ * - 읽으면서 바로 타입에 바인딩하고, 같은 위치 정보로 원본 JSON 구간을 잘라 둠 (트리/Map을 만들지 않음)
+ * - JSON이 잘렸거나(MAX_TOKENS) 형식이 틀리면 이전과 같이 첫 '{' ~ 마지막 '}' 구간을 그대로 반환
+ */
+public final class GeminiJsonDecoder {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private GeminiJsonDecoder() {
+    }
+
+    /**
+     * 타입 바인딩 + JSON 구간 (바인딩에 실패하면 value는 null)
+     */
+    public static <T> Decoded<T> decode(String text, Class<T> type) {
+        int start = text.indexOf('{');
+        if (start < 0) {
+            return new Decoded<>(null, text.strip());
+        }
+        try (JsonParser parser = parserFrom(text, start)) {
+            T value = MAPPER.readValue(parser, type);
+            return new Decoded<>(value, text.substring(start, endOf(parser, start)));
+        } catch (IOException e) {
+            return new Decoded<>(null, fallbackJson(text, start));
+        }
+    }
+
+    /**
+     * JSON 구간만 (바인딩 없이 토큰만 건너뛰며 끝 위치를 찾음)
+     */
+    public static String jsonText(String text) {
+        int start = text.indexOf('{');
+        if (start < 0) {
+            return text.strip();
+        }
+        try (JsonParser parser = parserFrom(text, start)) {
+            parser.nextToken();
+            parser.skipChildren();
+            return text.substring(start, endOf(parser, start));
+        } catch (IOException e) {
+            return fallbackJson(text, start);
+        }
+    }
+
+    /**
+     * start부터 읽는 파서 - 앞부분을 잘라낸 문자열을 새로 만들지 않음
+     */
+    private static JsonParser parserFrom(String text, int start) throws IOException {
+        StringReader reader = new StringReader(text);
+        reader.skip(start);
+        return MAPPER.createParser(reader);
+    }
+
+    /**
+     * 마지막으로 읽은 토큰('}') 바로 뒤 위치 (원본 텍스트 기준)
+     */
+    private static int endOf(JsonParser parser, int start) {
+        return start + (int) parser.currentLocation().getCharOffset();
+    }
+
+    private static String fallbackJson(String text, int start) {
+        int end = text.lastIndexOf('}');
+        return end > start ? text.substring(start, end + 1) : text.substring(start).strip();
+    }
+
+    /**
+     * @param value 바인딩한 값 (JSON이 불완전하거나 형식이 다르면 null)
+     * @param json 응답에서 잘라낸 JSON 텍스트 (저장/전달용)
+     */
+    public record Decoded<T>(T value, String json) {
+    }
+}
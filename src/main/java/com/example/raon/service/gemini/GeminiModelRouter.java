@@ -0,0 +1,85 @@
+package com.example.raon.service.gemini;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 요청 종류와 평가 대상 길이로 Gemini 모델 등급(full / light)과 최대 응답 길이 선택
+ *
+ * - full: gemini.generate.model (기본 gemini-2.5-flash) - 프롬프트에 정한 최대 응답 길이 그대로
+ * - light: gemini.routing.light-model (기본 gemini-2.5-flash-lite) - 짧은 면접 답변처럼 평가할 내용이 적은 요청
+ *   thinking 없이 바로 생성하므로 응답이 훨씬 빠르고, 최대 응답 길이도 light-max-output-tokens로 줄임
+ * - 자기소개서 첨삭(수정본 전문 작성)과 Judge는 항상 full - 대신 full이 503/429면 light로 바로 전환
+ * - 결정 지표: gemini.routing.decisions{kind, tier}, 등급별 소요 시간: gemini.generate.latency{model}
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GeminiModelRouter {
+
+    private final GeminiClient geminiClient;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${gemini.routing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gemini.routing.light-model:gemini-2.5-flash-lite}")
+    private String lightModel;
+
+    /**
+     * 평가 대상(면접 답변)이 이 글자 수 이하면 light 사용
+     */
+    @Value("${gemini.routing.light-max-subject-chars:1500}")
+    private int lightMaxSubjectChars;
+
+    @Value("${gemini.routing.light-max-output-tokens:4096}")
+    private int lightMaxOutputTokens;
+
+    /**
+     * full 모델이 과부하(503/429)일 때 재시도 대기 대신 light로 전환
+     */
+    @Value("${gemini.routing.fallback-on-overload:true}")
+    private boolean fallbackOnOverload;
+
+    public enum Kind {
+        RESUME_FEEDBACK,
+        INTERVIEW_FEEDBACK,
+        JUDGE
+    }
+
+    /**
+     * @param model 호출할 모델
+     * @param fallbackModel 과부하 시 전환할 모델 (없으면 null)
+     * @param tier "full" / "light" (지표/로그용)
+     * @param request 최대 응답 길이를 등급에 맞춘 요청
+     */
+    public record Route(String model, String fallbackModel, String tier, GenerateContentRequest request) {
+    }
+
+    /**
+     * @param subjectChars 평가 대상 글자 수 (자기소개서 본문, 면접자 답변 합계 등 - RAG 예시/지시문 제외)
+     */
+    public Route route(Kind kind, int subjectChars, GenerateContentRequest request) {
+        String fullModel = geminiClient.getDefaultModel();
+        Route route;
+        if (!enabled) {
+            route = new Route(fullModel, null, "full", request);
+        } else if (kind == Kind.INTERVIEW_FEEDBACK && subjectChars <= lightMaxSubjectChars) {
+            route = new Route(lightModel, null, "light", request.withMaxOutputTokens(lightMaxOutputTokens));
+        } else {
+            route = new Route(fullModel, fallbackOnOverload ? lightModel : null, "full", request);
+        }
+
+        meterRegistry.counter("gemini.routing.decisions", "kind", kind.name(), "tier", route.tier()).increment();
+        log.info("🧭 모델 라우팅 - {}, 평가 대상 {}자 → {} ({}), 최대 응답 {}토큰", kind, subjectChars, route.tier(),
+                route.model(), maxOutputTokensOf(route.request()));
+        return route;
+    }
+
+    private static Object maxOutputTokensOf(GenerateContentRequest request) {
+        return request.generationConfig() != null ? request.generationConfig().maxOutputTokens() : "-";
+    }
+}
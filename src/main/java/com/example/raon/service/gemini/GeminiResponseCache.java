@@ -0,0 +1,205 @@
+package com.example.raon.service.gemini;
+
+import com.example.raon.domain.GeminiResponseCacheEntry;
+import com.example.raon.repository.GeminiResponseCacheEntryRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+/**
+ * Gemini 생성 응답 캐시 (같은 자기소개서 재제출, 새로고침 대응)
+ *
+ * - 키: GenerateContentRequest.contentHash - 렌더링된 프롬프트, 생성 설정, 모델이 모두 같아야 히트
+ * - 1계층: Caffeine (응답 텍스트 크기 기준 가중치 상한 + TTL)
+ * - 2계층 (선택): gemini_response_cache 테이블 - 재시작 후에도 유지, 읽을 때 만료 여부 확인
+ * - 정상 종료(STOP)한 응답만 저장 - MAX_TOKENS로 잘렸거나 차단된 응답은 다음 요청에서 다시 생성
+ *   요청한 모델이 아닌 모델(과부하 시 전환한 light 모델)이 생성한 응답도 저장하지 않음
+ * - 히트/미스 지표: /actuator/metrics/cache.gets?tag=cache:geminiResponse
+ *
+ * 첨삭/Judge는 temperature 0.2-0.3이라 같은 요청의 응답이 사실상 같으므로 재사용해도 품질 차이가 없음
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GeminiResponseCache {
+
+    private static final String CACHE_NAME = "geminiResponse";
+    private static final String FINISH_REASON_STOP = "STOP";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final GeminiResponseCacheEntryRepository repository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${gemini.response-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gemini.response-cache.max-weight-mb:16}")
+    private long maxWeightMb;
+
+    @Value("${gemini.response-cache.ttl-seconds:3600}")
+    private long ttlSeconds;
+
+    @Value("${gemini.response-cache.persistent.enabled:false}")
+    private boolean persistentEnabled;
+
+    @Value("${gemini.response-cache.persistent.ttl-seconds:604800}")
+    private long persistentTtlSeconds;
+
+    private Cache<String, GenerateContentResponse> cache;
+
+    private Counter persistentHits;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightMb * 1024 * 1024)
+                .weigher((String key, GenerateContentResponse response) -> (key.length() + lengthOf(response)) * 2)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        persistentHits = Counter.builder("gemini.response.cache.persistent.hits")
+                .description("메모리 캐시 미스 후 DB 캐시에서 찾은 Gemini 응답 수")
+                .register(meterRegistry);
+
+        log.info("✅ Gemini 응답 캐시 초기화 - 사용: {}, 최대 {}MB, TTL {}초, DB 계층: {}",
+                enabled, maxWeightMb, ttlSeconds, persistentEnabled ? persistentTtlSeconds + "초" : "미사용");
+    }
+
+    /**
+     * 시작 시 만료된 DB 캐시 항목 정리
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void purgeExpired() {
+        if (!enabled || !persistentEnabled) {
+            return;
+        }
+        try {
+            int deleted = repository.deleteCreatedBefore(persistentThreshold());
+            log.info("🧹 만료된 Gemini 응답 캐시 {}건 삭제", deleted);
+        } catch (Exception e) {
+            log.warn("⚠️ Gemini 응답 캐시 정리 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 캐시된 응답이 있으면 바로 반환하고, 없으면 generator로 생성한 뒤 저장
+     */
+    public Mono<GenerateContentResponse> getOrGenerate(String model, GenerateContentRequest request,
+                                                       Supplier<Mono<GenerateContentResponse>> generator) {
+        if (!enabled) {
+            return Mono.defer(generator);
+        }
+        String key = request.contentHash(model);
+        return lookup(key)
+                .switchIfEmpty(Mono.defer(generator)
+                        .flatMap(response -> store(key, model, response).thenReturn(response)));
+    }
+
+    /**
+     * 캐시 조회만 (스트리밍처럼 생성 결과를 직접 모으는 호출용) - 없으면 빈 Mono
+     */
+    public Mono<GenerateContentResponse> lookup(String model, GenerateContentRequest request) {
+        return enabled ? lookup(request.contentHash(model)) : Mono.empty();
+    }
+
+    /**
+     * 생성된 응답 저장 (정상 종료한 응답만)
+     */
+    public Mono<Void> store(String model, GenerateContentRequest request, GenerateContentResponse response) {
+        return enabled ? store(request.contentHash(model), model, response) : Mono.empty();
+    }
+
+    private Mono<GenerateContentResponse> lookup(String key) {
+        GenerateContentResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            log.info("⚡ Gemini 응답 캐시 히트 - 키: {}", key.substring(0, 12));
+            return Mono.just(cached);
+        }
+        if (!persistentEnabled) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> repository.findById(key)
+                        .filter(entry -> !entry.isExpired(persistentThreshold()))
+                        .map(entry -> readResponse(entry.getResponseJson()))
+                        .orElse(null))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnNext(response -> {
+                    cache.put(key, response);
+                    persistentHits.increment();
+                    log.info("⚡ Gemini 응답 DB 캐시 히트 - 키: {}", key.substring(0, 12));
+                })
+                .onErrorResume(e -> {
+                    log.warn("⚠️ Gemini 응답 DB 캐시 조회 실패 (생성으로 진행): {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> store(String key, String model, GenerateContentResponse response) {
+        if (response.text() == null || !FINISH_REASON_STOP.equals(response.finishReason())) {
+            return Mono.empty();
+        }
+
+        // 과부하로 더 가벼운 모델이 대신 생성한 응답은 원래 모델의 키로 저장하지 않음
+        if (response.fallback()) {
+            return Mono.empty();
+        }
+        cache.put(key, response);
+        if (!persistentEnabled) {
+            return Mono.empty();
+        }
+        return Mono.fromRunnable(() -> repository.save(GeminiResponseCacheEntry.builder()
+                        .cacheKey(key)
+                        .model(model)
+                        .responseJson(writeResponse(response))
+                        .build()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(e -> {
+                    log.warn("⚠️ Gemini 응답 DB 캐시 저장 실패 (응답은 정상 반환): {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private LocalDateTime persistentThreshold() {
+        return LocalDateTime.now().minusSeconds(persistentTtlSeconds);
+    }
+
+    private GenerateContentResponse readResponse(String json) {
+        try {
+            return objectMapper.readValue(json, GenerateContentResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("캐시된 Gemini 응답 역직렬화 실패", e);
+        }
+    }
+
+    private String writeResponse(GenerateContentResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Gemini 응답 직렬화 실패", e);
+        }
+    }
+
+    private static int lengthOf(GenerateContentResponse response) {
+        String text = response.text();
+        return text == null ? 0 : text.length();
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.raon.service.gemini;
+
+import com.example.raon.util.HashUtils;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gemini generateContent 요청 본문
+ * null 필드는 전송하지 않음 (API 기본값 사용)
+ *
+ * @param systemInstruction 요청마다 같은 고정 지시문 (GeminiContextCache가 cachedContent로 바꿔 보낼 수 있음)
+ * @param cachedContent 미리 등록한 cachedContents 이름 - 지정하면 systemInstruction은 보내지 않음
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record GenerateContentRequest(List<Content> contents, Content systemInstruction,
+                                     GenerationConfig generationConfig, String cachedContent) {
+
+    private static final ObjectMapper HASH_MAPPER = new ObjectMapper();
+
+    /**
+     * 사용자 프롬프트 하나로 된 요청
+     */
+    public static GenerateContentRequest ofPrompt(String prompt, GenerationConfig generationConfig) {
+        return new GenerateContentRequest(List.of(Content.user(prompt)), null, generationConfig, null);
+    }
+
+    /**
+     * 고정 지시문(systemInstruction) + 요청별 사용자 프롬프트로 된 요청
+     */
+    public static GenerateContentRequest withInstruction(String instruction, String prompt,
+                                                         GenerationConfig generationConfig) {
+        return new GenerateContentRequest(List.of(Content.user(prompt)), Content.system(instruction),
+                generationConfig, null);
+    }
+
+    /**
+     * systemInstruction 대신 등록된 cachedContent를 참조하는 요청
+     */
+    public GenerateContentRequest withCachedContent(String cachedContentName) {
+        return new GenerateContentRequest(contents, null, generationConfig, cachedContentName);
+    }
+
+    /**
+     * 최대 응답 길이만 바꾼 요청 (생성 설정이 없으면 그대로)
+     */
+    public GenerateContentRequest withMaxOutputTokens(int maxOutputTokens) {
+        if (generationConfig == null) {
+            return this;
+        }
+        return new GenerateContentRequest(contents, systemInstruction,
+                generationConfig.withMaxOutputTokens(maxOutputTokens), cachedContent);
+    }
+
+    /**
+     * systemInstruction 텍스트 (없으면 null)
+     */
+    public String instructionText() {
+        if (systemInstruction == null || systemInstruction.parts() == null) {
+            return null;
+        }
+        StringBuilder text = new StringBuilder();
+        systemInstruction.parts().forEach(part -> text.append(part.text()));
+        return text.toString();
+    }
+
+    /**
+     * 요청 식별 해시 - SHA-256(모델 + 요청 JSON), 프롬프트와 생성 설정이 모두 같아야 같은 값
+     * 응답 캐시 키와 진행 중인 중복 호출을 합치는 키로 사용
+     * (cachedContent로 바꾸기 전 요청 기준이므로 cachedContent가 다시 등록돼도 값이 바뀌지 않음)
+     */
+    public String contentHash(String model) {
+        try {
+            return HashUtils.sha256Hex(model, HASH_MAPPER.writeValueAsString(this));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Gemini 요청 직렬화 실패", e);
+        }
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Content(String role, List<Part> parts) {
+
+        public static Content user(String text) {
+            return new Content("user", List.of(new Part(text)));
+        }
+
+        /**
+         * systemInstruction용 (role 없음)
+         */
+        public static Content system(String text) {
+            return new Content(null, List.of(new Part(text)));
+        }
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Part(String text) {
+    }
+
+    /**
+     * 생성 설정
+     *
+     * @param temperature 낮을수록 일관적 (0.0-1.0)
+     * @param topP 누적 확률 상위 토큰만 사용
+     * @param topK 상위 K개 토큰 중 선택
+     * @param maxOutputTokens 최대 응답 길이 (thinking 토큰 포함)
+     * @param candidateCount 생성할 응답 후보 수
+     * @param responseMimeType "application/json"이면 코드 펜스나 설명 없이 JSON만 생성
+     * @param responseSchema 응답 JSON 형식 (responseMimeType이 application/json일 때)
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record GenerationConfig(Double temperature, Double topP, Integer topK,
+                                   Integer maxOutputTokens, Integer candidateCount,
+                                   String responseMimeType, Schema responseSchema) {
+
+        public GenerationConfig(Double temperature, Double topP, Integer topK,
+                                Integer maxOutputTokens, Integer candidateCount) {
+            this(temperature, topP, topK, maxOutputTokens, candidateCount, null, null);
+        }
+
+        public GenerationConfig withMaxOutputTokens(int maxOutputTokens) {
+            return new GenerationConfig(temperature, topP, topK, maxOutputTokens, candidateCount,
+                    responseMimeType, responseSchema);
+        }
+
+        /**
+         * 스키마에 맞는 JSON만 생성하도록 지정한 설정
+         */
+        public GenerationConfig withJsonSchema(Schema schema) {
+            return new GenerationConfig(temperature, topP, topK, maxOutputTokens, candidateCount,
+                    "application/json", schema);
+        }
+    }
+
+    /**
+     * 응답 JSON 스키마 (Gemini가 지원하는 OpenAPI 스키마 부분집합)
+     *
+     * @param type OBJECT, ARRAY, STRING, NUMBER, INTEGER, BOOLEAN
+     * @param properties OBJECT의 필드 (선언 순서 유지)
+     * @param required 반드시 생성할 필드
+     * @param propertyOrdering 필드 생성 순서 - 스트리밍 시 필드가 이 순서대로 완성됨
+     * @param items ARRAY의 원소 형식
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Schema(String type, String description, Map<String, Schema> properties, List<String> required,
+                         List<String> propertyOrdering, Schema items) {
+
+        public static Schema object() {
+            return new Schema("OBJECT", null, new LinkedHashMap<>(), new ArrayList<>(), new ArrayList<>(), null);
+        }
+
+        public static Schema array(Schema items) {
+            return new Schema("ARRAY", null, null, null, null, items);
+        }
+
+        public static Schema string(String description) {
+            return new Schema("STRING", description, null, null, null, null);
+        }
+
+        public static Schema number(String description) {
+            return new Schema("NUMBER", description, null, null, null, null);
+        }
+
+        /**
+         * 필수 필드 추가 (추가한 순서가 생성 순서)
+         */
+        public Schema with(String name, Schema schema) {
+            Map<String, Schema> nextProperties = new LinkedHashMap<>(properties);
+            nextProperties.put(name, schema);
+            List<String> nextRequired = new ArrayList<>(required);
+            nextRequired.add(name);
+            List<String> nextOrdering = new ArrayList<>(propertyOrdering);
+            nextOrdering.add(name);
+            return new Schema(type, description, nextProperties, nextRequired, nextOrdering, items);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.raon.service.gemini;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+
+/**
+ * Gemini generateContent 응답 (사용하는 필드만)
+ *
+ * @param fallback 요청한 모델이 과부하라 다른 모델이 대신 생성한 응답 (API 필드 아님 - 응답 캐시에 저장하지 않음)
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record GenerateContentResponse(List<Candidate> candidates, UsageMetadata usageMetadata, String modelVersion,
+                                      @JsonIgnore boolean fallback) {
+
+    /**
+     * 텍스트 하나로 된 응답 (스트리밍 조각을 이어 붙인 결과를 캐시에 저장할 때 사용)
+     */
+    public static GenerateContentResponse ofText(String text, String finishReason, String modelVersion) {
+        return new GenerateContentResponse(
+                List.of(new Candidate(new Content("model", List.of(new Part(text, null))), finishReason)),
+                null, modelVersion, false);
+    }
+
+    /**
+     * 다른 모델이 대신 생성했다고 표시한 응답
+     */
+    public GenerateContentResponse asFallback() {
+        return new GenerateContentResponse(candidates, usageMetadata, modelVersion, true);
+    }
+
+    /**
+     * 첫 번째 후보의 텍스트 파트를 이어 붙인 결과 (후보나 텍스트가 없으면 null)
+     */
+    public String text() {
+        if (candidates == null || candidates.isEmpty()) {
+            return null;
+        }
+        Candidate candidate = candidates.get(0);
+        if (candidate.content() == null || candidate.content().parts() == null) {
+            return null;
+        }
+
+        StringBuilder text = new StringBuilder();
+        for (Part part : candidate.content().parts()) {
+            if (part.text() != null && !Boolean.TRUE.equals(part.thought())) {
+                text.append(part.text());
+            }
+        }
+        return text.isEmpty() ? null : text.toString();
+    }
+
+    /**
+     * 첫 번째 후보의 종료 사유 (STOP, MAX_TOKENS, SAFETY 등)
+     */
+    public String finishReason() {
+        return candidates == null || candidates.isEmpty() ? null : candidates.get(0).finishReason();
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Candidate(Content content, String finishReason) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Content(String role, List<Part> parts) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Part(String text, Boolean thought) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record UsageMetadata(Integer promptTokenCount, Integer cachedContentTokenCount, Integer candidatesTokenCount,
+                                Integer thoughtsTokenCount, Integer totalTokenCount) {
+    }
+}
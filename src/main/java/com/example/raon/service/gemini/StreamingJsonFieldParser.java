@@ -0,0 +1,199 @@
+package com.example.raon.service.gemini;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 스트리밍으로 도착하는 JSON 객체 텍스트를 조각 단위로 받아, 완성된 최상위 필드를 바로 알려주는 파서
+ *
+ * - 최상위 필드 값이 끝나면 (',' 또는 닫는 '}') FieldCompleted
+ * - 최상위 필드 값이 배열이면 원소가 끝날 때마다 ElementCompleted ("sections"의 섹션 하나하나)
+ * - 첫 '{' 앞의 코드 펜스나 설명 문장, 닫는 '}' 뒤의 텍스트는 무시
+ *
+ * 값은 원본 JSON 텍스트 그대로 넘기므로 역직렬화는 호출하는 쪽에서 한다.
+ * 한 응답에 하나씩 생성해서 쓰고, 스레드 안전하지 않다.
+ */
+public final class StreamingJsonFieldParser {
+
+    public sealed interface Event permits FieldCompleted, ElementCompleted {
+    }
+
+    /**
+     * @param name 최상위 필드 이름
+     * @param json 필드 값의 JSON 텍스트
+     */
+    public record FieldCompleted(String name, String json) implements Event {
+    }
+
+    /**
+     * @param field 배열 값을 가진 최상위 필드 이름
+     * @param index 배열 안에서의 위치 (0부터)
+     * @param json 원소의 JSON 텍스트
+     */
+    public record ElementCompleted(String field, int index, String json) implements Event {
+    }
+
+    private final StringBuilder buffer = new StringBuilder();
+    private int position;
+
+    private boolean started;
+    private boolean complete;
+    private int depth;
+    private boolean inString;
+    private boolean escaped;
+
+    private int keyStart = -1;
+    private String currentKey;
+    private boolean awaitingValue;
+    private int valueStart = -1;
+    private boolean arrayValue;
+    private int elementStart = -1;
+    private int elementIndex;
+
+    /**
+     * 텍스트 조각 추가 - 이번 조각으로 완성된 필드/원소를 순서대로 반환
+     */
+    public List<Event> feed(CharSequence chunk) {
+        buffer.append(chunk);
+        List<Event> events = new ArrayList<>();
+        for (; position < buffer.length() && !complete; position++) {
+            process(buffer.charAt(position), events);
+        }
+        return events;
+    }
+
+    /**
+     * 최상위 객체가 닫혔는지 여부
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * 지금까지 받은 전체 텍스트
+     */
+    public String text() {
+        return buffer.toString();
+    }
+
+    private void process(char c, List<Event> events) {
+        if (!started) {
+            if (c == '{') {
+                started = true;
+                depth = 1;
+            }
+            return;
+        }
+
+        if (inString) {
+            if (escaped) {
+                escaped = false;
+            } else if (c == '\\') {
+                escaped = true;
+            } else if (c == '"') {
+                inString = false;
+                if (keyStart >= 0) {
+                    currentKey = unescape(buffer.substring(keyStart + 1, position));
+                    keyStart = -1;
+                }
+            }
+            return;
+        }
+
+        if (Character.isWhitespace(c)) {
+            return;
+        }
+
+        if (depth == 1 && currentKey == null && c == '"') {
+            keyStart = position;
+            inString = true;
+            return;
+        }
+        if (depth == 1 && currentKey != null && valueStart < 0 && !awaitingValue && c == ':') {
+            awaitingValue = true;
+            return;
+        }
+        if (awaitingValue) {
+            awaitingValue = false;
+            valueStart = position;
+            arrayValue = c == '[';
+        }
+        if (depth == 2 && arrayValue && elementStart < 0 && c != ']' && c != ',') {
+            elementStart = position;
+        }
+
+        switch (c) {
+            case '"' -> inString = true;
+            case '{', '[' -> depth++;
+            case '}', ']' -> {
+                if (depth == 2 && arrayValue && c == ']') {
+                    completeElement(events);
+                }
+                depth--;
+                if (depth == 0) {
+                    completeField(events);
+                    complete = true;
+                }
+            }
+            case ',' -> {
+                if (depth == 1) {
+                    completeField(events);
+                } else if (depth == 2 && arrayValue) {
+                    completeElement(events);
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void completeField(List<Event> events) {
+        if (currentKey != null && valueStart >= 0) {
+            events.add(new FieldCompleted(currentKey, buffer.substring(valueStart, position).trim()));
+        }
+        currentKey = null;
+        valueStart = -1;
+        arrayValue = false;
+        elementStart = -1;
+        elementIndex = 0;
+    }
+
+    private void completeElement(List<Event> events) {
+        if (elementStart >= 0) {
+            events.add(new ElementCompleted(currentKey, elementIndex++, buffer.substring(elementStart, position).trim()));
+            elementStart = -1;
+        }
+    }
+
+    /**
+     * 필드 이름의 이스케이프 해제 (필드 이름은 보통 ASCII라 흔한 경우만 처리)
+     */
+    private static String unescape(String raw) {
+        if (raw.indexOf('\\') < 0) {
+            return raw;
+        }
+        StringBuilder result = new StringBuilder(raw.length());
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (c == '\\' && i + 1 < raw.length()) {
+                char next = raw.charAt(++i);
+                if (next == 'u' && i + 4 < raw.length()) {
+                    result.append((char) Integer.parseInt(raw.substring(i + 1, i + 5), 16));
+                    i += 4;
+                } else {
+                    result.append(switch (next) {
+                        case 'n' -> '\n';
+                        case 't' -> '\t';
+                        case 'r' -> '\r';
+                        case 'b' -> '\b';
+                        case 'f' -> '\f';
+                        default -> next;
+                    });
+                }
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.raon.service.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * BM25 역색인 (생성 후 변경 불가, 여러 스레드에서 동시 검색 가능)
+ *
+ * score(d, q) = Σ idf(t) · tf(t, d) · (k1 + 1) / (tf(t, d) + k1 · (1 - b + b · |d| / avgdl))
+ * 질의어 포스팅에 있는 문서만 점수를 누적하므로 비용은 매칭 수에 비례한다.
+ * 세그먼트별 색인을 하나처럼 검색할 때는 accumulate에 전체 세그먼트 합산 통계(idf, 평균 길이)를 넘긴다.
+ */
+final class Bm25Index {
+
+    static final double DEFAULT_K1 = 1.2;
+    static final double DEFAULT_B = 0.75;
+
+    private final double k1;
+    private final double b;
+    private final int documentCount;
+    private final int[] documentLengths;
+    private final long totalLength;
+    private final double averageLength;
+    private final Map<String, Postings> postings;
+
+    /**
+     * @param documents 문서별 토큰 목록 (문서 번호 = 목록 순서)
+     */
+    Bm25Index(List<List<String>> documents, double k1, double b) {
+        this.k1 = k1;
+        this.b = b;
+        this.documentCount = documents.size();
+        this.documentLengths = new int[documentCount];
+
+        Map<String, List<int[]>> building = new HashMap<>();
+        long totalLength = 0;
+        for (int doc = 0; doc < documentCount; doc++) {
+            List<String> tokens = documents.get(doc);
+            documentLengths[doc] = tokens.size();
+            totalLength += tokens.size();
+
+            Map<String, Integer> termFrequencies = new HashMap<>();
+            for (String token : tokens) {
+                termFrequencies.merge(token, 1, Integer::sum);
+            }
+            for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+                building.computeIfAbsent(entry.getKey(), key -> new ArrayList<>()).add(new int[]{doc, entry.getValue()});
+            }
+        }
+        this.totalLength = totalLength;
+        this.averageLength = documentCount == 0 ? 0 : (double) totalLength / documentCount;
+
+        this.postings = new HashMap<>(building.size() * 2);
+        building.forEach((term, list) -> {
+            int[] docs = new int[list.size()];
+            int[] frequencies = new int[list.size()];
+            for (int i = 0; i < list.size(); i++) {
+                docs[i] = list.get(i)[0];
+                frequencies[i] = list.get(i)[1];
+            }
+            postings.put(term, new Postings(docs, frequencies));
+        });
+    }
+
+    /**
+     * 상위 limit개 문서 번호 (점수 내림차순, 동점이면 문서 번호 오름차순)
+     */
+    int[] search(List<String> queryTokens, int limit) {
+        Map<Integer, Double> scores = new HashMap<>();
+        for (String term : new LinkedHashSet<>(queryTokens)) {
+            int frequency = documentFrequency(term);
+            if (frequency > 0) {
+                accumulate(term, idf(documentCount, frequency), averageLength, 0, null, scores);
+            }
+        }
+        return topK(scores, limit);
+    }
+
+    /**
+     * term 포스팅의 문서 점수를 scores에 더함
+     *
+     * @param idf 질의어 idf (세그먼트 검색이면 전체 세그먼트 기준)
+     * @param averageLength 평균 문서 길이 (세그먼트 검색이면 전체 세그먼트 기준)
+     * @param offset 문서 번호에 더할 전역 위치
+     * @param excluded 제외할 전역 위치 (예: 삭제 표시, null이면 모두 포함)
+     */
+    void accumulate(String term, double idf, double averageLength, int offset, IntPredicate excluded,
+                    Map<Integer, Double> scores) {
+        Postings list = postings.get(term);
+        if (list == null) {
+            return;
+        }
+        for (int i = 0; i < list.docs.length; i++) {
+            int position = offset + list.docs[i];
+            if (excluded != null && excluded.test(position)) {
+                continue;
+            }
+            int tf = list.frequencies[i];
+            double norm = k1 * (1 - b + b * documentLengths[list.docs[i]] / averageLength);
+            scores.merge(position, idf * tf * (k1 + 1) / (tf + norm), Double::sum);
+        }
+    }
+
+    static double idf(long documentCount, long documentFrequency) {
+        return Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    /**
+     * 누적 점수 상위 limit개 위치 (점수 내림차순, 동점이면 위치 오름차순)
+     */
+    static int[] topK(Map<Integer, Double> scores, int limit) {
+        TopKSelector selector = new TopKSelector(Math.min(limit, scores.size()));
+        scores.forEach(selector::offer);
+
+        int[] ranked = new int[selector.size()];
+        for (int rank = 0; rank < ranked.length; rank++) {
+            ranked[rank] = selector.indexAt(rank);
+        }
+        return ranked;
+    }
+
+    int documentFrequency(String term) {
+        Postings list = postings.get(term);
+        return list == null ? 0 : list.docs.length;
+    }
+
+    long totalLength() {
+        return totalLength;
+    }
+
+    int size() {
+        return documentCount;
+    }
+
+    private record Postings(int[] docs, int[] frequencies) {
+    }
+}
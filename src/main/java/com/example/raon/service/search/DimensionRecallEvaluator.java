@@ -0,0 +1,77 @@
+package com.example.raon.service.search;
+
+import com.example.raon.service.VectorSearchService;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 축소 차원 임베딩의 recall@k 평가 (Matryoshka 차원 선택용)
+ *
+ * 전체 차원 벡터로 구한 Top-K를 정답으로 두고, 같은 벡터를 앞쪽 d개 성분으로 잘라
+ * 재정규화한 공간의 Top-K가 정답을 얼마나 포함하는지 측정한다.
+ * 벡터당 메모리와 내적 비용은 차원에 비례하므로 함께 보고 차원을 고른다.
+ */
+public final class DimensionRecallEvaluator {
+
+    private DimensionRecallEvaluator() {
+    }
+
+    /**
+     * @param dimension 평가한 차원
+     * @param recallAtK 질의별 |축소 Top-K ∩ 전체 Top-K| / |전체 Top-K|의 평균 (0 ~ 1)
+     * @param vectorBytes float32 기준 벡터당 바이트
+     */
+    public record Result(int dimension, int k, double recallAtK, long vectorBytes) {
+    }
+
+    /**
+     * @param corpus 전체 차원 문서 벡터
+     * @param queries 전체 차원 질의 벡터
+     * @param dimensions 평가할 차원 목록 (전체 차원보다 크면 전체 차원으로 평가)
+     */
+    public static List<Result> evaluate(List<double[]> corpus, List<double[]> queries, int[] dimensions, int k) {
+        if (corpus.isEmpty() || queries.isEmpty() || k <= 0) {
+            throw new IllegalArgumentException("문서/질의가 비어 있거나 k가 0 이하입니다");
+        }
+        int fullDimension = corpus.get(0).length;
+
+        List<Set<Integer>> expected = new ArrayList<>(queries.size());
+        for (List<VectorSearchService.SearchResult<Integer>> results : buildIndex(corpus, fullDimension).searchTopKBatch(queries, k)) {
+            expected.add(indexSet(results));
+        }
+
+        List<Result> evaluated = new ArrayList<>(dimensions.length);
+        for (int dimension : dimensions) {
+            int reduced = Math.min(dimension, fullDimension);
+            List<double[]> reducedQueries = queries.stream().map(query -> VectorOps.truncate(query, reduced)).toList();
+            List<List<VectorSearchService.SearchResult<Integer>>> actual =
+                    buildIndex(corpus, reduced).searchTopKBatch(reducedQueries, k);
+
+            double recallSum = 0.0;
+            for (int q = 0; q < queries.size(); q++) {
+                Set<Integer> hits = indexSet(actual.get(q));
+                hits.retainAll(expected.get(q));
+                recallSum += expected.get(q).isEmpty() ? 1.0 : (double) hits.size() / expected.get(q).size();
+            }
+            evaluated.add(new Result(reduced, k, recallSum / queries.size(), (long) reduced * Float.BYTES));
+        }
+        return evaluated;
+    }
+
+    private static FlatVectorIndex<Integer> buildIndex(List<double[]> corpus, int dimension) {
+        FlatVectorIndex<Integer> index = new FlatVectorIndex<>(dimension, corpus.size());
+        for (int i = 0; i < corpus.size(); i++) {
+            index.add(i, VectorOps.truncate(corpus.get(i), dimension));
+        }
+        return index;
+    }
+
+    private static Set<Integer> indexSet(List<VectorSearchService.SearchResult<Integer>> results) {
+        Set<Integer> indexes = new HashSet<>();
+        results.forEach(result -> indexes.add(result.getData()));
+        return indexes;
+    }
+}
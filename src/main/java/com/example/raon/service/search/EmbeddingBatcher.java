@@ -0,0 +1,140 @@
+package com.example.raon.service.search;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * 임베딩 요청 마이크로 배칭
+ *
+ * 동시에 들어온 요청을 짧은 대기 시간(window) 동안 모았다가 한 번의 배치 호출로 전송
+ * - 첫 요청이 들어온 시점부터 window가 지나거나 maxBatchSize에 도달하면 즉시 전송
+ * - 배치 결과는 요청 순서대로 각 호출자의 future에 전달
+ * - 배치 호출은 가상 스레드에서 실행되므로 여러 배치가 동시에 진행될 수 있음
+ */
+@Slf4j
+public class EmbeddingBatcher implements AutoCloseable {
+
+    private final Function<List<String>, List<double[]>> batchFunction;
+    private final long windowNanos;
+    private final int maxBatchSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private List<PendingRequest> pending = new ArrayList<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    /**
+     * @param batchFunction 텍스트 목록 → 같은 순서의 벡터 목록
+     * @param windowMillis 첫 요청 이후 추가 요청을 기다리는 시간 (ms)
+     * @param maxBatchSize 한 번에 전송할 최대 요청 수
+     */
+    public EmbeddingBatcher(Function<List<String>, List<double[]>> batchFunction, long windowMillis, int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize는 1 이상이어야 합니다: " + maxBatchSize);
+        }
+        this.batchFunction = batchFunction;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, windowMillis));
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "embedding-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 임베딩 요청 등록
+     *
+     * @return 해당 텍스트의 벡터로 완료되는 future (배치 실패 시 예외로 완료)
+     */
+    public CompletableFuture<double[]> submit(String text) {
+        PendingRequest request = new PendingRequest(text, new CompletableFuture<>());
+        List<PendingRequest> fullBatch = null;
+
+        lock.lock();
+        try {
+            pending.add(request);
+            if (pending.size() >= maxBatchSize) {
+                fullBatch = drain();
+            } else if (pending.size() == 1) {
+                scheduledFlush = scheduler.schedule(this::flush, windowNanos, TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (fullBatch != null) {
+            dispatch(fullBatch);
+        }
+        return request.future();
+    }
+
+    /**
+     * 대기 중인 요청을 즉시 전송
+     */
+    public void flush() {
+        List<PendingRequest> batch;
+        lock.lock();
+        try {
+            batch = drain();
+        } finally {
+            lock.unlock();
+        }
+
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    private List<PendingRequest> drain() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        List<PendingRequest> batch = pending;
+        pending = new ArrayList<>();
+        return batch;
+    }
+
+    private void dispatch(List<PendingRequest> batch) {
+        executor.execute(() -> {
+            try {
+                List<String> texts = batch.stream().map(PendingRequest::text).toList();
+                List<double[]> vectors = batchFunction.apply(texts);
+                if (vectors.size() != batch.size()) {
+                    throw new IllegalStateException(
+                            "배치 응답 개수 불일치 - 요청: " + batch.size() + ", 응답: " + vectors.size());
+                }
+
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).future().complete(vectors.get(i));
+                }
+                log.debug("📦 임베딩 배치 완료 - {}건", batch.size());
+            } catch (Throwable e) {
+                batch.forEach(request -> request.future().completeExceptionally(e));
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        flush();
+        scheduler.shutdownNow();
+        executor.close();
+    }
+
+    private record PendingRequest(String text, CompletableFuture<double[]> future) {
+    }
+}
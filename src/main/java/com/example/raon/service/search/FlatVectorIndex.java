@@ -0,0 +1,187 @@
+package com.example.raon.service.search;
+
+import com.example.raon.service.VectorSearchService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 연속 메모리 기반 float32 벡터 인덱스 (브루트포스)
+ *
+ * 모든 벡터를 L2 정규화한 뒤 하나의 float[] 블록에 [dimension] 간격으로 저장하므로
+ * 검색 시 노름 재계산 없이 내적만으로 코사인 유사도를 구한다.
+ * 768차원 기준 벡터당 약 3KB (double[] 대비 절반)
+ *
+ * 쓰기(add)는 단일 스레드에서 인덱스를 구축하는 용도이며, 구축이 끝난 뒤의 검색은 여러 스레드에서 호출해도 안전하다.
+ */
+public class FlatVectorIndex<T> implements VectorIndex<T> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final List<T> items = new ArrayList<>();
+    private float[] data;
+    private int dimension;
+    private int size;
+
+    public FlatVectorIndex() {
+        this(0, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param dimension 벡터 차원 (0이면 첫 add 시점에 결정)
+     * @param initialCapacity 초기 벡터 수용량
+     */
+    public FlatVectorIndex(int dimension, int initialCapacity) {
+        this.dimension = dimension;
+        this.data = new float[dimension * Math.max(1, initialCapacity)];
+    }
+
+    @Override
+    public int add(T item, double[] vector) {
+        return addNormalized(item, VectorOps.normalize(vector));
+    }
+
+    /**
+     * 이미 L2 정규화된 벡터 추가
+     */
+    @Override
+    public int addNormalized(T item, float[] normalized) {
+        if (dimension == 0) {
+            dimension = normalized.length;
+            data = new float[dimension * DEFAULT_CAPACITY];
+        }
+        if (normalized.length != dimension) {
+            throw new IllegalArgumentException(
+                    String.format("벡터 차원이 일치하지 않습니다 (인덱스: %d, 입력: %d)", dimension, normalized.length));
+        }
+
+        ensureCapacity(size + 1);
+        System.arraycopy(normalized, 0, data, size * dimension, dimension);
+        items.add(item);
+        return size++;
+    }
+
+    @Override
+    public List<VectorSearchService.SearchResult<T>> searchTopK(double[] queryVector, int k, double minSimilarity) {
+        return searchTopKNormalized(VectorOps.normalize(queryVector), k, minSimilarity);
+    }
+
+    public List<VectorSearchService.SearchResult<T>> searchTopKNormalized(float[] query, int k, double minSimilarity) {
+        int n = size;
+        if (n == 0 || k <= 0) {
+            return List.of();
+        }
+        if (query.length != dimension) {
+            throw new IllegalArgumentException("벡터 차원이 일치하지 않습니다");
+        }
+
+        // 유사도(0 ~ 1) 임계값을 코사인(-1 ~ 1) 기준으로 변환해서 비교
+        TopKSelector selector = new TopKSelector(Math.min(k, n), VectorOps.toCosine(minSimilarity));
+        float[] block = data;
+        for (int i = 0; i < n; i++) {
+            selector.offer(i, VectorOps.dot(query, 0, block, i * dimension, dimension));
+        }
+
+        List<VectorSearchService.SearchResult<T>> results = new ArrayList<>(selector.size());
+        for (int rank = 0; rank < selector.size(); rank++) {
+            int index = selector.indexAt(rank);
+            results.add(new VectorSearchService.SearchResult<>(
+                    items.get(index), VectorOps.toSimilarity(selector.scoreAt(rank)), index));
+        }
+        return results;
+    }
+
+    /**
+     * 여러 질의를 한 번의 스캔으로 검색 - 저장 벡터를 한 번 읽을 때 모든 질의와 내적
+     * (질의별 스캔 대비 벡터 블록을 메모리에서 읽는 횟수가 질의 수만큼 줄어듦)
+     */
+    @Override
+    public List<List<VectorSearchService.SearchResult<T>>> searchTopKBatch(List<double[]> queryVectors, int k) {
+        int n = size;
+        if (n == 0 || k <= 0 || queryVectors.isEmpty()) {
+            List<List<VectorSearchService.SearchResult<T>>> empty = new ArrayList<>(queryVectors.size());
+            queryVectors.forEach(query -> empty.add(List.of()));
+            return empty;
+        }
+
+        float[][] queries = new float[queryVectors.size()][];
+        TopKSelector[] selectors = new TopKSelector[queries.length];
+        for (int q = 0; q < queries.length; q++) {
+            queries[q] = VectorOps.normalize(queryVectors.get(q));
+            if (queries[q].length != dimension) {
+                throw new IllegalArgumentException("벡터 차원이 일치하지 않습니다");
+            }
+            selectors[q] = new TopKSelector(Math.min(k, n));
+        }
+
+        float[] block = data;
+        for (int i = 0; i < n; i++) {
+            int offset = i * dimension;
+            for (int q = 0; q < queries.length; q++) {
+                selectors[q].offer(i, VectorOps.dot(queries[q], 0, block, offset, dimension));
+            }
+        }
+
+        List<List<VectorSearchService.SearchResult<T>>> results = new ArrayList<>(queries.length);
+        for (TopKSelector selector : selectors) {
+            List<VectorSearchService.SearchResult<T>> ranked = new ArrayList<>(selector.size());
+            for (int rank = 0; rank < selector.size(); rank++) {
+                int index = selector.indexAt(rank);
+                ranked.add(new VectorSearchService.SearchResult<>(
+                        items.get(index), VectorOps.toSimilarity(selector.scoreAt(rank)), index));
+            }
+            results.add(ranked);
+        }
+        return results;
+    }
+
+    /**
+     * 정규화된 질의와 저장된 index번째 벡터의 내적 (코사인)
+     */
+    @Override
+    public float score(float[] query, int index) {
+        return VectorOps.dot(query, 0, data, index * dimension, dimension);
+    }
+
+    /**
+     * 정규화된 저장 벡터 복사본
+     */
+    @Override
+    public float[] vectorAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+        }
+        return Arrays.copyOfRange(data, index * dimension, (index + 1) * dimension);
+    }
+
+    @Override
+    public T get(int index) {
+        return items.get(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * 벡터 블록이 차지하는 메모리 (bytes)
+     */
+    public long vectorBytes() {
+        return (long) size * dimension * Float.BYTES;
+    }
+
+    private void ensureCapacity(int required) {
+        int needed = required * dimension;
+        if (needed > data.length) {
+            int newLength = Math.max(needed, data.length + (data.length >> 1));
+            data = Arrays.copyOf(data, newLength);
+        }
+    }
+}
@@ -0,0 +1,488 @@
+package com.example.raon.service.search;
+
+import com.example.raon.service.VectorSearchService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * HNSW(Hierarchical Navigable Small World) 근사 최근접 이웃 인덱스
+ *
+ * - M: 노드당 연결 수 (레이어 0은 2M)
+ * - efConstruction: 삽입 시 탐색 후보 수 (클수록 그래프 품질↑, 구축 속도↓)
+ * - efSearch: 검색 시 탐색 후보 수 (클수록 recall↑, 지연시간↑)
+ *
+ * 동시성: 삽입은 쓰기 락으로 직렬화되고, 검색은 락 없이 삽입과 동시에 실행된다.
+ * 이웃 목록은 매번 새 배열로 교체(copy-on-write)하므로 검색 스레드는 항상 완결된 배열만 본다.
+ */
+public class HnswIndex<T> implements VectorIndex<T> {
+
+    public static final int DEFAULT_M = 16;
+    public static final int DEFAULT_EF_CONSTRUCTION = 200;
+    public static final int DEFAULT_EF_SEARCH = 64;
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final Comparator<Candidate> BY_SCORE = Comparator.comparingDouble(Candidate::score);
+
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final Random random;
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile int efSearch;
+    private volatile AtomicReferenceArray<Node<T>> nodes = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+    private volatile EntryPoint entryPoint;
+    private volatile int size;
+    private volatile int dimension;
+
+    public HnswIndex() {
+        this(DEFAULT_M, DEFAULT_EF_CONSTRUCTION, DEFAULT_EF_SEARCH);
+    }
+
+    public HnswIndex(int m, int efConstruction, int efSearch) {
+        this(m, efConstruction, efSearch, 42L);
+    }
+
+    /**
+     * @param seed 레벨 추첨용 난수 시드 (같은 입력 순서면 같은 그래프)
+     */
+    public HnswIndex(int m, int efConstruction, int efSearch, long seed) {
+        if (m < 2) {
+            throw new IllegalArgumentException("M은 2 이상이어야 합니다: " + m);
+        }
+        this.m = m;
+        this.maxM0 = m * 2;
+        this.efConstruction = Math.max(efConstruction, m);
+        this.efSearch = Math.max(1, efSearch);
+        this.levelMultiplier = 1.0 / Math.log(m);
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public int add(T item, double[] vector) {
+        return addNormalized(item, VectorOps.normalize(vector));
+    }
+
+    /**
+     * 이미 L2 정규화된 벡터 추가
+     */
+    @Override
+    public int addNormalized(T item, float[] vector) {
+        writeLock.lock();
+        try {
+            if (dimension == 0) {
+                dimension = vector.length;
+            } else if (vector.length != dimension) {
+                throw new IllegalArgumentException(
+                        String.format("벡터 차원이 일치하지 않습니다 (인덱스: %d, 입력: %d)", dimension, vector.length));
+            }
+
+            int id = size;
+            int level = randomLevel();
+            Node<T> node = new Node<>(item, vector, level);
+            ensureCapacity(id + 1);
+            nodes.set(id, node);
+
+            EntryPoint entry = entryPoint;
+            if (entry == null) {
+                entryPoint = new EntryPoint(id, level);
+                size = id + 1;
+                return id;
+            }
+
+            AtomicReferenceArray<Node<T>> snapshot = nodes;
+            Candidate current = new Candidate(entry.id(), dot(vector, snapshot.get(entry.id())));
+            for (int layer = entry.level(); layer > level; layer--) {
+                current = greedySearch(vector, current, layer, snapshot);
+            }
+
+            // 1) 새 노드의 이웃 목록을 모든 레이어에 먼저 채운다
+            int topLayer = Math.min(level, entry.level());
+            for (int layer = topLayer; layer >= 0; layer--) {
+                List<Candidate> candidates = searchLayer(vector, current, efConstruction, layer, snapshot);
+                node.neighbors.set(layer, selectNeighbors(candidates, m, snapshot));
+                current = candidates.get(0);
+            }
+
+            // 2) 그 다음 역방향 연결 - 검색 스레드가 이웃 목록이 빈 노드에 도달하지 않도록
+            for (int layer = topLayer; layer >= 0; layer--) {
+                int maxConnections = layer == 0 ? maxM0 : m;
+                for (int neighbor : node.neighbors.get(layer)) {
+                    connect(snapshot.get(neighbor), id, layer, maxConnections, snapshot);
+                }
+            }
+
+            if (level > entry.level()) {
+                entryPoint = new EntryPoint(id, level);
+            }
+            size = id + 1;
+            return id;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public List<VectorSearchService.SearchResult<T>> searchTopK(double[] queryVector, int k, double minSimilarity) {
+        return searchTopKNormalized(VectorOps.normalize(queryVector), k, minSimilarity, efSearch);
+    }
+
+    /**
+     * @param ef 이번 검색에만 적용할 efSearch
+     */
+    public List<VectorSearchService.SearchResult<T>> searchTopKNormalized(float[] query, int k, double minSimilarity, int ef) {
+        EntryPoint entry = entryPoint;
+        if (entry == null || k <= 0) {
+            return List.of();
+        }
+        if (query.length != dimension) {
+            throw new IllegalArgumentException("벡터 차원이 일치하지 않습니다");
+        }
+
+        AtomicReferenceArray<Node<T>> snapshot = nodes;
+        Candidate current = new Candidate(entry.id(), dot(query, snapshot.get(entry.id())));
+        for (int layer = entry.level(); layer > 0; layer--) {
+            current = greedySearch(query, current, layer, snapshot);
+        }
+
+        List<Candidate> found = searchLayer(query, current, Math.max(ef, k), 0, snapshot);
+        double minCosine = VectorOps.toCosine(minSimilarity);
+
+        List<VectorSearchService.SearchResult<T>> results = new ArrayList<>(Math.min(k, found.size()));
+        for (Candidate candidate : found) {
+            if (results.size() >= k || candidate.score() < minCosine) {
+                break;
+            }
+            results.add(new VectorSearchService.SearchResult<>(
+                    snapshot.get(candidate.id()).item, VectorOps.toSimilarity(candidate.score()), candidate.id()));
+        }
+        return results;
+    }
+
+    /**
+     * 그래프를 거치지 않는 정확한(브루트포스) Top-K - recall 측정 기준
+     */
+    public int[] exactTopKIds(float[] query, int k) {
+        int n = size;
+        AtomicReferenceArray<Node<T>> snapshot = nodes;
+        TopKSelector selector = new TopKSelector(Math.min(k, n));
+        for (int i = 0; i < n; i++) {
+            selector.offer(i, dot(query, snapshot.get(i)));
+        }
+        int[] ids = new int[selector.size()];
+        for (int rank = 0; rank < ids.length; rank++) {
+            ids[rank] = selector.indexAt(rank);
+        }
+        return ids;
+    }
+
+    /**
+     * 브루트포스 대비 recall@k 측정
+     *
+     * @param queries L2 정규화된 질의 벡터
+     * @return 0.0 ~ 1.0 (정확한 Top-K 중 HNSW가 찾은 비율)
+     */
+    public double measureRecall(List<float[]> queries, int k) {
+        if (queries.isEmpty() || size == 0) {
+            return 1.0;
+        }
+
+        long hits = 0;
+        long total = 0;
+        for (float[] query : queries) {
+            int[] exact = exactTopKIds(query, k);
+            Set<Integer> approx = new HashSet<>();
+            for (VectorSearchService.SearchResult<T> result : searchTopKNormalized(query, k, Double.NEGATIVE_INFINITY, efSearch)) {
+                approx.add(result.getIndex());
+            }
+            for (int id : exact) {
+                if (approx.contains(id)) {
+                    hits++;
+                }
+            }
+            total += exact.length;
+        }
+        return total == 0 ? 1.0 : (double) hits / total;
+    }
+
+    /**
+     * 저장된 벡터 일부를 질의로 사용해 recall@k 추정 (인덱스 구축 직후 자가 점검용)
+     */
+    public double estimateRecall(int sampleSize, int k) {
+        int n = size;
+        if (n == 0) {
+            return 1.0;
+        }
+        int step = Math.max(1, n / Math.max(1, sampleSize));
+        List<float[]> queries = new ArrayList<>();
+        for (int i = 0; i < n && queries.size() < sampleSize; i += step) {
+            queries.add(nodes.get(i).vector);
+        }
+        return measureRecall(queries, k);
+    }
+
+    public void setEfSearch(int efSearch) {
+        this.efSearch = Math.max(1, efSearch);
+    }
+
+    public int getEfSearch() {
+        return efSearch;
+    }
+
+    public int getM() {
+        return m;
+    }
+
+    public int getEfConstruction() {
+        return efConstruction;
+    }
+
+    int getMaxM0() {
+        return maxM0;
+    }
+
+    /**
+     * 스냅샷 저장용 그래프 조회 (쓰기가 없는 상태에서 호출)
+     */
+    int levelOf(int index) {
+        return nodes.get(index).neighbors.length() - 1;
+    }
+
+    int[] neighborsAt(int index, int layer) {
+        return neighborsOf(nodes.get(index), layer);
+    }
+
+    int entryPointId() {
+        EntryPoint entry = entryPoint;
+        return entry == null ? -1 : entry.id();
+    }
+
+    int entryPointLevel() {
+        EntryPoint entry = entryPoint;
+        return entry == null ? -1 : entry.level();
+    }
+
+    /**
+     * 정규화된 저장 벡터 (읽기 전용으로 사용할 것)
+     */
+    @Override
+    public float[] vectorAt(int index) {
+        return nodes.get(index).vector;
+    }
+
+    @Override
+    public float score(float[] normalizedQuery, int index) {
+        return dot(normalizedQuery, nodes.get(index));
+    }
+
+    @Override
+    public T get(int index) {
+        return nodes.get(index).item;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * 레이어 하나에서 efSearch 방식 탐색 - 점수 내림차순 결과
+     */
+    private List<Candidate> searchLayer(float[] query, Candidate entry, int ef, int layer,
+                                        AtomicReferenceArray<Node<T>> snapshot) {
+        BitSet visited = new BitSet(snapshot.length());
+        visited.set(entry.id());
+
+        PriorityQueue<Candidate> frontier = new PriorityQueue<>(BY_SCORE.reversed());
+        PriorityQueue<Candidate> results = new PriorityQueue<>(BY_SCORE);
+        frontier.add(entry);
+        results.add(entry);
+
+        while (!frontier.isEmpty()) {
+            Candidate closest = frontier.poll();
+            if (results.size() >= ef && closest.score() < results.peek().score()) {
+                break;
+            }
+
+            for (int neighbor : neighborsOf(snapshot.get(closest.id()), layer)) {
+                if (visited.get(neighbor)) {
+                    continue;
+                }
+                visited.set(neighbor);
+
+                Node<T> neighborNode = neighbor < snapshot.length() ? snapshot.get(neighbor) : null;
+                if (neighborNode == null) {
+                    // 아직 게시되지 않은 노드 (동시 삽입 중)
+                    continue;
+                }
+
+                float score = dot(query, neighborNode);
+                if (results.size() < ef || score > results.peek().score()) {
+                    Candidate candidate = new Candidate(neighbor, score);
+                    frontier.add(candidate);
+                    results.add(candidate);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+
+        List<Candidate> sorted = new ArrayList<>(results);
+        sorted.sort(BY_SCORE.reversed());
+        return sorted;
+    }
+
+    /**
+     * 상위 레이어용 탐욕 탐색 (ef = 1)
+     */
+    private Candidate greedySearch(float[] query, Candidate start, int layer, AtomicReferenceArray<Node<T>> snapshot) {
+        Candidate current = start;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int neighbor : neighborsOf(snapshot.get(current.id()), layer)) {
+                Node<T> neighborNode = neighbor < snapshot.length() ? snapshot.get(neighbor) : null;
+                if (neighborNode == null) {
+                    continue;
+                }
+                float score = dot(query, neighborNode);
+                if (score > current.score()) {
+                    current = new Candidate(neighbor, score);
+                    changed = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 이웃 선택 휴리스틱 (Malkov & Yashunin, Algorithm 4)
+     * 이미 선택된 이웃보다 기준점에 더 가까운 후보만 우선 선택해 그래프 다양성을 유지하고,
+     * 자리가 남으면 제외됐던 후보로 채운다.
+     *
+     * @param candidates 기준점과의 점수 내림차순 후보
+     */
+    private int[] selectNeighbors(List<Candidate> candidates, int max, AtomicReferenceArray<Node<T>> snapshot) {
+        if (candidates.size() <= max) {
+            return candidates.stream().mapToInt(Candidate::id).toArray();
+        }
+
+        List<Candidate> selected = new ArrayList<>(max);
+        List<Candidate> pruned = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            if (selected.size() >= max) {
+                break;
+            }
+            float[] candidateVector = snapshot.get(candidate.id()).vector;
+            boolean diverse = true;
+            for (Candidate chosen : selected) {
+                if (dot(candidateVector, snapshot.get(chosen.id())) > candidate.score()) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected.add(candidate);
+            } else {
+                pruned.add(candidate);
+            }
+        }
+
+        for (int i = 0; i < pruned.size() && selected.size() < max; i++) {
+            selected.add(pruned.get(i));
+        }
+        return selected.stream().mapToInt(Candidate::id).toArray();
+    }
+
+    /**
+     * target의 이웃 목록에 newId 추가 (넘치면 휴리스틱으로 다시 선택)
+     */
+    private void connect(Node<T> target, int newId, int layer, int maxConnections,
+                         AtomicReferenceArray<Node<T>> snapshot) {
+        int[] current = target.neighbors.get(layer);
+        if (current.length < maxConnections) {
+            int[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = newId;
+            target.neighbors.set(layer, updated);
+            return;
+        }
+
+        List<Candidate> candidates = new ArrayList<>(current.length + 1);
+        for (int id : current) {
+            candidates.add(new Candidate(id, dot(target.vector, snapshot.get(id))));
+        }
+        candidates.add(new Candidate(newId, dot(target.vector, snapshot.get(newId))));
+        candidates.sort(BY_SCORE.reversed());
+        target.neighbors.set(layer, selectNeighbors(candidates, maxConnections, snapshot));
+    }
+
+    private int[] neighborsOf(Node<T> node, int layer) {
+        if (node == null || layer >= node.neighbors.length()) {
+            return new int[0];
+        }
+        return node.neighbors.get(layer);
+    }
+
+    private int randomLevel() {
+        double r = 1.0 - random.nextDouble();
+        return (int) Math.floor(-Math.log(r) * levelMultiplier);
+    }
+
+    private void ensureCapacity(int required) {
+        AtomicReferenceArray<Node<T>> current = nodes;
+        if (required <= current.length()) {
+            return;
+        }
+        AtomicReferenceArray<Node<T>> grown = new AtomicReferenceArray<>(Math.max(required, current.length() * 2));
+        for (int i = 0; i < current.length(); i++) {
+            grown.set(i, current.get(i));
+        }
+        nodes = grown;
+    }
+
+    private static float dot(float[] query, Node<?> node) {
+        return VectorOps.dot(query, 0, node.vector, 0, query.length);
+    }
+
+    private static float dot(float[] a, float[] b) {
+        return VectorOps.dot(a, 0, b, 0, a.length);
+    }
+
+    private static final class Node<T> {
+        private final T item;
+        private final float[] vector;
+        private final AtomicReferenceArray<int[]> neighbors;
+
+        private Node(T item, float[] vector, int level) {
+            this.item = item;
+            this.vector = vector;
+            this.neighbors = new AtomicReferenceArray<>(level + 1);
+            for (int layer = 0; layer <= level; layer++) {
+                neighbors.set(layer, new int[0]);
+            }
+        }
+    }
+
+    private record Candidate(int id, float score) {
+    }
+
+    private record EntryPoint(int id, int level) {
+    }
+}
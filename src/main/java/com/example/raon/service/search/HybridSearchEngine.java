@@ -0,0 +1,316 @@
+package com.example.raon.service.search;
+
+import com.example.raon.service.VectorSearchService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+
+/**
+ * BM25(어휘) + 벡터(의미) 하이브리드 검색 - Reciprocal Rank Fusion으로 순위 결합
+ *
+ * - 어휘 순위: KoreanTokenizer 토큰 기반 BM25 상위 limit × candidateFactor
+ * - 벡터 순위: 항목 수가 prefilterMinDocs 이상이고 어휘 후보가 있으면 그 후보만 채점 (사전 필터링),
+ *   아니면 전체 벡터 인덱스 Top-K
+ * - 결합: 각 순위 목록에서 rrf(d) = Σ 1 / (rrfK + rank), rank는 1부터
+ *
+ * 점수 척도가 다른 BM25와 코사인을 정규화 없이 섞을 수 있고, 한쪽 목록에만 있는 항목도 살아남는다.
+ * 벡터 인덱스가 없거나 질의 벡터가 없으면 어휘 순위만으로 동작한다.
+ * 여러 질의는 searchBatch로 한 번에 검색한다 (벡터 순위는 인덱스 배치 검색 한 번).
+ * 벡터 인덱스 항목은 동일성(==)으로 엔진 항목과 대응시키며, 엔진에 없는 항목(예: 삭제 표시된 항목)은 무시한다.
+ * 생성 후 변경 불가 - 항목이 바뀌면 새 엔진을 만들어 교체한다.
+ *
+ * overSegments로 만든 엔진은 SegmentedVectorIndex의 세그먼트마다 BM25 색인을 두고 (LexicalSegments에서 재사용)
+ * 세그먼트 합산 통계로 채점한 뒤 삭제 표시를 제외해 합친다. 위치 번호는 세그먼트 인덱스의 전역 위치와 같다.
+ * 삭제 표시된 문서는 병합 전까지 idf·평균 길이 통계에 남는다.
+ */
+public class HybridSearchEngine<T> {
+
+    public static final int DEFAULT_RRF_K = 60;
+    public static final int DEFAULT_CANDIDATE_FACTOR = 10;
+    public static final int DEFAULT_PREFILTER_MIN_DOCS = 1_000;
+
+    private final IntFunction<T> itemAt;
+    private final ToIntFunction<T> positionOf;
+    private final int positionCount;
+    private final int liveCount;
+    private final List<Bm25Index> lexicalSegments;
+    private final int[] lexicalOffsets;
+    private final long documentCount;
+    private final long totalLength;
+    private final IntPredicate excluded;
+    private final VectorIndex<T> vectorIndex;
+    private final IntUnaryOperator vectorPositionOf;
+    private final int rrfK;
+    private final int candidateFactor;
+    private final int prefilterMinDocs;
+
+    /**
+     * @param textOf 어휘 색인에 넣을 항목 텍스트
+     * @param vectorIndex items의 벡터를 담은 인덱스 (순서 무관, 벡터가 없는 항목은 어휘 순위만 받음, null이면 어휘 검색만)
+     */
+    public HybridSearchEngine(List<T> items, Function<T, String> textOf, VectorIndex<T> vectorIndex,
+                              int rrfK, int candidateFactor, int prefilterMinDocs) {
+        List<T> copy = List.copyOf(items);
+        Map<T, Integer> positions = new IdentityHashMap<>(copy.size());
+        List<List<String>> documents = new ArrayList<>(copy.size());
+        for (int i = 0; i < copy.size(); i++) {
+            positions.put(copy.get(i), i);
+            documents.add(KoreanTokenizer.tokenize(textOf.apply(copy.get(i))));
+        }
+        int[] vectorPositions = new int[copy.size()];
+        Arrays.fill(vectorPositions, -1);
+        if (vectorIndex != null) {
+            for (int v = 0; v < vectorIndex.size(); v++) {
+                Integer position = positions.get(vectorIndex.get(v));
+                if (position != null) {
+                    vectorPositions[position] = v;
+                }
+            }
+        }
+
+        this.itemAt = copy::get;
+        this.positionOf = item -> positions.getOrDefault(item, -1);
+        this.positionCount = copy.size();
+        this.liveCount = copy.size();
+        this.lexicalSegments = List.of(new Bm25Index(documents, Bm25Index.DEFAULT_K1, Bm25Index.DEFAULT_B));
+        this.lexicalOffsets = new int[]{0};
+        this.documentCount = copy.size();
+        this.totalLength = lexicalSegments.get(0).totalLength();
+        this.excluded = null;
+        this.vectorIndex = vectorIndex;
+        this.vectorPositionOf = position -> vectorPositions[position];
+        this.rrfK = Math.max(1, rrfK);
+        this.candidateFactor = Math.max(1, candidateFactor);
+        this.prefilterMinDocs = prefilterMinDocs;
+    }
+
+    private HybridSearchEngine(SegmentedVectorIndex<T> index, List<Bm25Index> lexicalSegments,
+                               int rrfK, int candidateFactor, int prefilterMinDocs) {
+        this.itemAt = index::get;
+        this.positionOf = item -> index.isDeleted(item) ? -1 : index.positionOf(item);
+        this.positionCount = index.size();
+        this.liveCount = index.size() - index.deletedCount();
+        this.lexicalSegments = List.copyOf(lexicalSegments);
+        this.lexicalOffsets = new int[lexicalSegments.size()];
+        long documents = 0;
+        long length = 0;
+        for (int s = 0; s < lexicalSegments.size(); s++) {
+            lexicalOffsets[s] = index.segmentOffset(s);
+            documents += lexicalSegments.get(s).size();
+            length += lexicalSegments.get(s).totalLength();
+        }
+        this.documentCount = documents;
+        this.totalLength = length;
+        this.excluded = index.deletedCount() == 0 ? null : position -> index.isDeleted(index.get(position));
+        this.vectorIndex = index;
+        this.vectorPositionOf = position -> position;
+        this.rrfK = Math.max(1, rrfK);
+        this.candidateFactor = Math.max(1, candidateFactor);
+        this.prefilterMinDocs = prefilterMinDocs;
+    }
+
+    /**
+     * 세그먼트 인덱스 위의 하이브리드 엔진 - 이미 색인된 세그먼트는 lexicon에서 재사용 (전체 항목을 다시 색인하지 않음)
+     *
+     * @param lexicon 세그먼트별 BM25 색인 캐시 (같은 인덱스 계열의 게시마다 같은 인스턴스 사용)
+     */
+    public static <T> HybridSearchEngine<T> overSegments(SegmentedVectorIndex<T> index, LexicalSegments<T> lexicon,
+                                                         int rrfK, int candidateFactor, int prefilterMinDocs) {
+        return new HybridSearchEngine<>(index, lexicon.indexesFor(index.segments()),
+                rrfK, candidateFactor, prefilterMinDocs);
+    }
+
+    public List<T> search(String queryText, double[] queryVector, int limit) {
+        return search(queryText, queryVector, List.of(), limit);
+    }
+
+    /**
+     * 하이브리드 검색
+     *
+     * @param queryVector 질의 임베딩 (null이면 벡터 순위 생략)
+     * @param extraRanking 함께 결합할 추가 순위 목록 (예: 카테고리/키워드 규칙 점수 순) - 엔진에 없는 항목은 무시
+     * @return RRF 점수 내림차순 상위 limit개 (어느 순위에도 없으면 빈 목록)
+     */
+    public List<T> search(String queryText, double[] queryVector, List<T> extraRanking, int limit) {
+        if (limit <= 0 || liveCount == 0) {
+            return List.of();
+        }
+
+        int candidates = candidates(limit);
+        int[] lexicalRanking = lexicalRanking(queryText, candidates);
+        int[] vectorRanking = null;
+        if (vectorIndex != null && queryVector != null) {
+            vectorRanking = usePrefilter(lexicalRanking)
+                    ? prefilteredRanking(queryVector, lexicalRanking)
+                    : resultPositions(vectorIndex.searchTopK(queryVector, candidates));
+        }
+        return fuse(lexicalRanking, vectorRanking, positionsOf(extraRanking), limit);
+    }
+
+    /**
+     * 여러 질의를 한 번에 검색 - 벡터 순위는 인덱스 배치 검색 한 번으로 구함 (질의마다 전체 스캔하지 않음)
+     *
+     * @param queryVectors queryTexts와 같은 순서의 임베딩 (null이면 모든 질의가 어휘 순위만 사용)
+     * @return 질의 순서와 같은 결과 목록 (각각 search와 같은 순위)
+     */
+    public List<List<T>> searchBatch(List<String> queryTexts, List<double[]> queryVectors, int limit) {
+        List<List<T>> results = new ArrayList<>(queryTexts.size());
+        if (limit <= 0 || liveCount == 0) {
+            queryTexts.forEach(query -> results.add(List.of()));
+            return results;
+        }
+
+        int candidates = candidates(limit);
+        int[][] lexicalRankings = new int[queryTexts.size()][];
+        for (int q = 0; q < queryTexts.size(); q++) {
+            lexicalRankings[q] = lexicalRanking(queryTexts.get(q), candidates);
+        }
+
+        int[][] vectorRankings = new int[queryTexts.size()][];
+        if (vectorIndex != null && queryVectors != null) {
+            // 사전 필터링 대상이 아닌 질의만 모아 배치 검색
+            List<Integer> scanned = new ArrayList<>();
+            for (int q = 0; q < queryTexts.size(); q++) {
+                if (usePrefilter(lexicalRankings[q])) {
+                    vectorRankings[q] = prefilteredRanking(queryVectors.get(q), lexicalRankings[q]);
+                } else {
+                    scanned.add(q);
+                }
+            }
+            if (!scanned.isEmpty()) {
+                List<List<VectorSearchService.SearchResult<T>>> batch = vectorIndex.searchTopKBatch(
+                        scanned.stream().map(queryVectors::get).toList(), candidates);
+                for (int i = 0; i < scanned.size(); i++) {
+                    vectorRankings[scanned.get(i)] = resultPositions(batch.get(i));
+                }
+            }
+        }
+
+        for (int q = 0; q < queryTexts.size(); q++) {
+            results.add(fuse(lexicalRankings[q], vectorRankings[q], new int[0], limit));
+        }
+        return results;
+    }
+
+    private int candidates(int limit) {
+        return (int) Math.min(liveCount, (long) limit * candidateFactor);
+    }
+
+    private boolean usePrefilter(int[] lexicalRanking) {
+        return liveCount >= prefilterMinDocs && lexicalRanking.length > 0;
+    }
+
+    /**
+     * 어휘 순위 - 질의어마다 세그먼트 합산 문서 빈도로 idf를 구해 모든 세그먼트의 포스팅을 채점
+     * (세그먼트가 하나면 Bm25Index.search와 같은 순위)
+     */
+    private int[] lexicalRanking(String queryText, int limit) {
+        double averageLength = documentCount == 0 ? 0 : (double) totalLength / documentCount;
+        Map<Integer, Double> scores = new HashMap<>();
+        for (String term : new LinkedHashSet<>(KoreanTokenizer.tokenize(queryText))) {
+            long frequency = 0;
+            for (Bm25Index segment : lexicalSegments) {
+                frequency += segment.documentFrequency(term);
+            }
+            if (frequency == 0) {
+                continue;
+            }
+            double idf = Bm25Index.idf(documentCount, frequency);
+            for (int s = 0; s < lexicalSegments.size(); s++) {
+                lexicalSegments.get(s).accumulate(term, idf, averageLength, lexicalOffsets[s], excluded, scores);
+            }
+        }
+        return Bm25Index.topK(scores, limit);
+    }
+
+    /**
+     * 순위 목록들을 RRF로 결합해 상위 limit개 (vectorRanking은 null 가능)
+     */
+    private List<T> fuse(int[] lexicalRanking, int[] vectorRanking, int[] extraRanking, int limit) {
+        Map<Integer, Double> fused = new HashMap<>();
+        accumulate(fused, lexicalRanking);
+        if (vectorRanking != null) {
+            accumulate(fused, vectorRanking);
+        }
+        accumulate(fused, extraRanking);
+
+        TopKSelector selector = new TopKSelector(Math.min(limit, fused.size()));
+        fused.forEach(selector::offer);
+
+        List<T> results = new ArrayList<>(selector.size());
+        for (int rank = 0; rank < selector.size(); rank++) {
+            results.add(itemAt.apply(selector.indexAt(rank)));
+        }
+        return results;
+    }
+
+    /**
+     * 벡터 순위 (사전 필터링) - 대규모 코퍼스에서는 어휘 후보만 채점해 전체 스캔을 피한다
+     */
+    private int[] prefilteredRanking(double[] queryVector, int[] lexicalRanking) {
+        float[] query = VectorOps.normalize(queryVector);
+        TopKSelector selector = new TopKSelector(lexicalRanking.length);
+        for (int index : lexicalRanking) {
+            int vectorPosition = vectorPositionOf.applyAsInt(index);
+            if (vectorPosition >= 0) {
+                selector.offer(index, vectorIndex.score(query, vectorPosition));
+            }
+        }
+        int[] ranked = new int[selector.size()];
+        for (int rank = 0; rank < ranked.length; rank++) {
+            ranked[rank] = selector.indexAt(rank);
+        }
+        return ranked;
+    }
+
+    private int[] resultPositions(List<VectorSearchService.SearchResult<T>> results) {
+        return positionsOf(results.stream().map(VectorSearchService.SearchResult::getData).toList());
+    }
+
+    private int[] positionsOf(List<T> ranking) {
+        return ranking.stream()
+                .mapToInt(positionOf)
+                .filter(position -> position >= 0)
+                .toArray();
+    }
+
+    private void accumulate(Map<Integer, Double> fused, int[] ranking) {
+        for (int rank = 0; rank < ranking.length; rank++) {
+            fused.merge(ranking[rank], 1.0 / (rrfK + rank + 1), Double::sum);
+        }
+    }
+
+    /**
+     * 검색 대상 항목 수 (삭제 표시 제외)
+     */
+    public int size() {
+        return liveCount;
+    }
+
+    /**
+     * 위치 순서 앞쪽 limit개 항목 (삭제 표시 제외) - 순위를 매길 수 없을 때의 기본 목록
+     */
+    public List<T> head(int limit) {
+        List<T> head = new ArrayList<>(Math.max(0, Math.min(limit, liveCount)));
+        for (int position = 0; position < positionCount && head.size() < limit; position++) {
+            if (excluded == null || !excluded.test(position)) {
+                head.add(itemAt.apply(position));
+            }
+        }
+        return head;
+    }
+
+    public boolean hasVectors() {
+        return vectorIndex != null;
+    }
+}
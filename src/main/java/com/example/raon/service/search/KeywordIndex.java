@@ -0,0 +1,183 @@
+package com.example.raon.service.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 카테고리/키워드 역색인 + 부분 문자열(n-gram) 보조 색인
+ *
+ * 질의어마다 "키워드가 질의어를 포함하거나 질의어가 키워드를 포함"하면 매칭으로 보고,
+ * 매칭된 키워드의 포스팅만 따라가며 점수를 누적한다 (전체 항목을 순회하지 않음).
+ * - 키워드 ⊇ 질의어: 키워드 어휘의 바이그램 색인에서 가장 희소한 바이그램 후보만 contains 검증
+ * - 질의어 ⊇ 키워드: 질의어의 모든 부분 문자열을 키워드 사전에서 조회 (질의어 길이에만 비례)
+ *
+ * 점수 = 카테고리 일치 시 categoryWeight + 매칭된 질의어마다 termWeight (질의어당 항목별 1회)
+ * 동점이면 먼저 추가된 항목이 앞선다. 색인 구축(add)은 단일 스레드, 구축 후 검색은 여러 스레드에서 안전하다.
+ */
+public class KeywordIndex<T> {
+
+    private final int categoryWeight;
+    private final int termWeight;
+
+    private final List<T> items = new ArrayList<>();
+    private final Map<String, List<Integer>> categoryPostings = new HashMap<>();
+    private final Map<String, List<Integer>> keywordPostings = new HashMap<>();
+    private final Map<String, Set<String>> bigramToKeywords = new HashMap<>();
+    private final Map<Character, Set<String>> charToKeywords = new HashMap<>();
+    private int maxKeywordLength;
+
+    public KeywordIndex(int categoryWeight, int termWeight) {
+        this.categoryWeight = categoryWeight;
+        this.termWeight = termWeight;
+    }
+
+    /**
+     * 항목 추가
+     *
+     * @param category 정규화된 카테고리 (null/빈 문자열이면 카테고리 없음)
+     * @param keywords 항목 키워드 (소문자로 정규화해서 색인)
+     * @return 항목 번호 (추가 순서)
+     */
+    public int add(T item, String category, Collection<String> keywords) {
+        int id = items.size();
+        items.add(item);
+
+        if (category != null && !category.isEmpty()) {
+            categoryPostings.computeIfAbsent(category, key -> new ArrayList<>()).add(id);
+        }
+
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String keyword : keywords) {
+            String normalized = normalize(keyword);
+            if (!normalized.isEmpty()) {
+                distinct.add(normalized);
+            }
+        }
+        for (String keyword : distinct) {
+            List<Integer> postings = keywordPostings.get(keyword);
+            if (postings == null) {
+                postings = new ArrayList<>();
+                keywordPostings.put(keyword, postings);
+                indexVocabulary(keyword);
+            }
+            postings.add(id);
+        }
+        return id;
+    }
+
+    /**
+     * 카테고리 + 질의어 기준 상위 항목 검색 (점수 0인 항목은 제외)
+     *
+     * @param category 정규화된 카테고리 (빈 문자열이면 카테고리 점수 없음)
+     * @param terms 질의어 목록 (예: 지원자 보유 기술)
+     */
+    public List<T> search(String category, List<String> terms, int limit) {
+        if (limit <= 0 || items.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Integer, Integer> scores = new HashMap<>();
+        if (category != null && !category.isEmpty()) {
+            for (int id : categoryPostings.getOrDefault(category, List.of())) {
+                scores.merge(id, categoryWeight, Integer::sum);
+            }
+        }
+
+        for (String term : terms) {
+            String normalized = normalize(term);
+            if (normalized.isEmpty()) {
+                continue;
+            }
+
+            // 질의어 하나는 항목당 한 번만 점수에 반영
+            Set<Integer> matched = new HashSet<>();
+            for (String keyword : matchingKeywords(normalized)) {
+                matched.addAll(keywordPostings.get(keyword));
+            }
+            for (int id : matched) {
+                scores.merge(id, termWeight, Integer::sum);
+            }
+        }
+
+        TopKSelector selector = new TopKSelector(Math.min(limit, scores.size()), 1);
+        scores.forEach(selector::offer);
+
+        List<T> results = new ArrayList<>(selector.size());
+        for (int rank = 0; rank < selector.size(); rank++) {
+            results.add(items.get(selector.indexAt(rank)));
+        }
+        return results;
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * 질의어와 포함 관계(양방향)에 있는 키워드
+     */
+    Set<String> matchingKeywords(String term) {
+        Set<String> matches = new HashSet<>();
+
+        // 키워드 ⊇ 질의어
+        for (String keyword : containingCandidates(term)) {
+            if (keyword.contains(term)) {
+                matches.add(keyword);
+            }
+        }
+
+        // 질의어 ⊇ 키워드 - 키워드 최대 길이까지의 부분 문자열만 조회
+        int maxLength = Math.min(term.length(), maxKeywordLength);
+        for (int start = 0; start < term.length(); start++) {
+            for (int end = start + 1; end <= Math.min(term.length(), start + maxLength); end++) {
+                String substring = term.substring(start, end);
+                if (keywordPostings.containsKey(substring)) {
+                    matches.add(substring);
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * term을 포함할 수 있는 키워드 후보 - term의 바이그램 중 포스팅이 가장 적은 것 (한 글자면 문자 색인)
+     */
+    private Set<String> containingCandidates(String term) {
+        if (term.length() == 1) {
+            return charToKeywords.getOrDefault(term.charAt(0), Set.of());
+        }
+
+        Set<String> rarest = null;
+        for (int i = 0; i + 2 <= term.length(); i++) {
+            Set<String> candidates = bigramToKeywords.get(term.substring(i, i + 2));
+            if (candidates == null) {
+                return Set.of();
+            }
+            if (rarest == null || candidates.size() < rarest.size()) {
+                rarest = candidates;
+            }
+        }
+        return rarest;
+    }
+
+    private void indexVocabulary(String keyword) {
+        maxKeywordLength = Math.max(maxKeywordLength, keyword.length());
+        for (int i = 0; i < keyword.length(); i++) {
+            charToKeywords.computeIfAbsent(keyword.charAt(i), key -> new HashSet<>()).add(keyword);
+            if (i + 2 <= keyword.length()) {
+                bigramToKeywords.computeIfAbsent(keyword.substring(i, i + 2), key -> new HashSet<>()).add(keyword);
+            }
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.raon.service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 형태소 분석기 없이 쓰는 한국어 토크나이저
+ *
+ * - 한글 연속 구간은 음절 바이그램으로 분해 ("성능최적화" → 성능, 능최, 최적, 적화)
+ *   조사·어미가 붙어도 어간 바이그램이 그대로 남으므로 "최적화를", "최적화했다"도 같은 토큰과 매칭된다.
+ * - 한 글자 한글 구간은 그대로 토큰
+ * - 영문/숫자 구간은 단어 단위 (소문자)
+ * - 그 외 문자는 구분자
+ */
+public final class KoreanTokenizer {
+
+    private KoreanTokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        int runStart = -1;
+        boolean hangulRun = false;
+
+        for (int i = 0; i <= normalized.length(); i++) {
+            char c = i < normalized.length() ? normalized.charAt(i) : ' ';
+            boolean hangul = isHangul(c);
+            boolean word = hangul || Character.isLetterOrDigit(c);
+
+            if (runStart >= 0 && (!word || hangul != hangulRun)) {
+                flush(normalized, runStart, i, hangulRun, tokens);
+                runStart = -1;
+            }
+            if (word && runStart < 0) {
+                runStart = i;
+                hangulRun = hangul;
+            }
+        }
+        return tokens;
+    }
+
+    private static void flush(String text, int start, int end, boolean hangul, List<String> tokens) {
+        if (!hangul || end - start == 1) {
+            tokens.add(text.substring(start, end));
+            return;
+        }
+        for (int i = start; i + 2 <= end; i++) {
+            tokens.add(text.substring(i, i + 2));
+        }
+    }
+
+    private static boolean isHangul(char c) {
+        return (c >= '가' && c <= '힣') || (c >= 'ㄱ' && c <= 'ㆎ');
+    }
+}
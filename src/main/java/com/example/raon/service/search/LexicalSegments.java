@@ -0,0 +1,83 @@
+package com.example.raon.service.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 벡터 세그먼트별 BM25 색인 캐시 (세그먼트 동일성(==) 기준)
+ *
+ * - 새 스냅샷이 게시될 때 이미 본 세그먼트의 색인은 재사용하고, 새 세그먼트만 색인 → 반영 비용이 배치 크기에 비례
+ * - 병합 결과처럼 큰 세그먼트는 prepare로 쓰기 락 밖에서 미리 색인해 둔다
+ * - 게시된 스냅샷에 없는 세그먼트의 색인은 다음 게시 때 버림 (prepare 후 아직 게시되지 않은 하나는 유지)
+ */
+public class LexicalSegments<T> {
+
+    private final Function<T, String> textOf;
+    private final Map<VectorIndex<T>, Bm25Index> indexes = new IdentityHashMap<>();
+    private VectorIndex<T> prepared;
+
+    /**
+     * @param textOf 어휘 색인에 넣을 항목 텍스트
+     */
+    public LexicalSegments(Function<T, String> textOf) {
+        this.textOf = textOf;
+    }
+
+    /**
+     * 곧 게시할 세그먼트를 미리 색인 (호출 스레드에서 구축 - 이전에 준비만 하고 게시되지 않은 색인은 버림)
+     */
+    public void prepare(VectorIndex<T> segment) {
+        Bm25Index index = build(segment);
+        synchronized (this) {
+            if (prepared != null && prepared != segment) {
+                indexes.remove(prepared);
+            }
+            indexes.put(segment, index);
+            prepared = segment;
+        }
+    }
+
+    /**
+     * 세그먼트 순서대로 색인 - 없으면 지금 구축 (보통 방금 반영된 작은 세그먼트)
+     * 목록에 없는 세그먼트의 색인은 버림
+     */
+    List<Bm25Index> indexesFor(List<VectorIndex<T>> segments) {
+        List<Bm25Index> result = new ArrayList<>(segments.size());
+        for (VectorIndex<T> segment : segments) {
+            Bm25Index index;
+            synchronized (this) {
+                index = indexes.get(segment);
+            }
+            if (index == null) {
+                index = build(segment);
+            }
+            result.add(index);
+        }
+
+        Set<VectorIndex<T>> live = Collections.newSetFromMap(new IdentityHashMap<>());
+        live.addAll(segments);
+        synchronized (this) {
+            for (int s = 0; s < segments.size(); s++) {
+                indexes.put(segments.get(s), result.get(s));
+            }
+            if (prepared != null && live.contains(prepared)) {
+                prepared = null;
+            }
+            indexes.keySet().removeIf(segment -> !live.contains(segment) && segment != prepared);
+        }
+        return result;
+    }
+
+    private Bm25Index build(VectorIndex<T> segment) {
+        List<List<String>> documents = new ArrayList<>(segment.size());
+        for (int i = 0; i < segment.size(); i++) {
+            documents.add(KoreanTokenizer.tokenize(textOf.apply(segment.get(i))));
+        }
+        return new Bm25Index(documents, Bm25Index.DEFAULT_K1, Bm25Index.DEFAULT_B);
+    }
+}
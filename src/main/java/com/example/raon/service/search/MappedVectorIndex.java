@@ -0,0 +1,296 @@
+package com.example.raon.service.search;
+
+import com.example.raon.service.VectorSearchService;
+
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * 메모리 매핑된 스냅샷 위의 읽기 전용 벡터 인덱스 (VectorIndexSnapshot.open으로 생성)
+ *
+ * 벡터와 그래프는 오프힙(페이지 캐시)에 그대로 두고, 점수 계산 시 벡터 하나씩 질의별 scratch 배열로 복사해
+ * SIMD 내적을 적용한다. 힙에는 항목 목록만 남는다.
+ * - 그래프가 있으면 HNSW 탐색, 없으면 브루트포스
+ * - 절대 위치 읽기만 사용하므로 여러 스레드에서 동시에 검색해도 안전
+ */
+public class MappedVectorIndex<T> implements VectorIndex<T> {
+
+    private static final Comparator<Candidate> BY_SCORE = Comparator.comparingDouble(Candidate::score);
+
+    // 버퍼가 GC되면 매핑이 해제되므로 참조 유지
+    private final MappedByteBuffer buffer;
+    private final List<T> items;
+    private final int dimension;
+    private final int count;
+    private final FloatBuffer vectors;
+
+    private final boolean graph;
+    private final int m;
+    private final int maxM0;
+    private final int entryId;
+    private final int entryLevel;
+    private final IntBuffer layer0;
+    private final IntBuffer upperOffsets;
+    private final IntBuffer upper;
+
+    private volatile int efSearch = HnswIndex.DEFAULT_EF_SEARCH;
+
+    MappedVectorIndex(MappedByteBuffer buffer, List<T> items) {
+        this.buffer = buffer;
+        this.items = List.copyOf(items);
+        this.dimension = buffer.getInt(16);
+        this.count = buffer.getInt(20);
+        this.graph = (buffer.getInt(12) & VectorIndexSnapshot.FLAG_GRAPH) != 0;
+        this.m = buffer.getInt(24);
+        this.maxM0 = buffer.getInt(28);
+        this.entryId = buffer.getInt(32);
+        this.entryLevel = buffer.getInt(36);
+
+        int offset = VectorIndexSnapshot.HEADER_BYTES;
+        int vectorBytes = count * dimension * Float.BYTES;
+        this.vectors = buffer.slice(offset, vectorBytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+        offset += vectorBytes + count * Long.BYTES;
+
+        if (graph) {
+            int upperLength = buffer.getInt(offset);
+            offset += Integer.BYTES + count * Integer.BYTES; // 노드 레벨은 upper 오프셋으로 대체 가능하므로 건너뜀
+            this.upperOffsets = ints(buffer, offset, count);
+            offset += count * Integer.BYTES;
+            this.layer0 = ints(buffer, offset, count * (1 + maxM0));
+            offset += count * (1 + maxM0) * Integer.BYTES;
+            this.upper = ints(buffer, offset, upperLength);
+        } else {
+            this.upperOffsets = null;
+            this.layer0 = null;
+            this.upper = null;
+        }
+    }
+
+    @Override
+    public int add(T item, double[] vector) {
+        throw new UnsupportedOperationException("스냅샷 인덱스는 읽기 전용입니다");
+    }
+
+    @Override
+    public int addNormalized(T item, float[] normalized) {
+        throw new UnsupportedOperationException("스냅샷 인덱스는 읽기 전용입니다");
+    }
+
+    @Override
+    public List<VectorSearchService.SearchResult<T>> searchTopK(double[] queryVector, int k, double minSimilarity) {
+        return searchTopKNormalized(VectorOps.normalize(queryVector), k, minSimilarity);
+    }
+
+    public List<VectorSearchService.SearchResult<T>> searchTopKNormalized(float[] query, int k, double minSimilarity) {
+        if (count == 0 || k <= 0) {
+            return List.of();
+        }
+        if (query.length != dimension) {
+            throw new IllegalArgumentException("벡터 차원이 일치하지 않습니다");
+        }
+
+        float[] scratch = new float[dimension];
+        double minCosine = VectorOps.toCosine(minSimilarity);
+        return graph
+                ? searchGraph(query, k, minCosine, scratch)
+                : searchFlat(query, k, minCosine, scratch);
+    }
+
+    private List<VectorSearchService.SearchResult<T>> searchFlat(float[] query, int k, double minCosine, float[] scratch) {
+        TopKSelector selector = new TopKSelector(Math.min(k, count), minCosine);
+        for (int i = 0; i < count; i++) {
+            selector.offer(i, score(query, i, scratch));
+        }
+
+        List<VectorSearchService.SearchResult<T>> results = new ArrayList<>(selector.size());
+        for (int rank = 0; rank < selector.size(); rank++) {
+            int index = selector.indexAt(rank);
+            results.add(new VectorSearchService.SearchResult<>(
+                    items.get(index), VectorOps.toSimilarity(selector.scoreAt(rank)), index));
+        }
+        return results;
+    }
+
+    /**
+     * 평면 스냅샷은 한 번의 스캔으로 모든 질의를 채점 (행마다 매핑 버퍼에서 한 번만 복사)
+     * 그래프 스냅샷은 질의별 그래프 탐색
+     */
+    @Override
+    public List<List<VectorSearchService.SearchResult<T>>> searchTopKBatch(List<double[]> queryVectors, int k) {
+        if (graph || count == 0 || k <= 0 || queryVectors.isEmpty()) {
+            return VectorIndex.super.searchTopKBatch(queryVectors, k);
+        }
+
+        float[][] queries = new float[queryVectors.size()][];
+        TopKSelector[] selectors = new TopKSelector[queries.length];
+        for (int q = 0; q < queries.length; q++) {
+            queries[q] = VectorOps.normalize(queryVectors.get(q));
+            if (queries[q].length != dimension) {
+                throw new IllegalArgumentException("벡터 차원이 일치하지 않습니다");
+            }
+            selectors[q] = new TopKSelector(Math.min(k, count));
+        }
+
+        float[] scratch = new float[dimension];
+        for (int i = 0; i < count; i++) {
+            vectors.get(i * dimension, scratch);
+            for (int q = 0; q < queries.length; q++) {
+                selectors[q].offer(i, VectorOps.dot(queries[q], 0, scratch, 0, dimension));
+            }
+        }
+
+        List<List<VectorSearchService.SearchResult<T>>> results = new ArrayList<>(queries.length);
+        for (TopKSelector selector : selectors) {
+            List<VectorSearchService.SearchResult<T>> ranked = new ArrayList<>(selector.size());
+            for (int rank = 0; rank < selector.size(); rank++) {
+                int index = selector.indexAt(rank);
+                ranked.add(new VectorSearchService.SearchResult<>(
+                        items.get(index), VectorOps.toSimilarity(selector.scoreAt(rank)), index));
+            }
+            results.add(ranked);
+        }
+        return results;
+    }
+
+    /**
+     * HnswIndex와 같은 탐색 - 상위 레이어 탐욕 탐색 후 레이어 0에서 ef 후보 탐색
+     */
+    private List<VectorSearchService.SearchResult<T>> searchGraph(float[] query, int k, double minCosine, float[] scratch) {
+        Candidate current = new Candidate(entryId, score(query, entryId, scratch));
+        for (int layer = entryLevel; layer > 0; layer--) {
+            boolean changed = true;
+            while (changed) {
+                changed = false;
+                int base = neighborBase(current.id(), layer);
+                int degree = upper.get(base);
+                for (int j = 1; j <= degree; j++) {
+                    int neighbor = upper.get(base + j);
+                    float score = score(query, neighbor, scratch);
+                    if (score > current.score()) {
+                        current = new Candidate(neighbor, score);
+                        changed = true;
+                    }
+                }
+            }
+        }
+
+        int ef = Math.max(efSearch, k);
+        BitSet visited = new BitSet(count);
+        visited.set(current.id());
+        PriorityQueue<Candidate> frontier = new PriorityQueue<>(BY_SCORE.reversed());
+        PriorityQueue<Candidate> found = new PriorityQueue<>(BY_SCORE);
+        frontier.add(current);
+        found.add(current);
+
+        while (!frontier.isEmpty()) {
+            Candidate closest = frontier.poll();
+            if (found.size() >= ef && closest.score() < found.peek().score()) {
+                break;
+            }
+
+            int base = neighborBase(closest.id(), 0);
+            int degree = layer0.get(base);
+            for (int j = 1; j <= degree; j++) {
+                int neighbor = layer0.get(base + j);
+                if (visited.get(neighbor)) {
+                    continue;
+                }
+                visited.set(neighbor);
+
+                float score = score(query, neighbor, scratch);
+                if (found.size() < ef || score > found.peek().score()) {
+                    Candidate candidate = new Candidate(neighbor, score);
+                    frontier.add(candidate);
+                    found.add(candidate);
+                    if (found.size() > ef) {
+                        found.poll();
+                    }
+                }
+            }
+        }
+
+        List<Candidate> sorted = new ArrayList<>(found);
+        sorted.sort(BY_SCORE.reversed());
+
+        List<VectorSearchService.SearchResult<T>> results = new ArrayList<>(Math.min(k, sorted.size()));
+        for (Candidate candidate : sorted) {
+            if (results.size() >= k || candidate.score() < minCosine) {
+                break;
+            }
+            results.add(new VectorSearchService.SearchResult<>(
+                    items.get(candidate.id()), VectorOps.toSimilarity(candidate.score()), candidate.id()));
+        }
+        return results;
+    }
+
+    /**
+     * index번째 노드의 layer 이웃 블록 시작 위치 (첫 int = 이웃 수)
+     */
+    private int neighborBase(int index, int layer) {
+        if (layer == 0) {
+            return index * (1 + maxM0);
+        }
+        return upperOffsets.get(index) + (layer - 1) * (1 + m);
+    }
+
+    private float score(float[] query, int index, float[] scratch) {
+        vectors.get(index * dimension, scratch);
+        return VectorOps.dot(query, 0, scratch, 0, dimension);
+    }
+
+    @Override
+    public float score(float[] normalizedQuery, int index) {
+        return score(normalizedQuery, index, new float[dimension]);
+    }
+
+    @Override
+    public float[] vectorAt(int index) {
+        float[] vector = new float[dimension];
+        vectors.get(index * dimension, vector);
+        return vector;
+    }
+
+    public void setEfSearch(int efSearch) {
+        this.efSearch = Math.max(1, efSearch);
+    }
+
+    public boolean hasGraph() {
+        return graph;
+    }
+
+    /**
+     * 매핑된 파일 크기 (bytes) - 힙 밖에 있음
+     */
+    public long mappedBytes() {
+        return buffer.capacity();
+    }
+
+    @Override
+    public T get(int index) {
+        return items.get(index);
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public int getDimension() {
+        return dimension;
+    }
+
+    private static IntBuffer ints(MappedByteBuffer buffer, int offset, int length) {
+        return buffer.slice(offset, length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+    private record Candidate(int id, float score) {
+    }
+}
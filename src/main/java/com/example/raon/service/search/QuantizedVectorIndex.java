@@ -0,0 +1,435 @@
+package com.example.raon.service.search;
+
+import com.example.raon.service.VectorSearchService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 양자화 벡터 인덱스 (기본 int8 스칼라 양자화, 선택 시 Product Quantization)
+ *
+ * 검색은 2단계로 동작한다.
+ * 1) 압축 코드만 훑으며 비대칭 거리 계산(ADC)으로 후보 rerankFactor * K개 선택
+ *    - SQ8: 차원당 1byte (768차원 = 768B, double[] 대비 1/8)
+ *    - PQ: 부분공간당 1byte (768차원 / 192 부분공간 = 192B, double[] 대비 1/32)
+ * 2) 선택된 후보만 원본 float32 벡터로 다시 점수를 매겨(re-rank) 최종 Top-K 결정
+ *
+ * 훑는 데이터(코드)가 작아 캐시에 머무르고, 원본 벡터는 재정렬 후보만 접근한다.
+ * 학습(train) 전에는 원본 벡터로 정확한 검색을 수행하며, trainingThreshold개가 모이면 자동 학습한다.
+ *
+ * 메모리 사용량 (벡터당, heapBytesPerVector)
+ * - 구축용 인덱스(생성자): 재정렬용 float32 원본도 힙에 두므로 코드 + 4 × 차원 bytes - 원본만 둘 때보다 큼
+ * - 스냅샷 위 인덱스(over): 원본은 메모리 매핑 파일(MappedVectorIndex)에서 재정렬 후보만 읽고 힙에는 코드만 남음
+ *   (SQ8 1/4, PQ 1/16 수준 - 매핑된 원본은 페이지 캐시가 필요할 때만 올림)
+ *
+ * FlatVectorIndex와 마찬가지로 쓰기는 단일 스레드 구축 용도
+ */
+@Slf4j
+public class QuantizedVectorIndex<T> implements VectorIndex<T> {
+
+    public static final int DEFAULT_RERANK_FACTOR = 10;
+    public static final int DEFAULT_TRAINING_THRESHOLD = 1_000;
+
+    private static final int PQ_CENTROIDS = 256;
+    private static final int PQ_TRAINING_SAMPLES = 10_000;
+    private static final int KMEANS_ITERATIONS = 12;
+
+    /**
+     * 재정렬용 원본 벡터 - 구축용은 힙(FlatVectorIndex), over로 만든 경우 스냅샷(읽기 전용)
+     */
+    private final VectorIndex<T> full;
+    private final boolean ownsVectors;
+    private final int pqSubspaces;
+    private final int rerankFactor;
+    private final int trainingThreshold;
+
+    // SQ8: x[d] ≈ sqOffset[d] + sqScale[d] * code[d] (code: -128 ~ 127)
+    private float[] sqScale;
+    private float[] sqOffset;
+    private byte[] sqCodes = new byte[0];
+
+    // PQ: 부분공간 j의 코드 c → pqCentroids[j][c * subDimension ...]
+    private float[][] pqCentroids;
+    private byte[] pqCodes = new byte[0];
+    private int subDimension;
+
+    private boolean trained;
+
+    public QuantizedVectorIndex() {
+        this(0, DEFAULT_RERANK_FACTOR, DEFAULT_TRAINING_THRESHOLD);
+    }
+
+    /**
+     * @param pqSubspaces PQ 부분공간 수 (0이면 SQ8만 사용, 차원의 약수여야 함)
+     * @param rerankFactor 원본 벡터로 재정렬할 후보 배수 (K * rerankFactor)
+     * @param trainingThreshold 자동 학습을 시작할 벡터 수
+     */
+    public QuantizedVectorIndex(int pqSubspaces, int rerankFactor, int trainingThreshold) {
+        this(new FlatVectorIndex<>(), true, pqSubspaces, rerankFactor, trainingThreshold);
+    }
+
+    private QuantizedVectorIndex(VectorIndex<T> full, boolean ownsVectors,
+                                 int pqSubspaces, int rerankFactor, int trainingThreshold) {
+        this.full = full;
+        this.ownsVectors = ownsVectors;
+        this.pqSubspaces = Math.max(0, pqSubspaces);
+        this.rerankFactor = Math.max(1, rerankFactor);
+        this.trainingThreshold = Math.max(1, trainingThreshold);
+    }
+
+    /**
+     * 이미 구축된 인덱스(보통 스냅샷의 MappedVectorIndex)의 벡터를 원본으로 쓰는 읽기 전용 양자화 인덱스
+     * 원본 벡터를 복사하지 않고 코드만 만들며, trainingThreshold개 이상이면 바로 학습한다
+     */
+    public static <T> QuantizedVectorIndex<T> over(VectorIndex<T> source, int pqSubspaces, int rerankFactor,
+                                                   int trainingThreshold) {
+        QuantizedVectorIndex<T> index =
+                new QuantizedVectorIndex<>(source, false, pqSubspaces, rerankFactor, trainingThreshold);
+        if (source.size() >= index.trainingThreshold) {
+            index.train();
+        }
+        return index;
+    }
+
+    @Override
+    public int add(T item, double[] vector) {
+        return addNormalized(item, VectorOps.normalize(vector));
+    }
+
+    @Override
+    public int addNormalized(T item, float[] vector) {
+        if (!ownsVectors) {
+            throw new UnsupportedOperationException("스냅샷 위의 양자화 인덱스는 읽기 전용입니다");
+        }
+        int id = full.addNormalized(item, vector);
+
+        if (trained) {
+            encode(id, vector);
+        } else if (full.size() >= trainingThreshold) {
+            train();
+        }
+        return id;
+    }
+
+    /**
+     * 현재 저장된 벡터로 양자화 파라미터 학습 후 전체 재인코딩
+     */
+    public void train() {
+        int n = full.size();
+        int dimension = full.getDimension();
+        if (n == 0) {
+            return;
+        }
+        if (pqSubspaces > 0 && dimension % pqSubspaces != 0) {
+            throw new IllegalArgumentException(
+                    String.format("PQ 부분공간 수(%d)는 차원(%d)의 약수여야 합니다", pqSubspaces, dimension));
+        }
+
+        long start = System.currentTimeMillis();
+        if (pqSubspaces > 0) {
+            trainProduct(n, dimension);
+            pqCodes = new byte[n * pqSubspaces];
+        } else {
+            trainScalar(n, dimension);
+            sqCodes = new byte[n * dimension];
+        }
+        trained = true;
+        for (int i = 0; i < n; i++) {
+            encode(i, full.vectorAt(i));
+        }
+
+        log.info("✅ 양자화 학습 완료 - 벡터: {}개, 방식: {}, 코드: {}B/벡터, 힙: {}B/벡터, 소요: {}ms",
+                n, pqSubspaces > 0 ? "PQ" : "SQ8", codeBytesPerVector(), heapBytesPerVector(),
+                System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public List<VectorSearchService.SearchResult<T>> searchTopK(double[] queryVector, int k, double minSimilarity) {
+        return searchTopKNormalized(VectorOps.normalize(queryVector), k, minSimilarity);
+    }
+
+    public List<VectorSearchService.SearchResult<T>> searchTopKNormalized(float[] query, int k, double minSimilarity) {
+        int n = full.size();
+        if (n == 0 || k <= 0) {
+            return List.of();
+        }
+        if (query.length != full.getDimension()) {
+            throw new IllegalArgumentException("벡터 차원이 일치하지 않습니다");
+        }
+        if (!trained) {
+            TopKSelector exact = new TopKSelector(Math.min(n, k), VectorOps.toCosine(minSimilarity));
+            for (int i = 0; i < n; i++) {
+                exact.offer(i, full.score(query, i));
+            }
+            return toResults(exact);
+        }
+
+        // 1단계: 압축 코드 ADC 스캔
+        TopKSelector coarse = new TopKSelector(Math.min(n, k * rerankFactor));
+        if (pqSubspaces > 0) {
+            scanProduct(query, n, coarse);
+        } else {
+            scanScalar(query, n, coarse);
+        }
+
+        // 2단계: 원본 벡터로 재정렬
+        TopKSelector fine = new TopKSelector(Math.min(k, coarse.size()), VectorOps.toCosine(minSimilarity));
+        for (int rank = 0; rank < coarse.size(); rank++) {
+            int index = coarse.indexAt(rank);
+            fine.offer(index, full.score(query, index));
+        }
+        return toResults(fine);
+    }
+
+    private List<VectorSearchService.SearchResult<T>> toResults(TopKSelector selector) {
+        List<VectorSearchService.SearchResult<T>> results = new ArrayList<>(selector.size());
+        for (int rank = 0; rank < selector.size(); rank++) {
+            int index = selector.indexAt(rank);
+            results.add(new VectorSearchService.SearchResult<>(
+                    full.get(index), VectorOps.toSimilarity(selector.scoreAt(rank)), index));
+        }
+        return results;
+    }
+
+    /**
+     * 재정렬 없이 ADC 점수만으로 고른 Top-K 인덱스 (재정렬 효과 측정용)
+     */
+    public int[] approximateTopKIds(float[] query, int k) {
+        int n = full.size();
+        TopKSelector selector = new TopKSelector(Math.min(n, k));
+        if (!trained) {
+            for (int i = 0; i < n; i++) {
+                selector.offer(i, full.score(query, i));
+            }
+        } else if (pqSubspaces > 0) {
+            scanProduct(query, n, selector);
+        } else {
+            scanScalar(query, n, selector);
+        }
+
+        int[] ids = new int[selector.size()];
+        for (int rank = 0; rank < ids.length; rank++) {
+            ids[rank] = selector.indexAt(rank);
+        }
+        return ids;
+    }
+
+    public boolean isTrained() {
+        return trained;
+    }
+
+    /**
+     * 1단계 스캔 대상 코드의 벡터당 크기 (bytes)
+     */
+    public int codeBytesPerVector() {
+        return pqSubspaces > 0 ? pqSubspaces : full.getDimension();
+    }
+
+    /**
+     * 벡터당 힙 사용량 (bytes) - 코드 + 힙에 둔 float32 원본 (스냅샷 위 인덱스는 코드만)
+     */
+    public int heapBytesPerVector() {
+        return codeBytesPerVector() + (ownsVectors ? full.getDimension() * Float.BYTES : 0);
+    }
+
+    /**
+     * 재정렬용 원본 벡터가 힙이 아닌 스냅샷에 있는지
+     */
+    public boolean isSnapshotBacked() {
+        return !ownsVectors;
+    }
+
+    /**
+     * 원본(float32) 벡터 기준 코사인
+     */
+    @Override
+    public float score(float[] normalizedQuery, int index) {
+        return full.score(normalizedQuery, index);
+    }
+
+    @Override
+    public float[] vectorAt(int index) {
+        return full.vectorAt(index);
+    }
+
+    @Override
+    public T get(int index) {
+        return full.get(index);
+    }
+
+    @Override
+    public int size() {
+        return full.size();
+    }
+
+    @Override
+    public int getDimension() {
+        return full.getDimension();
+    }
+
+    private void scanScalar(float[] query, int n, TopKSelector selector) {
+        int dimension = query.length;
+        float[] scaledQuery = new float[dimension];
+        float bias = 0f;
+        for (int d = 0; d < dimension; d++) {
+            scaledQuery[d] = query[d] * sqScale[d];
+            bias += query[d] * sqOffset[d];
+        }
+
+        byte[] codes = sqCodes;
+        for (int i = 0; i < n; i++) {
+            selector.offer(i, bias + VectorOps.dotInt8(scaledQuery, codes, i * dimension, dimension));
+        }
+    }
+
+    private void scanProduct(float[] query, int n, TopKSelector selector) {
+        // 질의-중심점 내적 테이블 [부분공간][코드]
+        float[] table = new float[pqSubspaces * PQ_CENTROIDS];
+        for (int j = 0; j < pqSubspaces; j++) {
+            float[] centroids = pqCentroids[j];
+            int centroidCount = centroids.length / subDimension;
+            for (int c = 0; c < centroidCount; c++) {
+                table[j * PQ_CENTROIDS + c] = VectorOps.dot(query, j * subDimension, centroids, c * subDimension, subDimension);
+            }
+        }
+
+        byte[] codes = pqCodes;
+        for (int i = 0; i < n; i++) {
+            int base = i * pqSubspaces;
+            float sum = 0f;
+            for (int j = 0; j < pqSubspaces; j++) {
+                sum += table[j * PQ_CENTROIDS + (codes[base + j] & 0xFF)];
+            }
+            selector.offer(i, sum);
+        }
+    }
+
+    private void trainScalar(int n, int dimension) {
+        float[] min = new float[dimension];
+        float[] max = new float[dimension];
+        Arrays.fill(min, Float.POSITIVE_INFINITY);
+        Arrays.fill(max, Float.NEGATIVE_INFINITY);
+
+        for (int i = 0; i < n; i++) {
+            float[] vector = full.vectorAt(i);
+            for (int d = 0; d < dimension; d++) {
+                min[d] = Math.min(min[d], vector[d]);
+                max[d] = Math.max(max[d], vector[d]);
+            }
+        }
+
+        sqScale = new float[dimension];
+        sqOffset = new float[dimension];
+        for (int d = 0; d < dimension; d++) {
+            float scale = (max[d] - min[d]) / 255f;
+            sqScale[d] = scale;
+            sqOffset[d] = min[d] + 128f * scale;
+        }
+    }
+
+    private void trainProduct(int n, int dimension) {
+        subDimension = dimension / pqSubspaces;
+        int samples = Math.min(n, PQ_TRAINING_SAMPLES);
+        int step = Math.max(1, n / samples);
+        int centroidCount = Math.min(PQ_CENTROIDS, samples);
+        Random random = new Random(42);
+
+        pqCentroids = new float[pqSubspaces][];
+        float[] sub = new float[samples * subDimension];
+        for (int j = 0; j < pqSubspaces; j++) {
+            int offset = j * subDimension;
+            for (int s = 0; s < samples; s++) {
+                System.arraycopy(full.vectorAt(Math.min(n - 1, s * step)), offset, sub, s * subDimension, subDimension);
+            }
+            pqCentroids[j] = kMeans(sub, samples, subDimension, centroidCount, random);
+        }
+    }
+
+    /**
+     * 단순 Lloyd k-means (부분공간 학습용, 유클리드 거리)
+     */
+    private static float[] kMeans(float[] points, int count, int dimension, int k, Random random) {
+        float[] centroids = new float[k * dimension];
+        for (int c = 0; c < k; c++) {
+            int pick = random.nextInt(count);
+            System.arraycopy(points, pick * dimension, centroids, c * dimension, dimension);
+        }
+
+        int[] assignment = new int[count];
+        float[] sums = new float[k * dimension];
+        int[] sizes = new int[k];
+        for (int iteration = 0; iteration < KMEANS_ITERATIONS; iteration++) {
+            for (int p = 0; p < count; p++) {
+                assignment[p] = nearestCentroid(points, p * dimension, centroids, k, dimension);
+            }
+
+            Arrays.fill(sums, 0f);
+            Arrays.fill(sizes, 0);
+            for (int p = 0; p < count; p++) {
+                int c = assignment[p];
+                sizes[c]++;
+                for (int d = 0; d < dimension; d++) {
+                    sums[c * dimension + d] += points[p * dimension + d];
+                }
+            }
+            for (int c = 0; c < k; c++) {
+                if (sizes[c] == 0) {
+                    // 빈 군집은 임의의 점으로 다시 시작
+                    System.arraycopy(points, random.nextInt(count) * dimension, centroids, c * dimension, dimension);
+                    continue;
+                }
+                for (int d = 0; d < dimension; d++) {
+                    centroids[c * dimension + d] = sums[c * dimension + d] / sizes[c];
+                }
+            }
+        }
+        return centroids;
+    }
+
+    private static int nearestCentroid(float[] points, int offset, float[] centroids, int k, int dimension) {
+        int best = 0;
+        float bestDistance = Float.POSITIVE_INFINITY;
+        for (int c = 0; c < k; c++) {
+            float distance = 0f;
+            for (int d = 0; d < dimension; d++) {
+                float diff = points[offset + d] - centroids[c * dimension + d];
+                distance += diff * diff;
+            }
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    private void encode(int id, float[] vector) {
+        if (pqSubspaces > 0) {
+            if ((id + 1) * pqSubspaces > pqCodes.length) {
+                pqCodes = Arrays.copyOf(pqCodes, Math.max((id + 1) * pqSubspaces, pqCodes.length + (pqCodes.length >> 1)));
+            }
+            for (int j = 0; j < pqSubspaces; j++) {
+                int centroidCount = pqCentroids[j].length / subDimension;
+                pqCodes[id * pqSubspaces + j] =
+                        (byte) nearestCentroid(vector, j * subDimension, pqCentroids[j], centroidCount, subDimension);
+            }
+            return;
+        }
+
+        int dimension = vector.length;
+        if ((id + 1) * dimension > sqCodes.length) {
+            sqCodes = Arrays.copyOf(sqCodes, Math.max((id + 1) * dimension, sqCodes.length + (sqCodes.length >> 1)));
+        }
+        int base = id * dimension;
+        for (int d = 0; d < dimension; d++) {
+            int code = 0;
+            if (sqScale[d] > 0f) {
+                code = Math.round((vector[d] - sqOffset[d]) / sqScale[d]);
+            }
+            sqCodes[base + d] = (byte) Math.max(-128, Math.min(127, code));
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.raon.service.search;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * SegmentedVectorIndex 쓰기 담당 (copy-on-write)
+ *
+ * - 추가/삭제는 대기열에 모았다가 window가 지나거나 maxBatchSize에 도달하면 새 세그먼트 하나로 반영
+ * - 새 스냅샷은 AtomicReference로 게시 → 읽는 쪽은 current()만 호출하고 락을 잡지 않음
+ * - 세그먼트가 maxSegments를 넘거나 삭제 표시가 절반을 넘으면 백그라운드에서 하나로 병합
+ *   (병합 중에도 쓰기는 계속 새 세그먼트로 쌓이고, 병합 결과는 병합 시작 시점의 세그먼트만 대체)
+ *
+ * 게시 콜백(publisher)은 쓰기 락 안에서 게시 순서대로 호출된다.
+ */
+@Slf4j
+public class SegmentedIndexWriter<T> implements AutoCloseable {
+
+    private final Supplier<VectorIndex<T>> segmentFactory;
+    private final Supplier<VectorIndex<T>> mergeFactory;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final int maxSegments;
+    private final Consumer<SegmentedVectorIndex<T>> publisher;
+    private final UnaryOperator<VectorIndex<T>> mergeFinisher;
+
+    private final AtomicReference<SegmentedVectorIndex<T>> current = new AtomicReference<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicBoolean merging = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService mergeExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private List<PendingAdd<T>> pendingAdds = new ArrayList<>();
+    private List<T> pendingDeletes = new ArrayList<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    /**
+     * @param segmentFactory 새 세그먼트용 빈 인덱스 (작은 배치 - 보통 FlatVectorIndex)
+     * @param mergeFactory 병합 결과용 빈 인덱스 (설정된 인덱스 종류)
+     * @param windowMillis 첫 변경 이후 추가 변경을 기다리는 시간 (ms)
+     * @param maxBatchSize 한 세그먼트에 모을 최대 변경 수
+     * @param maxSegments 병합 없이 유지할 최대 세그먼트 수
+     * @param publisher 새 스냅샷 게시 시 호출 (예: 검색 카탈로그 교체)
+     */
+    public SegmentedIndexWriter(Supplier<VectorIndex<T>> segmentFactory, Supplier<VectorIndex<T>> mergeFactory,
+                                long windowMillis, int maxBatchSize, int maxSegments,
+                                Consumer<SegmentedVectorIndex<T>> publisher) {
+        this(segmentFactory, mergeFactory, windowMillis, maxBatchSize, maxSegments, publisher, UnaryOperator.identity());
+    }
+
+    /**
+     * @param mergeFinisher 병합 결과를 게시 전에 변환 (락 밖에서 호출 - 예: 스냅샷 저장 후 매핑 인덱스로 교체)
+     */
+    public SegmentedIndexWriter(Supplier<VectorIndex<T>> segmentFactory, Supplier<VectorIndex<T>> mergeFactory,
+                                long windowMillis, int maxBatchSize, int maxSegments,
+                                Consumer<SegmentedVectorIndex<T>> publisher,
+                                UnaryOperator<VectorIndex<T>> mergeFinisher) {
+        if (maxBatchSize < 1 || maxSegments < 1) {
+            throw new IllegalArgumentException(
+                    "maxBatchSize, maxSegments는 1 이상이어야 합니다: " + maxBatchSize + ", " + maxSegments);
+        }
+        this.segmentFactory = segmentFactory;
+        this.mergeFactory = mergeFactory;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, windowMillis));
+        this.maxBatchSize = maxBatchSize;
+        this.maxSegments = maxSegments;
+        this.publisher = publisher;
+        this.mergeFinisher = mergeFinisher;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "segmented-index-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 현재 게시된 스냅샷 (reset 전이면 null)
+     */
+    public SegmentedVectorIndex<T> current() {
+        return current.get();
+    }
+
+    /**
+     * 전체 재구성 결과로 교체 - 대기 중인 변경은 버림 (base에 이미 반영되었다는 전제)
+     */
+    public void reset(VectorIndex<T> base) {
+        SegmentedVectorIndex<T> snapshot = SegmentedVectorIndex.of(base);
+        lock.lock();
+        try {
+            cancelScheduledFlush();
+            pendingAdds = new ArrayList<>();
+            pendingDeletes = new ArrayList<>();
+            publish(snapshot);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void add(T item, double[] vector) {
+        enqueue(() -> pendingAdds.add(new PendingAdd<>(item, VectorOps.normalize(vector))));
+    }
+
+    public void delete(T item) {
+        enqueue(() -> pendingDeletes.add(item));
+    }
+
+    /**
+     * 대기 중인 변경을 즉시 새 세그먼트로 반영
+     */
+    public void flush() {
+        SegmentedVectorIndex<T> published;
+        lock.lock();
+        try {
+            cancelScheduledFlush();
+            SegmentedVectorIndex<T> base = current.get();
+            if (base == null || (pendingAdds.isEmpty() && pendingDeletes.isEmpty())) {
+                return;
+            }
+
+            VectorIndex<T> segment = null;
+            if (!pendingAdds.isEmpty()) {
+                segment = segmentFactory.get();
+                for (PendingAdd<T> add : pendingAdds) {
+                    segment.addNormalized(add.item(), add.vector());
+                }
+            }
+            published = base.withChanges(segment, pendingDeletes);
+            log.debug("🧩 세그먼트 반영 - 추가 {}건, 삭제 {}건, 세그먼트 {}개",
+                    pendingAdds.size(), pendingDeletes.size(), published.segmentCount());
+
+            pendingAdds = new ArrayList<>();
+            pendingDeletes = new ArrayList<>();
+            publish(published);
+        } finally {
+            lock.unlock();
+        }
+
+        maybeMerge(published);
+    }
+
+    public boolean isMerging() {
+        return merging.get();
+    }
+
+    private void enqueue(Runnable change) {
+        boolean full;
+        lock.lock();
+        try {
+            if (current.get() == null) {
+                throw new IllegalStateException("인덱스가 아직 구성되지 않았습니다");
+            }
+            change.run();
+            int pendingCount = pendingAdds.size() + pendingDeletes.size();
+            full = pendingCount >= maxBatchSize;
+            if (!full && pendingCount == 1) {
+                scheduledFlush = scheduler.schedule(this::flush, windowNanos, TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (full) {
+            flush();
+        }
+    }
+
+    private void maybeMerge(SegmentedVectorIndex<T> snapshot) {
+        boolean tooManySegments = snapshot.segmentCount() > maxSegments;
+        boolean tooManyDeleted = snapshot.deletedCount() * 2 > snapshot.size();
+        if ((!tooManySegments && !tooManyDeleted) || !merging.compareAndSet(false, true)) {
+            return;
+        }
+
+        mergeExecutor.execute(() -> {
+            try {
+                // 병합 대상은 시작 시점 스냅샷 - 락 없이 새 인덱스 구축
+                SegmentedVectorIndex<T> source = current.get();
+                long startedAt = System.nanoTime();
+                SegmentedVectorIndex<T> merged = SegmentedVectorIndex.of(
+                        mergeFinisher.apply(SegmentedVectorIndex.mergeInto(source, mergeFactory.get())));
+
+                lock.lock();
+                try {
+                    SegmentedVectorIndex<T> next = current.get().replacePrefix(source, merged);
+                    if (next == null) {
+                        log.info("↩️ 병합 중 인덱스가 교체되어 병합 결과를 버립니다");
+                        return;
+                    }
+                    publish(next);
+                    log.info("🧹 세그먼트 병합 완료 - {}개 → {}개, 항목 {}개 ({}ms)",
+                            source.segmentCount(), next.segmentCount(), merged.size(),
+                            (System.nanoTime() - startedAt) / 1_000_000);
+                } finally {
+                    lock.unlock();
+                }
+            } catch (Exception e) {
+                log.error("❌ 세그먼트 병합 실패", e);
+                return;
+            } finally {
+                merging.set(false);
+            }
+
+            // 병합 중에 쌓인 세그먼트가 다시 기준을 넘었으면 이어서 병합
+            maybeMerge(current.get());
+        });
+    }
+
+    private void publish(SegmentedVectorIndex<T> snapshot) {
+        current.set(snapshot);
+        publisher.accept(snapshot);
+    }
+
+    private void cancelScheduledFlush() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+        scheduler.shutdownNow();
+        mergeExecutor.close();
+    }
+
+    private record PendingAdd<T>(T item, float[] vector) {
+    }
+}
@@ -0,0 +1,341 @@
+package com.example.raon.service.search;
+
+import com.example.raon.service.VectorSearchService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 여러 세그먼트 + 삭제 표시로 이루어진 불변 인덱스 스냅샷
+ *
+ * - 위치 번호는 세그먼트를 순서대로 이어 붙인 전역 번호 (삭제된 위치도 병합 전까지 번호 유지)
+ * - 변경은 항상 새 스냅샷을 반환 (withChanges / replacePrefix) - 기존 스냅샷은 그대로이므로 읽기에 락이 필요 없음
+ * - 삭제는 항목 동일성(==) 기준 표시만 하고, 실제 제거는 병합 시점에 수행
+ * - 세그먼트마다 항목 → 위치 맵을 한 번 만들어 두고 스냅샷 간에 공유 (삭제·위치 조회가 전체 위치를 훑지 않음)
+ *
+ * 세그먼트는 생성 후 변경하지 않는다는 전제 (SegmentedIndexWriter가 보장)
+ */
+public final class SegmentedVectorIndex<T> implements VectorIndex<T> {
+
+    private final List<Segment<T>> segments;
+    private final int[] offsets;
+    private final Set<T> deleted;
+    private final int size;
+    private final int dimension;
+
+    private SegmentedVectorIndex(List<Segment<T>> segments, Set<T> deleted) {
+        this.segments = List.copyOf(segments);
+        this.deleted = Collections.unmodifiableSet(deleted);
+        this.offsets = new int[this.segments.size()];
+
+        int total = 0;
+        int dim = 0;
+        for (int s = 0; s < this.segments.size(); s++) {
+            offsets[s] = total;
+            VectorIndex<T> index = this.segments.get(s).index();
+            total += index.size();
+            if (dim == 0 && !index.isEmpty()) {
+                dim = index.getDimension();
+            }
+        }
+        this.size = total;
+        this.dimension = dim;
+    }
+
+    /**
+     * 기본 세그먼트 하나로 시작하는 스냅샷 (항목 → 위치 맵 구성에 O(N) - 쓰기 락 밖에서 호출)
+     */
+    public static <T> SegmentedVectorIndex<T> of(VectorIndex<T> base) {
+        return new SegmentedVectorIndex<>(List.of(Segment.of(base)), identitySet());
+    }
+
+    /**
+     * 세그먼트 추가 + 삭제 표시를 반영한 새 스냅샷
+     *
+     * @param segment 추가할 세그먼트 (null이거나 비어 있으면 추가하지 않음)
+     * @param deletes 삭제할 항목 (이 스냅샷에 없는 항목은 무시)
+     */
+    public SegmentedVectorIndex<T> withChanges(VectorIndex<T> segment, Collection<T> deletes) {
+        if (segment != null && !segment.isEmpty() && dimension > 0 && segment.getDimension() != dimension) {
+            throw new IllegalArgumentException(
+                    "세그먼트 차원이 일치하지 않습니다: " + segment.getDimension() + " / " + dimension);
+        }
+
+        List<Segment<T>> nextSegments = new ArrayList<>(segments);
+        if (segment != null && !segment.isEmpty()) {
+            nextSegments.add(Segment.of(segment));
+        }
+
+        Set<T> nextDeleted = identitySet();
+        nextDeleted.addAll(deleted);
+        for (T item : deletes) {
+            if (positionOf(item) >= 0) {
+                nextDeleted.add(item);
+            }
+        }
+        return new SegmentedVectorIndex<>(nextSegments, nextDeleted);
+    }
+
+    /**
+     * source의 살아 있는 벡터를 target 세그먼트에 옮겨 담음 (병합 - 락 없이 백그라운드에서 수행)
+     */
+    public static <T> VectorIndex<T> mergeInto(SegmentedVectorIndex<T> source, VectorIndex<T> target) {
+        for (int i = 0; i < source.size; i++) {
+            T item = source.get(i);
+            if (!source.deleted.contains(item)) {
+                target.addNormalized(item, source.vectorAt(i));
+            }
+        }
+        return target;
+    }
+
+    /**
+     * replacePrefix(source, of(merged)) - 병합 인덱스의 위치 맵을 호출 스레드에서 구성
+     */
+    public SegmentedVectorIndex<T> replacePrefix(SegmentedVectorIndex<T> source, VectorIndex<T> merged) {
+        return replacePrefix(source, of(merged));
+    }
+
+    /**
+     * source의 세그먼트를 병합 결과(merged)로 대체한 새 스냅샷
+     * source 이후에 추가된 세그먼트와 삭제 표시는 그대로 유지
+     *
+     * @param merged of(병합 인덱스) - 위치 맵을 락 밖에서 미리 만들어 두기 위해 스냅샷으로 받음
+     * @return 이 스냅샷이 source에서 이어진 것이 아니면 (중간에 reset 등) null
+     */
+    public SegmentedVectorIndex<T> replacePrefix(SegmentedVectorIndex<T> source, SegmentedVectorIndex<T> merged) {
+        if (merged.segments.size() != 1 || !merged.deleted.isEmpty()) {
+            throw new IllegalArgumentException("병합 결과는 삭제 표시 없는 단일 세그먼트여야 합니다");
+        }
+        if (source.segments.size() > segments.size()) {
+            return null;
+        }
+        for (int s = 0; s < source.segments.size(); s++) {
+            if (segments.get(s) != source.segments.get(s)) {
+                return null;
+            }
+        }
+
+        List<Segment<T>> nextSegments = new ArrayList<>();
+        nextSegments.add(merged.segments.get(0));
+        nextSegments.addAll(segments.subList(source.segments.size(), segments.size()));
+
+        // source 시점에 이미 삭제된 항목은 병합으로 제거되었으므로 표시 해제
+        Set<T> nextDeleted = identitySet();
+        for (T item : deleted) {
+            if (!source.deleted.contains(item)) {
+                nextDeleted.add(item);
+            }
+        }
+        return new SegmentedVectorIndex<>(nextSegments, nextDeleted);
+    }
+
+    @Override
+    public int add(T item, double[] vector) {
+        throw new UnsupportedOperationException("세그먼트 스냅샷은 읽기 전용입니다 - SegmentedIndexWriter를 사용하세요");
+    }
+
+    @Override
+    public int addNormalized(T item, float[] normalized) {
+        throw new UnsupportedOperationException("세그먼트 스냅샷은 읽기 전용입니다 - SegmentedIndexWriter를 사용하세요");
+    }
+
+    /**
+     * 세그먼트마다 Top-K를 구해 전역 Top-K로 합침 (삭제된 항목 제외)
+     */
+    @Override
+    public List<VectorSearchService.SearchResult<T>> searchTopK(double[] queryVector, int k, double minSimilarity) {
+        if (k <= 0 || size == 0) {
+            return List.of();
+        }
+
+        // 삭제 표시가 세그먼트 Top-K를 잠식해도 k개를 채울 수 있도록 여유분 요청
+        int perSegment = k + deleted.size();
+        List<List<VectorSearchService.SearchResult<T>>> segmentResults = new ArrayList<>(segments.size());
+        for (Segment<T> segment : segments) {
+            segmentResults.add(segment.index().searchTopK(queryVector, perSegment, minSimilarity));
+        }
+        return mergeSegmentResults(segmentResults, k);
+    }
+
+    /**
+     * 세그먼트마다 한 번의 배치 검색 후 질의별로 전역 Top-K로 합침
+     */
+    @Override
+    public List<List<VectorSearchService.SearchResult<T>>> searchTopKBatch(List<double[]> queryVectors, int k) {
+        List<List<VectorSearchService.SearchResult<T>>> results = new ArrayList<>(queryVectors.size());
+        if (k <= 0 || size == 0) {
+            queryVectors.forEach(query -> results.add(List.of()));
+            return results;
+        }
+
+        int perSegment = k + deleted.size();
+        List<List<List<VectorSearchService.SearchResult<T>>>> segmentResults = new ArrayList<>(segments.size());
+        for (Segment<T> segment : segments) {
+            segmentResults.add(segment.index().searchTopKBatch(queryVectors, perSegment));
+        }
+        for (int q = 0; q < queryVectors.size(); q++) {
+            List<List<VectorSearchService.SearchResult<T>>> forQuery = new ArrayList<>(segments.size());
+            for (List<List<VectorSearchService.SearchResult<T>>> batch : segmentResults) {
+                forQuery.add(batch.get(q));
+            }
+            results.add(mergeSegmentResults(forQuery, k));
+        }
+        return results;
+    }
+
+    /**
+     * 세그먼트별 결과(세그먼트 순서)를 전역 위치로 바꿔 Top-K로 합침
+     */
+    private List<VectorSearchService.SearchResult<T>> mergeSegmentResults(
+            List<List<VectorSearchService.SearchResult<T>>> segmentResults, int k) {
+        TopKSelector selector = new TopKSelector(k);
+        List<T> candidates = new ArrayList<>();
+        int[] positions = new int[0];
+
+        for (int s = 0; s < segmentResults.size(); s++) {
+            for (VectorSearchService.SearchResult<T> result : segmentResults.get(s)) {
+                if (deleted.contains(result.getData())) {
+                    continue;
+                }
+                if (positions.length == candidates.size()) {
+                    positions = Arrays.copyOf(positions, Math.max(8, positions.length * 2));
+                }
+                positions[candidates.size()] = offsets[s] + result.getIndex();
+                selector.offer(candidates.size(), result.getSimilarity());
+                candidates.add(result.getData());
+            }
+        }
+
+        List<VectorSearchService.SearchResult<T>> results = new ArrayList<>(selector.size());
+        for (int rank = 0; rank < selector.size(); rank++) {
+            int candidate = selector.indexAt(rank);
+            results.add(new VectorSearchService.SearchResult<>(
+                    candidates.get(candidate), selector.scoreAt(rank), positions[candidate]));
+        }
+        return results;
+    }
+
+    @Override
+    public float score(float[] normalizedQuery, int index) {
+        int s = segmentOf(index);
+        return segments.get(s).index().score(normalizedQuery, index - offsets[s]);
+    }
+
+    @Override
+    public float[] vectorAt(int index) {
+        int s = segmentOf(index);
+        return segments.get(s).index().vectorAt(index - offsets[s]);
+    }
+
+    @Override
+    public T get(int index) {
+        int s = segmentOf(index);
+        return segments.get(s).index().get(index - offsets[s]);
+    }
+
+    /**
+     * 삭제되지 않은 항목 (위치 순서)
+     */
+    public List<T> liveItems() {
+        List<T> live = new ArrayList<>(size - deleted.size());
+        for (int i = 0; i < size; i++) {
+            T item = get(i);
+            if (!deleted.contains(item)) {
+                live.add(item);
+            }
+        }
+        return live;
+    }
+
+    public boolean isDeleted(T item) {
+        return deleted.contains(item);
+    }
+
+    /**
+     * 항목의 전역 위치 (삭제 표시된 항목도 병합 전까지는 위치 반환, 없으면 -1) - 세그먼트 수에 비례
+     */
+    public int positionOf(T item) {
+        for (int s = 0; s < segments.size(); s++) {
+            Integer position = segments.get(s).positions().get(item);
+            if (position != null) {
+                return offsets[s] + position;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 세그먼트 인덱스 (위치 순서) - 세그먼트 단위로 부가 색인을 유지할 때 사용
+     */
+    public List<VectorIndex<T>> segments() {
+        return segments.stream().map(Segment::index).toList();
+    }
+
+    /**
+     * s번째 세그먼트의 첫 전역 위치
+     */
+    public int segmentOffset(int s) {
+        return offsets[s];
+    }
+
+    /**
+     * 전체 위치 수 (삭제 표시된 위치 포함)
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public int deletedCount() {
+        return deleted.size();
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public int getDimension() {
+        return dimension;
+    }
+
+    private int segmentOf(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+        }
+        int s = Arrays.binarySearch(offsets, index);
+        if (s >= 0) {
+            // 빈 세그먼트가 같은 오프셋을 공유할 수 있으므로 항목이 있는 마지막 세그먼트로 이동
+            while (s + 1 < offsets.length && offsets[s + 1] == index) {
+                s++;
+            }
+            return s;
+        }
+        return -s - 2;
+    }
+
+    /**
+     * 세그먼트 인덱스 + 항목 → 세그먼트 내 위치 (생성 후 변경하지 않음)
+     */
+    private record Segment<T>(VectorIndex<T> index, Map<T, Integer> positions) {
+
+        static <T> Segment<T> of(VectorIndex<T> index) {
+            Map<T, Integer> positions = new IdentityHashMap<>(index.size());
+            for (int i = 0; i < index.size(); i++) {
+                positions.putIfAbsent(index.get(i), i);
+            }
+            return new Segment<>(index, Collections.unmodifiableMap(positions));
+        }
+    }
+
+    private static <T> Set<T> identitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+}
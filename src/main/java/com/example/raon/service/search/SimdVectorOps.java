@@ -0,0 +1,76 @@
+package com.example.raon.service.search;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * JDK Vector API 기반 내적 계산
+ * jdk.incubator.vector 모듈이 없으면 클래스 로딩 자체가 실패하므로 VectorOps를 통해서만 호출
+ */
+final class SimdVectorOps {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    private SimdVectorOps() {
+    }
+
+    static float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        FloatVector acc = FloatVector.zero(SPECIES);
+        int i = 0;
+        int bound = SPECIES.loopBound(length);
+
+        for (; i < bound; i += SPECIES.length()) {
+            FloatVector va = FloatVector.fromArray(SPECIES, a, aOffset + i);
+            FloatVector vb = FloatVector.fromArray(SPECIES, b, bOffset + i);
+            acc = va.fma(vb, acc);
+        }
+
+        float sum = acc.reduceLanes(VectorOperators.ADD);
+
+        // 레인 수로 나누어 떨어지지 않는 꼬리 구간
+        for (; i < length; i++) {
+            sum += a[aOffset + i] * b[bOffset + i];
+        }
+        return sum;
+    }
+
+    static float dotInt8(float[] query, byte[] codes, int codeOffset, int length) {
+        return Int8.dot(query, codes, codeOffset, length);
+    }
+
+    /**
+     * int8 코드 내적 - byte 종(species)은 여기서만 초기화하므로 실패해도 float 내적(dot)의 SIMD에는 영향 없음
+     */
+    private static final class Int8 {
+
+        // byte 형태는 64bit가 최소라 float 레인 수만큼의 byte가 64bit보다 작으면 (128bit float) 8개를 읽어 나눠 변환
+        // 예: 256bit float ↔ 64bit byte 1조각, 128bit float ↔ 64bit byte 2조각, 512bit float ↔ 128bit byte 1조각
+        private static final VectorSpecies<Byte> BYTE_SPECIES = VectorSpecies.of(byte.class,
+                VectorShape.forBitSize(Math.max(64, SPECIES.length() * Byte.SIZE)));
+        private static final int PARTS = BYTE_SPECIES.length() / SPECIES.length();
+
+        static float dot(float[] query, byte[] codes, int codeOffset, int length) {
+            FloatVector acc = FloatVector.zero(SPECIES);
+            int i = 0;
+            int bound = BYTE_SPECIES.loopBound(length);
+
+            for (; i < bound; i += BYTE_SPECIES.length()) {
+                ByteVector vb = ByteVector.fromArray(BYTE_SPECIES, codes, codeOffset + i);
+                for (int part = 0; part < PARTS; part++) {
+                    FloatVector vq = FloatVector.fromArray(SPECIES, query, i + part * SPECIES.length());
+                    FloatVector vc = (FloatVector) vb.convertShape(VectorOperators.B2F, SPECIES, part);
+                    acc = vq.fma(vc, acc);
+                }
+            }
+
+            float sum = acc.reduceLanes(VectorOperators.ADD);
+            for (; i < length; i++) {
+                sum += query[i] * codes[codeOffset + i];
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.raon.service.search;
+
+/**
+ * 상위 K개 (점수, 인덱스) 선택기
+ *
+ * 크기 K의 primitive 최소 힙으로 후보를 걸러내므로 후보 수(n)와 무관하게
+ * O(n log K) 시간, 후보당 객체 할당 0으로 동작한다.
+ * 동점이면 먼저 들어온(인덱스가 작은) 후보를 우선한다 - 기존 안정 정렬 결과와 동일.
+ *
+ * 한 번의 검색에만 사용하는 단일 스레드 객체
+ */
+public final class TopKSelector {
+
+    private final int k;
+    private final double minScore;
+    private final double[] scores;
+    private final int[] indices;
+    private int size;
+    private boolean sorted;
+
+    public TopKSelector(int k) {
+        this(k, Double.NEGATIVE_INFINITY);
+    }
+
+    /**
+     * @param k 선택할 최대 개수
+     * @param minScore 이 값보다 낮은 점수는 버림 (임계값)
+     */
+    public TopKSelector(int k, double minScore) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k는 0 이상이어야 합니다: " + k);
+        }
+        this.k = k;
+        this.minScore = minScore;
+        this.scores = new double[k];
+        this.indices = new int[k];
+    }
+
+    /**
+     * 후보 제출
+     *
+     * @return 상위 K개에 포함되었는지 여부
+     */
+    public boolean offer(int index, double score) {
+        if (score < minScore || k == 0) {
+            return false;
+        }
+        if (sorted) {
+            throw new IllegalStateException("정렬 이후에는 후보를 추가할 수 없습니다");
+        }
+
+        if (size < k) {
+            scores[size] = score;
+            indices[size] = index;
+            siftUp(size++);
+            return true;
+        }
+
+        // 루트(현재 K번째)보다 좋을 때만 교체
+        if (!less(scores[0], indices[0], score, index)) {
+            return false;
+        }
+        scores[0] = score;
+        indices[0] = index;
+        siftDown(0, size);
+        return true;
+    }
+
+    /**
+     * 이 점수 이하의 후보는 offer해도 선택되지 않음 (조기 스킵용)
+     */
+    public double threshold() {
+        if (size < k) {
+            return minScore;
+        }
+        // 정렬 후에는 배열 끝이 K번째(최솟값)
+        return Math.max(minScore, sorted ? scores[size - 1] : scores[0]);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * rank번째(0부터, 점수 내림차순) 후보의 인덱스
+     */
+    public int indexAt(int rank) {
+        ensureSorted();
+        checkRank(rank);
+        return indices[rank];
+    }
+
+    /**
+     * rank번째(0부터, 점수 내림차순) 후보의 점수
+     */
+    public double scoreAt(int rank) {
+        ensureSorted();
+        checkRank(rank);
+        return scores[rank];
+    }
+
+    private void ensureSorted() {
+        if (sorted) {
+            return;
+        }
+        // 힙 정렬: 최솟값을 뒤로 보내면 배열 앞부분부터 내림차순이 된다
+        for (int end = size - 1; end > 0; end--) {
+            swap(0, end);
+            siftDown(0, end);
+        }
+        sorted = true;
+    }
+
+    private void checkRank(int rank) {
+        if (rank < 0 || rank >= size) {
+            throw new IndexOutOfBoundsException("rank: " + rank + ", size: " + size);
+        }
+    }
+
+    /**
+     * (scoreA, indexA)가 (scoreB, indexB)보다 순위가 낮은가
+     */
+    private static boolean less(double scoreA, int indexA, double scoreB, int indexB) {
+        if (scoreA != scoreB) {
+            return scoreA < scoreB;
+        }
+        return indexA > indexB;
+    }
+
+    private void siftUp(int pos) {
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (!less(scores[pos], indices[pos], scores[parent], indices[parent])) {
+                break;
+            }
+            swap(pos, parent);
+            pos = parent;
+        }
+    }
+
+    private void siftDown(int pos, int length) {
+        while (true) {
+            int left = 2 * pos + 1;
+            if (left >= length) {
+                return;
+            }
+            int right = left + 1;
+            int smallest = left;
+            if (right < length && less(scores[right], indices[right], scores[left], indices[left])) {
+                smallest = right;
+            }
+            if (!less(scores[smallest], indices[smallest], scores[pos], indices[pos])) {
+                return;
+            }
+            swap(pos, smallest);
+            pos = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+
+        int index = indices[a];
+        indices[a] = indices[b];
+        indices[b] = index;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.raon.service.search;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/**
+ * 임베딩 벡터 ↔ float32 바이트 배열 변환 (DB BLOB 저장용)
+ * 리틀 엔디언 float32 연속 배열 → 768차원 기준 3,072B (double 직렬화 대비 절반)
+ */
+public final class VectorCodec {
+
+    private VectorCodec() {
+    }
+
+    public static byte[] encode(double[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (double value : vector) {
+            buffer.putFloat((float) value);
+        }
+        return buffer.array();
+    }
+
+    public static double[] decode(byte[] bytes) {
+        if (bytes.length % Float.BYTES != 0) {
+            throw new IllegalArgumentException("float32 벡터 길이가 아닙니다: " + bytes.length + "B");
+        }
+        FloatBuffer floats = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+        double[] vector = new double[floats.remaining()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = floats.get(i);
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.raon.service.search;
+
+import com.example.raon.service.VectorSearchService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 임베딩 벡터 인덱스 공통 인터페이스
+ * 유사도는 VectorSearchService와 동일하게 0 ~ 1 범위 ((cos + 1) / 2)
+ */
+public interface VectorIndex<T> {
+
+    /**
+     * 벡터 추가 (내부에서 L2 정규화)
+     *
+     * @return 추가된 항목의 인덱스
+     */
+    int add(T item, double[] vector);
+
+    /**
+     * 이미 L2 정규화된 벡터 추가 (세그먼트 병합 등 저장 벡터를 그대로 옮길 때 사용)
+     */
+    int addNormalized(T item, float[] normalized);
+
+    /**
+     * Top-K 유사 벡터 검색
+     *
+     * @param queryVector 질의 벡터 (정규화되지 않은 원본)
+     * @param k 반환할 상위 개수
+     * @param minSimilarity 최소 유사도 (0.0 ~ 1.0, 미만은 제외)
+     */
+    List<VectorSearchService.SearchResult<T>> searchTopK(double[] queryVector, int k, double minSimilarity);
+
+    default List<VectorSearchService.SearchResult<T>> searchTopK(double[] queryVector, int k) {
+        return searchTopK(queryVector, k, Double.NEGATIVE_INFINITY);
+    }
+
+    /**
+     * 여러 질의의 Top-K를 한 번에 검색 (결과는 질의 순서와 같음)
+     * 기본 구현은 질의별 searchTopK - 저장 벡터를 한 번만 훑을 수 있는 인덱스는 재정의
+     */
+    default List<List<VectorSearchService.SearchResult<T>>> searchTopKBatch(List<double[]> queryVectors, int k) {
+        List<List<VectorSearchService.SearchResult<T>>> results = new ArrayList<>(queryVectors.size());
+        for (double[] queryVector : queryVectors) {
+            results.add(searchTopK(queryVector, k));
+        }
+        return results;
+    }
+
+    /**
+     * L2 정규화된 질의와 index번째 저장 벡터의 코사인 (-1 ~ 1) - 후보 집합만 채점할 때 사용
+     */
+    float score(float[] normalizedQuery, int index);
+
+    /**
+     * index번째 저장 벡터 (L2 정규화된 상태, 읽기 전용으로 사용할 것)
+     */
+    float[] vectorAt(int index);
+
+    T get(int index);
+
+    int size();
+
+    int getDimension();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+}
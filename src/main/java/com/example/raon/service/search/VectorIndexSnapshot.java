@@ -0,0 +1,256 @@
+package com.example.raon.service.search;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongFunction;
+import java.util.zip.CRC32C;
+
+/**
+ * 벡터 인덱스 파일 스냅샷 (저장 / 메모리 매핑 로드)
+ *
+ * 파일 구조 (리틀 엔디언, 헤더 128B 이후 payload)
+ * - 헤더: magic, 포맷 버전, 플래그, 차원, 개수, HNSW 파라미터, payload CRC32C, 콘텐츠 버전 문자열
+ * - vectors: 정규화된 float32 [count × dimension]
+ * - ids: 항목 ID long [count]
+ * - graph (HNSW일 때만): upper 길이, 노드 레벨 [count], upper 오프셋 [count],
+ *   레이어 0 이웃 [count × (1 + maxM0)], 상위 레이어 이웃 [레벨마다 (1 + M)]
+ *   (이웃 블록의 첫 int는 이웃 수)
+ *
+ * 로드는 FileChannel.map으로 파일을 그대로 매핑하므로 벡터가 힙으로 복사되지 않는다.
+ * 저장은 임시 파일에 쓴 뒤 원자적으로 교체하므로, 이전 스냅샷을 매핑 중인 인스턴스도 그대로 동작한다.
+ */
+public final class VectorIndexSnapshot {
+
+    static final long MAGIC = 0x5241_4F4E_5649_4458L; // "RAONVIDX"
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 128;
+    static final int FLAG_GRAPH = 1;
+
+    private static final int VERSION_OFFSET = 52;
+    private static final int MAX_VERSION_BYTES = HEADER_BYTES - VERSION_OFFSET;
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+    private VectorIndexSnapshot() {
+    }
+
+    /**
+     * 인덱스를 스냅샷 파일로 저장 (FlatVectorIndex, HnswIndex 지원)
+     * QuantizedVectorIndex는 재정렬용 원본 벡터만 평면으로 저장 (코드는 로드할 때 다시 학습)
+     *
+     * @param ids 인덱스 순서와 같은 항목 ID (로드 시 항목 복원용)
+     * @param version 콘텐츠 버전 (예: 모델명 + 데이터 해시) - 로드 시 일치 여부 확인
+     */
+    public static void write(VectorIndex<?> index, long[] ids, String version, Path path) throws IOException {
+        if (ids.length != index.size()) {
+            throw new IllegalArgumentException("ID 개수가 인덱스 크기와 다릅니다: " + ids.length + " / " + index.size());
+        }
+        byte[] versionBytes = version.getBytes(StandardCharsets.UTF_8);
+        if (versionBytes.length > MAX_VERSION_BYTES) {
+            throw new IllegalArgumentException("버전 문자열이 너무 깁니다 (최대 " + MAX_VERSION_BYTES + "B)");
+        }
+
+        HnswIndex<?> graph = index instanceof HnswIndex<?> hnsw ? hnsw : null;
+        if (graph == null && !(index instanceof FlatVectorIndex<?>) && !(index instanceof QuantizedVectorIndex<?>)) {
+            throw new IllegalArgumentException("스냅샷을 지원하지 않는 인덱스: " + index.getClass().getSimpleName());
+        }
+
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            PayloadWriter out = new PayloadWriter(channel);
+            int count = index.size();
+
+            for (int i = 0; i < count; i++) {
+                for (float value : index.vectorAt(i)) {
+                    out.putFloat(value);
+                }
+            }
+            for (long id : ids) {
+                out.putLong(id);
+            }
+            if (graph != null) {
+                writeGraph(graph, out);
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putLong(MAGIC)
+                    .putInt(FORMAT_VERSION)
+                    .putInt(graph != null ? FLAG_GRAPH : 0)
+                    .putInt(index.getDimension())
+                    .putInt(count)
+                    .putInt(graph != null ? graph.getM() : 0)
+                    .putInt(graph != null ? graph.getMaxM0() : 0)
+                    .putInt(graph != null ? graph.entryPointId() : -1)
+                    .putInt(graph != null ? graph.entryPointLevel() : -1)
+                    .putLong(out.checksum())
+                    .putInt(versionBytes.length)
+                    .put(versionBytes);
+            header.clear();
+            channel.write(header, 0);
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 스냅샷을 메모리 매핑으로 열기
+     *
+     * @param expectedVersion 기대 콘텐츠 버전 (다르면 IllegalStateException)
+     * @param resolver 항목 ID → 항목 (null을 반환하면 IllegalStateException)
+     * @param verifyChecksum true면 payload 전체 CRC32C 검증 (파일을 한 번 순차로 읽음)
+     */
+    public static <T> MappedVectorIndex<T> open(Path path, String expectedVersion, LongFunction<T> resolver,
+                                                boolean verifyChecksum) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("스냅샷 크기가 올바르지 않습니다: " + channel.size() + "B");
+            }
+            // 매핑은 채널을 닫아도 유지된다
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (buffer.getLong(0) != MAGIC) {
+            throw new IllegalStateException("벡터 인덱스 스냅샷 파일이 아닙니다: " + path);
+        }
+        int formatVersion = buffer.getInt(8);
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IllegalStateException("지원하지 않는 스냅샷 포맷 버전: " + formatVersion);
+        }
+
+        int versionLength = buffer.getInt(48);
+        byte[] versionBytes = new byte[versionLength];
+        buffer.get(VERSION_OFFSET, versionBytes);
+        String version = new String(versionBytes, StandardCharsets.UTF_8);
+        if (!version.equals(expectedVersion)) {
+            throw new IllegalStateException("스냅샷 버전 불일치 (파일: " + version + ", 기대: " + expectedVersion + ")");
+        }
+
+        if (verifyChecksum) {
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice(HEADER_BYTES, buffer.capacity() - HEADER_BYTES));
+            if (crc.getValue() != buffer.getLong(40)) {
+                throw new IllegalStateException("스냅샷 체크섬 불일치 - 파일이 손상되었습니다: " + path);
+            }
+        }
+
+        int count = buffer.getInt(20);
+        int dimension = buffer.getInt(16);
+        long idsOffset = HEADER_BYTES + (long) count * dimension * Float.BYTES;
+        List<T> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long id = buffer.getLong((int) (idsOffset + (long) i * Long.BYTES));
+            T item = resolver.apply(id);
+            if (item == null) {
+                throw new IllegalStateException("스냅샷의 항목을 찾을 수 없습니다 - ID: " + id);
+            }
+            items.add(item);
+        }
+
+        return new MappedVectorIndex<>(buffer, items);
+    }
+
+    private static void writeGraph(HnswIndex<?> graph, PayloadWriter out) throws IOException {
+        int count = graph.size();
+        int m = graph.getM();
+        int maxM0 = graph.getMaxM0();
+
+        int[] upperOffsets = new int[count];
+        int upperLength = 0;
+        for (int i = 0; i < count; i++) {
+            int level = graph.levelOf(i);
+            upperOffsets[i] = level > 0 ? upperLength : -1;
+            upperLength += level * (1 + m);
+        }
+
+        out.putInt(upperLength);
+        for (int i = 0; i < count; i++) {
+            out.putInt(graph.levelOf(i));
+        }
+        for (int offset : upperOffsets) {
+            out.putInt(offset);
+        }
+        for (int i = 0; i < count; i++) {
+            writeNeighbors(out, graph.neighborsAt(i, 0), maxM0);
+        }
+        for (int i = 0; i < count; i++) {
+            for (int layer = 1; layer <= graph.levelOf(i); layer++) {
+                writeNeighbors(out, graph.neighborsAt(i, layer), m);
+            }
+        }
+    }
+
+    private static void writeNeighbors(PayloadWriter out, int[] neighbors, int slots) throws IOException {
+        out.putInt(neighbors.length);
+        for (int slot = 0; slot < slots; slot++) {
+            out.putInt(slot < neighbors.length ? neighbors[slot] : -1);
+        }
+    }
+
+    /**
+     * 헤더 뒤 payload를 순차 기록하면서 CRC32C 계산
+     */
+    private static final class PayloadWriter {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private final CRC32C crc = new CRC32C();
+        private long position = HEADER_BYTES;
+
+        private PayloadWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void putFloat(float value) throws IOException {
+            ensureRemaining(Float.BYTES);
+            buffer.putFloat(value);
+        }
+
+        void putInt(int value) throws IOException {
+            ensureRemaining(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensureRemaining(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        long checksum() {
+            return crc.getValue();
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            crc.update(buffer.duplicate());
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            buffer.clear();
+        }
+
+        private void ensureRemaining(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.raon.service.search;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * float32 벡터 연산 유틸리티
+ * Vector API(SIMD)를 사용할 수 있으면 사용하고, 아니면 스칼라 루프로 폴백
+ *
+ * SIMD 사용 조건: JVM 옵션 --add-modules jdk.incubator.vector
+ * 강제 비활성화: -Draon.vector.simd=false
+ */
+@Slf4j
+public final class VectorOps {
+
+    private static final boolean SIMD_ENABLED = detectSimd();
+
+    /**
+     * int8 코드 내적은 byte 벡터 형태가 따로 필요하므로 별도로 확인 (실패해도 float 내적은 SIMD 유지)
+     */
+    private static final boolean INT8_SIMD_ENABLED = SIMD_ENABLED && detectInt8Simd();
+
+    private VectorOps() {
+    }
+
+    public static boolean isSimdEnabled() {
+        return SIMD_ENABLED;
+    }
+
+    /**
+     * 두 벡터 구간의 내적
+     */
+    public static float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        if (SIMD_ENABLED) {
+            return SimdVectorOps.dot(a, aOffset, b, bOffset, length);
+        }
+        return scalarDot(a, aOffset, b, bOffset, length);
+    }
+
+    public static float dot(float[] a, float[] b) {
+        if (a.length != b.length) {
+            throw new IllegalArgumentException("벡터 차원이 일치하지 않습니다");
+        }
+        return dot(a, 0, b, 0, a.length);
+    }
+
+    /**
+     * float 질의와 int8 코드 구간의 내적 (SQ8 비대칭 거리 계산용)
+     */
+    public static float dotInt8(float[] query, byte[] codes, int codeOffset, int length) {
+        if (INT8_SIMD_ENABLED) {
+            return SimdVectorOps.dotInt8(query, codes, codeOffset, length);
+        }
+        float sum = 0f;
+        for (int i = 0; i < length; i++) {
+            sum += query[i] * codes[codeOffset + i];
+        }
+        return sum;
+    }
+
+    static float scalarDot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        float sum = 0f;
+        for (int i = 0; i < length; i++) {
+            sum += a[aOffset + i] * b[bOffset + i];
+        }
+        return sum;
+    }
+
+    /**
+     * double[] 임베딩을 L2 정규화된 float[]로 변환
+     * 영벡터는 그대로 0으로 남음 (모든 내적이 0 → 코사인 유사도 0과 동일하게 취급)
+     */
+    public static float[] normalize(double[] vector) {
+        double norm = 0.0;
+        for (double v : vector) {
+            norm += v * v;
+        }
+
+        float[] result = new float[vector.length];
+        if (norm == 0.0) {
+            return result;
+        }
+
+        double inv = 1.0 / Math.sqrt(norm);
+        for (int i = 0; i < vector.length; i++) {
+            result[i] = (float) (vector[i] * inv);
+        }
+        return result;
+    }
+
+    /**
+     * 앞쪽 dimensions개 성분만 남기고 L2 재정규화 (Matryoshka 임베딩 차원 축소)
+     * dimensions가 원본 길이 이상이면 재정규화만 수행
+     */
+    public static double[] truncate(double[] vector, int dimensions) {
+        int length = Math.min(vector.length, dimensions);
+        double norm = 0.0;
+        for (int i = 0; i < length; i++) {
+            norm += vector[i] * vector[i];
+        }
+
+        double[] result = new double[length];
+        if (norm == 0.0) {
+            return result;
+        }
+
+        double inv = 1.0 / Math.sqrt(norm);
+        for (int i = 0; i < length; i++) {
+            result[i] = vector[i] * inv;
+        }
+        return result;
+    }
+
+    /**
+     * 코사인 유사도(-1 ~ 1)를 VectorSearchService와 같은 0 ~ 1 범위로 변환
+     */
+    public static double toSimilarity(double cosine) {
+        return (cosine + 1.0) / 2.0;
+    }
+
+    /**
+     * 0 ~ 1 범위 유사도를 코사인(-1 ~ 1)으로 역변환
+     */
+    public static double toCosine(double similarity) {
+        return similarity * 2.0 - 1.0;
+    }
+
+    private static boolean detectSimd() {
+        if (!Boolean.parseBoolean(System.getProperty("raon.vector.simd", "true"))) {
+            log.info("ℹ️ Vector API 비활성화됨 (raon.vector.simd=false) - 스칼라 연산 사용");
+            return false;
+        }
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            log.info("ℹ️ jdk.incubator.vector 모듈 없음 - 스칼라 연산 사용");
+            return false;
+        }
+        try {
+            float[] probe = {1f, 2f, 3f};
+            SimdVectorOps.dot(probe, 0, probe, 0, probe.length);
+            log.info("✅ Vector API(SIMD) 내적 사용");
+            return true;
+        } catch (LinkageError e) {
+            log.warn("⚠️ Vector API 초기화 실패 - 스칼라 연산 사용: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean detectInt8Simd() {
+        try {
+            float[] probe = new float[64];
+            byte[] codes = new byte[64];
+            for (int i = 0; i < probe.length; i++) {
+                probe[i] = i;
+                codes[i] = (byte) (i - 32);
+            }
+            float expected = 0f;
+            for (int i = 0; i < probe.length; i++) {
+                expected += probe[i] * codes[i];
+            }
+            if (SimdVectorOps.dotInt8(probe, codes, 0, probe.length) != expected) {
+                log.warn("⚠️ Vector API int8 내적 결과 불일치 - int8 내적은 스칼라 연산 사용");
+                return false;
+            }
+            return true;
+        } catch (LinkageError | RuntimeException e) {
+            log.warn("⚠️ Vector API int8 내적 초기화 실패 - int8 내적은 스칼라 연산 사용: {}", e.getMessage());
+            return false;
+        }
+    }
+}
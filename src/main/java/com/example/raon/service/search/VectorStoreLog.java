@@ -0,0 +1,271 @@
+package com.example.raon.service.search;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * 임베디드 벡터 저장소의 추가 전용 로그 파일
+ *
+ * 파일 구조 (리틀 엔디언)
+ * - 헤더: magic "RAONVLOG", 포맷 버전
+ * - 레코드 반복: 본문 길이, 본문 CRC32C, 본문
+ *   본문 = id, 임베딩 모델, 문서, 메타데이터 (키/값 문자열 쌍), 차원, float32 벡터
+ *
+ * - 추가는 파일 끝에 쓰고 force로 디스크에 반영 (기존 레코드는 다시 쓰지 않음)
+ * - 같은 id가 여러 번 기록되면 마지막 레코드가 유효
+ * - 기록 도중 종료되어 끝부분이 잘렸거나 손상된 레코드는 열 때 잘라냄
+ * - compact는 임시 파일에 다시 쓴 뒤 원자적으로 교체
+ *
+ * 여러 스레드에서 호출해도 되지만 쓰기는 직렬화된다.
+ */
+@Slf4j
+public final class VectorStoreLog implements AutoCloseable {
+
+    static final long MAGIC = 0x5241_4F4E_564C_4F47L; // "RAONVLOG"
+    static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = Long.BYTES + Integer.BYTES;
+    private static final int RECORD_HEADER_BYTES = Integer.BYTES + Long.BYTES;
+
+    private final Path path;
+    private FileChannel channel;
+    private final Map<String, Record> records;
+
+    /**
+     * 저장 레코드 - Chroma의 (id, document, metadata, embedding)에 대응
+     */
+    public record Record(String id, String model, String document, Map<String, String> metadata, float[] vector) {
+    }
+
+    private VectorStoreLog(Path path, FileChannel channel, Map<String, Record> records) {
+        this.path = path;
+        this.channel = channel;
+        this.records = records;
+    }
+
+    /**
+     * 로그 파일 열기 (없으면 생성) - 유효한 레코드를 모두 읽고 손상된 끝부분은 잘라냄
+     */
+    public static VectorStoreLog open(Path path) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            Map<String, Record> records = new LinkedHashMap<>();
+            if (channel.size() == 0) {
+                writeHeader(channel);
+            } else {
+                long validEnd = readRecords(channel, path, records);
+                if (validEnd < channel.size()) {
+                    log.warn("⚠️ 벡터 저장소 로그 끝부분 손상 - {}B 잘라냄: {}", channel.size() - validEnd, path);
+                    channel.truncate(validEnd);
+                    channel.force(true);
+                }
+            }
+            channel.position(channel.size());
+            return new VectorStoreLog(path, channel, records);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 레코드 추가 (디스크 반영 후 반환)
+     */
+    public synchronized void append(Record record) throws IOException {
+        ByteBuffer buffer = encode(record);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+        records.remove(record.id());
+        records.put(record.id(), record);
+    }
+
+    /**
+     * 현재 유효한 레코드만 새 파일로 다시 써서 교체 (중복 id 제거)
+     */
+    public synchronized void compact(Collection<Record> retained) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeHeader(out);
+            for (Record record : retained) {
+                ByteBuffer buffer = encode(record);
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+            }
+            out.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        channel.close();
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+
+        records.clear();
+        retained.forEach(record -> records.put(record.id(), record));
+    }
+
+    /**
+     * id별 마지막 레코드 (기록 순서)
+     */
+    public synchronized List<Record> records() {
+        return new ArrayList<>(records.values());
+    }
+
+    public synchronized long sizeBytes() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private static void writeHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putLong(MAGIC).putInt(FORMAT_VERSION).flip();
+        channel.write(header, 0);
+        channel.position(HEADER_BYTES);
+        channel.force(true);
+    }
+
+    /**
+     * @return 마지막 유효 레코드의 끝 위치
+     */
+    private static long readRecords(FileChannel channel, Path path, Map<String, Record> records) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, header, 0);
+        header.flip();
+        if (header.remaining() < HEADER_BYTES || header.getLong() != MAGIC) {
+            throw new IllegalStateException("벡터 저장소 로그 파일이 아닙니다: " + path);
+        }
+        int formatVersion = header.getInt();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IllegalStateException("지원하지 않는 로그 포맷 버전: " + formatVersion);
+        }
+
+        long position = HEADER_BYTES;
+        long size = channel.size();
+        ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        while (position + RECORD_HEADER_BYTES <= size) {
+            recordHeader.clear();
+            readFully(channel, recordHeader, position);
+            recordHeader.flip();
+            int length = recordHeader.getInt();
+            long checksum = recordHeader.getLong();
+            if (length <= 0 || position + RECORD_HEADER_BYTES + length > size) {
+                break;
+            }
+
+            ByteBuffer body = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, body, position + RECORD_HEADER_BYTES);
+            body.flip();
+            CRC32C crc = new CRC32C();
+            crc.update(body.duplicate());
+            if (crc.getValue() != checksum) {
+                break;
+            }
+
+            Record record = decode(body);
+            records.remove(record.id());
+            records.put(record.id(), record);
+            position += RECORD_HEADER_BYTES + length;
+        }
+        return position;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+    }
+
+    private static ByteBuffer encode(Record record) {
+        List<byte[]> strings = new ArrayList<>();
+        strings.add(utf8(record.id()));
+        strings.add(utf8(record.model()));
+        strings.add(utf8(record.document()));
+        for (Map.Entry<String, String> entry : record.metadata().entrySet()) {
+            strings.add(utf8(entry.getKey()));
+            strings.add(utf8(entry.getValue()));
+        }
+
+        int length = Integer.BYTES * 2 + record.vector().length * Float.BYTES;
+        for (byte[] bytes : strings) {
+            length += Integer.BYTES + bytes.length;
+        }
+
+        ByteBuffer body = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < 3; i++) {
+            putString(body, strings.get(i));
+        }
+        body.putInt(record.metadata().size());
+        for (int i = 3; i < strings.size(); i++) {
+            putString(body, strings.get(i));
+        }
+        body.putInt(record.vector().length);
+        for (float value : record.vector()) {
+            body.putFloat(value);
+        }
+        body.flip();
+
+        CRC32C crc = new CRC32C();
+        crc.update(body.duplicate());
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_BYTES + length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(length).putLong(crc.getValue()).put(body).flip();
+        return buffer;
+    }
+
+    private static Record decode(ByteBuffer body) {
+        String id = getString(body);
+        String model = getString(body);
+        String document = getString(body);
+        int metadataCount = body.getInt();
+        Map<String, String> metadata = new LinkedHashMap<>();
+        for (int i = 0; i < metadataCount; i++) {
+            metadata.put(getString(body), getString(body));
+        }
+        float[] vector = new float[body.getInt()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = body.getFloat();
+        }
+        return new Record(id, model, document, metadata, vector);
+    }
+
+    private static byte[] utf8(String value) {
+        return (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        buffer.putInt(bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,340 @@
+package com.example.raon.util;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * 적응형 동시 호출 제한 (AIMD) + 우선순위 대기열
+ *
+ * - 동시 호출 수 상한(limit)을 외부 서버 상태에 맞춰 조절
+ *   - 과부하 응답(429/503 등)이나 지연 임계값 초과 → limit × backoffRatio (곱셈 감소)
+ *   - 상한까지 쓰고 있는 상태에서 정상 완료 → limit + 1/limit (덧셈 증가, limit개 완료마다 약 1 증가)
+ *   - 감소는 한 구간에 한 번만 - 감소 전에 시작한 호출들의 실패가 연달아 limit를 깎지 않도록
+ * - 상한이 차면 maxQueue개까지 우선순위(값이 작을수록 먼저) → 도착 순서로 대기
+ *   대기열이 가득 찼을 때 더 급한 호출이 오면 가장 덜 급한 대기자를 밀어내고 들어감
+ * - maxWait 안에 차례가 오지 않거나 밀려나면 LimitExceededException
+ *
+ * 과부하 때 재시도가 몰려도 동시 호출 수가 줄어든 상한에 묶이므로 처리량이 무너지지 않음
+ *
+ * fixed()로 만들면 상한을 조절하지 않는 격벽(bulkhead) - execute(call)은 우선순위 없이 도착 순서로 대기
+ * (느려진 외부 서버 하나가 호출하는 쪽의 스레드와 커넥션을 모두 붙잡지 않도록 하는 용도)
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueue;
+    private final Duration maxWait;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<Waiter> waiters = new PriorityQueue<>(
+            Comparator.comparingInt(Waiter::priority).thenComparingLong(Waiter::sequence));
+    private long sequence;
+    private double limit;
+    private int inFlight;
+    private long epoch;
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong decreaseCount = new AtomicLong();
+
+    /**
+     * @param name 로그/메트릭용 이름
+     * @param initialLimit 시작 상한
+     * @param minLimit 최소 상한 (과부하가 계속돼도 이만큼은 호출)
+     * @param maxLimit 최대 상한
+     * @param maxQueue 차례를 기다릴 수 있는 최대 호출 수
+     * @param maxWait 대기열에서 기다릴 최대 시간
+     * @param backoffRatio 과부하 시 상한에 곱할 비율 (0 ~ 1)
+     * @param latencyThreshold 이보다 오래 걸린 호출은 과부하로 간주 (0이면 지연은 보지 않음)
+     */
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, int maxQueue,
+                                      Duration maxWait, double backoffRatio, Duration latencyThreshold) {
+        if (minLimit < 1 || maxLimit < minLimit || maxQueue < 0 || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException(String.format(
+                    "잘못된 설정 - minLimit: %d, maxLimit: %d, maxQueue: %d, backoffRatio: %s",
+                    minLimit, maxLimit, maxQueue, backoffRatio));
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueue = maxQueue;
+        this.maxWait = maxWait;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * 고정 상한 격벽 - 최소/최대 상한이 같아 과부하나 지연으로 상한이 바뀌지 않음
+     *
+     * @param limit 동시에 실행할 최대 호출 수
+     * @param maxQueue 차례를 기다릴 수 있는 최대 호출 수 (0이면 대기 없이 거절)
+     * @param maxWait 대기열에서 기다릴 최대 시간
+     */
+    public static AdaptiveConcurrencyLimiter fixed(String name, int limit, int maxQueue, Duration maxWait) {
+        return new AdaptiveConcurrencyLimiter(name, limit, limit, limit, maxQueue, maxWait, 0.5, Duration.ZERO);
+    }
+
+    /**
+     * 우선순위 없이 도착 순서로 실행 - 같은 우선순위끼리는 대기열이 가득 차도 밀어내지 않고 새 호출을 거절
+     */
+    public <T> Mono<T> execute(Supplier<Mono<T>> call) {
+        return execute(0, call, error -> false);
+    }
+
+    /**
+     * 제한 안에서 호출 실행 - 완료 시간과 결과로 상한을 조절
+     *
+     * @param priority 작을수록 먼저 실행
+     * @param overloaded 과부하로 볼 오류 (상한 감소 대상)
+     */
+    public <T> Mono<T> execute(int priority, Supplier<Mono<T>> call, Predicate<Throwable> overloaded) {
+        return acquire(priority)
+                .flatMap(permit -> Mono.defer(call)
+                        .doOnSuccess(value -> permit.release(Outcome.SUCCESS, true))
+                        .doOnError(error -> permit.release(overloaded.test(error) ? Outcome.OVERLOAD : Outcome.FAILURE, false))
+                        .doOnCancel(() -> permit.release(Outcome.FAILURE, false)));
+    }
+
+    /**
+     * 스트리밍 호출용 - 스트림이 끝날 때까지 자리를 차지하고, 길이가 응답마다 다르므로 지연은 보지 않음
+     */
+    public <T> Flux<T> executeMany(int priority, Supplier<Flux<T>> call, Predicate<Throwable> overloaded) {
+        return acquire(priority)
+                .flatMapMany(permit -> Flux.defer(call)
+                        .doOnComplete(() -> permit.release(Outcome.SUCCESS, false))
+                        .doOnError(error -> permit.release(overloaded.test(error) ? Outcome.OVERLOAD : Outcome.FAILURE, false))
+                        .doOnCancel(() -> permit.release(Outcome.FAILURE, false)));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double currentLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int inFlightCount() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int queuedCount() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long rejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * 상한을 줄인 횟수
+     */
+    public long decreaseCount() {
+        return decreaseCount.get();
+    }
+
+    private Mono<Permit> acquire(int priority) {
+        return Mono.<Permit>create(sink -> {
+            Waiter evicted = null;
+            Permit granted = null;
+            lock.lock();
+            try {
+                if (waiters.isEmpty() && inFlight < (int) limit) {
+                    inFlight++;
+                    granted = new Permit(epoch);
+                } else {
+                    if (waiters.size() >= maxQueue) {
+                        Waiter lowest = lowestPriorityWaiter();
+                        if (lowest == null || lowest.priority() <= priority) {
+                            sink.error(reject("대기열 가득 참"));
+                            return;
+                        }
+                        waiters.remove(lowest);
+                        evicted = lowest;
+                    }
+                    Waiter waiter = new Waiter(sink, priority, sequence++);
+                    waiters.add(waiter);
+                    sink.onCancel(() -> abandon(waiter));
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (granted != null) {
+                sink.success(granted);
+            }
+            if (evicted != null) {
+                evicted.sink().error(reject("우선순위가 더 높은 호출에 밀려남"));
+            }
+        }).timeout(maxWait, Mono.defer(() -> Mono.error(reject("대기 시간 초과"))));
+    }
+
+    private Waiter lowestPriorityWaiter() {
+        Waiter lowest = null;
+        for (Waiter waiter : waiters) {
+            if (lowest == null || waiter.priority() > lowest.priority()
+                    || (waiter.priority() == lowest.priority() && waiter.sequence() > lowest.sequence())) {
+                lowest = waiter;
+            }
+        }
+        return lowest;
+    }
+
+    /**
+     * 대기 중 취소 (maxWait 초과 포함)
+     * 취소와 동시에 차례를 넘겨받았다면 전달되지 못한 자리를 반납 (이미 전달됐다면 실행 쪽에서 반납하므로 중복 반납되지 않음)
+     */
+    private void abandon(Waiter waiter) {
+        Permit granted;
+        lock.lock();
+        try {
+            if (waiters.remove(waiter)) {
+                return;
+            }
+            granted = waiter.granted;
+        } finally {
+            lock.unlock();
+        }
+        if (granted != null) {
+            granted.release(Outcome.FAILURE, false);
+        }
+    }
+
+    private void release(Permit permit, Outcome outcome, long latencyNanos, boolean sampleLatency) {
+        List<Waiter> next = new ArrayList<>();
+        lock.lock();
+        try {
+            boolean saturated = inFlight >= (int) limit;
+            inFlight--;
+
+            boolean slow = sampleLatency && latencyThresholdNanos > 0 && latencyNanos > latencyThresholdNanos;
+            if (outcome == Outcome.OVERLOAD || slow) {
+                // 감소 이후에 시작한 호출의 결과만 다시 감소시킴
+                if (permit.epoch() == epoch) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    epoch++;
+                    decreaseCount.incrementAndGet();
+                }
+            } else if (outcome == Outcome.SUCCESS && saturated) {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+
+            while (!waiters.isEmpty() && inFlight < (int) limit) {
+                inFlight++;
+                Waiter waiter = waiters.poll();
+                waiter.granted = new Permit(epoch);
+                next.add(waiter);
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (Waiter waiter : next) {
+            waiter.sink().success(waiter.granted);
+        }
+    }
+
+    private LimitExceededException reject(String reason) {
+        rejectedCount.incrementAndGet();
+        return new LimitExceededException(name + " 동시 호출 제한 - " + reason);
+    }
+
+    private enum Outcome {
+        SUCCESS,
+        OVERLOAD,
+        FAILURE
+    }
+
+    /**
+     * 한 번만 반납되는 자리 - 받은 시점의 감소 구간(epoch)과 시작 시각을 기억
+     */
+    private final class Permit {
+
+        private final long epoch;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Permit(long epoch) {
+            this.epoch = epoch;
+        }
+
+        long epoch() {
+            return epoch;
+        }
+
+        void release(Outcome outcome, boolean sampleLatency) {
+            if (released.compareAndSet(false, true)) {
+                AdaptiveConcurrencyLimiter.this.release(this, outcome, System.nanoTime() - startNanos, sampleLatency);
+            }
+        }
+    }
+
+    private static final class Waiter {
+
+        private final MonoSink<Permit> sink;
+        private final int priority;
+        private final long sequence;
+
+        /**
+         * 대기열에서 꺼내며 넘겨준 자리 (lock 안에서만 기록)
+         */
+        private Permit granted;
+
+        Waiter(MonoSink<Permit> sink, int priority, long sequence) {
+            this.sink = sink;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        MonoSink<Permit> sink() {
+            return sink;
+        }
+
+        int priority() {
+            return priority;
+        }
+
+        long sequence() {
+            return sequence;
+        }
+    }
+
+    /**
+     * 대기열이 가득 찼거나 대기 시간을 넘겨 호출을 실행하지 않음
+     */
+    public static class LimitExceededException extends RuntimeException {
+
+        public LimitExceededException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.raon.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 콘텐츠 해시 유틸리티 (캐시 키, 변경 감지용)
+ */
+public final class HashUtils {
+
+    private HashUtils() {
+    }
+
+    /**
+     * SHA-256 해시 (소문자 16진수 64자)
+     * 여러 값을 넘기면 구분자(\0)로 이어 붙여 해시 → ("ab", "c")와 ("a", "bc")가 충돌하지 않음
+     */
+    public static String sha256Hex(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (int i = 0; i < parts.length; i++) {
+                if (i > 0) {
+                    digest.update((byte) 0);
+                }
+                digest.update(parts[i].getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 미지원 환경", e);
+        }
+    }
+}
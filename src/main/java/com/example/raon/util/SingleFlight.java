@@ -0,0 +1,130 @@
+package com.example.raon.util;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 같은 키로 동시에 들어온 호출 합치기 (single-flight)
+ *
+ * - 같은 키의 호출이 진행 중이면 새로 호출하지 않고 진행 중인 호출의 결과를 함께 받음
+ *   (결과는 재생되므로 값이 나온 뒤 완료 전에 합류한 구독자도 같은 값을 받음)
+ * - 취소는 참조 카운트 방식 - 합류한 구독자가 모두 취소했을 때만 원래 호출을 취소
+ *   (더블 클릭한 요청 하나가 끊겨도 나머지 요청은 계속 결과를 받음)
+ * - 호출이 끝나면(성공/실패/취소) 등록을 지움 - 끝난 결과의 재사용은 응답 캐시가 담당
+ */
+public final class SingleFlight<K, V> {
+
+    private final String name;
+    private final ConcurrentHashMap<K, Flight> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    /**
+     * @param name 로그/메트릭용 이름
+     */
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    /**
+     * 키 단위로 합쳐진 호출 - 구독 시점에 진행 중인 같은 키의 호출이 있으면 합류
+     */
+    public Mono<V> execute(K key, Supplier<Mono<V>> call) {
+        return Mono.defer(() -> {
+            boolean[] created = {false};
+            Flight flight = inFlight.computeIfAbsent(key, k -> {
+                created[0] = true;
+                return new Flight(k, call);
+            });
+            if (!created[0]) {
+                coalescedCount.incrementAndGet();
+            }
+            return flight.join();
+        });
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 진행 중인 (서로 다른 키의) 호출 수
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * 새로 호출하지 않고 진행 중인 호출에 합류한 횟수
+     */
+    public long coalescedCount() {
+        return coalescedCount.get();
+    }
+
+    /**
+     * 진행 중인 호출 하나 - 결과는 Sinks.One에 담아 늦게 합류한 구독자에게도 재생하고,
+     * 구독자 수를 세어 결과가 나오기 전에 0이 되면 원래 호출을 취소
+     */
+    private final class Flight {
+
+        private final K key;
+        private final Supplier<Mono<V>> call;
+        private final Sinks.One<V> result = Sinks.one();
+
+        // this로 보호
+        private int subscribers;
+        private boolean settled;
+        private Disposable upstream;
+
+        Flight(K key, Supplier<Mono<V>> call) {
+            this.key = key;
+            this.call = call;
+        }
+
+        Mono<V> join() {
+            return Mono.defer(() -> {
+                synchronized (this) {
+                    subscribers++;
+                    if (upstream == null) {
+                        // flux()로 구독 - 값이 나온 뒤에도 완료 신호까지 등록을 유지해 그 사이 합류한 구독자도 재생된 값을 받음
+                        upstream = Mono.defer(call)
+                                .flux()
+                                .doFinally(signal -> inFlight.remove(key, this))
+                                .subscribe(
+                                        value -> settle(() -> result.tryEmitValue(value)),
+                                        error -> settle(() -> result.tryEmitError(error)),
+                                        () -> settle(result::tryEmitEmpty));
+                    }
+                }
+                return result.asMono().doOnCancel(this::leave);
+            });
+        }
+
+        private void settle(Runnable emit) {
+            synchronized (this) {
+                if (settled) {
+                    return;
+                }
+                settled = true;
+            }
+            emit.run();
+        }
+
+        private void leave() {
+            Disposable cancelled;
+            synchronized (this) {
+                if (--subscribers > 0 || settled || upstream == null) {
+                    return;
+                }
+                cancelled = upstream;
+                upstream = null;
+            }
+            inFlight.remove(key, this);
+            cancelled.dispose();
+        }
+    }
+}
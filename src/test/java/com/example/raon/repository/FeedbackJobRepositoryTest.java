@@ -0,0 +1,132 @@
+package com.example.raon.repository;
+
+import com.example.raon.domain.FeedbackJob;
+import com.example.raon.domain.FeedbackJobStatus;
+import com.example.raon.domain.FeedbackJobType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 운영 DB(MySQL) 대신 내장 H2로 유니크 키/조건부 UPDATE 확인
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class FeedbackJobRepositoryTest {
+
+    private static final Long USER_ID = 1L;
+    private static final String REQUEST_HASH = "request-hash";
+    private static final String OWNER = "instance-a";
+    private static final String OTHER = "instance-b";
+
+    @Autowired
+    private FeedbackJobRepository repository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void activeJobIsUniquePerUserAndRequestButFailedJobsAreNot() {
+        repository.saveAndFlush(job("job-1", OWNER, REQUEST_HASH));
+        assertEquals(1, repository.failUnfinished("job-1", OWNER, "생성 실패", LocalDateTime.now()));
+
+        // 실패한 작업은 active가 NULL이라 같은 요청을 다시 접수할 수 있음
+        repository.saveAndFlush(job("job-2", OWNER, REQUEST_HASH));
+        entityManager.clear();
+        assertEquals("job-2", repository.findByUserIdAndRequestHashAndActiveTrue(USER_ID, REQUEST_HASH)
+                .orElseThrow().getJobId());
+
+        // 재사용 가능한 작업이 있으면 다른 인스턴스에 들어온 같은 요청도 접수되지 않음
+        assertThrows(DataIntegrityViolationException.class,
+                () -> repository.saveAndFlush(job("job-3", OTHER, REQUEST_HASH)));
+    }
+
+    @Test
+    void onlyOwnerCanStartAndFinishItsJob() {
+        repository.saveAndFlush(job("job-1", OWNER, REQUEST_HASH));
+        LocalDateTime now = LocalDateTime.now();
+
+        assertEquals(0, repository.markRunning("job-1", OTHER, now));
+        // 시작 전(PENDING)에는 완료 처리되지 않음
+        assertEquals(0, repository.completeRunning("job-1", OWNER, "{}", now));
+        assertEquals(1, repository.markRunning("job-1", OWNER, now));
+        assertEquals(0, repository.markRunning("job-1", OWNER, now));
+
+        assertEquals(0, repository.completeRunning("job-1", OTHER, "{}", now));
+        assertEquals(0, repository.failUnfinished("job-1", OTHER, "다른 인스턴스", now));
+        assertEquals(1, repository.completeRunning("job-1", OWNER, "{\"overallScore\": 90}", now));
+
+        // 이미 끝난 작업은 실패로 덮어쓰지 않음
+        assertEquals(0, repository.failUnfinished("job-1", OWNER, "늦은 실패", now));
+        entityManager.clear();
+        FeedbackJob job = repository.findById("job-1").orElseThrow();
+        assertEquals(FeedbackJobStatus.COMPLETED, job.getStatus());
+        assertEquals("{\"overallScore\": 90}", job.getResultJson());
+        assertTrue(job.getActive());
+    }
+
+    @Test
+    void lateResultDoesNotResurrectExpiredJob() {
+        repository.saveAndFlush(job("job-1", OWNER, REQUEST_HASH));
+        LocalDateTime now = LocalDateTime.now();
+        assertEquals(1, repository.markRunning("job-1", OWNER, now));
+
+        // 실행 중 lease가 만료돼 실패 처리되면 같은 요청을 새 작업으로 다시 접수할 수 있음
+        assertEquals(1, repository.failExpired(now.plusSeconds(1), "작업을 실행하던 서버가 중단되었습니다", now));
+        repository.saveAndFlush(job("job-2", OTHER, REQUEST_HASH));
+
+        // 뒤늦게 끝난 원래 작업의 결과는 저장되지 않음 (FAILED를 되살리지 않고 유니크 키도 충돌하지 않음)
+        assertEquals(0, repository.completeRunning("job-1", OWNER, "{}", now));
+        entityManager.clear();
+        FeedbackJob expired = repository.findById("job-1").orElseThrow();
+        assertEquals(FeedbackJobStatus.FAILED, expired.getStatus());
+        assertNull(expired.getActive());
+        assertNull(expired.getResultJson());
+        assertEquals("job-2", repository.findByUserIdAndRequestHashAndActiveTrue(USER_ID, REQUEST_HASH)
+                .orElseThrow().getJobId());
+    }
+
+    @Test
+    void leaseRenewalAndShutdownTouchOnlyOwnUnfinishedJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        repository.saveAndFlush(job("mine", OWNER, "hash-mine"));
+        repository.saveAndFlush(job("theirs", OTHER, "hash-theirs"));
+        repository.saveAndFlush(job("done", OWNER, "hash-done"));
+        repository.markRunning("done", OWNER, now);
+        repository.completeRunning("done", OWNER, "{}", now);
+
+        // 살아 있는 인스턴스가 갱신한 작업은 만료되지 않고, 갱신이 멈춘 인스턴스의 작업만 실패 처리
+        assertEquals(1, repository.renewLease(OWNER, now.plusMinutes(5)));
+        assertEquals(1, repository.failExpired(now.plusMinutes(1), "작업을 실행하던 서버가 중단되었습니다", now));
+        entityManager.clear();
+        assertEquals(FeedbackJobStatus.PENDING, find("mine").getStatus());
+        assertEquals(FeedbackJobStatus.FAILED, find("theirs").getStatus());
+        assertEquals(FeedbackJobStatus.COMPLETED, find("done").getStatus());
+
+        // 정상 종료 시에는 자기 인스턴스의 끝나지 않은 작업만 실패 처리
+        assertEquals(1, repository.failOwnedBy(OWNER, "서버 종료로 작업이 중단되었습니다", now));
+        entityManager.clear();
+        assertEquals(FeedbackJobStatus.FAILED, find("mine").getStatus());
+        assertEquals(FeedbackJobStatus.COMPLETED, find("done").getStatus());
+    }
+
+    private FeedbackJob find(String jobId) {
+        return repository.findById(jobId).orElseThrow();
+    }
+
+    private static FeedbackJob job(String jobId, String owner, String requestHash) {
+        return FeedbackJob.builder()
+                .jobId(jobId)
+                .userId(USER_ID)
+                .type(FeedbackJobType.INTERVIEW_FEEDBACK)
+                .requestHash(requestHash)
+                .ownerInstance(owner)
+                .build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.raon.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoverLetterExampleServiceTest {
+
+    @Test
+    void unrelatedQueryReturnsNothingSoCallerUsesFallback() {
+        CoverLetterExampleService service = service();
+
+        // 직무/기술이 하나도 맞지 않으면 본문 bigram이 겹쳐도 예시를 넣지 않음
+        assertTrue(service.searchRelevant("요리사", "칼질, 플레이팅", 3).isEmpty());
+        assertTrue(service.searchRelevant(null, null, 3).isEmpty());
+    }
+
+    @Test
+    void keywordWeightsDecideOrderAndBm25OnlyFillsRemainingSlots() {
+        CoverLetterExampleService service = service();
+
+        // 직무(50) + 기술(10) 순위가 그대로 앞에 오고, 남는 자리만 본문 BM25로 채움
+        List<CoverLetterExampleService.CoverLetterExample> results = service.searchRelevant("백엔드 개발자", "redis, jpa", 4);
+
+        assertEquals(4, results.size());
+        assertTrue(results.get(0).getKeywords().containsAll(List.of("redis", "jpa")));
+        assertEquals("백엔드", results.get(1).getJobCategory());
+        assertEquals("풀스택", results.get(2).getJobCategory());
+        assertEquals(4, results.stream().distinct().count());
+    }
+
+    private static CoverLetterExampleService service() {
+        VectorSearchService vectorSearchService = new VectorSearchService();
+        ReflectionTestUtils.setField(vectorSearchService, "hybridRrfK", 60);
+        ReflectionTestUtils.setField(vectorSearchService, "hybridCandidateFactor", 10);
+        ReflectionTestUtils.setField(vectorSearchService, "hybridPrefilterMinDocs", 1000);
+
+        CoverLetterExampleService service = new CoverLetterExampleService(vectorSearchService);
+        service.init();
+        return service;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.raon.service.gemini;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeminiContextCacheTest {
+
+    private static final String MODEL = "gemini-2.5-flash";
+    private static final GenerateContentRequest REQUEST = GenerateContentRequest.withInstruction("평가 기준과 응답 형식",
+            "면접 답변", new GenerateContentRequest.GenerationConfig(0.3, null, null, 4096, 1));
+
+    // 외부 호출 대신 순서대로 꺼내 쓰는 응답
+    private final Queue<ClientResponse> responses = new ConcurrentLinkedQueue<>();
+    private final List<ClientRequest> requests = new CopyOnWriteArrayList<>();
+
+    @Test
+    void failedRegistrationSendsInstructionUntilBackoffEnds() {
+        GeminiContextCache cache = cache(600);
+        responses.add(ClientResponse.create(HttpStatus.BAD_REQUEST).build());
+
+        assertSame(REQUEST, cache.apply(MODEL, REQUEST).block());
+        // 백오프 동안은 등록을 다시 시도하지 않음
+        assertSame(REQUEST, cache.apply(MODEL, REQUEST).block());
+        assertEquals(1, requests.size());
+
+        // 백오프가 끝나면 다시 등록
+        GeminiContextCache noBackoff = cache(0);
+        responses.add(ClientResponse.create(HttpStatus.BAD_REQUEST).build());
+        noBackoff.apply(MODEL, REQUEST).block();
+        responses.add(cachedContent("cachedContents/rubric", Instant.now().plusSeconds(3600)));
+        GenerateContentRequest applied = noBackoff.apply(MODEL, REQUEST).block();
+
+        assertEquals(3, requests.size());
+        assertEquals("cachedContents/rubric", applied.cachedContent());
+        assertNull(applied.systemInstruction());
+    }
+
+    @Test
+    void ttlIsExtendedOnlyShortlyBeforeExpiry() {
+        GeminiContextCache cache = cache(600);
+
+        // 만료까지 넉넉하면 등록된 이름을 그대로 사용
+        responses.add(cachedContent("cachedContents/rubric", Instant.now().plusSeconds(3600)));
+        assertEquals("cachedContents/rubric", cache.apply(MODEL, REQUEST).block().cachedContent());
+        assertEquals("cachedContents/rubric", cache.apply(MODEL, REQUEST).block().cachedContent());
+        assertEquals(1, requests.size());
+
+        // 만료 refresh-before-seconds(300초) 전이면 사용할 때 TTL 연장
+        GenerateContentRequest other = GenerateContentRequest.withInstruction("다른 평가 기준", "면접 답변", null);
+        responses.add(cachedContent("cachedContents/other", Instant.now().plusSeconds(60)));
+        cache.apply(MODEL, other).block();
+        responses.add(cachedContent("cachedContents/other", Instant.now().plusSeconds(3600)));
+        assertEquals("cachedContents/other", cache.apply(MODEL, other).block().cachedContent());
+        assertEquals("cachedContents/other", cache.apply(MODEL, other).block().cachedContent());
+
+        assertEquals(3, requests.size());
+        assertEquals(HttpMethod.PATCH, requests.get(2).method());
+        assertTrue(requests.get(2).url().getPath().endsWith("/cachedContents/other"));
+    }
+
+    private GeminiContextCache cache(long failureBackoffSeconds) {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    requests.add(request);
+                    return Mono.just(responses.remove());
+                })
+                .build();
+        GeminiContextCache cache = new GeminiContextCache(webClient, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "geminiApiKey", "test-key");
+        ReflectionTestUtils.setField(cache, "apiBaseUrl", "http://gemini.test/v1beta");
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 3600L);
+        ReflectionTestUtils.setField(cache, "refreshBeforeSeconds", 300L);
+        ReflectionTestUtils.setField(cache, "failureBackoffSeconds", failureBackoffSeconds);
+        ReflectionTestUtils.setField(cache, "timeoutSeconds", 30L);
+        cache.init();
+        return cache;
+    }
+
+    private static ClientResponse cachedContent(String name, Instant expireTime) {
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body("{\"name\": \"" + name + "\", \"expireTime\": \"" + expireTime + "\"}")
+                .build();
+    }
+}
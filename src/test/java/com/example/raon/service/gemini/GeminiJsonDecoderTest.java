@@ -0,0 +1,53 @@
+package com.example.raon.service.gemini;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeminiJsonDecoderTest {
+
+    private static final String JSON = """
+            {"overallScore": 72.5, "sections": [{"title": "구체성 {수치}", "score": 70}], \
+            "summary": "요약 \\"인용\\" }", "extra": {"nested": [1, 2]}}""";
+
+    record Feedback(BigDecimal overallScore, List<Section> sections, String summary) {
+    }
+
+    record Section(String title, BigDecimal score) {
+    }
+
+    @Test
+    void bindsFencedJsonAndKeepsExactSpan() {
+        String text = "다음은 평가 결과입니다.\n```json\n" + JSON + "\n```\n추가 설명 {끝}";
+
+        GeminiJsonDecoder.Decoded<Feedback> decoded = GeminiJsonDecoder.decode(text, Feedback.class);
+
+        assertEquals(JSON, decoded.json());
+        assertEquals(new BigDecimal("72.5"), decoded.value().overallScore());
+        assertEquals("구체성 {수치}", decoded.value().sections().get(0).title());
+        assertEquals("요약 \"인용\" }", decoded.value().summary());
+        assertEquals(JSON, GeminiJsonDecoder.jsonText(text));
+    }
+
+    @Test
+    void truncatedJsonFallsBackToOuterBraces() {
+        String text = "```json\n{\"overallScore\": 3, \"sections\": [{\"title\": \"a\"}, {\"title\": \"b";
+
+        GeminiJsonDecoder.Decoded<Feedback> decoded = GeminiJsonDecoder.decode(text, Feedback.class);
+
+        assertNull(decoded.value());
+        assertEquals("{\"overallScore\": 3, \"sections\": [{\"title\": \"a\"}", decoded.json());
+        assertEquals(decoded.json(), GeminiJsonDecoder.jsonText(text));
+    }
+
+    @Test
+    void plainTextIsReturnedAsIs() {
+        GeminiJsonDecoder.Decoded<Feedback> decoded = GeminiJsonDecoder.decode("  JSON 없음 \n", Feedback.class);
+
+        assertNull(decoded.value());
+        assertEquals("JSON 없음", decoded.json());
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.raon.service.gemini;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeminiModelRouterTest {
+
+    private static final String FULL_MODEL = "gemini-2.5-flash";
+    private static final String LIGHT_MODEL = "gemini-2.5-flash-lite";
+    private static final GenerateContentRequest REQUEST = GenerateContentRequest.ofPrompt("면접 답변 평가",
+            new GenerateContentRequest.GenerationConfig(0.3, null, null, 16384, 1));
+
+    // 모델별 응답 상태 (없는 모델은 200 STOP)
+    private final Map<String, HttpStatus> failures = new ConcurrentHashMap<>();
+    private final List<String> calledModels = new CopyOnWriteArrayList<>();
+
+    @Test
+    void shortInterviewAnswerIsRoutedToLightModel() {
+        GeminiModelRouter router = router(true);
+
+        GeminiModelRouter.Route light = router.route(GeminiModelRouter.Kind.INTERVIEW_FEEDBACK, 1500, REQUEST);
+        assertEquals(LIGHT_MODEL, light.model());
+        assertEquals("light", light.tier());
+        assertNull(light.fallbackModel());
+        assertEquals(4096, light.request().generationConfig().maxOutputTokens());
+
+        GeminiModelRouter.Route full = router.route(GeminiModelRouter.Kind.INTERVIEW_FEEDBACK, 1501, REQUEST);
+        assertEquals(FULL_MODEL, full.model());
+        assertEquals(LIGHT_MODEL, full.fallbackModel());
+        assertSame(REQUEST, full.request());
+    }
+
+    @Test
+    void resumeFeedbackAndJudgeAlwaysUseFullModel() {
+        GeminiModelRouter router = router(true);
+
+        for (GeminiModelRouter.Kind kind : List.of(GeminiModelRouter.Kind.RESUME_FEEDBACK, GeminiModelRouter.Kind.JUDGE)) {
+            GeminiModelRouter.Route route = router.route(kind, 100, REQUEST);
+            assertEquals(FULL_MODEL, route.model());
+            assertEquals("full", route.tier());
+            assertEquals(LIGHT_MODEL, route.fallbackModel());
+        }
+
+        GeminiModelRouter.Route disabled = router(false).route(GeminiModelRouter.Kind.INTERVIEW_FEEDBACK, 100, REQUEST);
+        assertEquals(FULL_MODEL, disabled.model());
+        assertNull(disabled.fallbackModel());
+    }
+
+    @Test
+    void overloadedModelSwitchesToFallbackModelWithoutRetrying() {
+        failures.put(FULL_MODEL, HttpStatus.SERVICE_UNAVAILABLE);
+        GeminiClient client = client(3);
+
+        StepVerifier.create(client.generateContent(FULL_MODEL, LIGHT_MODEL, REQUEST, GeminiClient.Priority.INTERACTIVE))
+                .assertNext(response -> {
+                    assertEquals("응답 - " + LIGHT_MODEL, response.text());
+                    assertTrue(response.fallback());
+                })
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertEquals(List.of(FULL_MODEL, LIGHT_MODEL), calledModels);
+    }
+
+    @Test
+    void fallbackModelIsUsedOnlyForOverloadWhenGiven() {
+        // 과부하가 아닌 오류는 전환하지 않음
+        failures.put(FULL_MODEL, HttpStatus.BAD_REQUEST);
+        GeminiClient client = client(1);
+        StepVerifier.create(client.generateContent(FULL_MODEL, LIGHT_MODEL, REQUEST, GeminiClient.Priority.INTERACTIVE))
+                .expectError(WebClientResponseException.BadRequest.class)
+                .verify(Duration.ofSeconds(5));
+        assertEquals(List.of(FULL_MODEL), calledModels);
+
+        // fallbackModel이 없으면 과부하여도 같은 모델로만 호출
+        failures.put(FULL_MODEL, HttpStatus.SERVICE_UNAVAILABLE);
+        calledModels.clear();
+        StepVerifier.create(client.generateContent(FULL_MODEL, null, REQUEST, GeminiClient.Priority.INTERACTIVE))
+                .expectError(WebClientResponseException.ServiceUnavailable.class)
+                .verify(Duration.ofSeconds(5));
+        assertEquals(List.of(FULL_MODEL), calledModels);
+
+        // 정상 응답은 전환 표시 없음
+        failures.clear();
+        StepVerifier.create(client.generateContent(FULL_MODEL, LIGHT_MODEL, REQUEST, GeminiClient.Priority.INTERACTIVE))
+                .assertNext(response -> assertFalse(response.fallback()))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    private GeminiModelRouter router(boolean enabled) {
+        GeminiModelRouter router = new GeminiModelRouter(client(1), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(router, "enabled", enabled);
+        ReflectionTestUtils.setField(router, "lightModel", LIGHT_MODEL);
+        ReflectionTestUtils.setField(router, "lightMaxSubjectChars", 1500);
+        ReflectionTestUtils.setField(router, "lightMaxOutputTokens", 4096);
+        ReflectionTestUtils.setField(router, "fallbackOnOverload", true);
+        return router;
+    }
+
+    private GeminiClient client(int maxAttempts) {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    // 경로: .../models/{model}:generateContent
+                    String path = request.url().getPath();
+                    String model = path.substring(path.lastIndexOf('/') + 1, path.lastIndexOf(':'));
+                    calledModels.add(model);
+                    HttpStatus failure = failures.get(model);
+                    return Mono.just(failure != null ? ClientResponse.create(failure).build() : generated(model));
+                })
+                .build();
+
+        GeminiContextCache contextCache = new GeminiContextCache(webClient, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(contextCache, "enabled", false);
+
+        GeminiClient client = new GeminiClient(webClient, new SimpleMeterRegistry(), contextCache);
+        ReflectionTestUtils.setField(client, "geminiApiKey", "test-key");
+        ReflectionTestUtils.setField(client, "apiBaseUrl", "http://gemini.test/v1beta");
+        ReflectionTestUtils.setField(client, "defaultModel", FULL_MODEL);
+        ReflectionTestUtils.setField(client, "timeoutSeconds", 30L);
+        ReflectionTestUtils.setField(client, "streamIdleTimeoutSeconds", 30L);
+        ReflectionTestUtils.setField(client, "maxAttempts", maxAttempts);
+        ReflectionTestUtils.setField(client, "initialBackoffMs", 1L);
+        ReflectionTestUtils.setField(client, "maxBackoffMs", 1L);
+        ReflectionTestUtils.setField(client, "jitter", 0.0);
+        ReflectionTestUtils.setField(client, "limiterInitialLimit", 8);
+        ReflectionTestUtils.setField(client, "limiterMinLimit", 2);
+        ReflectionTestUtils.setField(client, "limiterMaxLimit", 32);
+        ReflectionTestUtils.setField(client, "limiterMaxQueue", 64);
+        ReflectionTestUtils.setField(client, "limiterMaxWaitMs", 30000L);
+        ReflectionTestUtils.setField(client, "limiterBackoffRatio", 0.8);
+        ReflectionTestUtils.setField(client, "limiterLatencyThresholdMs", 60000L);
+        client.init();
+        return client;
+    }
+
+    private static ClientResponse generated(String model) {
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body("""
+                        {"candidates": [{"content": {"role": "model", "parts": [{"text": "응답 - %s"}]}, \
+                        "finishReason": "STOP"}], "modelVersion": "%s"}""".formatted(model, model))
+                .build();
+    }
+}
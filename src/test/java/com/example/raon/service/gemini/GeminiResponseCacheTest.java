@@ -0,0 +1,101 @@
+package com.example.raon.service.gemini;
+
+import com.example.raon.domain.GeminiResponseCacheEntry;
+import com.example.raon.repository.GeminiResponseCacheEntryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GeminiResponseCacheTest {
+
+    private static final String MODEL = "gemini-2.5-flash";
+    private static final GenerateContentRequest REQUEST = GenerateContentRequest.ofPrompt("자기소개서 첨삭",
+            new GenerateContentRequest.GenerationConfig(0.2, null, null, 8192, 1));
+
+    private final GeminiResponseCacheEntryRepository repository = mock(GeminiResponseCacheEntryRepository.class);
+
+    @Test
+    void storesOnlyCompletedResponsesFromRequestedModel() {
+        GeminiResponseCache cache = cache(false);
+
+        // 잘린 응답, 다른 모델이 대신 생성한 응답은 저장하지 않음
+        cache.store(MODEL, REQUEST, GenerateContentResponse.ofText("잘린 응답", "MAX_TOKENS", MODEL)).block();
+        StepVerifier.create(cache.lookup(MODEL, REQUEST)).verifyComplete();
+        cache.store(MODEL, REQUEST, GenerateContentResponse.ofText("대체 응답", "STOP", "gemini-2.5-flash-lite")
+                .asFallback()).block();
+        StepVerifier.create(cache.lookup(MODEL, REQUEST)).verifyComplete();
+
+        cache.store(MODEL, REQUEST, GenerateContentResponse.ofText("정상 응답", "STOP", MODEL)).block();
+        StepVerifier.create(cache.lookup(MODEL, REQUEST).map(GenerateContentResponse::text))
+                .expectNext("정상 응답")
+                .verifyComplete();
+
+        // 모델이 다르면 다른 키
+        StepVerifier.create(cache.lookup("gemini-2.5-flash-lite", REQUEST)).verifyComplete();
+    }
+
+    @Test
+    void getOrGenerateReusesStoredResponse() {
+        GeminiResponseCache cache = cache(false);
+        AtomicInteger generated = new AtomicInteger();
+        Mono<GenerateContentResponse> generator = Mono.fromSupplier(() ->
+                GenerateContentResponse.ofText("응답 " + generated.incrementAndGet(), "STOP", MODEL));
+
+        StepVerifier.create(cache.getOrGenerate(MODEL, REQUEST, () -> generator).map(GenerateContentResponse::text))
+                .expectNext("응답 1")
+                .verifyComplete();
+        StepVerifier.create(cache.getOrGenerate(MODEL, REQUEST, () -> generator).map(GenerateContentResponse::text))
+                .expectNext("응답 1")
+                .verifyComplete();
+
+        assertEquals(1, generated.get());
+    }
+
+    @Test
+    void persistentEntryIsUsedUntilItExpires() throws Exception {
+        GeminiResponseCache cache = cache(true);
+        String key = REQUEST.contentHash(MODEL);
+        GeminiResponseCacheEntry entry = GeminiResponseCacheEntry.builder()
+                .cacheKey(key)
+                .model(MODEL)
+                .responseJson(new ObjectMapper().writeValueAsString(
+                        GenerateContentResponse.ofText("저장된 응답", "STOP", MODEL)))
+                .build();
+        when(repository.findById(key)).thenReturn(Optional.of(entry));
+
+        // 보관 기간(7일)이 지난 항목은 없는 것으로 봄
+        ReflectionTestUtils.setField(entry, "createdAt", LocalDateTime.now().minusDays(8));
+        StepVerifier.create(cache.lookup(MODEL, REQUEST))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        ReflectionTestUtils.setField(entry, "createdAt", LocalDateTime.now().minusDays(6));
+        StepVerifier.create(cache.lookup(MODEL, REQUEST).map(GenerateContentResponse::text))
+                .expectNext("저장된 응답")
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    private GeminiResponseCache cache(boolean persistent) {
+        GeminiResponseCache cache = new GeminiResponseCache(repository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxWeightMb", 16L);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 3600L);
+        ReflectionTestUtils.setField(cache, "persistentEnabled", persistent);
+        ReflectionTestUtils.setField(cache, "persistentTtlSeconds", Duration.ofDays(7).toSeconds());
+        cache.init();
+        return cache;
+    }
+}
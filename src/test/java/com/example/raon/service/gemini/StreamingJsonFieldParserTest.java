@@ -0,0 +1,73 @@
+package com.example.raon.service.gemini;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingJsonFieldParserTest {
+
+    private static final String RESPONSE = """
+            ```json
+            {
+              "overallScore": 3.5,
+              "sections": [
+                {"title": "구조, {논리}", "score": 3.0, "strengths": ["a", "b\\"]"]},
+                {"title": "구체성", "score": 4.0, "strengths": []}
+              ],
+              "summary": "요약 \\"인용\\", 끝",
+              "revisedCoverLetter": "수정본 {본문}",
+              "improvementPoints": []
+            }
+            ```
+            """;
+
+    @Test
+    void emitsFieldsAndArrayElementsAsTheyComplete() {
+        List<StreamingJsonFieldParser.Event> events = new StreamingJsonFieldParser().feed(RESPONSE);
+
+        assertEquals(List.of(
+                new StreamingJsonFieldParser.FieldCompleted("overallScore", "3.5"),
+                new StreamingJsonFieldParser.ElementCompleted("sections", 0,
+                        "{\"title\": \"구조, {논리}\", \"score\": 3.0, \"strengths\": [\"a\", \"b\\\"]\"]}"),
+                new StreamingJsonFieldParser.ElementCompleted("sections", 1,
+                        "{\"title\": \"구체성\", \"score\": 4.0, \"strengths\": []}"),
+                new StreamingJsonFieldParser.FieldCompleted("sections", """
+                        [
+                            {"title": "구조, {논리}", "score": 3.0, "strengths": ["a", "b\\"]"]},
+                            {"title": "구체성", "score": 4.0, "strengths": []}
+                          ]"""),
+                new StreamingJsonFieldParser.FieldCompleted("summary", "\"요약 \\\"인용\\\", 끝\""),
+                new StreamingJsonFieldParser.FieldCompleted("revisedCoverLetter", "\"수정본 {본문}\""),
+                new StreamingJsonFieldParser.FieldCompleted("improvementPoints", "[]")), events);
+    }
+
+    @Test
+    void chunkBoundariesDoNotChangeTheEvents() {
+        List<StreamingJsonFieldParser.Event> expected = new StreamingJsonFieldParser().feed(RESPONSE);
+
+        for (int chunkSize : new int[]{1, 3, 7, 64}) {
+            StreamingJsonFieldParser parser = new StreamingJsonFieldParser();
+            List<StreamingJsonFieldParser.Event> events = new ArrayList<>();
+            for (int i = 0; i < RESPONSE.length(); i += chunkSize) {
+                events.addAll(parser.feed(RESPONSE.substring(i, Math.min(RESPONSE.length(), i + chunkSize))));
+            }
+            assertEquals(expected, events);
+            assertTrue(parser.isComplete());
+            assertEquals(RESPONSE, parser.text());
+        }
+    }
+
+    @Test
+    void incompleteValueIsNotEmittedUntilItEnds() {
+        StreamingJsonFieldParser parser = new StreamingJsonFieldParser();
+
+        assertEquals(List.of(), parser.feed("{\"summary\": \"아직 쓰는 중, {"));
+        assertFalse(parser.isComplete());
+        assertEquals(List.of(new StreamingJsonFieldParser.FieldCompleted("summary", "\"아직 쓰는 중, {끝\"")),
+                parser.feed("끝\"}"));
+        assertTrue(parser.isComplete());
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.raon.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DimensionRecallEvaluatorTest {
+
+    private static final int DIMENSION = 128;
+
+    @Test
+    void truncateKeepsPrefixAndRenormalizes() {
+        double[] truncated = VectorOps.truncate(new double[]{3, 4, 12}, 2);
+
+        assertEquals(2, truncated.length);
+        assertEquals(0.6, truncated[0], 1e-9);
+        assertEquals(0.8, truncated[1], 1e-9);
+        assertEquals(3, VectorOps.truncate(new double[]{1, 2, 2}, 8).length);
+    }
+
+    @Test
+    void recallReflectsHowMuchSignalTheDroppedDimensionsCarry() {
+        // Matryoshka처럼 앞쪽 성분에 정보가 몰린 벡터
+        Random random = new Random(21);
+        List<double[]> corpus = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            corpus.add(decayingVector(random));
+        }
+        List<double[]> queries = new ArrayList<>();
+        for (int q = 0; q < 30; q++) {
+            queries.add(decayingVector(random));
+        }
+
+        List<DimensionRecallEvaluator.Result> results =
+                DimensionRecallEvaluator.evaluate(corpus, queries, new int[]{8, 64, DIMENSION, 4 * DIMENSION}, 10);
+
+        assertEquals(4, results.size());
+        assertEquals(1.0, results.get(2).recallAtK(), 1e-9);
+        assertEquals(DIMENSION, results.get(3).dimension());
+        assertEquals(64L * Float.BYTES, results.get(1).vectorBytes());
+        assertTrue(results.get(1).recallAtK() > 0.8);
+        assertTrue(results.get(0).recallAtK() < results.get(1).recallAtK());
+    }
+
+    private static double[] decayingVector(Random random) {
+        double[] vector = new double[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] = random.nextGaussian() * Math.exp(-i / 16.0);
+        }
+        return vector;
+    }
+}
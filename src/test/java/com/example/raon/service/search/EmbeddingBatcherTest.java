@@ -0,0 +1,64 @@
+package com.example.raon.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmbeddingBatcherTest {
+
+    @Test
+    void concurrentRequestsShareOneBatchCall() {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        try (EmbeddingBatcher batcher = new EmbeddingBatcher(texts -> {
+            batchSizes.add(texts.size());
+            return texts.stream().map(text -> new double[]{text.length()}).toList();
+        }, 50, 100)) {
+            List<CompletableFuture<double[]>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                futures.add(batcher.submit("x".repeat(i + 1)));
+            }
+
+            for (int i = 0; i < 10; i++) {
+                assertEquals(i + 1, futures.get(i).join()[0]);
+            }
+            assertEquals(List.of(10), batchSizes);
+        }
+    }
+
+    @Test
+    void fullBatchIsSentWithoutWaitingForWindow() {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        try (EmbeddingBatcher batcher = new EmbeddingBatcher(texts -> {
+            batchSizes.add(texts.size());
+            return texts.stream().map(text -> new double[]{1}).toList();
+        }, 60_000, 4)) {
+            List<CompletableFuture<double[]>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(batcher.submit("t" + i));
+            }
+
+            futures.forEach(CompletableFuture::join);
+            assertEquals(List.of(4, 4), batchSizes);
+        }
+    }
+
+    @Test
+    void batchFailureCompletesEveryCallerExceptionally() {
+        try (EmbeddingBatcher batcher = new EmbeddingBatcher(texts -> {
+            throw new IllegalStateException("503");
+        }, 1, 10)) {
+            CompletableFuture<double[]> first = batcher.submit("a");
+            CompletableFuture<double[]> second = batcher.submit("b");
+
+            CompletionException error = assertThrows(CompletionException.class, first::join);
+            assertInstanceOf(IllegalStateException.class, error.getCause());
+            assertThrows(CompletionException.class, second::join);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.raon.service.search;
+
+import com.example.raon.service.VectorSearchService;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * FlatVectorIndex가 기존 브루트포스 검색(VectorSearchService)과 같은 결과를 내는지 검증
+ */
+class FlatVectorIndexTest {
+
+    private static final int DIMENSION = 768;
+
+    private final VectorSearchService vectorSearchService = new VectorSearchService();
+
+    @Test
+    void searchTopKMatchesBruteForce() {
+        Random random = new Random(42);
+        FlatVectorIndex<Integer> index = new FlatVectorIndex<>();
+        List<VectorSearchService.VectorItem<Integer>> items = new ArrayList<>();
+
+        for (int i = 0; i < 500; i++) {
+            double[] vector = randomVector(random);
+            index.add(i, vector);
+            items.add(new VectorSearchService.VectorItem<>(i, vector));
+        }
+
+        for (int q = 0; q < 20; q++) {
+            double[] query = randomVector(random);
+
+            List<VectorSearchService.SearchResult<Integer>> expected = vectorSearchService.searchTopK(query, items, 5);
+            List<VectorSearchService.SearchResult<Integer>> actual = index.searchTopK(query, 5);
+
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getData(), actual.get(i).getData());
+                assertEquals(expected.get(i).getSimilarity(), actual.get(i).getSimilarity(), 1e-4);
+            }
+        }
+    }
+
+    @Test
+    void batchSearchMatchesPerQuerySearch() {
+        Random random = new Random(11);
+        FlatVectorIndex<Integer> index = new FlatVectorIndex<>();
+        for (int i = 0; i < 300; i++) {
+            index.add(i, randomVector(random));
+        }
+
+        List<double[]> queries = new ArrayList<>();
+        for (int q = 0; q < 6; q++) {
+            queries.add(randomVector(random));
+        }
+
+        List<List<VectorSearchService.SearchResult<Integer>>> batch = index.searchTopKBatch(queries, 5);
+        assertEquals(queries.size(), batch.size());
+        for (int q = 0; q < queries.size(); q++) {
+            List<VectorSearchService.SearchResult<Integer>> expected = index.searchTopK(queries.get(q), 5);
+            assertEquals(expected.size(), batch.get(q).size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getData(), batch.get(q).get(i).getData());
+                assertEquals(expected.get(i).getSimilarity(), batch.get(q).get(i).getSimilarity(), 1e-6);
+            }
+        }
+    }
+
+    @Test
+    void dotMatchesScalarLoop() {
+        Random random = new Random(7);
+        float[] a = new float[DIMENSION + 3];
+        float[] b = new float[DIMENSION + 3];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = random.nextFloat() - 0.5f;
+            b[i] = random.nextFloat() - 0.5f;
+        }
+
+        float expected = VectorOps.scalarDot(a, 0, b, 0, a.length);
+        assertEquals(expected, VectorOps.dot(a, b), 1e-3);
+    }
+
+    @Test
+    void rejectsDimensionMismatch() {
+        FlatVectorIndex<String> index = new FlatVectorIndex<>();
+        index.add("a", new double[]{1, 0, 0});
+
+        assertThrows(IllegalArgumentException.class, () -> index.add("b", new double[]{1, 0}));
+        assertTrue(index.searchTopK(new double[]{1, 0, 0}, 0).isEmpty());
+    }
+
+    private static double[] randomVector(Random random) {
+        double[] vector = new double[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] = random.nextGaussian();
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.raon.service.search;
+
+import com.example.raon.service.VectorSearchService;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HnswIndexTest {
+
+    private static final int DIMENSION = 32;
+
+    @Test
+    void recallAgainstBruteForceIsHigh() {
+        Random random = new Random(3);
+        HnswIndex<Integer> index = new HnswIndex<>(16, 200, 64);
+        for (int i = 0; i < 3_000; i++) {
+            index.add(i, randomVector(random));
+        }
+
+        List<float[]> queries = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            queries.add(VectorOps.normalize(randomVector(random)));
+        }
+
+        double recall = index.measureRecall(queries, 10);
+        assertTrue(recall >= 0.9, "recall@10 = " + recall);
+    }
+
+    @Test
+    void searchesWhileInsertingConcurrently() throws Exception {
+        HnswIndex<Integer> index = new HnswIndex<>(8, 64, 32);
+        Random seed = new Random(11);
+        for (int i = 0; i < 200; i++) {
+            index.add(i, randomVector(seed));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < 2; w++) {
+                int writer = w;
+                futures.add(executor.submit(() -> {
+                    Random random = new Random(100 + writer);
+                    for (int i = 0; i < 500; i++) {
+                        index.add(10_000 * (writer + 1) + i, randomVector(random));
+                    }
+                }));
+            }
+            for (int r = 0; r < 2; r++) {
+                int reader = r;
+                futures.add(executor.submit(() -> {
+                    Random random = new Random(200 + reader);
+                    for (int i = 0; i < 500; i++) {
+                        List<VectorSearchService.SearchResult<Integer>> results = index.searchTopK(randomVector(random), 5);
+                        assertEquals(5, results.size());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1_200, index.size());
+    }
+
+    private static double[] randomVector(Random random) {
+        double[] vector = new double[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] = random.nextGaussian();
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.raon.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HybridSearchEngineTest {
+
+    private static final List<String> DOCUMENTS = List.of(
+            "레거시 결제 시스템의 성능을 최적화했습니다",
+            "웹 접근성 인증마크를 획득했습니다",
+            "Redis 기반 비동기 큐를 도입했습니다",
+            "머신러닝으로 부정 거래를 탐지했습니다"
+    );
+
+    @Test
+    void tokenizesHangulIntoBigramsAndLatinIntoWords() {
+        assertEquals(List.of("성능", "능최", "최적", "적화", "redis", "큐"), KoreanTokenizer.tokenize("성능최적화, Redis 큐"));
+        assertEquals(List.of(), KoreanTokenizer.tokenize("  "));
+    }
+
+    @Test
+    void lexicalSearchMatchesInflectedKoreanAndLatinTerms() {
+        HybridSearchEngine<String> engine = new HybridSearchEngine<>(DOCUMENTS, Function.identity(), null,
+                HybridSearchEngine.DEFAULT_RRF_K, HybridSearchEngine.DEFAULT_CANDIDATE_FACTOR, 1);
+
+        // 조사가 붙어도 어간 바이그램으로 매칭
+        assertEquals(DOCUMENTS.get(0), engine.search("결제 성능 최적화를", null, 1).get(0));
+        assertEquals(DOCUMENTS.get(2), engine.search("redis", null, 1).get(0));
+        assertEquals(List.of(), engine.search("kotlin", null, 3));
+    }
+
+    @Test
+    void batchSearchMatchesPerQuerySearch() {
+        FlatVectorIndex<String> index = new FlatVectorIndex<>();
+        double[][] vectors = {{1, 0, 0}, {0, 1, 0}, {0, 0, 1}, {0.7, 0.7, 0}};
+        for (int i = 0; i < DOCUMENTS.size(); i++) {
+            index.add(DOCUMENTS.get(i), vectors[i]);
+        }
+        HybridSearchEngine<String> engine = new HybridSearchEngine<>(DOCUMENTS, Function.identity(), index,
+                HybridSearchEngine.DEFAULT_RRF_K, HybridSearchEngine.DEFAULT_CANDIDATE_FACTOR, Integer.MAX_VALUE);
+
+        List<String> queries = List.of("결제 성능", "접근성 인증", "kotlin");
+        List<double[]> queryVectors = List.of(new double[]{1, 0.1, 0}, new double[]{0, 1, 0.2}, new double[]{0.1, 0.1, 1});
+
+        List<List<String>> batch = engine.searchBatch(queries, queryVectors, 2);
+        assertEquals(queries.size(), batch.size());
+        for (int q = 0; q < queries.size(); q++) {
+            assertEquals(engine.search(queries.get(q), queryVectors.get(q), 2), batch.get(q));
+        }
+        assertEquals(DOCUMENTS.get(2), batch.get(2).get(0));
+    }
+
+    @Test
+    void fusesLexicalAndVectorRankings() {
+        FlatVectorIndex<String> index = new FlatVectorIndex<>();
+        double[][] vectors = {{1, 0, 0}, {0, 1, 0}, {0, 0, 1}, {0.7, 0.7, 0}};
+        for (int i = 0; i < DOCUMENTS.size(); i++) {
+            index.add(DOCUMENTS.get(i), vectors[i]);
+        }
+        double[] query = {0.1, 0.1, 1};
+
+        // 전체 벡터 검색: 어휘 매칭이 없어도 벡터 1위가 결과에 포함
+        HybridSearchEngine<String> full = new HybridSearchEngine<>(DOCUMENTS, Function.identity(), index,
+                HybridSearchEngine.DEFAULT_RRF_K, HybridSearchEngine.DEFAULT_CANDIDATE_FACTOR, Integer.MAX_VALUE);
+        assertEquals(DOCUMENTS.get(2), full.search("kotlin", query, 1).get(0));
+
+        // 어휘 1위(0번)와 벡터 1위(2번) 모두 상위에 오고, 두 목록 모두에 있는 항목이 가장 앞선다
+        List<String> fused = full.search("결제 성능 최적화 비동기", query, 2);
+        assertEquals(DOCUMENTS.get(2), fused.get(0));
+        assertTrue(fused.contains(DOCUMENTS.get(0)));
+
+        // 사전 필터링: 어휘 후보만 벡터 채점하므로 어휘에 없는 항목은 제외
+        HybridSearchEngine<String> prefiltered = new HybridSearchEngine<>(DOCUMENTS, Function.identity(), index,
+                HybridSearchEngine.DEFAULT_RRF_K, HybridSearchEngine.DEFAULT_CANDIDATE_FACTOR, 1);
+        assertEquals(List.of(DOCUMENTS.get(0)), prefiltered.search("결제 성능", query, 3));
+    }
+
+    @Test
+    void mapsVectorIndexItemsByIdentity() {
+        // 벡터 인덱스가 역순이고 엔진에 없는 항목(삭제)을 포함해도 항목 동일성으로 대응
+        FlatVectorIndex<String> index = new FlatVectorIndex<>();
+        String removed = new String("삭제된 예시");
+        index.add(removed, new double[]{0, 0, 1});
+        for (int i = DOCUMENTS.size() - 1; i >= 0; i--) {
+            index.add(DOCUMENTS.get(i), new double[]{1, i, 0});
+        }
+
+        HybridSearchEngine<String> engine = new HybridSearchEngine<>(DOCUMENTS, Function.identity(), index,
+                HybridSearchEngine.DEFAULT_RRF_K, HybridSearchEngine.DEFAULT_CANDIDATE_FACTOR, Integer.MAX_VALUE);
+        List<String> results = engine.search("kotlin", new double[]{1, 3, 0}, 3);
+
+        assertEquals(List.of(DOCUMENTS.get(3), DOCUMENTS.get(2), DOCUMENTS.get(1)), results);
+    }
+
+    @Test
+    void segmentedEngineMatchesSingleEngineAndSkipsDeletedItems() {
+        double[][] vectors = {{1, 0, 0}, {0, 1, 0}, {0, 0, 1}, {0.7, 0.7, 0}};
+        FlatVectorIndex<String> base = new FlatVectorIndex<>();
+        FlatVectorIndex<String> flat = new FlatVectorIndex<>();
+        for (int i = 0; i < DOCUMENTS.size(); i++) {
+            if (i < 2) {
+                base.add(DOCUMENTS.get(i), vectors[i]);
+            }
+            flat.add(DOCUMENTS.get(i), vectors[i]);
+        }
+        FlatVectorIndex<String> added = new FlatVectorIndex<>();
+        added.add(DOCUMENTS.get(2), vectors[2]);
+        added.add(DOCUMENTS.get(3), vectors[3]);
+
+        LexicalSegments<String> lexicon = new LexicalSegments<>(Function.identity());
+        SegmentedVectorIndex<String> segmented = SegmentedVectorIndex.of(base).withChanges(added, List.of());
+        HybridSearchEngine<String> engine = HybridSearchEngine.overSegments(segmented, lexicon,
+                HybridSearchEngine.DEFAULT_RRF_K, HybridSearchEngine.DEFAULT_CANDIDATE_FACTOR, Integer.MAX_VALUE);
+        HybridSearchEngine<String> single = new HybridSearchEngine<>(DOCUMENTS, Function.identity(), flat,
+                HybridSearchEngine.DEFAULT_RRF_K, HybridSearchEngine.DEFAULT_CANDIDATE_FACTOR, Integer.MAX_VALUE);
+
+        // 세그먼트 합산 통계로 채점하므로 삭제가 없으면 한 번에 색인한 엔진과 같은 순위
+        for (String query : List.of("결제 성능 최적화", "redis 큐 인증", "부정 거래 탐지")) {
+            double[] queryVector = {0.2, 0.1, 0.9};
+            assertEquals(single.search(query, queryVector, 3), engine.search(query, queryVector, 3));
+            assertEquals(single.search(query, null, 4), engine.search(query, null, 4));
+        }
+
+        SegmentedVectorIndex<String> deleted = segmented.withChanges(null, List.of(DOCUMENTS.get(2)));
+        HybridSearchEngine<String> afterDelete = HybridSearchEngine.overSegments(deleted, lexicon,
+                HybridSearchEngine.DEFAULT_RRF_K, HybridSearchEngine.DEFAULT_CANDIDATE_FACTOR, 1);
+        assertEquals(3, afterDelete.size());
+        assertFalse(afterDelete.search("redis 비동기 큐", new double[]{0, 0, 1}, 4).contains(DOCUMENTS.get(2)));
+        assertEquals(List.of(DOCUMENTS.get(0), DOCUMENTS.get(1), DOCUMENTS.get(3)), afterDelete.head(4));
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.raon.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeywordIndexTest {
+
+    private static final String[] CATEGORIES = {"백엔드", "프론트엔드", "AI", "풀스택"};
+    private static final String[] VOCABULARY = {
+            "spring", "java", "jpa", "redis", "react", "javascript", "python", "mysql",
+            "성능최적화", "문제해결", "데이터분석", "머신러닝", "웹접근성", "실시간", "ai", "c"
+    };
+
+    @Test
+    void matchesBothContainmentDirections() {
+        KeywordIndex<String> index = new KeywordIndex<>(50, 10);
+        index.add("a", "백엔드", List.of("성능최적화", "spring"));
+        index.add("b", "프론트엔드", List.of("react"));
+
+        // 키워드 ⊇ 질의어 ("최적화" ⊂ "성능최적화"), 질의어 ⊇ 키워드 ("springboot" ⊃ "spring")
+        assertEquals(List.of("a"), index.search("", List.of("최적화"), 5));
+        assertEquals(List.of("a"), index.search("", List.of("springboot"), 5));
+        assertEquals(List.of("b", "a"), index.search("프론트엔드", List.of("spring"), 5));
+        assertEquals(List.of(), index.search("", List.of("kotlin"), 5));
+    }
+
+    @Test
+    void searchMatchesLinearScoring() {
+        Random random = new Random(3);
+        List<Example> examples = new ArrayList<>();
+        KeywordIndex<Example> index = new KeywordIndex<>(50, 10);
+        for (int i = 0; i < 300; i++) {
+            List<String> keywords = new ArrayList<>();
+            for (int k = 0; k < 4; k++) {
+                keywords.add(VOCABULARY[random.nextInt(VOCABULARY.length)]);
+            }
+            Example example = new Example(i, CATEGORIES[random.nextInt(CATEGORIES.length)], keywords);
+            examples.add(example);
+            index.add(example, example.category(), example.keywords());
+        }
+
+        for (int q = 0; q < 100; q++) {
+            String category = random.nextBoolean() ? CATEGORIES[random.nextInt(CATEGORIES.length)] : "";
+            List<String> skills = new ArrayList<>();
+            for (int s = 0; s < 3; s++) {
+                String word = VOCABULARY[random.nextInt(VOCABULARY.length)];
+                int from = random.nextInt(word.length());
+                skills.add(random.nextBoolean() ? word.substring(from) : word + "x");
+            }
+
+            assertEquals(linearSearch(examples, category, skills, 10), index.search(category, skills, 10));
+        }
+    }
+
+    /**
+     * 역색인 도입 전 CoverLetterExampleService의 선형 점수 계산
+     */
+    private static List<Example> linearSearch(List<Example> examples, String category, List<String> skills, int limit) {
+        record Scored(Example example, int score) {
+        }
+        List<Scored> scored = new ArrayList<>();
+        for (Example example : examples) {
+            int score = !category.isEmpty() && example.category().equals(category) ? 50 : 0;
+            for (String skill : skills) {
+                for (String keyword : example.keywords()) {
+                    if (keyword.contains(skill) || skill.contains(keyword)) {
+                        score += 10;
+                        break;
+                    }
+                }
+            }
+            if (score > 0) {
+                scored.add(new Scored(example, score));
+            }
+        }
+        scored.sort(Comparator.comparingInt(Scored::score).reversed());
+        return scored.stream().limit(limit).map(Scored::example).toList();
+    }
+
+    private record Example(int id, String category, List<String> keywords) {
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.raon.service.search;
+
+import com.example.raon.service.VectorSearchService;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuantizedVectorIndexTest {
+
+    private static final int DIMENSION = 64;
+
+    @Test
+    void scalarQuantizationWithRerankMatchesExactTopK() {
+        assertRecall(new QuantizedVectorIndex<>(0, 10, 500), 0.95);
+    }
+
+    @Test
+    void productQuantizationWithRerankKeepsHighRecall() {
+        assertRecall(new QuantizedVectorIndex<>(16, 20, 500), 0.9);
+    }
+
+    @Test
+    void searchesExactlyBeforeTraining() {
+        QuantizedVectorIndex<String> index = new QuantizedVectorIndex<>();
+        index.add("x", new double[]{1, 0, 0});
+        index.add("y", new double[]{0, 1, 0});
+
+        assertFalse(index.isTrained());
+        List<VectorSearchService.SearchResult<String>> results = index.searchTopK(new double[]{0.1, 1, 0}, 1);
+        assertEquals("y", results.get(0).getData());
+    }
+
+    @Test
+    void snapshotBackedIndexKeepsOnlyCodesOnHeap() throws IOException {
+        QuantizedVectorIndex<Integer> heap = new QuantizedVectorIndex<>(0, 10, 500);
+        Random random = new Random(5);
+        long[] ids = new long[1_000];
+        for (int i = 0; i < ids.length; i++) {
+            heap.add(i, randomVector(random));
+            ids[i] = i;
+        }
+        assertEquals(DIMENSION + DIMENSION * Float.BYTES, heap.heapBytesPerVector());
+
+        Path path = Files.createTempFile("quantized", ".vidx");
+        VectorIndexSnapshot.write(heap, ids, "v1", path);
+        QuantizedVectorIndex<Integer> mapped = QuantizedVectorIndex.over(
+                VectorIndexSnapshot.open(path, "v1", id -> (int) id, true), 0, 10, 500);
+
+        assertTrue(mapped.isTrained());
+        assertTrue(mapped.isSnapshotBacked());
+        assertEquals(DIMENSION, mapped.heapBytesPerVector());
+        assertThrows(UnsupportedOperationException.class, () -> mapped.add(-1, randomVector(random)));
+
+        double[] query = randomVector(random);
+        assertEquals(heap.searchTopK(query, 10).stream().map(VectorSearchService.SearchResult::getData).toList(),
+                mapped.searchTopK(query, 10).stream().map(VectorSearchService.SearchResult::getData).toList());
+        Files.deleteIfExists(path);
+    }
+
+    private void assertRecall(QuantizedVectorIndex<Integer> index, double minimum) {
+        Random random = new Random(5);
+        FlatVectorIndex<Integer> exact = new FlatVectorIndex<>();
+        for (int i = 0; i < 2_000; i++) {
+            double[] vector = randomVector(random);
+            index.add(i, vector);
+            exact.add(i, vector);
+        }
+        assertTrue(index.isTrained());
+
+        int hits = 0;
+        int total = 0;
+        for (int q = 0; q < 50; q++) {
+            double[] query = randomVector(random);
+            List<Integer> expected = exact.searchTopK(query, 10).stream().map(VectorSearchService.SearchResult::getData).toList();
+            List<Integer> actual = index.searchTopK(query, 10).stream().map(VectorSearchService.SearchResult::getData).toList();
+            for (Integer id : expected) {
+                if (actual.contains(id)) {
+                    hits++;
+                }
+            }
+            total += expected.size();
+        }
+
+        double recall = (double) hits / total;
+        assertTrue(recall >= minimum, "recall@10 = " + recall);
+    }
+
+    private static double[] randomVector(Random random) {
+        double[] vector = new double[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] = random.nextGaussian();
+        }
+        return vector;
+    }
+}
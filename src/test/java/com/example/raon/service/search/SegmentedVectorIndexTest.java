@@ -0,0 +1,129 @@
+package com.example.raon.service.search;
+
+import com.example.raon.service.VectorSearchService;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentedVectorIndexTest {
+
+    private static final int DIMENSION = 16;
+
+    @Test
+    void searchAcrossSegmentsMatchesFlatIndexOfLiveItems() {
+        Random random = new Random(5);
+        List<Integer> items = new ArrayList<>();
+        List<double[]> vectors = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            items.add(i);
+            vectors.add(randomVector(random));
+        }
+
+        FlatVectorIndex<Integer> base = new FlatVectorIndex<>();
+        for (int i = 0; i < 100; i++) {
+            base.add(items.get(i), vectors.get(i));
+        }
+        SegmentedVectorIndex<Integer> snapshot = SegmentedVectorIndex.of(base);
+        List<Integer> deletes = new ArrayList<>();
+        for (int start = 100; start < 300; start += 50) {
+            FlatVectorIndex<Integer> segment = new FlatVectorIndex<>();
+            for (int i = start; i < start + 50; i++) {
+                segment.add(items.get(i), vectors.get(i));
+            }
+            deletes.add(items.get(start - 7));
+            snapshot = snapshot.withChanges(segment, deletes);
+        }
+
+        FlatVectorIndex<Integer> expected = new FlatVectorIndex<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (!deletes.contains(items.get(i))) {
+                expected.add(items.get(i), vectors.get(i));
+            }
+        }
+
+        assertEquals(5, snapshot.segmentCount());
+        assertEquals(expected.size(), snapshot.liveItems().size());
+        assertEquals(250, snapshot.positionOf(items.get(250)));
+        assertEquals(-1, snapshot.positionOf(1000));
+        assertEquals(deletes.size(), snapshot.withChanges(null, List.of(1000)).deletedCount());
+        List<double[]> queries = new ArrayList<>();
+        for (int q = 0; q < 20; q++) {
+            double[] query = randomVector(random);
+            queries.add(query);
+            assertEquals(data(expected.searchTopK(query, 10)), data(snapshot.searchTopK(query, 10)));
+        }
+
+        List<List<VectorSearchService.SearchResult<Integer>>> batch = snapshot.searchTopKBatch(queries, 10);
+        for (int q = 0; q < queries.size(); q++) {
+            assertEquals(data(expected.searchTopK(queries.get(q), 10)), data(batch.get(q)));
+        }
+    }
+
+    @Test
+    void mergeKeepsWritesPublishedAfterMergeStarted() {
+        Random random = new Random(9);
+        FlatVectorIndex<Integer> base = new FlatVectorIndex<>();
+        for (int i = 0; i < 10; i++) {
+            base.add(i, randomVector(random));
+        }
+        SegmentedVectorIndex<Integer> source = SegmentedVectorIndex.of(base).withChanges(null, List.of(3));
+
+        FlatVectorIndex<Integer> late = new FlatVectorIndex<>();
+        late.add(10, randomVector(random));
+        SegmentedVectorIndex<Integer> latest = source.withChanges(late, List.of(5));
+
+        VectorIndex<Integer> merged = SegmentedVectorIndex.mergeInto(source, new FlatVectorIndex<>());
+        SegmentedVectorIndex<Integer> next = latest.replacePrefix(source, merged);
+
+        assertEquals(9, merged.size());
+        assertEquals(2, next.segmentCount());
+        assertEquals(1, next.deletedCount());
+        assertEquals(List.of(0, 1, 2, 4, 6, 7, 8, 9, 10), next.liveItems());
+        assertNull(SegmentedVectorIndex.of(base).replacePrefix(latest, merged));
+    }
+
+    @Test
+    void writerBatchesChangesAndMergesInBackground() throws Exception {
+        Random random = new Random(13);
+        AtomicInteger publishCount = new AtomicInteger();
+        try (SegmentedIndexWriter<Integer> writer = new SegmentedIndexWriter<>(
+                FlatVectorIndex::new, FlatVectorIndex::new, 60_000, 4, 2, snapshot -> publishCount.incrementAndGet())) {
+            writer.reset(new FlatVectorIndex<>());
+
+            for (int i = 0; i < 12; i++) {
+                writer.add(i, randomVector(random));
+            }
+            writer.delete(0);
+            writer.flush();
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while ((writer.isMerging() || writer.current().segmentCount() > 2) && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            SegmentedVectorIndex<Integer> current = writer.current();
+            assertTrue(current.segmentCount() <= 2);
+            assertEquals(11, current.liveItems().size());
+            assertFalse(current.liveItems().contains(0));
+            assertTrue(publishCount.get() >= 5);
+        }
+    }
+
+    private static List<Integer> data(List<VectorSearchService.SearchResult<Integer>> results) {
+        return results.stream().map(VectorSearchService.SearchResult::getData).toList();
+    }
+
+    private static double[] randomVector(Random random) {
+        double[] vector = new double[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] = random.nextGaussian();
+        }
+        return vector;
+    }
+}
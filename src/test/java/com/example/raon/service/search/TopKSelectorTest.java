@@ -0,0 +1,77 @@
+package com.example.raon.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKSelectorTest {
+
+    @Test
+    void selectsHighestScoresInDescendingOrder() {
+        Random random = new Random(1);
+        double[] scores = new double[10_000];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = random.nextDouble();
+        }
+
+        TopKSelector selector = new TopKSelector(10);
+        for (int i = 0; i < scores.length; i++) {
+            selector.offer(i, scores[i]);
+        }
+
+        double[] expected = Arrays.stream(scores).boxed()
+                .sorted((a, b) -> Double.compare(b, a))
+                .limit(10)
+                .mapToDouble(Double::doubleValue)
+                .toArray();
+
+        assertEquals(10, selector.size());
+        for (int rank = 0; rank < 10; rank++) {
+            assertEquals(expected[rank], selector.scoreAt(rank), 0.0);
+            assertEquals(scores[selector.indexAt(rank)], selector.scoreAt(rank), 0.0);
+        }
+    }
+
+    @Test
+    void keepsEarlierIndexOnTies() {
+        TopKSelector selector = new TopKSelector(2);
+        selector.offer(0, 0.5);
+        selector.offer(1, 0.9);
+        selector.offer(2, 0.5);
+        selector.offer(3, 0.9);
+
+        assertEquals(1, selector.indexAt(0));
+        assertEquals(3, selector.indexAt(1));
+    }
+
+    @Test
+    void appliesMinimumScoreThreshold() {
+        TopKSelector selector = new TopKSelector(5, 0.7);
+        selector.offer(0, 0.2);
+        selector.offer(1, 0.75);
+        selector.offer(2, 0.69);
+        selector.offer(3, 0.95);
+
+        assertEquals(2, selector.size());
+        assertEquals(3, selector.indexAt(0));
+        assertEquals(1, selector.indexAt(1));
+        assertEquals(0.7, selector.threshold(), 0.0);
+    }
+
+    @Test
+    void thresholdStaysKthScoreAfterSorting() {
+        TopKSelector selector = new TopKSelector(3);
+        selector.offer(0, 0.4);
+        selector.offer(1, 0.9);
+        selector.offer(2, 0.6);
+        selector.offer(3, 0.8);
+        assertEquals(0.6, selector.threshold(), 0.0);
+
+        // 정렬해도 K번째 점수는 그대로
+        assertEquals(0.9, selector.scoreAt(0), 0.0);
+        assertEquals(0.6, selector.threshold(), 0.0);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.raon.service.search;
+
+import com.example.raon.service.VectorSearchService;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VectorIndexSnapshotTest {
+
+    private static final int DIMENSION = 32;
+
+    @Test
+    void flatSnapshotReturnsSameResultsAsSource() throws IOException {
+        FlatVectorIndex<String> source = new FlatVectorIndex<>();
+        long[] ids = fill(source, 500);
+        Path path = Files.createTempFile("flat", ".vidx");
+
+        VectorIndexSnapshot.write(source, ids, "v1", path);
+        MappedVectorIndex<String> mapped = VectorIndexSnapshot.open(path, "v1", id -> "item-" + id, true);
+
+        assertFalse(mapped.hasGraph());
+        assertEquals(source.size(), mapped.size());
+        assertEquals(DIMENSION, mapped.getDimension());
+
+        Random random = new Random(99);
+        double[] query = randomVector(random);
+        assertSameResults(source.searchTopK(query, 10), mapped.searchTopK(query, 10));
+
+        List<double[]> queries = List.of(query, randomVector(random), randomVector(random));
+        List<List<VectorSearchService.SearchResult<String>>> batch = mapped.searchTopKBatch(queries, 10);
+        for (int q = 0; q < queries.size(); q++) {
+            assertSameResults(source.searchTopK(queries.get(q), 10), batch.get(q));
+        }
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void hnswSnapshotKeepsGraphSearchResults() throws IOException {
+        HnswIndex<String> source = new HnswIndex<>(8, 64, 32);
+        long[] ids = fill(source, 2_000);
+        Path path = Files.createTempFile("hnsw", ".vidx");
+
+        VectorIndexSnapshot.write(source, ids, "v1", path);
+        MappedVectorIndex<String> mapped = VectorIndexSnapshot.open(path, "v1", id -> "item-" + id, true);
+        mapped.setEfSearch(source.getEfSearch());
+
+        assertTrue(mapped.hasGraph());
+        Random random = new Random(5);
+        for (int q = 0; q < 20; q++) {
+            double[] query = randomVector(random);
+            assertSameResults(source.searchTopK(query, 5), mapped.searchTopK(query, 5));
+        }
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void rejectsVersionMismatchAndCorruption() throws IOException {
+        FlatVectorIndex<String> source = new FlatVectorIndex<>();
+        long[] ids = fill(source, 50);
+        Path path = Files.createTempFile("corrupt", ".vidx");
+        VectorIndexSnapshot.write(source, ids, "v1", path);
+
+        assertThrows(IllegalStateException.class,
+                () -> VectorIndexSnapshot.open(path, "v2", id -> "item-" + id, true));
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3, 4}), VectorIndexSnapshot.HEADER_BYTES + 8);
+        }
+        assertThrows(IllegalStateException.class,
+                () -> VectorIndexSnapshot.open(path, "v1", id -> "item-" + id, true));
+        Files.deleteIfExists(path);
+    }
+
+    private static long[] fill(VectorIndex<String> index, int n) {
+        Random random = new Random(1);
+        long[] ids = new long[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = 1000L + i;
+            index.add("item-" + ids[i], randomVector(random));
+        }
+        return ids;
+    }
+
+    private static void assertSameResults(List<VectorSearchService.SearchResult<String>> expected,
+                                          List<VectorSearchService.SearchResult<String>> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getData(), actual.get(i).getData());
+            assertEquals(expected.get(i).getSimilarity(), actual.get(i).getSimilarity(), 1e-6);
+        }
+    }
+
+    private static double[] randomVector(Random random) {
+        double[] vector = new double[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] = random.nextGaussian();
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.raon.service.search;
+
+import com.example.raon.service.VectorSearchService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 벡터 검색 벤치마크 (기본 test 태스크에서는 제외)
+ * 실행: ./gradlew benchmark
+ */
+@Tag("benchmark")
+class VectorSearchBenchmarkTest {
+
+    private static final int[] CANDIDATE_COUNTS = {1_000, 10_000, 100_000};
+    private static final int TOP_K = 5;
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 20;
+
+    private final VectorSearchService vectorSearchService = new VectorSearchService();
+
+    /**
+     * 전체 정렬(기존) vs 최소 힙 Top-K 선택 - 지연시간과 쿼리당 할당량 비교
+     * 선택 비용이 드러나도록 차원은 64로 축소
+     */
+    @Test
+    void topKSelectionVersusFullSort() {
+        int dimension = 64;
+        Random random = new Random(42);
+
+        printHeader("Top-K 선택: 전체 정렬 vs 최소 힙 (dim=" + dimension + ", k=" + TOP_K + ")");
+        System.out.printf("%-10s | %-14s | %12s | %16s%n", "후보 수", "방식", "평균 ms", "할당 bytes/쿼리");
+        System.out.println("-".repeat(80));
+
+        for (int n : CANDIDATE_COUNTS) {
+            List<VectorSearchService.VectorItem<Integer>> items = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                items.add(new VectorSearchService.VectorItem<>(i, randomVector(random, dimension)));
+            }
+            double[] query = randomVector(random, dimension);
+
+            Measurement sorted = measure(() -> legacySearchTopK(query, items, TOP_K));
+            Measurement heap = measure(() -> vectorSearchService.searchTopK(query, items, TOP_K));
+
+            System.out.printf("%-10d | %-14s | %12.3f | %16d%n", n, "전체 정렬", sorted.avgMillis, sorted.bytesPerQuery);
+            System.out.printf("%-10d | %-14s | %12.3f | %16d%n", n, "최소 힙", heap.avgMillis, heap.bytesPerQuery);
+        }
+    }
+
+    /**
+     * HNSW vs 브루트포스(FlatVectorIndex) - 구축 시간, 쿼리 지연시간, recall@10
+     * 실제 임베딩처럼 군집 구조가 있는 데이터로 측정 (dim=128)
+     */
+    @Test
+    void hnswVersusBruteForce() {
+        int dimension = 128;
+        int k = 10;
+        int[] sizes = {10_000, 100_000};
+        Random random = new Random(7);
+
+        printHeader("HNSW vs 브루트포스 (dim=" + dimension + ", k=" + k
+                + ", M=" + HnswIndex.DEFAULT_M + ", efConstruction=100)");
+        System.out.printf("%-8s | %-6s | %10s | %12s | %10s%n", "후보 수", "ef", "구축 s", "쿼리 µs", "recall@10");
+        System.out.println("-".repeat(80));
+
+        for (int n : sizes) {
+            double[][] centroids = new double[64][];
+            for (int c = 0; c < centroids.length; c++) {
+                centroids[c] = randomVector(random, dimension);
+            }
+
+            FlatVectorIndex<Integer> flat = new FlatVectorIndex<>(dimension, n);
+            HnswIndex<Integer> hnsw = new HnswIndex<>(HnswIndex.DEFAULT_M, 100, HnswIndex.DEFAULT_EF_SEARCH);
+            long buildStart = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                float[] vector = VectorOps.normalize(clusteredVector(random, centroids));
+                hnsw.addNormalized(i, vector);
+                flat.addNormalized(i, vector);
+            }
+            double buildSeconds = (System.nanoTime() - buildStart) / 1e9;
+
+            List<float[]> queries = new ArrayList<>();
+            for (int q = 0; q < 200; q++) {
+                queries.add(VectorOps.normalize(clusteredVector(random, centroids)));
+            }
+
+            Measurement exact = measure(() -> flat.searchTopKNormalized(queries.get(0), k, Double.NEGATIVE_INFINITY));
+            System.out.printf("%-8d | %-6s | %10s | %12.1f | %10s%n", n, "exact", "-", exact.avgMillis() * 1000, "1.000");
+
+            for (int ef : new int[]{32, 64, 128}) {
+                hnsw.setEfSearch(ef);
+                Measurement approx = measure(() -> hnsw.searchTopKNormalized(queries.get(1), k, Double.NEGATIVE_INFINITY, ef));
+                System.out.printf("%-8d | %-6d | %10.1f | %12.1f | %10.3f%n",
+                        n, ef, buildSeconds, approx.avgMillis() * 1000, hnsw.measureRecall(queries, k));
+            }
+        }
+    }
+
+    /**
+     * 양자화 인덱스 vs FlatVectorIndex - 벡터당 스캔 크기와 힙 사용량, 처리량(QPS), recall@10 (재정렬 전/후)
+     * 실제 임베딩과 같은 768차원, +mmap은 원본을 스냅샷 파일에 둔 구성
+     */
+    @Test
+    void quantizedVersusFlat() throws IOException {
+        int dimension = 768;
+        int n = 20_000;
+        int k = 10;
+        Random random = new Random(11);
+
+        double[][] centroids = new double[64][];
+        for (int c = 0; c < centroids.length; c++) {
+            centroids[c] = randomVector(random, dimension);
+        }
+
+        FlatVectorIndex<Integer> flat = new FlatVectorIndex<>(dimension, n);
+        QuantizedVectorIndex<Integer> sq8 = new QuantizedVectorIndex<>(0, 10, n);
+        QuantizedVectorIndex<Integer> pq = new QuantizedVectorIndex<>(192, 20, n);
+        for (int i = 0; i < n; i++) {
+            float[] vector = VectorOps.normalize(clusteredVector(random, centroids));
+            flat.addNormalized(i, vector);
+            sq8.addNormalized(i, vector);
+            pq.addNormalized(i, vector);
+        }
+
+        List<float[]> queries = new ArrayList<>();
+        for (int q = 0; q < 100; q++) {
+            queries.add(VectorOps.normalize(clusteredVector(random, centroids)));
+        }
+
+        printHeader("양자화 vs float32 (n=" + n + ", dim=" + dimension + ", k=" + k + ")");
+        // 원본을 스냅샷(mmap)에 두고 코드만 힙에 두는 구성
+        long[] ids = new long[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = i;
+        }
+        Path path = Files.createTempFile("benchmark", ".vidx");
+        VectorIndexSnapshot.write(flat, ids, "benchmark", path);
+        MappedVectorIndex<Integer> mapped = VectorIndexSnapshot.open(path, "benchmark", id -> (int) id, false);
+        QuantizedVectorIndex<Integer> sq8Mapped = QuantizedVectorIndex.over(mapped, 0, 10, n);
+        QuantizedVectorIndex<Integer> pqMapped = QuantizedVectorIndex.over(mapped, 192, 20, n);
+
+        printHeader("양자화 vs float32 (n=" + n + ", dim=" + dimension + ", k=" + k + ")");
+        System.out.printf("%-12s | %10s | %10s | %10s | %12s | %12s%n",
+                "방식", "코드 B/벡터", "힙 B/벡터", "QPS", "recall(ADC)", "recall(재정렬)");
+        System.out.println("-".repeat(88));
+        System.out.printf("%-12s | %10d | %10d | %10s | %12s | %12s%n", "double[]",
+                dimension * Double.BYTES, dimension * Double.BYTES, "-", "-", "-");
+        System.out.printf("%-12s | %10d | %10d | %10.0f | %12s | %12.3f%n", "float32",
+                dimension * Float.BYTES, dimension * Float.BYTES,
+                qps(queries, query -> flat.searchTopKNormalized(query, k, Double.NEGATIVE_INFINITY)), "-", 1.0);
+
+        for (QuantizedVectorIndex<Integer> index : List.of(sq8, pq, sq8Mapped, pqMapped)) {
+            String name = (index.codeBytesPerVector() == dimension ? "SQ8" : "PQ(192)")
+                    + (index.isSnapshotBacked() ? "+mmap" : "");
+            double adcRecall = 0;
+            double rerankRecall = 0;
+            for (float[] query : queries) {
+                List<Integer> exact = ids(flat.searchTopKNormalized(query, k, Double.NEGATIVE_INFINITY));
+                adcRecall += overlap(exact, Arrays.stream(index.approximateTopKIds(query, k)).boxed().toList());
+                rerankRecall += overlap(exact, ids(index.searchTopKNormalized(query, k, Double.NEGATIVE_INFINITY)));
+            }
+            System.out.printf("%-12s | %10d | %10d | %10.0f | %12.3f | %12.3f%n", name,
+                    index.codeBytesPerVector(), index.heapBytesPerVector(),
+                    qps(queries, query -> index.searchTopKNormalized(query, k, Double.NEGATIVE_INFINITY)),
+                    adcRecall / queries.size(), rerankRecall / queries.size());
+        }
+        Files.deleteIfExists(path);
+    }
+
+    private static double qps(List<float[]> queries, Function<float[], ?> search) {
+        for (int i = 0; i < WARMUP; i++) {
+            search.apply(queries.get(i % queries.size()));
+        }
+        long start = System.nanoTime();
+        for (float[] query : queries) {
+            search.apply(query);
+        }
+        return queries.size() / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static List<Integer> ids(List<VectorSearchService.SearchResult<Integer>> results) {
+        return results.stream().map(VectorSearchService.SearchResult::getIndex).toList();
+    }
+
+    private static double overlap(List<Integer> expected, List<Integer> actual) {
+        long hits = expected.stream().filter(actual::contains).count();
+        return expected.isEmpty() ? 1.0 : (double) hits / expected.size();
+    }
+
+    /**
+     * 기존 searchTopK 구현 (후보마다 SearchResult 생성 → 전체 정렬 → limit)
+     */
+    private <T> List<VectorSearchService.SearchResult<T>> legacySearchTopK(
+            double[] queryVector, List<VectorSearchService.VectorItem<T>> candidates, int k) {
+        List<VectorSearchService.SearchResult<T>> results = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            VectorSearchService.VectorItem<T> item = candidates.get(i);
+            double similarity = vectorSearchService.cosineSimilarity(queryVector, item.getVector());
+            results.add(new VectorSearchService.SearchResult<>(item.getData(), similarity, i));
+        }
+        results.sort(Comparator.comparingDouble(VectorSearchService.SearchResult<T>::getSimilarity).reversed());
+        return results.stream().limit(k).toList();
+    }
+
+    static Measurement measure(Supplier<?> search) {
+        for (int i = 0; i < WARMUP; i++) {
+            search.get();
+        }
+
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        Object sink = null;
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink = search.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        if (sink == null) {
+            throw new IllegalStateException();
+        }
+        return new Measurement(elapsed / 1_000_000.0 / ITERATIONS, allocated / ITERATIONS);
+    }
+
+    static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    static double[] randomVector(Random random, int dimension) {
+        double[] vector = new double[dimension];
+        for (int i = 0; i < dimension; i++) {
+            vector[i] = random.nextGaussian();
+        }
+        return vector;
+    }
+
+    static double[] clusteredVector(Random random, double[][] centroids) {
+        double[] centroid = centroids[random.nextInt(centroids.length)];
+        double[] vector = new double[centroid.length];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = centroid[i] + random.nextGaussian() * 0.6;
+        }
+        return vector;
+    }
+
+    static void printHeader(String title) {
+        System.out.println("=".repeat(80));
+        System.out.println(title);
+        System.out.println("=".repeat(80));
+    }
+
+    record Measurement(double avgMillis, long bytesPerQuery) {
+    }
+}
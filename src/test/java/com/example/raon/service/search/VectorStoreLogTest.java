@@ -0,0 +1,72 @@
+package com.example.raon.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VectorStoreLogTest {
+
+    @Test
+    void reopenRestoresLatestRecordPerId() throws Exception {
+        Path path = Files.createTempFile("examples", ".log");
+        try (VectorStoreLog storeLog = VectorStoreLog.open(path)) {
+            storeLog.append(record("a", "첫 번째 답변", 1f));
+            storeLog.append(record("b", "두 번째 답변", 2f));
+            storeLog.append(record("a", "수정된 답변", 3f));
+        }
+
+        try (VectorStoreLog storeLog = VectorStoreLog.open(path)) {
+            List<VectorStoreLog.Record> records = storeLog.records();
+            assertEquals(List.of("b", "a"), records.stream().map(VectorStoreLog.Record::id).toList());
+            assertEquals("수정된 답변", records.get(1).document());
+            assertEquals("백엔드", records.get(1).metadata().get("category"));
+            assertEquals(3f, records.get(1).vector()[0]);
+
+            long before = storeLog.sizeBytes();
+            storeLog.compact(records);
+            assertTrue(storeLog.sizeBytes() < before);
+            storeLog.append(record("c", "세 번째 답변", 4f));
+        }
+
+        try (VectorStoreLog storeLog = VectorStoreLog.open(path)) {
+            assertEquals(List.of("b", "a", "c"), storeLog.records().stream().map(VectorStoreLog.Record::id).toList());
+        }
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void truncatedTailIsDroppedOnOpen() throws Exception {
+        Path path = Files.createTempFile("examples", ".log");
+        try (VectorStoreLog storeLog = VectorStoreLog.open(path)) {
+            storeLog.append(record("a", "답변", 1f));
+            storeLog.append(record("b", "답변", 2f));
+        }
+
+        // 마지막 레코드 기록 도중 종료된 상황
+        long size = Files.size(path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 5);
+        }
+
+        try (VectorStoreLog storeLog = VectorStoreLog.open(path)) {
+            assertEquals(List.of("a"), storeLog.records().stream().map(VectorStoreLog.Record::id).toList());
+            storeLog.append(record("c", "답변", 3f));
+        }
+        try (VectorStoreLog storeLog = VectorStoreLog.open(path)) {
+            assertEquals(List.of("a", "c"), storeLog.records().stream().map(VectorStoreLog.Record::id).toList());
+        }
+        Files.deleteIfExists(path);
+    }
+
+    private static VectorStoreLog.Record record(String id, String document, float value) {
+        return new VectorStoreLog.Record(id, "text-embedding-004", document,
+                Map.of("question", "질문 " + id, "category", "백엔드"), new float[]{value, 0f, 0f});
+    }
+}
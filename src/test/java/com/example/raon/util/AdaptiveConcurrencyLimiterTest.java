@@ -0,0 +1,245 @@
+package com.example.raon.util;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final Duration MAX_WAIT = Duration.ofSeconds(10);
+    private static final Predicate<Throwable> NEVER_OVERLOADED = error -> false;
+
+    @Test
+    void waitersRunInPriorityThenArrivalOrder() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 1, 8);
+        Sinks.One<String> holder = Sinks.one();
+        limiter.execute(0, holder::asMono, NEVER_OVERLOADED).subscribe();
+
+        List<String> order = new CopyOnWriteArrayList<>();
+        enqueue(limiter, order, "low", 5);
+        enqueue(limiter, order, "urgent-1", 1);
+        enqueue(limiter, order, "normal", 3);
+        enqueue(limiter, order, "urgent-2", 1);
+        assertEquals(4, limiter.queuedCount());
+
+        holder.tryEmitValue("done");
+
+        assertEquals(List.of("urgent-1", "urgent-2", "normal", "low"), order);
+        assertEquals(0, limiter.inFlightCount());
+        assertEquals(0, limiter.queuedCount());
+    }
+
+    @Test
+    void fullQueueEvictsLeastUrgentWaiterOrRejectsNewcomer() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 1, 2);
+        Sinks.One<String> holder = Sinks.one();
+        limiter.execute(0, holder::asMono, NEVER_OVERLOADED).subscribe();
+
+        StepVerifier evicted = StepVerifier.create(limiter.execute(5, () -> Mono.just("low"), NEVER_OVERLOADED))
+                .expectError(AdaptiveConcurrencyLimiter.LimitExceededException.class)
+                .verifyLater();
+        StepVerifier normal = StepVerifier.create(limiter.execute(3, () -> Mono.just("normal"), NEVER_OVERLOADED))
+                .expectNext("normal")
+                .expectComplete()
+                .verifyLater();
+        StepVerifier urgent = StepVerifier.create(limiter.execute(1, () -> Mono.just("urgent"), NEVER_OVERLOADED))
+                .expectNext("urgent")
+                .expectComplete()
+                .verifyLater();
+
+        // 더 급한 호출이 가장 덜 급한 대기자를 밀어냄
+        evicted.verify(Duration.ofSeconds(1));
+        assertEquals(2, limiter.queuedCount());
+
+        // 대기자보다 급하지 않은 호출은 바로 거절
+        StepVerifier.create(limiter.execute(9, () -> Mono.just("late"), NEVER_OVERLOADED))
+                .expectError(AdaptiveConcurrencyLimiter.LimitExceededException.class)
+                .verify(Duration.ofSeconds(1));
+        assertEquals(2, limiter.rejectedCount());
+
+        holder.tryEmitValue("done");
+        urgent.verify(Duration.ofSeconds(1));
+        normal.verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void waiterIsRejectedAfterMaxWait() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 1, 8);
+        Sinks.One<String> holder = Sinks.one();
+
+        StepVerifier.withVirtualTime(() -> {
+                    limiter.execute(0, holder::asMono, NEVER_OVERLOADED).subscribe();
+                    return limiter.execute(1, () -> Mono.just("late"), NEVER_OVERLOADED);
+                })
+                .expectSubscription()
+                .expectNoEvent(MAX_WAIT.minusSeconds(1))
+                .thenAwait(Duration.ofSeconds(1))
+                .expectError(AdaptiveConcurrencyLimiter.LimitExceededException.class)
+                .verify(Duration.ofSeconds(1));
+
+        assertEquals(0, limiter.queuedCount());
+        assertEquals(1, limiter.inFlightCount());
+        assertEquals(1, limiter.rejectedCount());
+    }
+
+    @Test
+    void overloadDecreasesLimitOncePerEpoch() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4, 1, 4, 8);
+        Predicate<Throwable> overloaded = error -> true;
+
+        // 감소 전에 시작한 호출 세 개가 모두 과부하로 끝나도 감소는 한 번
+        List<Sinks.One<String>> calls = List.of(Sinks.one(), Sinks.one(), Sinks.one());
+        List<StepVerifier> verifiers = calls.stream()
+                .map(call -> StepVerifier.create(limiter.execute(0, call::asMono, overloaded))
+                        .expectError(IllegalStateException.class)
+                        .verifyLater())
+                .toList();
+        calls.forEach(call -> call.tryEmitError(new IllegalStateException("503")));
+        verifiers.forEach(verifier -> verifier.verify(Duration.ofSeconds(1)));
+
+        assertEquals(2.0, limiter.currentLimit());
+        assertEquals(1, limiter.decreaseCount());
+
+        // 감소 이후에 시작한 호출의 과부하는 다시 감소
+        StepVerifier.create(limiter.execute(0, () -> Mono.<String>error(new IllegalStateException("503")), overloaded))
+                .expectError(IllegalStateException.class)
+                .verify(Duration.ofSeconds(1));
+
+        assertEquals(1.0, limiter.currentLimit());
+        assertEquals(2, limiter.decreaseCount());
+        assertEquals(0, limiter.inFlightCount());
+    }
+
+    @Test
+    void waiterCancelledWhileBeingGrantedReturnsItsPermit() {
+        // 상한 1에서 시작 - 점유한 호출이 성공하면 상한이 2가 되어 대기자 둘에게 한 번에 자리를 넘김
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 4, 8);
+        Sinks.One<String> holder = Sinks.one();
+        limiter.execute(0, holder::asMono, NEVER_OVERLOADED).subscribe();
+
+        // 첫 대기자가 실행되는 동안 (두 번째 대기자에게 자리가 넘어갔지만 아직 전달되기 전) 두 번째 대기자를 취소
+        AtomicReference<Disposable> second = new AtomicReference<>();
+        StepVerifier first = StepVerifier.create(limiter.execute(1,
+                        () -> Mono.fromRunnable(() -> second.get().dispose()).thenReturn("first"), NEVER_OVERLOADED))
+                .expectNext("first")
+                .expectComplete()
+                .verifyLater();
+        second.set(limiter.execute(1, () -> Mono.just("second"), NEVER_OVERLOADED).subscribe());
+        assertEquals(2, limiter.queuedCount());
+
+        holder.tryEmitValue("done");
+        first.verify(Duration.ofSeconds(1));
+
+        assertEquals(2.0, limiter.currentLimit());
+        assertEquals(0, limiter.inFlightCount());
+        assertEquals(0, limiter.queuedCount());
+    }
+
+    @Test
+    void fixedLimiterQueuesInArrivalOrderAndRejectsWhenQueueIsFull() {
+        AdaptiveConcurrencyLimiter bulkhead = AdaptiveConcurrencyLimiter.fixed("test", 1, 1, MAX_WAIT);
+        Sinks.One<String> holder = Sinks.one();
+        bulkhead.execute(holder::asMono).subscribe();
+
+        StepVerifier queued = StepVerifier.create(bulkhead.execute(() -> Mono.just("queued")))
+                .expectNext("queued")
+                .expectComplete()
+                .verifyLater();
+        // 같은 우선순위끼리는 밀어내지 않고 새 호출을 거절
+        StepVerifier.create(bulkhead.execute(() -> Mono.just("rejected")))
+                .expectError(AdaptiveConcurrencyLimiter.LimitExceededException.class)
+                .verify(Duration.ofSeconds(1));
+        assertEquals(1, bulkhead.queuedCount());
+        assertEquals(1, bulkhead.rejectedCount());
+
+        holder.tryEmitValue("done");
+        queued.verify(Duration.ofSeconds(1));
+        assertEquals(1.0, bulkhead.currentLimit());
+        assertEquals(0, bulkhead.inFlightCount());
+    }
+
+    @Test
+    void fixedLimiterRejectsWaiterAfterMaxWaitAndKeepsItsLimitOnOverload() {
+        AdaptiveConcurrencyLimiter bulkhead = AdaptiveConcurrencyLimiter.fixed("test", 1, 8, MAX_WAIT);
+        Sinks.One<String> holder = Sinks.one();
+
+        StepVerifier.withVirtualTime(() -> {
+                    bulkhead.execute(holder::asMono).subscribe();
+                    return bulkhead.execute(() -> Mono.just("late"));
+                })
+                .expectSubscription()
+                .expectNoEvent(MAX_WAIT.minusSeconds(1))
+                .thenAwait(Duration.ofSeconds(1))
+                .expectError(AdaptiveConcurrencyLimiter.LimitExceededException.class)
+                .verify(Duration.ofSeconds(1));
+        assertEquals(0, bulkhead.queuedCount());
+        assertEquals(1, bulkhead.rejectedCount());
+
+        // 고정 상한은 과부하 오류에도 줄지 않음
+        holder.tryEmitError(new IllegalStateException("503"));
+        StepVerifier.create(bulkhead.execute(0, () -> Mono.<String>error(new IllegalStateException("503")), error -> true))
+                .expectError(IllegalStateException.class)
+                .verify(Duration.ofSeconds(1));
+        assertEquals(1.0, bulkhead.currentLimit());
+        assertEquals(0, bulkhead.inFlightCount());
+    }
+
+    @Test
+    void fixedLimiterDoesNotLeakPermitWhenWaiterIsCancelledWhileBeingGranted() throws Exception {
+        AdaptiveConcurrencyLimiter bulkhead = AdaptiveConcurrencyLimiter.fixed("test", 1, 1, MAX_WAIT);
+
+        // 점유한 호출의 완료(대기자에게 자리 넘김)와 대기자 취소를 동시에 - 어느 쪽이 먼저든 자리는 반납돼야 함
+        for (int round = 0; round < 1000; round++) {
+            Sinks.One<String> holder = Sinks.one();
+            bulkhead.execute(holder::asMono).subscribe();
+            Disposable waiter = bulkhead.execute(Mono::<String>never).subscribe();
+
+            CyclicBarrier start = new CyclicBarrier(2);
+            CompletableFuture<Void> cancel = CompletableFuture.runAsync(() -> {
+                await(start);
+                waiter.dispose();
+            });
+            await(start);
+            holder.tryEmitValue("done");
+            cancel.get(1, TimeUnit.SECONDS);
+
+            assertEquals(0, bulkhead.inFlightCount(), "round " + round);
+            assertEquals(0, bulkhead.queuedCount(), "round " + round);
+        }
+        StepVerifier.create(bulkhead.execute(() -> Mono.just("next")))
+                .expectNext("next")
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(1, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static AdaptiveConcurrencyLimiter limiter(int initialLimit, int minLimit, int maxLimit, int maxQueue) {
+        return new AdaptiveConcurrencyLimiter("test", initialLimit, minLimit, maxLimit, maxQueue,
+                MAX_WAIT, 0.5, Duration.ZERO);
+    }
+
+    private static void enqueue(AdaptiveConcurrencyLimiter limiter, List<String> order, String name, int priority) {
+        limiter.execute(priority, () -> Mono.fromRunnable(() -> order.add(name)).thenReturn(name), NEVER_OVERLOADED)
+                .subscribe();
+    }
+}
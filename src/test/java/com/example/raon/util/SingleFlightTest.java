@@ -0,0 +1,110 @@
+package com.example.raon.util;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import reactor.util.function.Tuples;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    void concurrentCallsWithSameKeyShareOneUpstreamCall() {
+        SingleFlight<String, String> flight = new SingleFlight<>("test");
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<Mono<String>> call = () -> Mono.delay(Duration.ofSeconds(5)).map(tick -> "v" + calls.incrementAndGet());
+
+        StepVerifier.withVirtualTime(() -> Mono.zip(flight.execute("k", call), flight.execute("k", call)))
+                .expectSubscription()
+                .then(() -> assertEquals(1, flight.inFlightCount()))
+                .expectNoEvent(Duration.ofSeconds(4))
+                .thenAwait(Duration.ofSeconds(1))
+                .expectNext(Tuples.of("v1", "v1"))
+                .verifyComplete();
+
+        assertEquals(1, calls.get());
+        assertEquals(1, flight.coalescedCount());
+        assertEquals(0, flight.inFlightCount());
+    }
+
+    @Test
+    void upstreamIsCancelledOnlyWhenEveryCallerCancels() {
+        SingleFlight<String, String> flight = new SingleFlight<>("test");
+        Sinks.One<String> source = Sinks.one();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Supplier<Mono<String>> call = () -> source.asMono().doOnCancel(() -> cancelled.set(true));
+
+        // 한 요청이 끊겨도 나머지 요청은 결과를 받음
+        Disposable impatient = flight.execute("k", call).subscribe();
+        StepVerifier patient = StepVerifier.create(flight.execute("k", call))
+                .expectNext("v")
+                .expectComplete()
+                .verifyLater();
+        impatient.dispose();
+        assertFalse(cancelled.get());
+
+        source.tryEmitValue("v");
+        patient.verify(Duration.ofSeconds(1));
+        assertFalse(cancelled.get());
+
+        // 합류한 구독자가 모두 취소하면 원래 호출도 취소되고 등록이 지워짐
+        Sinks.One<String> abandoned = Sinks.one();
+        AtomicBoolean abandonedCancelled = new AtomicBoolean();
+        Supplier<Mono<String>> abandonedCall = () -> abandoned.asMono().doOnCancel(() -> abandonedCancelled.set(true));
+        Disposable first = flight.execute("other", abandonedCall).subscribe();
+        Disposable second = flight.execute("other", abandonedCall).subscribe();
+        first.dispose();
+        assertFalse(abandonedCancelled.get());
+        second.dispose();
+        assertTrue(abandonedCancelled.get());
+        assertEquals(0, flight.inFlightCount());
+    }
+
+    @Test
+    void callerJoiningAfterValueBeforeCompletionReceivesSameValue() {
+        SingleFlight<String, String> flight = new SingleFlight<>("test");
+        Sinks.Many<String> source = Sinks.many().unicast().onBackpressureBuffer();
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<Mono<String>> call = () -> Mono.fromDirect(source.asFlux()).doOnSubscribe(s -> calls.incrementAndGet());
+
+        StepVerifier first = StepVerifier.create(flight.execute("k", call))
+                .expectNext("v")
+                .expectComplete()
+                .verifyLater();
+        source.tryEmitNext("v");
+        first.verify(Duration.ofSeconds(1));
+
+        // 값은 나왔지만 원래 호출이 아직 완료되지 않은 사이에 합류 - 빈 결과가 아니라 같은 값을 받음
+        assertEquals(1, flight.inFlightCount());
+        StepVerifier.create(flight.execute("k", call))
+                .expectNext("v")
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+
+        source.tryEmitComplete();
+        assertEquals(1, calls.get());
+        assertEquals(1, flight.coalescedCount());
+        assertEquals(0, flight.inFlightCount());
+    }
+
+    @Test
+    void callAfterCompletionStartsNewUpstreamCall() {
+        SingleFlight<String, String> flight = new SingleFlight<>("test");
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<Mono<String>> call = () -> Mono.fromSupplier(() -> "v" + calls.incrementAndGet());
+
+        StepVerifier.create(flight.execute("k", call)).expectNext("v1").verifyComplete();
+        StepVerifier.create(flight.execute("k", call)).expectNext("v2").verifyComplete();
+
+        assertEquals(2, calls.get());
+        assertEquals(0, flight.coalescedCount());
+    }
+}